@@ -0,0 +1,242 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cache.concurrent;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Size-bounded {@link org.springframework.cache.Cache} implementation based on
+ * the core JDK {@code java.util.concurrent} package.
+ *
+ * <p>Entries are evicted in the order of their last write once the configured
+ * maximum size is exceeded. Lookups do not incur any bookkeeping, which keeps
+ * read access lock-free; this makes the cache suitable as a small local layer
+ * in front of a remote store, e.g. within a
+ * {@link org.springframework.cache.support.TwoLevelCache}. Evicted and replaced
+ * entries are dropped from the eviction order lazily, keeping every operation
+ * constant-time on average.
+ *
+ * <p>The configured maximum size is a soft limit: under concurrent insertion,
+ * the cache may briefly exceed it before eviction catches up.
+ *
+ * @since 5.3
+ * @see ConcurrentMapCache
+ * @see org.springframework.cache.support.TwoLevelCacheManager
+ */
+public class BoundedConcurrentMapCache extends AbstractValueAdaptingCache {
+
+	private final String name;
+
+	private final int maximumSize;
+
+	private final ConcurrentMap<Object, Entry> store;
+
+	private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+
+	/** Number of evicted or replaced entries still held in the insertion order. */
+	private final AtomicInteger staleEntries = new AtomicInteger();
+
+
+	/**
+	 * Create a new BoundedConcurrentMapCache with the specified name and maximum size.
+	 * @param name the name of the cache
+	 * @param maximumSize the maximum number of entries to keep
+	 */
+	public BoundedConcurrentMapCache(String name, int maximumSize) {
+		this(name, maximumSize, true);
+	}
+
+	/**
+	 * Create a new BoundedConcurrentMapCache with the specified name and maximum size.
+	 * @param name the name of the cache
+	 * @param maximumSize the maximum number of entries to keep
+	 * @param allowNullValues whether to accept and convert {@code null}
+	 * values for this cache
+	 */
+	public BoundedConcurrentMapCache(String name, int maximumSize, boolean allowNullValues) {
+		super(allowNullValues);
+		Assert.notNull(name, "Name must not be null");
+		Assert.isTrue(maximumSize > 0, "Maximum size must be greater than 0");
+		this.name = name;
+		this.maximumSize = maximumSize;
+		this.store = new ConcurrentHashMap<>(Math.min(maximumSize, 256));
+	}
+
+
+	/**
+	 * Return the maximum number of entries that this cache keeps.
+	 */
+	public final int getMaximumSize() {
+		return this.maximumSize;
+	}
+
+	/**
+	 * Return the current number of entries in this cache.
+	 */
+	public int size() {
+		return this.store.size();
+	}
+
+	@Override
+	public final String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Return the underlying map, holding an internal entry per key.
+	 */
+	@Override
+	public final ConcurrentMap<Object, ?> getNativeCache() {
+		return this.store;
+	}
+
+	@Override
+	@Nullable
+	protected Object lookup(Object key) {
+		Entry entry = this.store.get(key);
+		return (entry != null ? entry.value : null);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		Entry entry = this.store.get(key);
+		if (entry != null) {
+			return (T) fromStoreValue(entry.value);
+		}
+		boolean[] created = new boolean[1];
+		entry = this.store.computeIfAbsent(key, k -> {
+			try {
+				created[0] = true;
+				return new Entry(k, toStoreValue(valueLoader.call()));
+			}
+			catch (Throwable ex) {
+				throw new ValueRetrievalException(key, valueLoader, ex);
+			}
+		});
+		if (created[0]) {
+			entryAdded(entry);
+		}
+		return (T) fromStoreValue(entry.value);
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		Entry entry = new Entry(key, toStoreValue(value));
+		if (this.store.put(key, entry) != null) {
+			entryRemoved();
+		}
+		entryAdded(entry);
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		Entry entry = new Entry(key, toStoreValue(value));
+		Entry existing = this.store.putIfAbsent(key, entry);
+		if (existing == null) {
+			entryAdded(entry);
+			return null;
+		}
+		return toValueWrapper(existing.value);
+	}
+
+	@Override
+	public void evict(Object key) {
+		evictIfPresent(key);
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		if (this.store.remove(key) != null) {
+			entryRemoved();
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void clear() {
+		// Insertion order first: an entry put concurrently may end up stale in the
+		// insertion order, but never in the store without being tracked for eviction.
+		this.insertionOrder.clear();
+		this.staleEntries.set(0);
+		this.store.clear();
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean notEmpty = !this.store.isEmpty();
+		clear();
+		return notEmpty;
+	}
+
+	/**
+	 * Track a newly added entry and evict the oldest entries if the
+	 * maximum size has been exceeded.
+	 */
+	private void entryAdded(Entry entry) {
+		this.insertionOrder.add(entry);
+		while (this.store.size() > this.maximumSize) {
+			Entry eldest = this.insertionOrder.poll();
+			if (eldest == null) {
+				break;
+			}
+			if (!this.store.remove(eldest.key, eldest)) {
+				// Evicted, replaced or cleared before: nothing to remove from the store
+				this.staleEntries.updateAndGet(count -> Math.max(count - 1, 0));
+			}
+		}
+	}
+
+	/**
+	 * Account for an entry removed from the store but not from the insertion
+	 * order, purging such stale entries once they outnumber the maximum size.
+	 */
+	private void entryRemoved() {
+		if (this.staleEntries.incrementAndGet() > this.maximumSize) {
+			this.staleEntries.set(0);
+			this.insertionOrder.removeIf(entry -> this.store.get(entry.key) != entry);
+		}
+	}
+
+
+	/**
+	 * Store entry, identifying its position in the insertion order.
+	 */
+	private static final class Entry {
+
+		final Object key;
+
+		final Object value;
+
+		Entry(Object key, Object value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+
+}
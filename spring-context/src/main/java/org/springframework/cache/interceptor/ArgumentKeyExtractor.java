@@ -0,0 +1,212 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cache.interceptor;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Compiled form of a simple cache key expression which refers to a method
+ * argument, optionally followed by a chain of property references: for example
+ * {@code #id}, {@code #p0}, {@code #a1.name} or {@code #root.args[0].id}.
+ *
+ * <p>Such keys are computed by projecting the argument directly, without
+ * creating an {@link org.springframework.expression.EvaluationContext} or
+ * going through SpEL evaluation. Property references are resolved once
+ * against the declared parameter type, following the same getter and public
+ * field conventions as SpEL's {@code ReflectivePropertyAccessor}.
+ *
+ * <p>If a key cannot be projected for a given invocation (e.g. because an
+ * intermediate property value is {@code null}), {@link #NOT_EXTRACTED} is
+ * returned and the caller is expected to fall back to regular evaluation,
+ * which then reports the problem in the usual way.
+ *
+ * @since 5.3
+ * @see CacheOperationExpressionEvaluator#compileKey
+ */
+final class ArgumentKeyExtractor {
+
+	/**
+	 * Indicate that the key could not be projected for the given arguments.
+	 */
+	static final Object NOT_EXTRACTED = new Object();
+
+	private static final Pattern ARGUMENT_PATTERN = Pattern.compile(
+			"#(?:root\\.args\\[(\\d+)]|[ap](\\d+)|([A-Za-z_\\$][\\w\\$]*))((?:\\.[A-Za-z_\\$][\\w\\$]*)*)");
+
+
+	private final int argumentIndex;
+
+	private final Member[] accessors;
+
+
+	private ArgumentKeyExtractor(int argumentIndex, Member[] accessors) {
+		this.argumentIndex = argumentIndex;
+		this.accessors = accessors;
+	}
+
+
+	/**
+	 * Project the key from the given method arguments.
+	 * @param args the method arguments
+	 * @return the key, or {@link #NOT_EXTRACTED} if the key needs to be
+	 * computed through regular expression evaluation
+	 */
+	@Nullable
+	Object extract(Object[] args) {
+		Object value = args[this.argumentIndex];
+		for (Member accessor : this.accessors) {
+			if (value == null) {
+				return NOT_EXTRACTED;
+			}
+			try {
+				value = (accessor instanceof Method ? ((Method) accessor).invoke(value, (Object[]) null) : ((Field) accessor).get(value));
+			}
+			catch (Exception ex) {
+				return NOT_EXTRACTED;
+			}
+		}
+		return value;
+	}
+
+
+	/**
+	 * Compile the given key expression for the given method, if possible.
+	 * @param expression the key expression
+	 * @param method the method to resolve parameter names and types against
+	 * @param parameterNameDiscoverer the discoverer to use for parameter names
+	 * @return the extractor, or {@code null} if the expression is not a simple
+	 * argument reference and therefore needs to be evaluated through SpEL
+	 */
+	@Nullable
+	static ArgumentKeyExtractor compile(
+			String expression, Method method, ParameterNameDiscoverer parameterNameDiscoverer) {
+
+		if (method.isVarArgs()) {
+			return null;
+		}
+		Matcher matcher = ARGUMENT_PATTERN.matcher(expression.trim());
+		if (!matcher.matches()) {
+			return null;
+		}
+
+		int index;
+		String indexGroup = (matcher.group(1) != null ? matcher.group(1) : matcher.group(2));
+		if (indexGroup != null) {
+			try {
+				index = Integer.parseInt(indexGroup);
+			}
+			catch (NumberFormatException ex) {
+				return null;
+			}
+		}
+		else {
+			index = findParameterIndex(matcher.group(3), method, parameterNameDiscoverer);
+		}
+		if (index < 0 || index >= method.getParameterCount()) {
+			return null;
+		}
+
+		List<Member> accessors = new ArrayList<>();
+		Class<?> type = method.getParameterTypes()[index];
+		String path = matcher.group(4);
+		if (StringUtils.hasLength(path)) {
+			for (String property : StringUtils.tokenizeToStringArray(path, ".")) {
+				Member accessor = findAccessor(ClassUtils.resolvePrimitiveIfNecessary(type), property);
+				if (accessor == null) {
+					return null;
+				}
+				accessors.add(accessor);
+				type = (accessor instanceof Method ? ((Method) accessor).getReturnType() : ((Field) accessor).getType());
+			}
+		}
+		return new ArgumentKeyExtractor(index, accessors.toArray(new Member[0]));
+	}
+
+	private static int findParameterIndex(String name, Method method, ParameterNameDiscoverer parameterNameDiscoverer) {
+		// Variables that take precedence over (or are unrelated to) parameter names
+		if ("root".equals(name) || "this".equals(name) ||
+				CacheOperationExpressionEvaluator.RESULT_VARIABLE.equals(name)) {
+			return -1;
+		}
+		String[] parameterNames = parameterNameDiscoverer.getParameterNames(method);
+		if (parameterNames == null) {
+			return -1;
+		}
+		for (int i = 0; i < parameterNames.length; i++) {
+			if (name.equals(parameterNames[i])) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Nullable
+	private static Member findAccessor(Class<?> type, String property) {
+		if (type.isArray() || type.isInterface() && type.getName().startsWith("java.")) {
+			// Leave arrays and JDK collection types to SpEL's own property handling
+			return null;
+		}
+		String suffix = StringUtils.capitalize(property);
+		Method getter = findGetter(type, "get" + suffix);
+		if (getter == null) {
+			getter = findGetter(type, "is" + suffix);
+			if (getter != null && getter.getReturnType() != boolean.class && getter.getReturnType() != Boolean.class) {
+				getter = null;
+			}
+		}
+		if (getter != null) {
+			Method methodToUse = ClassUtils.getInterfaceMethodIfPossible(getter);
+			ReflectionUtils.makeAccessible(methodToUse);
+			return methodToUse;
+		}
+		try {
+			Field field = type.getField(property);
+			if (Modifier.isStatic(field.getModifiers())) {
+				return null;
+			}
+			ReflectionUtils.makeAccessible(field);
+			return field;
+		}
+		catch (NoSuchFieldException ex) {
+			return null;
+		}
+	}
+
+	@Nullable
+	private static Method findGetter(Class<?> type, String methodName) {
+		try {
+			Method method = type.getMethod(methodName);
+			return (method.getReturnType() != void.class ? method : null);
+		}
+		catch (NoSuchMethodException ex) {
+			return null;
+		}
+	}
+
+}
@@ -302,6 +302,9 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 			metadata = new CacheOperationMetadata(operation, method, targetClass,
 					operationKeyGenerator, operationCacheResolver);
+			if (StringUtils.hasText(operation.getKey())) {
+				metadata.keyExtractor = this.evaluator.compileKey(operation.getKey(), metadata.targetMethod);
+			}
 			this.metadataCache.put(cacheKey, metadata);
 		}
 		return metadata;
@@ -668,6 +671,9 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final CacheResolver cacheResolver;
 
+		@Nullable
+		private ArgumentKeyExtractor keyExtractor;
+
 		public CacheOperationMetadata(CacheOperation operation, Method method, Class<?> targetClass,
 				KeyGenerator keyGenerator, CacheResolver cacheResolver) {
 
@@ -775,6 +781,12 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		@Nullable
 		protected Object generateKey(@Nullable Object result) {
 			if (StringUtils.hasText(this.metadata.operation.getKey())) {
+				if (this.metadata.keyExtractor != null) {
+					Object key = this.metadata.keyExtractor.extract(this.args);
+					if (key != ArgumentKeyExtractor.NOT_EXTRACTED) {
+						return key;
+					}
+				}
 				EvaluationContext evaluationContext = createEvaluationContext(result);
 				return evaluator.key(this.metadata.operation.getKey(), this.metadata.methodKey, evaluationContext);
 			}
@@ -23,11 +23,15 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.cache.Cache;
+import org.springframework.core.SpringProperties;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.context.expression.BeanFactoryResolver;
 import org.springframework.context.expression.CachedExpressionEvaluator;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.lang.Nullable;
 
 /**
@@ -35,7 +39,10 @@ import org.springframework.lang.Nullable;
  * Meant to be used as a reusable, thread-safe component.
  *
  * <p>Performs internal caching for performance reasons
- * using {@link AnnotatedElementKey}.
+ * using {@link AnnotatedElementKey}. Expressions are compiled in
+ * {@link SpelCompilerMode#MIXED mixed} mode unless a compiler mode
+ * has been configured explicitly through the
+ * {@code spring.expression.compiler.mode} property.
  *
  * @author Costin Leau
  * @author Phillip Webb
@@ -60,6 +67,8 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 	 */
 	public static final String RESULT_VARIABLE = "result";
 
+	private static final String COMPILER_MODE_PROPERTY_NAME = "spring.expression.compiler.mode";
+
 
 	private final Map<ExpressionKey, Expression> keyCache = new ConcurrentHashMap<>(64);
 
@@ -68,6 +77,12 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 	private final Map<ExpressionKey, Expression> unlessCache = new ConcurrentHashMap<>(64);
 
 
+	CacheOperationExpressionEvaluator() {
+		super(new SpelExpressionParser(new SpelParserConfiguration(
+				SpringProperties.getProperty(COMPILER_MODE_PROPERTY_NAME) != null ? null : SpelCompilerMode.MIXED,
+				CacheOperationExpressionEvaluator.class.getClassLoader())));
+	}
+
 	/**
 	 * Create an {@link EvaluationContext}.
 	 * @param caches the current caches
@@ -99,6 +114,20 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 		return evaluationContext;
 	}
 
+	/**
+	 * Compile the specified key expression into an {@link ArgumentKeyExtractor},
+	 * provided that it is a simple reference to a method argument.
+	 * @param keyExpression the key expression
+	 * @param targetMethod the target method
+	 * @return the extractor, or {@code null} if the key expression needs
+	 * to be evaluated through {@link #key}
+	 * @since 5.3
+	 */
+	@Nullable
+	public ArgumentKeyExtractor compileKey(String keyExpression, Method targetMethod) {
+		return ArgumentKeyExtractor.compile(keyExpression, targetMethod, getParameterNameDiscoverer());
+	}
+
 	@Nullable
 	public Object key(String keyExpression, AnnotatedElementKey methodKey, EvaluationContext evalContext) {
 		return getExpression(this.keyCache, methodKey, keyExpression).getValue(evalContext);
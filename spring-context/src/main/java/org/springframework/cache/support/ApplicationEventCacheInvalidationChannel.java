@@ -0,0 +1,94 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cache.support;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link CacheInvalidationChannel} implementation that publishes invalidations
+ * as {@link CacheInvalidationEvent CacheInvalidationEvents} through the
+ * {@link ApplicationEventPublisher} of the containing application context.
+ *
+ * <p>Events published by this channel instance are ignored when received back,
+ * while events from any other channel (e.g. bridged from a remote application
+ * instance by an event relay) are dispatched to the registered listeners.
+ *
+ * <p>Needs to be defined as a bean in order to be detected as an
+ * {@link ApplicationListener} and to receive the {@link ApplicationEventPublisher}.
+ *
+ * @since 5.3
+ * @see TwoLevelCacheManager#setInvalidationChannel
+ */
+public class ApplicationEventCacheInvalidationChannel
+		implements CacheInvalidationChannel, ApplicationEventPublisherAware, ApplicationListener<CacheInvalidationEvent> {
+
+	private final List<CacheInvalidationListener> listeners = new CopyOnWriteArrayList<>();
+
+	@Nullable
+	private ApplicationEventPublisher applicationEventPublisher;
+
+
+	/**
+	 * Create a new ApplicationEventCacheInvalidationChannel, with the
+	 * {@link ApplicationEventPublisher} to be injected by the container.
+	 */
+	public ApplicationEventCacheInvalidationChannel() {
+	}
+
+	/**
+	 * Create a new ApplicationEventCacheInvalidationChannel for the given publisher.
+	 * @param applicationEventPublisher the publisher to send invalidations through
+	 */
+	public ApplicationEventCacheInvalidationChannel(ApplicationEventPublisher applicationEventPublisher) {
+		this.applicationEventPublisher = applicationEventPublisher;
+	}
+
+
+	@Override
+	public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+		this.applicationEventPublisher = applicationEventPublisher;
+	}
+
+	@Override
+	public void publishInvalidation(String cacheName, @Nullable Object key) {
+		Assert.state(this.applicationEventPublisher != null, "No ApplicationEventPublisher set");
+		this.applicationEventPublisher.publishEvent(new CacheInvalidationEvent(this, cacheName, key));
+	}
+
+	@Override
+	public void addListener(CacheInvalidationListener listener) {
+		Assert.notNull(listener, "CacheInvalidationListener must not be null");
+		this.listeners.add(listener);
+	}
+
+	@Override
+	public void onApplicationEvent(CacheInvalidationEvent event) {
+		if (event.getSource() == this) {
+			return;
+		}
+		for (CacheInvalidationListener listener : this.listeners) {
+			listener.onInvalidation(event.getCacheName(), event.getKey());
+		}
+	}
+
+}
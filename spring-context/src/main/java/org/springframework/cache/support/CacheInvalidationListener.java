@@ -0,0 +1,38 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cache.support;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Callback interface for receiving invalidation notifications from a
+ * {@link CacheInvalidationChannel}.
+ *
+ * @since 5.3
+ * @see CacheInvalidationChannel#addListener
+ */
+@FunctionalInterface
+public interface CacheInvalidationListener {
+
+	/**
+	 * Handle an invalidation for the given cache.
+	 * @param cacheName the name of the affected cache
+	 * @param key the key to invalidate, or {@code null} if the entire
+	 * cache has been cleared
+	 */
+	void onInvalidation(String cacheName, @Nullable Object key);
+
+}
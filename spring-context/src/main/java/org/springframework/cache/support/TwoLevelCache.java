@@ -0,0 +1,269 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cache.support;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.cache.Cache;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link Cache} decorator which layers a local cache (L1) in front of a
+ * typically remote target cache (L2).
+ *
+ * <p>Lookups are served from the local cache if possible and read through to
+ * the remote cache otherwise, populating the local cache with the result unless
+ * the entry has been modified or invalidated during the remote lookup, so that
+ * a concurrent update is never overwritten with a stale value.
+ * Modifications are written through to the remote cache first and then
+ * applied to the local cache, with an invalidation being published through
+ * the configured {@link CacheInvalidationChannel} (if any) so that the local
+ * caches of other application instances drop their now stale entries.
+ *
+ * <p>The local cache is expected to be bounded (e.g. a
+ * {@link org.springframework.cache.concurrent.BoundedConcurrentMapCache})
+ * and to accept {@code null} values, mirroring whatever the remote cache holds.
+ * Note that expiration of entries in the remote cache is not propagated to
+ * the local cache.
+ *
+ * @since 5.3
+ * @see TwoLevelCacheManager
+ */
+public class TwoLevelCache implements Cache {
+
+	private static final int STAMP_STRIPES = 64;
+
+	// Last stripe counts local cache clears
+	private static final int CLEAR_STAMP = STAMP_STRIPES;
+
+
+	private final Cache localCache;
+
+	private final Cache remoteCache;
+
+	@Nullable
+	private final CacheInvalidationChannel invalidationChannel;
+
+	/** Modification stamps per key stripe, bumped before each local cache update. */
+	private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES + 1);
+
+
+	/**
+	 * Create a new TwoLevelCache for the given local and remote caches,
+	 * without propagation of invalidations.
+	 * @param localCache the local cache to serve lookups from
+	 * @param remoteCache the remote cache to read and write through to
+	 */
+	public TwoLevelCache(Cache localCache, Cache remoteCache) {
+		this(localCache, remoteCache, null);
+	}
+
+	/**
+	 * Create a new TwoLevelCache for the given local and remote caches.
+	 * @param localCache the local cache to serve lookups from
+	 * @param remoteCache the remote cache to read and write through to
+	 * @param invalidationChannel the channel to publish invalidations to
+	 * (may be {@code null} for none)
+	 */
+	public TwoLevelCache(Cache localCache, Cache remoteCache,
+			@Nullable CacheInvalidationChannel invalidationChannel) {
+
+		Assert.notNull(localCache, "Local Cache must not be null");
+		Assert.notNull(remoteCache, "Remote Cache must not be null");
+		this.localCache = localCache;
+		this.remoteCache = remoteCache;
+		this.invalidationChannel = invalidationChannel;
+	}
+
+
+	/**
+	 * Return the local cache that lookups are served from.
+	 */
+	public Cache getLocalCache() {
+		return this.localCache;
+	}
+
+	/**
+	 * Return the remote cache that this cache reads and writes through to.
+	 */
+	public Cache getRemoteCache() {
+		return this.remoteCache;
+	}
+
+	@Override
+	public String getName() {
+		return this.remoteCache.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.remoteCache.getNativeCache();
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper get(Object key) {
+		ValueWrapper wrapper = this.localCache.get(key);
+		if (wrapper == null) {
+			long stamp = readStamp(key);
+			wrapper = this.remoteCache.get(key);
+			if (wrapper != null) {
+				populateLocal(key, wrapper.get(), stamp);
+			}
+		}
+		return wrapper;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, @Nullable Class<T> type) {
+		ValueWrapper wrapper = get(key);
+		Object value = (wrapper != null ? wrapper.get() : null);
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException(
+					"Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		ValueWrapper wrapper = this.localCache.get(key);
+		if (wrapper != null) {
+			return (T) wrapper.get();
+		}
+		long stamp = readStamp(key);
+		T value = this.remoteCache.get(key, valueLoader);
+		populateLocal(key, value, stamp);
+		return value;
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		this.remoteCache.put(key, value);
+		bumpStamp(key);
+		this.localCache.put(key, value);
+		publishInvalidation(key);
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		long stamp = readStamp(key);
+		ValueWrapper existingValue = this.remoteCache.putIfAbsent(key, value);
+		if (existingValue == null) {
+			bumpStamp(key);
+			this.localCache.put(key, value);
+			publishInvalidation(key);
+		}
+		else {
+			populateLocal(key, existingValue.get(), stamp);
+		}
+		return existingValue;
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.remoteCache.evict(key);
+		bumpStamp(key);
+		this.localCache.evict(key);
+		publishInvalidation(key);
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		boolean evicted = this.remoteCache.evictIfPresent(key);
+		bumpStamp(key);
+		this.localCache.evict(key);
+		publishInvalidation(key);
+		return evicted;
+	}
+
+	@Override
+	public void clear() {
+		this.remoteCache.clear();
+		this.stamps.incrementAndGet(CLEAR_STAMP);
+		this.localCache.clear();
+		publishInvalidation(null);
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean invalidated = this.remoteCache.invalidate();
+		this.stamps.incrementAndGet(CLEAR_STAMP);
+		this.localCache.invalidate();
+		publishInvalidation(null);
+		return invalidated;
+	}
+
+	/**
+	 * Drop the given entry from the local cache only, e.g. in response to
+	 * an invalidation received from another application instance.
+	 * @param key the key to invalidate, or {@code null} to clear the
+	 * entire local cache
+	 */
+	public void invalidateLocal(@Nullable Object key) {
+		if (key != null) {
+			bumpStamp(key);
+			this.localCache.evict(key);
+		}
+		else {
+			this.stamps.incrementAndGet(CLEAR_STAMP);
+			this.localCache.clear();
+		}
+	}
+
+	/**
+	 * Populate the local cache with a value read from the remote cache,
+	 * unless present already, dropping it again if the entry has been
+	 * modified or invalidated since the given stamp has been taken.
+	 */
+	private void populateLocal(Object key, @Nullable Object value, long stamp) {
+		this.localCache.putIfAbsent(key, value);
+		if (readStamp(key) != stamp) {
+			this.localCache.evict(key);
+		}
+	}
+
+	/**
+	 * Return the combined modification stamp of the stripe of the given key
+	 * and of local cache clears.
+	 */
+	private long readStamp(Object key) {
+		return this.stamps.get(stripe(key)) + this.stamps.get(CLEAR_STAMP);
+	}
+
+	private void bumpStamp(Object key) {
+		this.stamps.incrementAndGet(stripe(key));
+	}
+
+	private static int stripe(Object key) {
+		int hash = key.hashCode();
+		return (hash ^ (hash >>> 16)) & (STAMP_STRIPES - 1);
+	}
+
+	private void publishInvalidation(@Nullable Object key) {
+		if (this.invalidationChannel != null) {
+			this.invalidationChannel.publishInvalidation(getName(), key);
+		}
+	}
+
+}
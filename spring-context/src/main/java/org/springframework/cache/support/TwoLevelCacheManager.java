@@ -0,0 +1,180 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cache.support;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.BoundedConcurrentMapCache;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link CacheManager} that layers a local cache in front of each cache of a
+ * target (typically remote) {@link CacheManager}, exposing {@link TwoLevelCache}
+ * instances.
+ *
+ * <p>By default, each local cache is a {@link BoundedConcurrentMapCache} holding
+ * up to {@link #setLocalCacheSize 1000} entries. Alternatively, a custom
+ * {@link #setLocalCacheManager local CacheManager} may be specified, e.g. a
+ * Caffeine-based manager with a size and expiration policy of its own.
+ *
+ * <p>If a {@link #setInvalidationChannel CacheInvalidationChannel} is configured,
+ * updates and evictions are published through it, and invalidations received
+ * from other application instances are applied to the local caches managed here.
+ *
+ * @since 5.3
+ * @see TwoLevelCache
+ * @see ApplicationEventCacheInvalidationChannel
+ */
+public class TwoLevelCacheManager extends AbstractCacheManager {
+
+	/** Default maximum number of entries per local cache. */
+	public static final int DEFAULT_LOCAL_CACHE_SIZE = 1000;
+
+
+	@Nullable
+	private CacheManager remoteCacheManager;
+
+	@Nullable
+	private CacheManager localCacheManager;
+
+	private int localCacheSize = DEFAULT_LOCAL_CACHE_SIZE;
+
+	@Nullable
+	private CacheInvalidationChannel invalidationChannel;
+
+
+	/**
+	 * Create a new TwoLevelCacheManager, setting the remote CacheManager
+	 * through the {@link #setRemoteCacheManager} bean property.
+	 */
+	public TwoLevelCacheManager() {
+	}
+
+	/**
+	 * Create a new TwoLevelCacheManager for the given remote CacheManager.
+	 * @param remoteCacheManager the CacheManager providing the remote caches
+	 */
+	public TwoLevelCacheManager(CacheManager remoteCacheManager) {
+		Assert.notNull(remoteCacheManager, "Remote CacheManager must not be null");
+		this.remoteCacheManager = remoteCacheManager;
+	}
+
+
+	/**
+	 * Set the CacheManager providing the remote caches to read and write through to.
+	 */
+	public void setRemoteCacheManager(CacheManager remoteCacheManager) {
+		this.remoteCacheManager = remoteCacheManager;
+	}
+
+	/**
+	 * Set a CacheManager providing the local caches, overriding the default
+	 * {@link BoundedConcurrentMapCache} per cache name.
+	 * <p>The given CacheManager needs to create local caches on demand and
+	 * should bound their size. If it does not return a cache for a given name,
+	 * the corresponding remote cache is exposed as-is, without a local layer.
+	 */
+	public void setLocalCacheManager(CacheManager localCacheManager) {
+		this.localCacheManager = localCacheManager;
+	}
+
+	/**
+	 * Set the maximum number of entries per default local cache.
+	 * Default is {@value #DEFAULT_LOCAL_CACHE_SIZE}.
+	 * <p>Not applicable if a custom {@link #setLocalCacheManager local CacheManager}
+	 * has been specified.
+	 */
+	public void setLocalCacheSize(int localCacheSize) {
+		Assert.isTrue(localCacheSize > 0, "Local cache size must be greater than 0");
+		this.localCacheSize = localCacheSize;
+	}
+
+	/**
+	 * Set the channel to publish invalidations to and receive invalidations from.
+	 * <p>Without a channel, local caches are only kept consistent with the remote
+	 * caches for modifications made through this application instance.
+	 */
+	public void setInvalidationChannel(CacheInvalidationChannel invalidationChannel) {
+		this.invalidationChannel = invalidationChannel;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (this.remoteCacheManager == null) {
+			throw new IllegalArgumentException("Property 'remoteCacheManager' is required");
+		}
+		if (this.invalidationChannel != null) {
+			this.invalidationChannel.addListener(this::invalidateLocal);
+		}
+		super.afterPropertiesSet();
+	}
+
+
+	@Override
+	protected Collection<? extends Cache> loadCaches() {
+		Assert.state(this.remoteCacheManager != null, "No remote CacheManager set");
+		Collection<String> cacheNames = this.remoteCacheManager.getCacheNames();
+		Set<Cache> caches = new LinkedHashSet<>(cacheNames.size());
+		for (String name : cacheNames) {
+			Cache cache = createCache(name);
+			if (cache != null) {
+				caches.add(cache);
+			}
+		}
+		return caches;
+	}
+
+	@Override
+	@Nullable
+	protected Cache getMissingCache(String name) {
+		return createCache(name);
+	}
+
+	/**
+	 * Build a {@link TwoLevelCache} for the specified cache name.
+	 * @param name the name of the cache
+	 * @return the two-level cache, the plain remote cache if no local cache
+	 * is available, or {@code null} if the remote CacheManager is unaware
+	 * of the specified cache name
+	 */
+	@Nullable
+	protected Cache createCache(String name) {
+		Assert.state(this.remoteCacheManager != null, "No remote CacheManager set");
+		Cache remoteCache = this.remoteCacheManager.getCache(name);
+		if (remoteCache == null) {
+			return null;
+		}
+		Cache localCache = (this.localCacheManager != null ? this.localCacheManager.getCache(name) :
+				new BoundedConcurrentMapCache(name, this.localCacheSize));
+		if (localCache == null) {
+			return remoteCache;
+		}
+		return new TwoLevelCache(localCache, remoteCache, this.invalidationChannel);
+	}
+
+	private void invalidateLocal(String cacheName, @Nullable Object key) {
+		Cache cache = lookupCache(cacheName);
+		if (cache instanceof TwoLevelCache) {
+			((TwoLevelCache) cache).invalidateLocal(key);
+		}
+	}
+
+}
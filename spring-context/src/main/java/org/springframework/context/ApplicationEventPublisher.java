@@ -16,6 +16,8 @@
 
 package org.springframework.context;
 
+import java.util.Collection;
+
 /**
  * Interface that encapsulates event publication functionality.
  *
@@ -68,4 +70,23 @@ public interface ApplicationEventPublisher {
 	 */
 	void publishEvent(Object event);
 
+	/**
+	 * Notify all <strong>matching</strong> listeners registered with this
+	 * application of a batch of events, in the given order.
+	 * <p>Each element is treated like an argument to {@link #publishEvent(Object)}.
+	 * Implementations may resolve matching listeners once per event type for
+	 * the whole batch, and listeners supporting batch delivery may receive
+	 * all of their events in a single invocation.
+	 * <p>The default implementation publishes each event individually.
+	 * @param events the events to publish
+	 * @since 5.3
+	 * @see #publishEvent(Object)
+	 * @see org.springframework.context.event.SmartApplicationListener#supportsBatchDelivery()
+	 */
+	default void publishEvents(Collection<?> events) {
+		for (Object event : events) {
+			publishEvent(event);
+		}
+	}
+
 }
@@ -16,9 +16,12 @@
 
 package org.springframework.context;
 
+import java.util.Map;
+
 import org.springframework.core.ResolvableType;
 import org.springframework.core.ResolvableTypeProvider;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
  * An {@link ApplicationEvent} that carries an arbitrary payload.
@@ -32,6 +35,8 @@ import org.springframework.util.Assert;
 @SuppressWarnings("serial")
 public class PayloadApplicationEvent<T> extends ApplicationEvent implements ResolvableTypeProvider {
 
+	private static final Map<Class<?>, ResolvableType> eventTypeCache = new ConcurrentReferenceHashMap<>();
+
 	private final T payload;
 
 
@@ -49,7 +54,13 @@ public class PayloadApplicationEvent<T> extends ApplicationEvent implements Reso
 
 	@Override
 	public ResolvableType getResolvableType() {
-		return ResolvableType.forClassWithGenerics(getClass(), ResolvableType.forInstance(getPayload()));
+		Object payload = getPayload();
+		if (getClass() != PayloadApplicationEvent.class || payload instanceof ResolvableTypeProvider) {
+			return ResolvableType.forClassWithGenerics(getClass(), ResolvableType.forInstance(payload));
+		}
+		// Common case: plain payload event type, resolved once per payload class
+		return eventTypeCache.computeIfAbsent(payload.getClass(),
+				payloadClass -> ResolvableType.forClassWithGenerics(PayloadApplicationEvent.class, payloadClass));
 	}
 
 	/**
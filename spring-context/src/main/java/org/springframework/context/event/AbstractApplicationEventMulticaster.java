@@ -18,6 +18,7 @@ package org.springframework.context.event;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -63,9 +64,9 @@ import org.springframework.util.ObjectUtils;
 public abstract class AbstractApplicationEventMulticaster
 		implements ApplicationEventMulticaster, BeanClassLoaderAware, BeanFactoryAware {
 
-	private final ListenerRetriever defaultRetriever = new ListenerRetriever(false);
+	private final DefaultListenerRetriever defaultRetriever = new DefaultListenerRetriever();
 
-	final Map<ListenerCacheKey, ListenerRetriever> retrieverCache = new ConcurrentHashMap<>(64);
+	final Map<ListenerCacheKey, CachedListenerRetriever> retrieverCache = new ConcurrentHashMap<>(64);
 
 	@Nullable
 	private ClassLoader beanClassLoader;
@@ -102,53 +103,172 @@ public abstract class AbstractApplicationEventMulticaster
 	}
 
 
+	// Listener registration: copy-on-write under the retrieval mutex, with
+	// cached retrievers being updated in place for individual listener instances.
+
 	@Override
 	public void addApplicationListener(ApplicationListener<?> listener) {
 		synchronized (this.retrievalMutex) {
 			// Explicitly remove target for a proxy, if registered already,
 			// in order to avoid double invocations of the same listener.
+			Set<ApplicationListener<?>> listeners = new LinkedHashSet<>(this.defaultRetriever.applicationListeners);
 			Object singletonTarget = AopProxyUtils.getSingletonTarget(listener);
-			if (singletonTarget instanceof ApplicationListener) {
-				this.defaultRetriever.applicationListeners.remove(singletonTarget);
+			if (singletonTarget instanceof ApplicationListener && listeners.remove(singletonTarget)) {
+				removeFromRetrieverCache((ApplicationListener<?>) singletonTarget);
+			}
+			if (listeners.add(listener)) {
+				this.defaultRetriever.applicationListeners = listeners;
+				addToRetrieverCache(listener);
+			}
+			else {
+				this.defaultRetriever.applicationListeners = listeners;
 			}
-			this.defaultRetriever.applicationListeners.add(listener);
-			this.retrieverCache.clear();
 		}
 	}
 
 	@Override
 	public void addApplicationListenerBean(String listenerBeanName) {
 		synchronized (this.retrievalMutex) {
-			this.defaultRetriever.applicationListenerBeans.add(listenerBeanName);
-			this.retrieverCache.clear();
+			Set<String> listenerBeans = new LinkedHashSet<>(this.defaultRetriever.applicationListenerBeans);
+			if (listenerBeans.add(listenerBeanName)) {
+				this.defaultRetriever.applicationListenerBeans = listenerBeans;
+				this.retrieverCache.clear();
+			}
 		}
 	}
 
 	@Override
 	public void removeApplicationListener(ApplicationListener<?> listener) {
 		synchronized (this.retrievalMutex) {
-			this.defaultRetriever.applicationListeners.remove(listener);
-			this.retrieverCache.clear();
+			Set<ApplicationListener<?>> listeners = new LinkedHashSet<>(this.defaultRetriever.applicationListeners);
+			if (listeners.remove(listener)) {
+				this.defaultRetriever.applicationListeners = listeners;
+				removeFromRetrieverCache(listener);
+			}
 		}
 	}
 
 	@Override
 	public void removeApplicationListenerBean(String listenerBeanName) {
 		synchronized (this.retrievalMutex) {
-			this.defaultRetriever.applicationListenerBeans.remove(listenerBeanName);
-			this.retrieverCache.clear();
+			Set<String> listenerBeans = new LinkedHashSet<>(this.defaultRetriever.applicationListenerBeans);
+			if (listenerBeans.remove(listenerBeanName)) {
+				this.defaultRetriever.applicationListenerBeans = listenerBeans;
+				removeBeanFromRetrieverCache(listenerBeanName);
+			}
 		}
 	}
 
 	@Override
 	public void removeAllListeners() {
 		synchronized (this.retrievalMutex) {
-			this.defaultRetriever.applicationListeners.clear();
-			this.defaultRetriever.applicationListenerBeans.clear();
+			this.defaultRetriever.applicationListeners = Collections.emptySet();
+			this.defaultRetriever.applicationListenerBeans = Collections.emptySet();
 			this.retrieverCache.clear();
 		}
 	}
 
+	/**
+	 * Add the given newly registered listener to all cached retrievers for
+	 * event and source types that it supports. Must be called within the
+	 * retrieval mutex, after the default retriever has been updated.
+	 */
+	private void addToRetrieverCache(ApplicationListener<?> listener) {
+		if (isListenerBeanSingleton(listener)) {
+			// Bean definition metadata may rule out the listener: full re-retrieval
+			this.retrieverCache.clear();
+			return;
+		}
+		this.retrieverCache.forEach((cacheKey, retriever) -> {
+			if (supportsEvent(listener, cacheKey.eventType, cacheKey.sourceType)) {
+				List<ApplicationListener<?>> listeners = retriever.applicationListeners;
+				if (listeners == null) {
+					this.retrieverCache.remove(cacheKey, retriever);
+				}
+				else if (!listeners.contains(listener)) {
+					List<ApplicationListener<?>> newListeners = new ArrayList<>(listeners.size() + 1);
+					newListeners.addAll(listeners);
+					newListeners.add(listener);
+					AnnotationAwareOrderComparator.sort(newListeners);
+					this.retrieverCache.replace(cacheKey, retriever,
+							new CachedListenerRetriever(newListeners, retriever.applicationListenerBeans));
+				}
+			}
+		});
+	}
+
+	/**
+	 * Remove the given deregistered listener from all cached retrievers.
+	 * Must be called within the retrieval mutex, after the default retriever
+	 * has been updated.
+	 */
+	private void removeFromRetrieverCache(ApplicationListener<?> listener) {
+		if (isListenerBeanSingleton(listener)) {
+			// Still reachable through its bean name: full re-retrieval
+			this.retrieverCache.clear();
+			return;
+		}
+		this.retrieverCache.forEach((cacheKey, retriever) -> {
+			List<ApplicationListener<?>> listeners = retriever.applicationListeners;
+			if (listeners == null) {
+				this.retrieverCache.remove(cacheKey, retriever);
+			}
+			else if (listeners.contains(listener)) {
+				List<ApplicationListener<?>> newListeners = new ArrayList<>(listeners);
+				newListeners.remove(listener);
+				this.retrieverCache.replace(cacheKey, retriever,
+						new CachedListenerRetriever(newListeners, retriever.applicationListenerBeans));
+			}
+		});
+	}
+
+	/**
+	 * Remove the given deregistered listener bean from all cached retrievers.
+	 * Must be called within the retrieval mutex, after the default retriever
+	 * has been updated.
+	 */
+	private void removeBeanFromRetrieverCache(String listenerBeanName) {
+		Object singleton = (this.beanFactory != null ? this.beanFactory.getSingleton(listenerBeanName) : null);
+		boolean removeSingleton = (singleton != null &&
+				!this.defaultRetriever.applicationListeners.contains(singleton));
+		this.retrieverCache.forEach((cacheKey, retriever) -> {
+			List<ApplicationListener<?>> listeners = retriever.applicationListeners;
+			Set<String> listenerBeans = retriever.applicationListenerBeans;
+			if (listeners == null || listenerBeans == null) {
+				this.retrieverCache.remove(cacheKey, retriever);
+			}
+			else if (listenerBeans.contains(listenerBeanName) ||
+					(removeSingleton && listeners.contains(singleton))) {
+				List<ApplicationListener<?>> newListeners = new ArrayList<>(listeners);
+				if (removeSingleton) {
+					newListeners.remove(singleton);
+				}
+				Set<String> newListenerBeans = new LinkedHashSet<>(listenerBeans);
+				newListenerBeans.remove(listenerBeanName);
+				this.retrieverCache.replace(cacheKey, retriever,
+						new CachedListenerRetriever(newListeners, newListenerBeans));
+			}
+		});
+	}
+
+	/**
+	 * Determine whether the given listener instance is the singleton of a
+	 * registered listener bean, i.e. potentially subject to further filtering
+	 * through its bean definition.
+	 */
+	private boolean isListenerBeanSingleton(ApplicationListener<?> listener) {
+		Set<String> listenerBeans = this.defaultRetriever.applicationListenerBeans;
+		if (listenerBeans.isEmpty() || this.beanFactory == null) {
+			return false;
+		}
+		for (String listenerBeanName : listenerBeans) {
+			if (this.beanFactory.getSingleton(listenerBeanName) == listener) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 
 	/**
 	 * Return a Collection containing all ApplicationListeners.
@@ -156,14 +276,13 @@ public abstract class AbstractApplicationEventMulticaster
 	 * @see org.springframework.context.ApplicationListener
 	 */
 	protected Collection<ApplicationListener<?>> getApplicationListeners() {
-		synchronized (this.retrievalMutex) {
-			return this.defaultRetriever.getApplicationListeners();
-		}
+		return this.defaultRetriever.getApplicationListeners();
 	}
 
 	/**
 	 * Return a Collection of ApplicationListeners matching the given
 	 * event type. Non-matching listeners get excluded early.
+	 * <p>The returned Collection may be shared and must not be modified.
 	 * @param event the event to be propagated. Allows for excluding
 	 * non-matching listeners early, based on cached matching information.
 	 * @param eventType the event type
@@ -177,58 +296,60 @@ public abstract class AbstractApplicationEventMulticaster
 		Class<?> sourceType = (source != null ? source.getClass() : null);
 		ListenerCacheKey cacheKey = new ListenerCacheKey(eventType, sourceType);
 
-		// Quick check for existing entry on ConcurrentHashMap...
-		ListenerRetriever retriever = this.retrieverCache.get(cacheKey);
-		if (retriever != null) {
-			return retriever.getApplicationListeners();
-		}
-
-		if (this.beanClassLoader == null ||
-				(ClassUtils.isCacheSafe(event.getClass(), this.beanClassLoader) &&
-						(sourceType == null || ClassUtils.isCacheSafe(sourceType, this.beanClassLoader)))) {
-			// Fully synchronized building and caching of a ListenerRetriever
-			synchronized (this.retrievalMutex) {
-				retriever = this.retrieverCache.get(cacheKey);
-				if (retriever != null) {
-					return retriever.getApplicationListeners();
+		// Potential new retriever to populate
+		CachedListenerRetriever newRetriever = null;
+
+		// Quick check for existing entry on ConcurrentHashMap
+		CachedListenerRetriever existingRetriever = this.retrieverCache.get(cacheKey);
+		if (existingRetriever == null) {
+			// Caching a new ListenerRetriever if possible
+			if (this.beanClassLoader == null ||
+					(ClassUtils.isCacheSafe(event.getClass(), this.beanClassLoader) &&
+							(sourceType == null || ClassUtils.isCacheSafe(sourceType, this.beanClassLoader)))) {
+				newRetriever = new CachedListenerRetriever();
+				existingRetriever = this.retrieverCache.putIfAbsent(cacheKey, newRetriever);
+				if (existingRetriever != null) {
+					newRetriever = null;  // no need to populate it in retrieveApplicationListeners
 				}
-				retriever = new ListenerRetriever(true);
-				Collection<ApplicationListener<?>> listeners =
-						retrieveApplicationListeners(eventType, sourceType, retriever);
-				this.retrieverCache.put(cacheKey, retriever);
-				return listeners;
 			}
 		}
-		else {
-			// No ListenerRetriever caching -> no synchronization necessary
-			return retrieveApplicationListeners(eventType, sourceType, null);
+
+		if (existingRetriever != null) {
+			Collection<ApplicationListener<?>> result = existingRetriever.getApplicationListeners();
+			if (result != null) {
+				return result;
+			}
+			// If result is null, the existing retriever is not fully populated yet by another thread.
+			// Proceed like caching wasn't possible for this current local attempt.
 		}
+
+		return retrieveApplicationListeners(eventType, sourceType, newRetriever);
 	}
 
 	/**
 	 * Actually retrieve the application listeners for the given event and source type.
 	 * @param eventType the event type
 	 * @param sourceType the event source type
-	 * @param retriever the ListenerRetriever, if supposed to populate one (for caching purposes)
+	 * @param retriever the CachedListenerRetriever, if supposed to populate one (for caching purposes)
 	 * @return the pre-filtered list of application listeners for the given event and source type
 	 */
 	private Collection<ApplicationListener<?>> retrieveApplicationListeners(
-			ResolvableType eventType, @Nullable Class<?> sourceType, @Nullable ListenerRetriever retriever) {
+			ResolvableType eventType, @Nullable Class<?> sourceType, @Nullable CachedListenerRetriever retriever) {
 
 		List<ApplicationListener<?>> allListeners = new ArrayList<>();
-		Set<ApplicationListener<?>> listeners;
-		Set<String> listenerBeans;
-		synchronized (this.retrievalMutex) {
-			listeners = new LinkedHashSet<>(this.defaultRetriever.applicationListeners);
-			listenerBeans = new LinkedHashSet<>(this.defaultRetriever.applicationListenerBeans);
-		}
+		Set<ApplicationListener<?>> filteredListeners = (retriever != null ? new LinkedHashSet<>() : null);
+		Set<String> filteredListenerBeans = (retriever != null ? new LinkedHashSet<>() : null);
+
+		// Consistent snapshot of the current registrations, without locking
+		Set<ApplicationListener<?>> listeners = this.defaultRetriever.applicationListeners;
+		Set<String> listenerBeans = this.defaultRetriever.applicationListenerBeans;
 
 		// Add programmatically registered listeners, including ones coming
 		// from ApplicationListenerDetector (singleton beans and inner beans).
 		for (ApplicationListener<?> listener : listeners) {
 			if (supportsEvent(listener, eventType, sourceType)) {
 				if (retriever != null) {
-					retriever.applicationListeners.add(listener);
+					filteredListeners.add(listener);
 				}
 				allListeners.add(listener);
 			}
@@ -246,10 +367,10 @@ public abstract class AbstractApplicationEventMulticaster
 						if (!allListeners.contains(listener) && supportsEvent(listener, eventType, sourceType)) {
 							if (retriever != null) {
 								if (beanFactory.isSingleton(listenerBeanName)) {
-									retriever.applicationListeners.add(listener);
+									filteredListeners.add(listener);
 								}
 								else {
-									retriever.applicationListenerBeans.add(listenerBeanName);
+									filteredListenerBeans.add(listenerBeanName);
 								}
 							}
 							allListeners.add(listener);
@@ -261,7 +382,7 @@ public abstract class AbstractApplicationEventMulticaster
 						// BeanDefinition metadata (e.g. factory method generics) above.
 						Object listener = beanFactory.getSingleton(listenerBeanName);
 						if (retriever != null) {
-							retriever.applicationListeners.remove(listener);
+							filteredListeners.remove(listener);
 						}
 						allListeners.remove(listener);
 					}
@@ -274,9 +395,15 @@ public abstract class AbstractApplicationEventMulticaster
 		}
 
 		AnnotationAwareOrderComparator.sort(allListeners);
-		if (retriever != null && retriever.applicationListenerBeans.isEmpty()) {
-			retriever.applicationListeners.clear();
-			retriever.applicationListeners.addAll(allListeners);
+		if (retriever != null) {
+			if (filteredListenerBeans.isEmpty()) {
+				retriever.populate(new ArrayList<>(allListeners), filteredListenerBeans);
+			}
+			else {
+				List<ApplicationListener<?>> sortedListeners = new ArrayList<>(filteredListeners);
+				AnnotationAwareOrderComparator.sort(sortedListeners);
+				retriever.populate(sortedListeners, filteredListenerBeans);
+			}
 		}
 		return allListeners;
 	}
@@ -357,7 +484,7 @@ public abstract class AbstractApplicationEventMulticaster
 	/**
 	 * Cache key for ListenerRetrievers, based on event type and source type.
 	 */
-	private static final class ListenerCacheKey implements Comparable<ListenerCacheKey> {
+	static final class ListenerCacheKey implements Comparable<ListenerCacheKey> {
 
 		private final ResolvableType eventType;
 
@@ -414,29 +541,90 @@ public abstract class AbstractApplicationEventMulticaster
 	 * Helper class that encapsulates a specific set of target listeners,
 	 * allowing for efficient retrieval of pre-filtered listeners.
 	 * <p>An instance of this helper gets cached per event type and source type.
+	 * It is immutable once populated: registration changes replace it.
 	 */
-	private class ListenerRetriever {
+	private class CachedListenerRetriever {
 
-		public final Set<ApplicationListener<?>> applicationListeners = new LinkedHashSet<>();
+		@Nullable
+		public volatile List<ApplicationListener<?>> applicationListeners;
 
-		public final Set<String> applicationListenerBeans = new LinkedHashSet<>();
+		@Nullable
+		public volatile Set<String> applicationListenerBeans;
 
-		private final boolean preFiltered;
+		@Nullable
+		private volatile List<ApplicationListener<?>> exposedListeners;
 
-		public ListenerRetriever(boolean preFiltered) {
-			this.preFiltered = preFiltered;
+		public CachedListenerRetriever() {
 		}
 
+		public CachedListenerRetriever(List<ApplicationListener<?>> applicationListeners,
+				@Nullable Set<String> applicationListenerBeans) {
+
+			populate(applicationListeners,
+					(applicationListenerBeans != null ? applicationListenerBeans : Collections.emptySet()));
+		}
+
+		public void populate(List<ApplicationListener<?>> applicationListeners, Set<String> applicationListenerBeans) {
+			this.applicationListenerBeans = applicationListenerBeans;
+			this.exposedListeners = Collections.unmodifiableList(applicationListeners);
+			this.applicationListeners = applicationListeners;
+		}
+
+		@Nullable
 		public Collection<ApplicationListener<?>> getApplicationListeners() {
+			List<ApplicationListener<?>> applicationListeners = this.applicationListeners;
+			Set<String> applicationListenerBeans = this.applicationListenerBeans;
+			if (applicationListeners == null || applicationListenerBeans == null) {
+				// Not fully populated yet
+				return null;
+			}
+			if (applicationListenerBeans.isEmpty()) {
+				// Pre-sorted singleton listeners only: shared, unmodifiable
+				return this.exposedListeners;
+			}
+
+			List<ApplicationListener<?>> allListeners = new ArrayList<>(
+					applicationListeners.size() + applicationListenerBeans.size());
+			allListeners.addAll(applicationListeners);
+			BeanFactory beanFactory = getBeanFactory();
+			for (String listenerBeanName : applicationListenerBeans) {
+				try {
+					allListeners.add(beanFactory.getBean(listenerBeanName, ApplicationListener.class));
+				}
+				catch (NoSuchBeanDefinitionException ex) {
+					// Singleton listener instance (without backing bean definition) disappeared -
+					// probably in the middle of the destruction phase
+				}
+			}
+			AnnotationAwareOrderComparator.sort(allListeners);
+			return allListeners;
+		}
+	}
+
+
+	/**
+	 * Helper class that encapsulates a general set of target listeners.
+	 * <p>Both sets get replaced as a whole on registration changes (within
+	 * the retrieval mutex), allowing for lock-free reads of a consistent state.
+	 */
+	private class DefaultListenerRetriever {
+
+		public volatile Set<ApplicationListener<?>> applicationListeners = Collections.emptySet();
+
+		public volatile Set<String> applicationListenerBeans = Collections.emptySet();
+
+		public Collection<ApplicationListener<?>> getApplicationListeners() {
+			Set<ApplicationListener<?>> applicationListeners = this.applicationListeners;
+			Set<String> applicationListenerBeans = this.applicationListenerBeans;
 			List<ApplicationListener<?>> allListeners = new ArrayList<>(
-					this.applicationListeners.size() + this.applicationListenerBeans.size());
-			allListeners.addAll(this.applicationListeners);
-			if (!this.applicationListenerBeans.isEmpty()) {
+					applicationListeners.size() + applicationListenerBeans.size());
+			allListeners.addAll(applicationListeners);
+			if (!applicationListenerBeans.isEmpty()) {
 				BeanFactory beanFactory = getBeanFactory();
-				for (String listenerBeanName : this.applicationListenerBeans) {
+				for (String listenerBeanName : applicationListenerBeans) {
 					try {
 						ApplicationListener<?> listener = beanFactory.getBean(listenerBeanName, ApplicationListener.class);
-						if (this.preFiltered || !allListeners.contains(listener)) {
+						if (!allListeners.contains(listener)) {
 							allListeners.add(listener);
 						}
 					}
@@ -446,9 +634,7 @@ public abstract class AbstractApplicationEventMulticaster
 					}
 				}
 			}
-			if (!this.preFiltered || !this.applicationListenerBeans.isEmpty()) {
-				AnnotationAwareOrderComparator.sort(allListeners);
-			}
+			AnnotationAwareOrderComparator.sort(allListeners);
 			return allListeners;
 		}
 	}
@@ -16,6 +16,8 @@
 
 package org.springframework.context.event;
 
+import java.util.Collection;
+
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.core.ResolvableType;
@@ -85,4 +87,18 @@ public interface ApplicationEventMulticaster {
 	 */
 	void multicastEvent(ApplicationEvent event, @Nullable ResolvableType eventType);
 
+	/**
+	 * Multicast the given batch of application events to appropriate listeners,
+	 * preserving their order.
+	 * <p>The default implementation multicasts each event individually.
+	 * @param events the events to multicast
+	 * @since 5.3
+	 * @see org.springframework.context.ApplicationEventPublisher#publishEvents
+	 */
+	default void multicastEvents(Collection<? extends ApplicationEvent> events) {
+		for (ApplicationEvent event : events) {
+			multicastEvent(event);
+		}
+	}
+
 }
@@ -25,6 +25,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -60,6 +61,10 @@ import org.springframework.util.concurrent.ListenableFuture;
  * to define any arbitrary event type. If a condition is defined, it is
  * evaluated prior to invoking the underlying method.
  *
+ * <p>A {@linkplain EventListener#batch() batch} listener method declares a
+ * single {@code List} or {@code Collection} parameter: its element type is
+ * the declared event type, and the condition applies to each element.
+ *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
  * @author Sam Brannen
@@ -86,6 +91,14 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 	@Nullable
 	private final String condition;
 
+	@Nullable
+	private final String executorName;
+
+	@Nullable
+	private final String partitionKey;
+
+	private final boolean batch;
+
 	private final int order;
 
 	@Nullable
@@ -94,6 +107,9 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 	@Nullable
 	private EventExpressionEvaluator evaluator;
 
+	@Nullable
+	private volatile Executor listenerExecutor;
+
 
 	public ApplicationListenerMethodAdapter(String beanName, Class<?> targetClass, Method method) {
 		this.beanName = beanName;
@@ -103,17 +119,30 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		this.methodKey = new AnnotatedElementKey(this.targetMethod, targetClass);
 
 		EventListener ann = AnnotatedElementUtils.findMergedAnnotation(this.targetMethod, EventListener.class);
-		this.declaredEventTypes = resolveDeclaredEventTypes(method, ann);
+		this.batch = (ann != null && ann.batch());
+		this.declaredEventTypes = resolveDeclaredEventTypes(method, ann, this.batch);
 		this.condition = (ann != null ? ann.condition() : null);
+		this.executorName = (ann != null ? ann.executor() : null);
+		this.partitionKey = (ann != null ? ann.partitionKey() : null);
 		this.order = resolveOrder(this.targetMethod);
 	}
 
-	private static List<ResolvableType> resolveDeclaredEventTypes(Method method, @Nullable EventListener ann) {
+	private static List<ResolvableType> resolveDeclaredEventTypes(
+			Method method, @Nullable EventListener ann, boolean batch) {
+
 		int count = method.getParameterCount();
 		if (count > 1) {
 			throw new IllegalStateException(
 					"Maximum one parameter is allowed for event listener method: " + method);
 		}
+		if (batch) {
+			Class<?> parameterType = (count > 0 ? method.getParameterTypes()[0] : null);
+			if (parameterType == null || !Collection.class.isAssignableFrom(parameterType) ||
+					!parameterType.isAssignableFrom(List.class)) {
+				throw new IllegalStateException(
+						"Batch event listener method must declare a List or Collection parameter: " + method);
+			}
+		}
 
 		if (ann != null) {
 			Class<?>[] classes = ann.classes();
@@ -130,7 +159,16 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 			throw new IllegalStateException(
 					"Event parameter is mandatory for event listener method: " + method);
 		}
-		return Collections.singletonList(ResolvableType.forMethodParameter(method, 0));
+		ResolvableType parameterType = ResolvableType.forMethodParameter(method, 0);
+		if (!batch) {
+			return Collections.singletonList(parameterType);
+		}
+		ResolvableType elementType = parameterType.asCollection().getGeneric();
+		if (elementType.resolve() == null) {
+			throw new IllegalStateException("Cannot resolve event type from element type of batch event " +
+					"listener parameter - declare it or specify the 'classes' attribute: " + method);
+		}
+		return Collections.singletonList(elementType);
 	}
 
 	private static int resolveOrder(Method method) {
@@ -153,6 +191,11 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		processEvent(event);
 	}
 
+	@Override
+	public void onApplicationEvents(List<ApplicationEvent> events) {
+		processEvents(events);
+	}
+
 	@Override
 	public boolean supportsEventType(ResolvableType eventType) {
 		for (ResolvableType declaredEventType : this.declaredEventTypes) {
@@ -179,6 +222,57 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		return this.order;
 	}
 
+	@Override
+	public boolean supportsBatchDelivery() {
+		return this.batch;
+	}
+
+	@Override
+	@Nullable
+	public Executor getListenerExecutor() {
+		if (!StringUtils.hasText(this.executorName)) {
+			return null;
+		}
+		Executor executor = this.listenerExecutor;
+		if (executor == null) {
+			Assert.notNull(this.applicationContext, "ApplicationContext must not be null");
+			executor = this.applicationContext.getBean(this.executorName, Executor.class);
+			this.listenerExecutor = executor;
+		}
+		return executor;
+	}
+
+	@Override
+	@Nullable
+	public Object getEventPartitionKey(ApplicationEvent event) {
+		if (!StringUtils.hasText(this.partitionKey)) {
+			return null;
+		}
+		Object[] args = resolveArguments(event);
+		if (args == null) {
+			return null;
+		}
+		Assert.notNull(this.evaluator, "EventExpressionEvaluator must not be null");
+		return this.evaluator.partitionKey(
+				this.partitionKey, event, this.targetMethod, this.methodKey, args, this.applicationContext);
+	}
+
+	/**
+	 * Identify this listener by its bean name and method signature.
+	 */
+	@Override
+	public String getListenerId() {
+		StringBuilder sb = new StringBuilder(this.beanName).append('.').append(this.method.getName()).append('(');
+		Class<?>[] parameterTypes = this.method.getParameterTypes();
+		for (int i = 0; i < parameterTypes.length; i++) {
+			if (i > 0) {
+				sb.append(',');
+			}
+			sb.append(parameterTypes[i].getName());
+		}
+		return sb.append(')').toString();
+	}
+
 
 	/**
 	 * Process the specified {@link ApplicationEvent}, checking if the condition
@@ -187,14 +281,46 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 	public void processEvent(ApplicationEvent event) {
 		Object[] args = resolveArguments(event);
 		if (shouldHandle(event, args)) {
-			Object result = doInvoke(args);
-			if (result != null) {
-				handleResult(result);
+			if (this.batch) {
+				args = new Object[] {Collections.singletonList(args[0])};
 			}
-			else {
-				logger.trace("No result object given - no result to handle");
+			processResult(doInvoke(args));
+		}
+	}
+
+	/**
+	 * Process the specified batch of {@link ApplicationEvent ApplicationEvents}
+	 * with a single invocation of a batch listener method, passing the arguments
+	 * of all events matching the condition. Non-batch listener methods are
+	 * invoked for each event individually.
+	 * @since 5.3
+	 */
+	public void processEvents(List<ApplicationEvent> events) {
+		if (!this.batch) {
+			for (ApplicationEvent event : events) {
+				processEvent(event);
+			}
+			return;
+		}
+		List<Object> elements = new ArrayList<>(events.size());
+		for (ApplicationEvent event : events) {
+			Object[] args = resolveArguments(event);
+			if (shouldHandle(event, args)) {
+				elements.add(args[0]);
 			}
 		}
+		if (!elements.isEmpty()) {
+			processResult(doInvoke(elements));
+		}
+	}
+
+	private void processResult(@Nullable Object result) {
+		if (result != null) {
+			handleResult(result);
+		}
+		else {
+			logger.trace("No result object given - no result to handle");
+		}
 	}
 
 	/**
@@ -202,6 +328,8 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 	 * <p>These arguments will be used to invoke the method handled by this instance.
 	 * Can return {@code null} to indicate that no suitable arguments could be resolved
 	 * and therefore the method should not be invoked at all for the specified event.
+	 * <p>For a batch listener method, the single argument is the element to be
+	 * collected into the invocation's list for the specified event.
 	 */
 	@Nullable
 	protected Object[] resolveArguments(ApplicationEvent event) {
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ApplicationEventPublisher} decorator which buffers events for a short
+ * time window and hands them to the target publisher as a single batch through
+ * {@link ApplicationEventPublisher#publishEvents}.
+ *
+ * <p>Useful for bursts of fine-grained events such as change notifications:
+ * by default, equal events published within the same window are coalesced
+ * into a single occurrence, and batch-capable listeners receive the whole
+ * window at once. Note that publication becomes asynchronous: events are
+ * delivered from a {@link TaskScheduler} thread once the window elapses,
+ * or from the publishing thread once the {@link #setMaxBatchSize maximum
+ * batch size} has been reached.
+ *
+ * <p>Pending events are flushed on {@link #destroy()}.
+ *
+ * @since 5.3
+ * @see ApplicationEventPublisher#publishEvents
+ * @see SmartApplicationListener#supportsBatchDelivery()
+ */
+public class CoalescingApplicationEventPublisher implements ApplicationEventPublisher, DisposableBean {
+
+	private final ApplicationEventPublisher delegate;
+
+	private final TaskScheduler taskScheduler;
+
+	private Duration window = Duration.ofMillis(50);
+
+	private int maxBatchSize = Integer.MAX_VALUE;
+
+	private boolean coalesceDuplicates = true;
+
+	private final Object monitor = new Object();
+
+	@Nullable
+	private Collection<Object> pendingEvents;
+
+
+	/**
+	 * Create a new {@code CoalescingApplicationEventPublisher}.
+	 * @param delegate the target publisher to hand the batched events to
+	 * @param taskScheduler the scheduler to flush each time window with
+	 */
+	public CoalescingApplicationEventPublisher(ApplicationEventPublisher delegate, TaskScheduler taskScheduler) {
+		Assert.notNull(delegate, "Delegate ApplicationEventPublisher must not be null");
+		Assert.notNull(taskScheduler, "TaskScheduler must not be null");
+		this.delegate = delegate;
+		this.taskScheduler = taskScheduler;
+	}
+
+
+	/**
+	 * Set the time window to buffer events for, starting with the first event
+	 * published after the previous flush.
+	 * <p>Default is 50 milliseconds.
+	 */
+	public void setWindow(Duration window) {
+		Assert.isTrue(!window.isNegative(), "Window must not be negative");
+		this.window = window;
+	}
+
+	/**
+	 * Set the maximum number of events to buffer, flushing the current batch
+	 * right away from the publishing thread once reached.
+	 * <p>Default is unlimited.
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		Assert.isTrue(maxBatchSize > 0, "Max batch size must be greater than 0");
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Set whether to coalesce {@linkplain Object#equals equal} events published
+	 * within the same window into their first occurrence.
+	 * <p>Default is {@code true}. Switch this to {@code false} to deliver every
+	 * published event, in order.
+	 */
+	public void setCoalesceDuplicates(boolean coalesceDuplicates) {
+		this.coalesceDuplicates = coalesceDuplicates;
+	}
+
+
+	@Override
+	public void publishEvent(Object event) {
+		Assert.notNull(event, "Event must not be null");
+		Collection<Object> eventsToFlush = null;
+		synchronized (this.monitor) {
+			if (this.pendingEvents == null) {
+				Collection<Object> batch = (this.coalesceDuplicates ? new LinkedHashSet<>() : new ArrayList<>());
+				this.pendingEvents = batch;
+				this.taskScheduler.schedule(() -> flush(batch), Instant.now().plus(this.window));
+			}
+			this.pendingEvents.add(event);
+			if (this.pendingEvents.size() >= this.maxBatchSize) {
+				eventsToFlush = this.pendingEvents;
+				this.pendingEvents = null;
+			}
+		}
+		if (eventsToFlush != null) {
+			this.delegate.publishEvents(eventsToFlush);
+		}
+	}
+
+	@Override
+	public void publishEvents(Collection<?> events) {
+		for (Object event : events) {
+			publishEvent(event);
+		}
+	}
+
+	/**
+	 * Hand all currently buffered events to the target publisher.
+	 * <p>May be called explicitly to deliver the current batch before its window elapses.
+	 */
+	public void flush() {
+		Collection<Object> eventsToFlush;
+		synchronized (this.monitor) {
+			eventsToFlush = this.pendingEvents;
+			this.pendingEvents = null;
+		}
+		if (eventsToFlush != null && !eventsToFlush.isEmpty()) {
+			this.delegate.publishEvents(eventsToFlush);
+		}
+	}
+
+	private void flush(Collection<Object> batch) {
+		synchronized (this.monitor) {
+			if (this.pendingEvents != batch) {
+				// Already flushed early
+				return;
+			}
+			this.pendingEvents = null;
+		}
+		this.delegate.publishEvents(batch);
+	}
+
+	/**
+	 * Flush pending events on shutdown.
+	 */
+	@Override
+	public void destroy() {
+		flush();
+	}
+
+}
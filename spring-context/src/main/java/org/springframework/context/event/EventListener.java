@@ -128,4 +128,42 @@ public @interface EventListener {
 	 */
 	String condition() default "";
 
+	/**
+	 * The name of an {@link java.util.concurrent.Executor} bean to invoke this
+	 * listener with, instead of the multicaster's common task executor.
+	 * <p>Useful for isolating a slow listener on a dedicated, bounded executor.
+	 * Note that the event is then handled asynchronously, with the limitations
+	 * described for {@code @Async} listeners above.
+	 * <p>The default is {@code ""}, meaning no specific executor.
+	 * @since 5.3
+	 * @see SimpleApplicationEventMulticaster#setCallerRunsOnRejection
+	 */
+	String executor() default "";
+
+	/**
+	 * Spring Expression Language (SpEL) expression computing a partition key for
+	 * each event, e.g. {@code "#order.customerId"}. Events with the same key are
+	 * handled one at a time and in publication order, while events with different
+	 * keys may be handled concurrently on the listener's executor.
+	 * <p>Only applies to asynchronous invocation, i.e. in combination with a
+	 * specific {@link #executor} or a task executor set on the multicaster.
+	 * The expression is evaluated against the same context as the
+	 * {@link #condition}.
+	 * <p>The default is {@code ""}, meaning no ordering between events.
+	 * @since 5.3
+	 */
+	String partitionKey() default "";
+
+	/**
+	 * Whether this listener receives the events of a batch publication in a
+	 * single invocation. The annotated method must then declare a single
+	 * {@code List} or {@code Collection} parameter whose element type is the
+	 * event type to listen to; the {@link #condition} is evaluated per element.
+	 * <p>Events published individually are passed as a singleton list.
+	 * <p>The default is {@code false}.
+	 * @since 5.3
+	 * @see org.springframework.context.ApplicationEventPublisher#publishEvents
+	 */
+	boolean batch() default false;
+
 }
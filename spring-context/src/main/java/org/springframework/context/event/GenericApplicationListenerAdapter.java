@@ -16,7 +16,9 @@
 
 package org.springframework.context.event;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import org.springframework.aop.support.AopUtils;
 import org.springframework.context.ApplicationEvent;
@@ -92,6 +94,44 @@ public class GenericApplicationListenerAdapter implements GenericApplicationList
 		return (this.delegate instanceof Ordered ? ((Ordered) this.delegate).getOrder() : Ordered.LOWEST_PRECEDENCE);
 	}
 
+	@Override
+	@Nullable
+	public Executor getListenerExecutor() {
+		return (this.delegate instanceof SmartApplicationListener ?
+				((SmartApplicationListener) this.delegate).getListenerExecutor() : null);
+	}
+
+	@Override
+	@Nullable
+	public Object getEventPartitionKey(ApplicationEvent event) {
+		return (this.delegate instanceof SmartApplicationListener ?
+				((SmartApplicationListener) this.delegate).getEventPartitionKey(event) : null);
+	}
+
+	@Override
+	public String getListenerId() {
+		return (this.delegate instanceof SmartApplicationListener ?
+				((SmartApplicationListener) this.delegate).getListenerId() : "");
+	}
+
+	@Override
+	public boolean supportsBatchDelivery() {
+		return (this.delegate instanceof SmartApplicationListener &&
+				((SmartApplicationListener) this.delegate).supportsBatchDelivery());
+	}
+
+	@Override
+	public void onApplicationEvents(List<ApplicationEvent> events) {
+		if (this.delegate instanceof SmartApplicationListener) {
+			((SmartApplicationListener) this.delegate).onApplicationEvents(events);
+		}
+		else {
+			for (ApplicationEvent event : events) {
+				this.delegate.onApplicationEvent(event);
+			}
+		}
+	}
+
 
 	@Nullable
 	private static ResolvableType resolveDeclaredEventType(ApplicationListener<ApplicationEvent> listener) {
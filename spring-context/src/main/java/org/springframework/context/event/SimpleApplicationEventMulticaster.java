@@ -16,7 +16,19 @@
 
 package org.springframework.context.event;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -25,7 +37,10 @@ import org.springframework.beans.factory.BeanFactory;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ErrorHandler;
 
 /**
@@ -41,6 +56,12 @@ import org.springframework.util.ErrorHandler;
  * but adds minimal overhead. Specify an alternative task executor to have
  * listeners executed in different threads, for example from a thread pool.
  *
+ * <p>Individual listeners may request a specific executor of their own as well
+ * as ordered delivery of related events through a partition key, see
+ * {@link SmartApplicationListener#getListenerExecutor()} and
+ * {@link SmartApplicationListener#getEventPartitionKey(ApplicationEvent)}
+ * or the corresponding {@link EventListener} attributes.
+ *
  * @author Rod Johnson
  * @author Juergen Hoeller
  * @author Stephane Nicoll
@@ -54,6 +75,20 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 	@Nullable
 	private ErrorHandler errorHandler;
 
+	private boolean callerRunsOnRejection = false;
+
+	private int partitionCount = 16;
+
+	private int partitionQueueCapacity = Integer.MAX_VALUE;
+
+	private final Map<Class<?>, ResolvableType> eventTypeCache = new ConcurrentReferenceHashMap<>();
+
+	/** Partition lanes per explicit listener id, retained for as long as the multicaster. */
+	private final Map<String, PartitionLane[]> partitionLanes = new ConcurrentHashMap<>(16);
+
+	/** Partition lanes per listener instance without an id, retained for as long as the listener. */
+	private final Map<ApplicationListener<?>, PartitionLane[]> instancePartitionLanes = new WeakHashMap<>(16);
+
 
 	/**
 	 * Create a new SimpleApplicationEventMulticaster.
@@ -121,6 +156,42 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		return this.errorHandler;
 	}
 
+	/**
+	 * Specify whether to invoke a listener in the publishing thread if its
+	 * executor rejects the invocation, e.g. because its queue is full.
+	 * <p>Default is "false", propagating the {@link RejectedExecutionException}
+	 * to the publisher. Switch this to "true" to apply backpressure instead:
+	 * publishers then slow down to the pace of a saturated listener executor.
+	 * @since 5.3
+	 */
+	public void setCallerRunsOnRejection(boolean callerRunsOnRejection) {
+		this.callerRunsOnRejection = callerRunsOnRejection;
+	}
+
+	/**
+	 * Set the number of partitions that events for a partitioned listener are
+	 * spread across, by hash of their {@link SmartApplicationListener#getEventPartitionKey
+	 * partition key}. Each partition delivers its events in order, one at a time;
+	 * this is therefore the maximum concurrency per partitioned listener.
+	 * <p>Default is 16.
+	 * @since 5.3
+	 */
+	public void setPartitionCount(int partitionCount) {
+		Assert.isTrue(partitionCount > 0, "Partition count must be greater than 0");
+		this.partitionCount = partitionCount;
+	}
+
+	/**
+	 * Set the maximum number of pending events per partition of a partitioned
+	 * listener. Publishers block once this capacity has been reached.
+	 * <p>Default is unbounded.
+	 * @since 5.3
+	 */
+	public void setPartitionQueueCapacity(int partitionQueueCapacity) {
+		Assert.isTrue(partitionQueueCapacity > 0, "Partition queue capacity must be greater than 0");
+		this.partitionQueueCapacity = partitionQueueCapacity;
+	}
+
 
 	@Override
 	public void multicastEvent(ApplicationEvent event) {
@@ -132,17 +203,157 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		ResolvableType type = (eventType != null ? eventType : resolveDefaultEventType(event));
 		Executor executor = getTaskExecutor();
 		for (ApplicationListener<?> listener : getApplicationListeners(event, type)) {
-			if (executor != null) {
-				executor.execute(() -> invokeListener(listener, event));
+			dispatchEvent(listener, event, executor);
+		}
+	}
+
+	/**
+	 * Multicast the given batch of events, resolving the matching listeners
+	 * only once per event type and source type within the batch.
+	 * <p>Listeners which {@linkplain SmartApplicationListener#supportsBatchDelivery()
+	 * support batch delivery} receive all of their matching events in a single
+	 * {@code onApplicationEvents} call once the batch has been processed for
+	 * all other listeners; those receive the events one by one, in order.
+	 * @since 5.3
+	 */
+	@Override
+	public void multicastEvents(Collection<? extends ApplicationEvent> events) {
+		Executor executor = getTaskExecutor();
+		Map<ListenerCacheKey, Collection<ApplicationListener<?>>> listenersByType = new HashMap<>();
+		Map<ApplicationListener<?>, List<ApplicationEvent>> batches = null;
+		for (ApplicationEvent event : events) {
+			ResolvableType type = resolveDefaultEventType(event);
+			Object source = event.getSource();
+			ListenerCacheKey cacheKey = new ListenerCacheKey(type, (source != null ? source.getClass() : null));
+			Collection<ApplicationListener<?>> listeners = listenersByType.get(cacheKey);
+			if (listeners == null) {
+				listeners = getApplicationListeners(event, type);
+				listenersByType.put(cacheKey, listeners);
 			}
-			else {
-				invokeListener(listener, event);
+			for (ApplicationListener<?> listener : listeners) {
+				if (supportsBatchDelivery(listener)) {
+					if (batches == null) {
+						batches = new LinkedHashMap<>();
+					}
+					batches.computeIfAbsent(listener, key -> new ArrayList<>()).add(event);
+				}
+				else {
+					dispatchEvent(listener, event, executor);
+				}
+			}
+		}
+		if (batches != null) {
+			for (Map.Entry<ApplicationListener<?>, List<ApplicationEvent>> entry : batches.entrySet()) {
+				ApplicationListener<?> listener = entry.getKey();
+				List<ApplicationEvent> batch = entry.getValue();
+				Executor executorToUse = getListenerExecutor(listener, executor);
+				if (executorToUse == null) {
+					invokeListener(listener, batch);
+				}
+				else {
+					execute(executorToUse, () -> invokeListener(listener, batch));
+				}
+			}
+		}
+	}
+
+	private void dispatchEvent(ApplicationListener<?> listener, ApplicationEvent event, @Nullable Executor executor) {
+		Executor executorToUse = getListenerExecutor(listener, executor);
+		Object partitionKey = (executorToUse != null ? getEventPartitionKey(listener, event) : null);
+		if (executorToUse == null) {
+			invokeListener(listener, event);
+		}
+		else if (partitionKey != null) {
+			getPartitionLane(listener, partitionKey).execute(() -> invokeListener(listener, event), executorToUse);
+		}
+		else {
+			execute(executorToUse, () -> invokeListener(listener, event));
+		}
+	}
+
+	@Nullable
+	private static Executor getListenerExecutor(ApplicationListener<?> listener, @Nullable Executor defaultExecutor) {
+		Executor listenerExecutor = null;
+		if (listener instanceof SmartApplicationListener) {
+			listenerExecutor = ((SmartApplicationListener) listener).getListenerExecutor();
+		}
+		else if (listener instanceof GenericApplicationListener) {
+			listenerExecutor = ((GenericApplicationListener) listener).getListenerExecutor();
+		}
+		return (listenerExecutor != null ? listenerExecutor : defaultExecutor);
+	}
+
+	@Nullable
+	private static Object getEventPartitionKey(ApplicationListener<?> listener, ApplicationEvent event) {
+		if (listener instanceof SmartApplicationListener) {
+			return ((SmartApplicationListener) listener).getEventPartitionKey(event);
+		}
+		else if (listener instanceof GenericApplicationListener) {
+			return ((GenericApplicationListener) listener).getEventPartitionKey(event);
+		}
+		return null;
+	}
+
+	private static boolean supportsBatchDelivery(ApplicationListener<?> listener) {
+		if (listener instanceof SmartApplicationListener) {
+			return ((SmartApplicationListener) listener).supportsBatchDelivery();
+		}
+		else if (listener instanceof GenericApplicationListener) {
+			return ((GenericApplicationListener) listener).supportsBatchDelivery();
+		}
+		return false;
+	}
+
+	private void execute(Executor executor, Runnable task) {
+		try {
+			executor.execute(task);
+		}
+		catch (RejectedExecutionException ex) {
+			if (!this.callerRunsOnRejection) {
+				throw ex;
+			}
+			task.run();
+		}
+	}
+
+	private PartitionLane getPartitionLane(ApplicationListener<?> listener, Object partitionKey) {
+		String listenerId = getListenerId(listener);
+		PartitionLane[] lanes;
+		if (!listenerId.isEmpty()) {
+			lanes = this.partitionLanes.computeIfAbsent(listenerId, key -> createPartitionLanes());
+		}
+		else {
+			synchronized (this.instancePartitionLanes) {
+				lanes = this.instancePartitionLanes.computeIfAbsent(listener, key -> createPartitionLanes());
 			}
 		}
+		int hash = partitionKey.hashCode();
+		return lanes[((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % lanes.length];
+	}
+
+	private PartitionLane[] createPartitionLanes() {
+		PartitionLane[] lanes = new PartitionLane[this.partitionCount];
+		for (int i = 0; i < lanes.length; i++) {
+			lanes[i] = new PartitionLane(this.partitionQueueCapacity);
+		}
+		return lanes;
+	}
+
+	private static String getListenerId(ApplicationListener<?> listener) {
+		if (listener instanceof SmartApplicationListener) {
+			return ((SmartApplicationListener) listener).getListenerId();
+		}
+		else if (listener instanceof GenericApplicationListener) {
+			return ((GenericApplicationListener) listener).getListenerId();
+		}
+		return "";
 	}
 
 	private ResolvableType resolveDefaultEventType(ApplicationEvent event) {
-		return ResolvableType.forInstance(event);
+		if (event instanceof ResolvableTypeProvider) {
+			return ResolvableType.forInstance(event);
+		}
+		return this.eventTypeCache.computeIfAbsent(event.getClass(), ResolvableType::forClass);
 	}
 
 	/**
@@ -166,6 +377,42 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		}
 	}
 
+	/**
+	 * Invoke the given batch-capable listener with the given batch of events.
+	 * @param listener the ApplicationListener to invoke
+	 * @param events the batch of events to propagate
+	 * @since 5.3
+	 * @see SmartApplicationListener#onApplicationEvents
+	 */
+	protected void invokeListener(ApplicationListener<?> listener, List<ApplicationEvent> events) {
+		ErrorHandler errorHandler = getErrorHandler();
+		if (errorHandler != null) {
+			try {
+				doInvokeListener(listener, events);
+			}
+			catch (Throwable err) {
+				errorHandler.handleError(err);
+			}
+		}
+		else {
+			doInvokeListener(listener, events);
+		}
+	}
+
+	private void doInvokeListener(ApplicationListener<?> listener, List<ApplicationEvent> events) {
+		if (listener instanceof SmartApplicationListener) {
+			((SmartApplicationListener) listener).onApplicationEvents(events);
+		}
+		else if (listener instanceof GenericApplicationListener) {
+			((GenericApplicationListener) listener).onApplicationEvents(events);
+		}
+		else {
+			for (ApplicationEvent event : events) {
+				doInvokeListener(listener, event);
+			}
+		}
+	}
+
 	@SuppressWarnings({"rawtypes", "unchecked"})
 	private void doInvokeListener(ApplicationListener listener, ApplicationEvent event) {
 		try {
@@ -205,4 +452,96 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		return false;
 	}
 
+
+
+	/**
+	 * Serial execution lane for the events of one partition of a listener:
+	 * runs at most one task at a time on the listener's executor, in submission order.
+	 */
+	private class PartitionLane implements Runnable {
+
+		private final BlockingQueue<Runnable> tasks;
+
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		// Executor of the latest submission, to run the lane on
+		@Nullable
+		private volatile Executor executor;
+
+		PartitionLane(int capacity) {
+			this.tasks = new LinkedBlockingQueue<>(capacity);
+		}
+
+		public void execute(Runnable task, Executor executor) {
+			this.executor = executor;
+			try {
+				this.tasks.put(task);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for partition capacity", ex);
+			}
+			schedule();
+		}
+
+		private void schedule() {
+			Executor executor = this.executor;
+			if (executor != null && this.scheduled.compareAndSet(false, true)) {
+				try {
+					executor.execute(this);
+				}
+				catch (RejectedExecutionException ex) {
+					if (callerRunsOnRejection) {
+						run();
+						return;
+					}
+					discardPendingTasks();
+					this.scheduled.set(false);
+					if (!this.tasks.isEmpty()) {
+						// Submitted while discarding: try again for those.
+						try {
+							schedule();
+						}
+						catch (RejectedExecutionException ex2) {
+							ex.addSuppressed(ex2);
+						}
+					}
+					throw ex;
+				}
+			}
+		}
+
+		/**
+		 * Fail all tasks pending in this lane after the executor rejected it,
+		 * including the task of the current submission.
+		 */
+		private void discardPendingTasks() {
+			List<Runnable> discarded = new ArrayList<>();
+			this.tasks.drainTo(discarded);
+			if (discarded.size() > 1) {
+				Log logger = LogFactory.getLog(SimpleApplicationEventMulticaster.class);
+				if (logger.isWarnEnabled()) {
+					logger.warn("Executor rejected partitioned event delivery - discarded " +
+							discarded.size() + " pending events");
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				Runnable task;
+				while ((task = this.tasks.poll()) != null) {
+					task.run();
+				}
+			}
+			finally {
+				this.scheduled.set(false);
+				if (!this.tasks.isEmpty()) {
+					schedule();
+				}
+			}
+		}
+	}
+
 }
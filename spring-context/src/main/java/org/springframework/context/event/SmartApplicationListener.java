@@ -16,6 +16,9 @@
 
 package org.springframework.context.event;
 
+import java.util.List;
+import java.util.concurrent.Executor;
+
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.core.Ordered;
@@ -59,4 +62,72 @@ public interface SmartApplicationListener extends ApplicationListener<Applicatio
 		return LOWEST_PRECEDENCE;
 	}
 
+	/**
+	 * Return a specific executor to invoke this listener with, overriding the
+	 * {@link SimpleApplicationEventMulticaster#setTaskExecutor task executor}
+	 * of the multicaster (if any).
+	 * <p>The default implementation returns {@code null}, leaving it up to the
+	 * multicaster. A dedicated bounded executor keeps a slow listener from
+	 * holding up publishers or any other listeners.
+	 * @since 5.3
+	 * @see SimpleApplicationEventMulticaster#setCallerRunsOnRejection
+	 */
+	@Nullable
+	default Executor getListenerExecutor() {
+		return null;
+	}
+
+	/**
+	 * Determine the partition key for the given event. Events with the same
+	 * key are delivered to this listener one at a time, in publication order,
+	 * while events with different keys may be processed concurrently.
+	 * <p>Only applies to asynchronous invocation through an executor.
+	 * The default implementation returns {@code null}, indicating no ordering.
+	 * @param event the event to be delivered
+	 * @since 5.3
+	 * @see SimpleApplicationEventMulticaster#setPartitionCount
+	 */
+	@Nullable
+	default Object getEventPartitionKey(ApplicationEvent event) {
+		return null;
+	}
+
+	/**
+	 * Return an identifier for this listener, stable across listener instances
+	 * for the same logical listener, e.g. for a non-singleton listener bean.
+	 * Partitioned delivery keeps the events of a partition in order per identifier.
+	 * <p>The default implementation returns an empty String, in which case
+	 * the multicaster keeps partitions per listener instance.
+	 * @since 5.3
+	 * @see #getEventPartitionKey(ApplicationEvent)
+	 */
+	default String getListenerId() {
+		return "";
+	}
+
+	/**
+	 * Determine whether this listener prefers to receive the events of a
+	 * batch publication at once, through {@link #onApplicationEvents}.
+	 * <p>The default implementation returns {@code false}.
+	 * @since 5.3
+	 * @see org.springframework.context.ApplicationEventPublisher#publishEvents
+	 */
+	default boolean supportsBatchDelivery() {
+		return false;
+	}
+
+	/**
+	 * Handle the supported events of a batch publication at once.
+	 * <p>Only called if {@link #supportsBatchDelivery()} returns {@code true}.
+	 * The default implementation delegates to {@link #onApplicationEvent}
+	 * for each event.
+	 * @param events the events to respond to, in publication order
+	 * @since 5.3
+	 */
+	default void onApplicationEvents(List<ApplicationEvent> events) {
+		for (ApplicationEvent event : events) {
+			onApplicationEvent(event);
+		}
+	}
+
 }
@@ -16,6 +16,9 @@
 
 package org.springframework.context.event;
 
+import java.util.List;
+import java.util.concurrent.Executor;
+
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.core.Ordered;
@@ -94,6 +97,35 @@ public class SourceFilteringListener implements GenericApplicationListener, Smar
 		return (this.delegate != null ? this.delegate.getOrder() : Ordered.LOWEST_PRECEDENCE);
 	}
 
+	@Override
+	@Nullable
+	public Executor getListenerExecutor() {
+		return (this.delegate != null ? this.delegate.getListenerExecutor() : null);
+	}
+
+	@Override
+	@Nullable
+	public Object getEventPartitionKey(ApplicationEvent event) {
+		return (this.delegate != null ? this.delegate.getEventPartitionKey(event) : null);
+	}
+
+	@Override
+	public String getListenerId() {
+		return (this.delegate != null ? this.delegate.getListenerId() : "");
+	}
+
+	@Override
+	public boolean supportsBatchDelivery() {
+		return false;
+	}
+
+	@Override
+	public void onApplicationEvents(List<ApplicationEvent> events) {
+		for (ApplicationEvent event : events) {
+			onApplicationEvent(event);
+		}
+	}
+
 
 	/**
 	 * Actually process the event, after having filtered according to the
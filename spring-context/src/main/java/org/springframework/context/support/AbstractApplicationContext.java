@@ -415,6 +415,43 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		}
 	}
 
+	/**
+	 * Publish the given batch of events to all listeners, resolving the
+	 * matching listeners once per event type for the whole batch.
+	 * @param events the events to publish (each may be an {@link ApplicationEvent}
+	 * or a payload object to be turned into a {@link PayloadApplicationEvent})
+	 * @since 5.3
+	 * @see ApplicationEventMulticaster#multicastEvents
+	 */
+	@Override
+	public void publishEvents(Collection<?> events) {
+		Assert.notNull(events, "Events must not be null");
+		if (events.isEmpty()) {
+			return;
+		}
+
+		// Decorate events as ApplicationEvents if necessary
+		List<ApplicationEvent> applicationEvents = new ArrayList<>(events.size());
+		for (Object event : events) {
+			Assert.notNull(event, "Event must not be null");
+			applicationEvents.add(event instanceof ApplicationEvent ?
+					(ApplicationEvent) event : new PayloadApplicationEvent<>(this, event));
+		}
+
+		// Multicast right now if possible - or lazily once the multicaster is initialized
+		if (this.earlyApplicationEvents != null) {
+			this.earlyApplicationEvents.addAll(applicationEvents);
+		}
+		else {
+			getApplicationEventMulticaster().multicastEvents(applicationEvents);
+		}
+
+		// Publish events via parent context as well...
+		if (this.parent != null) {
+			this.parent.publishEvents(events);
+		}
+	}
+
 	/**
 	 * Return the internal ApplicationEventMulticaster used by the context.
 	 * @return the internal ApplicationEventMulticaster (never {@code null})
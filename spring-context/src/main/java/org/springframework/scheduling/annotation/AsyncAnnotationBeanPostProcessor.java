@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -111,6 +111,9 @@ public class AsyncAnnotationBeanPostProcessor extends AbstractBeanFactoryAwareAd
 	 * unique {@link TaskExecutor} bean in the context, or for an {@link Executor}
 	 * bean named "taskExecutor" otherwise. If neither of the two is resolvable,
 	 * a local default executor will be created within the interceptor.
+	 * <p>For I/O-bound async methods, consider a
+	 * {@link org.springframework.core.task.VirtualThreadTaskExecutor}, which is
+	 * not limited by a thread pool size on JVMs supporting virtual threads.
 	 * @see AnnotationAsyncExecutionInterceptor#getDefaultExecutor(BeanFactory)
 	 * @see #DEFAULT_TASK_EXECUTOR_BEAN_NAME
 	 */
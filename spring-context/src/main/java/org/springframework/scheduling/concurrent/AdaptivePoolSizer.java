@@ -0,0 +1,160 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Controller for the adaptive pool size mode of {@link ThreadPoolTaskExecutor},
+ * adjusting the core pool size of a {@link ThreadPoolExecutor} from the
+ * {@link ExecutorMetrics} observed since the previous adjustment.
+ *
+ * <p>Following Little's law, the number of busy threads is the throughput times
+ * the average execution time, i.e. the execution time accumulated per interval.
+ * If the average queue wait exceeds the target, the pool grows to cover that load
+ * plus the threads needed to drain the current backlog within the target wait.
+ * Since the core pool size is raised, new threads get started before tasks are
+ * queued. Once the queue wait is well below the target and nothing is queued,
+ * the pool shrinks halfway towards the observed load per adjustment.
+ *
+ * <p>Adjustments are triggered by task submissions at most once per interval,
+ * so no separate controller thread is needed. They run under the pool size
+ * monitor of the executor, so that they do not interleave with pool size
+ * changes through its setters, and never fail a submission.
+ *
+ * @since 5.3
+ * @see ThreadPoolTaskExecutor#setAdaptivePoolSize
+ */
+final class AdaptivePoolSizer {
+
+	private static final Log logger = LogFactory.getLog(AdaptivePoolSizer.class);
+
+
+	private final ExecutorMetrics metrics;
+
+	private final IntSupplier minPoolSize;
+
+	private final Object poolSizeMonitor;
+
+	private final long targetQueueWaitNanos;
+
+	private final long intervalNanos;
+
+	private final AtomicLong nextAdjustment;
+
+	private long lastTime;
+
+	private long lastStartedCount;
+
+	private long lastQueueWait;
+
+	private long lastRunTime;
+
+	private long lastCompletedCount;
+
+
+	AdaptivePoolSizer(ExecutorMetrics metrics, IntSupplier minPoolSize, Object poolSizeMonitor,
+			long targetQueueWaitNanos, long intervalNanos) {
+
+		this.metrics = metrics;
+		this.minPoolSize = minPoolSize;
+		this.poolSizeMonitor = poolSizeMonitor;
+		this.targetQueueWaitNanos = targetQueueWaitNanos;
+		this.intervalNanos = intervalNanos;
+		this.lastTime = System.nanoTime();
+		this.nextAdjustment = new AtomicLong(this.lastTime + intervalNanos);
+	}
+
+
+	/**
+	 * Adjust the pool size of the given executor if the interval has elapsed.
+	 * <p>Called after a task has been accepted: failures are logged, not thrown.
+	 */
+	void afterSubmit(ThreadPoolExecutor executor) {
+		long now = System.nanoTime();
+		long next = this.nextAdjustment.get();
+		if (now - next >= 0 && this.nextAdjustment.compareAndSet(next, now + this.intervalNanos)) {
+			try {
+				synchronized (this.poolSizeMonitor) {
+					adjust(executor, now);
+				}
+			}
+			catch (RuntimeException ex) {
+				logger.warn("Failed to adjust core pool size", ex);
+			}
+		}
+	}
+
+	private void adjust(ThreadPoolExecutor executor, long now) {
+		long elapsed = now - this.lastTime;
+		long startedCount = this.metrics.getStartedTaskCount();
+		long queueWait = this.metrics.getTotalQueueWaitNanos();
+		long runTime = this.metrics.getTotalRunTimeNanos();
+		long completedCount = this.metrics.getCompletedTaskCount();
+		long started = startedCount - this.lastStartedCount;
+		long waited = queueWait - this.lastQueueWait;
+		long ran = runTime - this.lastRunTime;
+		long completed = completedCount - this.lastCompletedCount;
+		this.lastTime = now;
+		this.lastStartedCount = startedCount;
+		this.lastQueueWait = queueWait;
+		this.lastRunTime = runTime;
+		this.lastCompletedCount = completedCount;
+		if (elapsed <= 0 || started < 0 || waited < 0 || ran < 0 || completed < 0) {
+			// Metrics have been reset in the meantime
+			return;
+		}
+
+		int current = executor.getCorePoolSize();
+		int queued = executor.getQueue().size();
+		double averageQueueWait = (started > 0 ? (double) waited / started : 0);
+		double averageRunTime = (completed > 0 ? (double) ran / completed : 0);
+		double busyThreads = (double) ran / elapsed;
+
+		int desired = current;
+		if (averageQueueWait > this.targetQueueWaitNanos || (queued > 0 && started == 0)) {
+			double backlogThreads = queued * averageRunTime / this.targetQueueWaitNanos;
+			desired = (int) Math.ceil(busyThreads + backlogThreads);
+			if (desired <= current) {
+				// Load not measurable yet, e.g. long-running tasks: grow by half
+				desired = current + Math.max(1, current / 2);
+			}
+		}
+		else if (queued == 0 && averageQueueWait < this.targetQueueWaitNanos / 2) {
+			int needed = (int) Math.ceil(busyThreads);
+			if (needed < current) {
+				desired = current - Math.max(1, (current - needed) / 2);
+			}
+		}
+
+		desired = Math.max(this.minPoolSize.getAsInt(), Math.min(desired, executor.getMaximumPoolSize()));
+		if (desired != current) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Adjusting core pool size from " + current + " to " + desired +
+						" (average queue wait " + averageQueueWait / 1_000_000 + " ms, " +
+						queued + " queued, " + busyThreads + " busy threads)");
+			}
+			executor.setCorePoolSize(desired);
+		}
+	}
+
+}
@@ -0,0 +1,392 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.lang.Nullable;
+
+/**
+ * Execution metrics of a {@link ThreadPoolTaskExecutor} or
+ * {@link ThreadPoolTaskScheduler} with {@code metricsEnabled}: queue wait
+ * (from submission, or from the scheduled time for delayed tasks, until
+ * start), execution time, rejections and the current queue depth.
+ *
+ * <p>Counters are striped {@link LongAdder} instances, so that recording
+ * does not contend between pool threads. Queue wait and execution time
+ * are also recorded in histograms with fixed exponential buckets.
+ *
+ * <p>Accessible through the executor's {@code getMetrics()} method, and
+ * exportable as a standard MBean through
+ * {@link org.springframework.jmx.export.MBeanExporter}, e.g. by registering
+ * the metrics object under a given name in the exporter's "beans" map.
+ *
+ * @since 5.3
+ * @see ThreadPoolTaskExecutor#setMetricsEnabled
+ * @see ThreadPoolTaskScheduler#setMetricsEnabled
+ */
+public class ExecutorMetrics implements ExecutorMetricsMBean {
+
+	private static final long[] HISTOGRAM_BOUNDS_MILLIS =
+			{1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000};
+
+	private static final long[] HISTOGRAM_BOUNDS_NANOS = new long[HISTOGRAM_BOUNDS_MILLIS.length];
+
+	static {
+		for (int i = 0; i < HISTOGRAM_BOUNDS_MILLIS.length; i++) {
+			HISTOGRAM_BOUNDS_NANOS[i] = TimeUnit.MILLISECONDS.toNanos(HISTOGRAM_BOUNDS_MILLIS[i]);
+		}
+	}
+
+
+	private final LongAdder startedCount = new LongAdder();
+
+	private final LongAdder completedCount = new LongAdder();
+
+	private final LongAdder failedCount = new LongAdder();
+
+	private final LongAdder rejectedCount = new LongAdder();
+
+	private final LongAdder queueWaitTotal = new LongAdder();
+
+	private final LongAccumulator queueWaitMax = new LongAccumulator(Math::max, 0);
+
+	private final LongAdder[] queueWaitHistogram = createHistogram();
+
+	private final LongAdder runTimeTotal = new LongAdder();
+
+	private final LongAccumulator runTimeMax = new LongAccumulator(Math::max, 0);
+
+	private final LongAdder[] runTimeHistogram = createHistogram();
+
+	private final ThreadLocal<long[]> startTime = new NamedThreadLocal<long[]>("Executor task start time") {
+		@Override
+		protected long[] initialValue() {
+			return new long[1];
+		}
+	};
+
+	@Nullable
+	private volatile ThreadPoolExecutor executor;
+
+
+	/**
+	 * Set the executor to derive pool and queue figures from.
+	 */
+	void setExecutor(ThreadPoolExecutor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Wrap the given task for recording its queue wait and execution time,
+	 * detecting failures through the given original task if it is a
+	 * {@link Future}, e.g. for a submitted task wrapped by a decorator.
+	 * @param task the task to execute
+	 * @param original the task as submitted
+	 * @see #getOriginalTask(Runnable)
+	 */
+	Runnable instrument(Runnable task, Runnable original) {
+		return new InstrumentedRunnable(task, original, System.nanoTime());
+	}
+
+	/**
+	 * Return the task as submitted for the given queued task,
+	 * or the given task itself if not instrumented.
+	 */
+	static Runnable getOriginalTask(Runnable task) {
+		return (task instanceof InstrumentedRunnable ? ((InstrumentedRunnable) task).original : task);
+	}
+
+	/**
+	 * Wrap the given handler for counting rejected tasks.
+	 */
+	RejectedExecutionHandler instrument(RejectedExecutionHandler handler) {
+		return (task, executor) -> {
+			this.rejectedCount.increment();
+			handler.rejectedExecution(task, executor);
+		};
+	}
+
+	/**
+	 * Record the start of the given delayed task on the current thread,
+	 * taking the time since it became due as queue wait.
+	 * @see ThreadPoolExecutor#beforeExecute
+	 */
+	void beforeExecute(Runnable task) {
+		long now = System.nanoTime();
+		if (task instanceof Delayed) {
+			recordQueueWait(Math.max(0, -((Delayed) task).getDelay(TimeUnit.NANOSECONDS)));
+		}
+		this.startTime.get()[0] = now;
+	}
+
+	/**
+	 * Record the completion of the given task started on the current thread,
+	 * detecting a failure captured by a {@link Future} task as well.
+	 * @see ThreadPoolExecutor#afterExecute
+	 */
+	void afterExecute(Runnable task, @Nullable Throwable ex) {
+		recordRunTime(System.nanoTime() - this.startTime.get()[0], ex != null || hasFailed(task));
+	}
+
+	/**
+	 * Determine whether the given task is a {@link Future} which completed
+	 * exceptionally, following the {@link ThreadPoolExecutor#afterExecute}
+	 * javadoc: a FutureTask captures the exception of its computation
+	 * instead of throwing it.
+	 */
+	private static boolean hasFailed(Runnable task) {
+		if (!(task instanceof Future)) {
+			return false;
+		}
+		Future<?> future = (Future<?>) task;
+		if (!future.isDone() || future.isCancelled()) {
+			return false;
+		}
+		try {
+			future.get();
+			return false;
+		}
+		catch (ExecutionException ex) {
+			return true;
+		}
+		catch (CancellationException ex) {
+			return false;
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private void recordQueueWait(long nanos) {
+		this.startedCount.increment();
+		this.queueWaitTotal.add(nanos);
+		this.queueWaitMax.accumulate(nanos);
+		this.queueWaitHistogram[bucket(nanos)].increment();
+	}
+
+	private void recordRunTime(long nanos, boolean failed) {
+		this.completedCount.increment();
+		if (failed) {
+			this.failedCount.increment();
+		}
+		this.runTimeTotal.add(nanos);
+		this.runTimeMax.accumulate(nanos);
+		this.runTimeHistogram[bucket(nanos)].increment();
+	}
+
+
+	/**
+	 * Return the total queue wait of all started tasks, in nanoseconds.
+	 */
+	long getTotalQueueWaitNanos() {
+		return this.queueWaitTotal.sum();
+	}
+
+	/**
+	 * Return the total execution time of all completed tasks, in nanoseconds.
+	 */
+	long getTotalRunTimeNanos() {
+		return this.runTimeTotal.sum();
+	}
+
+
+	@Override
+	public long getStartedTaskCount() {
+		return this.startedCount.sum();
+	}
+
+	@Override
+	public long getCompletedTaskCount() {
+		return this.completedCount.sum();
+	}
+
+	@Override
+	public long getFailedTaskCount() {
+		return this.failedCount.sum();
+	}
+
+	@Override
+	public long getRejectedTaskCount() {
+		return this.rejectedCount.sum();
+	}
+
+	@Override
+	public int getQueueSize() {
+		ThreadPoolExecutor executor = this.executor;
+		return (executor != null ? executor.getQueue().size() : 0);
+	}
+
+	@Override
+	public int getPoolSize() {
+		ThreadPoolExecutor executor = this.executor;
+		return (executor != null ? executor.getPoolSize() : 0);
+	}
+
+	@Override
+	public int getActiveCount() {
+		ThreadPoolExecutor executor = this.executor;
+		return (executor != null ? executor.getActiveCount() : 0);
+	}
+
+	@Override
+	public int getLargestPoolSize() {
+		ThreadPoolExecutor executor = this.executor;
+		return (executor != null ? executor.getLargestPoolSize() : 0);
+	}
+
+	@Override
+	public double getAverageQueueWaitMillis() {
+		return average(this.queueWaitTotal, this.startedCount.sum());
+	}
+
+	@Override
+	public double getMaxQueueWaitMillis() {
+		return toMillis(this.queueWaitMax.get());
+	}
+
+	@Override
+	public double getAverageRunTimeMillis() {
+		return average(this.runTimeTotal, this.completedCount.sum());
+	}
+
+	@Override
+	public double getMaxRunTimeMillis() {
+		return toMillis(this.runTimeMax.get());
+	}
+
+	@Override
+	public long[] getHistogramBoundsMillis() {
+		return HISTOGRAM_BOUNDS_MILLIS.clone();
+	}
+
+	@Override
+	public long[] getQueueWaitHistogram() {
+		return snapshot(this.queueWaitHistogram);
+	}
+
+	@Override
+	public long[] getRunTimeHistogram() {
+		return snapshot(this.runTimeHistogram);
+	}
+
+	@Override
+	public void reset() {
+		this.startedCount.reset();
+		this.completedCount.reset();
+		this.failedCount.reset();
+		this.rejectedCount.reset();
+		this.queueWaitTotal.reset();
+		this.queueWaitMax.reset();
+		this.runTimeTotal.reset();
+		this.runTimeMax.reset();
+		for (int i = 0; i < this.queueWaitHistogram.length; i++) {
+			this.queueWaitHistogram[i].reset();
+			this.runTimeHistogram[i].reset();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ExecutorMetrics: completed=" + getCompletedTaskCount() + ", failed=" + getFailedTaskCount() +
+				", rejected=" + getRejectedTaskCount() + ", queueSize=" + getQueueSize() +
+				", averageQueueWaitMillis=" + getAverageQueueWaitMillis() +
+				", averageRunTimeMillis=" + getAverageRunTimeMillis();
+	}
+
+
+	private static LongAdder[] createHistogram() {
+		LongAdder[] histogram = new LongAdder[HISTOGRAM_BOUNDS_NANOS.length + 1];
+		for (int i = 0; i < histogram.length; i++) {
+			histogram[i] = new LongAdder();
+		}
+		return histogram;
+	}
+
+	private static int bucket(long nanos) {
+		int i = 0;
+		while (i < HISTOGRAM_BOUNDS_NANOS.length && nanos > HISTOGRAM_BOUNDS_NANOS[i]) {
+			i++;
+		}
+		return i;
+	}
+
+	private static long[] snapshot(LongAdder[] histogram) {
+		long[] counts = new long[histogram.length];
+		for (int i = 0; i < histogram.length; i++) {
+			counts[i] = histogram[i].sum();
+		}
+		return counts;
+	}
+
+	private static double average(LongAdder totalNanos, long count) {
+		return (count > 0 ? toMillis(totalNanos.sum()) / count : 0);
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+
+
+	/**
+	 * Runnable recording its queue wait and execution time.
+	 */
+	private class InstrumentedRunnable implements Runnable {
+
+		private final Runnable task;
+
+		final Runnable original;
+
+		private final long enqueueTime;
+
+		InstrumentedRunnable(Runnable task, Runnable original, long enqueueTime) {
+			this.task = task;
+			this.original = original;
+			this.enqueueTime = enqueueTime;
+		}
+
+		@Override
+		public void run() {
+			long start = System.nanoTime();
+			recordQueueWait(start - this.enqueueTime);
+			boolean failed = true;
+			try {
+				this.task.run();
+				failed = hasFailed(this.original);
+			}
+			finally {
+				recordRunTime(System.nanoTime() - start, failed);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return this.task.toString();
+		}
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+/**
+ * Standard MBean interface for {@link ExecutorMetrics}, allowing
+ * {@link org.springframework.jmx.export.MBeanExporter} to export
+ * the metrics of an executor as-is.
+ *
+ * @since 5.3
+ * @see ExecutorMetrics
+ */
+public interface ExecutorMetricsMBean {
+
+	/**
+	 * Return the number of tasks which have started execution.
+	 */
+	long getStartedTaskCount();
+
+	/**
+	 * Return the number of tasks which have completed execution.
+	 */
+	long getCompletedTaskCount();
+
+	/**
+	 * Return the number of tasks which have completed by throwing an exception.
+	 */
+	long getFailedTaskCount();
+
+	/**
+	 * Return the number of tasks which have been rejected by the executor.
+	 */
+	long getRejectedTaskCount();
+
+	/**
+	 * Return the number of tasks currently waiting in the queue.
+	 */
+	int getQueueSize();
+
+	/**
+	 * Return the current number of threads in the pool.
+	 */
+	int getPoolSize();
+
+	/**
+	 * Return the number of threads currently executing tasks.
+	 */
+	int getActiveCount();
+
+	/**
+	 * Return the largest number of threads which have been in the pool.
+	 */
+	int getLargestPoolSize();
+
+	/**
+	 * Return the average time between a task being due and starting, in milliseconds.
+	 */
+	double getAverageQueueWaitMillis();
+
+	/**
+	 * Return the maximum time between a task being due and starting, in milliseconds.
+	 */
+	double getMaxQueueWaitMillis();
+
+	/**
+	 * Return the average execution time of a task, in milliseconds.
+	 */
+	double getAverageRunTimeMillis();
+
+	/**
+	 * Return the maximum execution time of a task, in milliseconds.
+	 */
+	double getMaxRunTimeMillis();
+
+	/**
+	 * Return the upper bounds of the histogram buckets, in milliseconds.
+	 * The last bucket of each histogram is unbounded.
+	 */
+	long[] getHistogramBoundsMillis();
+
+	/**
+	 * Return the number of tasks per queue wait bucket.
+	 * @see #getHistogramBoundsMillis()
+	 */
+	long[] getQueueWaitHistogram();
+
+	/**
+	 * Return the number of tasks per execution time bucket.
+	 * @see #getHistogramBoundsMillis()
+	 */
+	long[] getRunTimeHistogram();
+
+	/**
+	 * Reset all counters and histograms.
+	 */
+	void reset();
+
+}
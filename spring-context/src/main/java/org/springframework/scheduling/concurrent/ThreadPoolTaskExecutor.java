@@ -46,7 +46,8 @@ import org.springframework.util.concurrent.ListenableFutureTask;
  * properties) and exposing it as a Spring {@link org.springframework.core.task.TaskExecutor}.
  * This class is also well suited for management and monitoring (e.g. through JMX),
  * providing several useful attributes: "corePoolSize", "maxPoolSize", "keepAliveSeconds"
- * (all supporting updates at runtime); "poolSize", "activeCount" (for introspection only).
+ * (all supporting updates at runtime); "poolSize", "activeCount", "queueSize" (for
+ * introspection only). Detailed {@link ExecutorMetrics} can be recorded on demand.
  *
  * <p>The default configuration is a core pool size of 1, with unlimited max pool size
  * and unlimited queue capacity. This is roughly equivalent to
@@ -97,10 +98,19 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 	@Nullable
 	private TaskDecorator taskDecorator;
 
+	@Nullable
+	private ExecutorMetrics metrics;
+
+	private boolean adaptivePoolSize = false;
+
+	private long targetQueueWaitMillis = 100;
+
+	private long adaptiveIntervalMillis = 500;
+
 	@Nullable
 	private ThreadPoolExecutor threadPoolExecutor;
 
-	// Runnable decorator to user-level FutureTask, if different
+	// TaskDecorator-produced Runnable to user-level FutureTask, if different
 	private final Map<Runnable, Object> decoratedTaskMap =
 			new ConcurrentReferenceHashMap<>(16, ConcurrentReferenceHashMap.ReferenceType.WEAK);
 
@@ -137,6 +147,10 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 		synchronized (this.poolSizeMonitor) {
 			this.maxPoolSize = maxPoolSize;
 			if (this.threadPoolExecutor != null) {
+				if (this.threadPoolExecutor.getCorePoolSize() > maxPoolSize) {
+					// Adaptively raised core pool size beyond the new maximum
+					this.threadPoolExecutor.setCorePoolSize(Math.min(this.corePoolSize, maxPoolSize));
+				}
 				this.threadPoolExecutor.setMaximumPoolSize(maxPoolSize);
 			}
 		}
@@ -218,6 +232,60 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 		this.taskDecorator = taskDecorator;
 	}
 
+	/**
+	 * Specify whether to record execution metrics: queue wait, execution time,
+	 * rejections and queue depth, accessible through {@link #getMetrics()}.
+	 * <p>Default is "false". Recording adds two {@code System.nanoTime()} calls
+	 * and a few uncontended counter updates per task.
+	 * @since 5.3
+	 * @see ExecutorMetrics
+	 */
+	public void setMetricsEnabled(boolean metricsEnabled) {
+		this.metrics = (metricsEnabled ? new ExecutorMetrics() : null);
+	}
+
+	/**
+	 * Specify whether to adapt the pool size to the observed load, between
+	 * the configured {@link #setCorePoolSize "corePoolSize"} and
+	 * {@link #setMaxPoolSize "maxPoolSize"} (which should be set to a sensible
+	 * upper bound then). Implies {@link #setMetricsEnabled "metricsEnabled"}.
+	 * <p>In this mode, the pool grows as soon as the average queue wait exceeds
+	 * the {@link #setTargetQueueWaitMillis target}, rather than only once the
+	 * queue is full: by the number of threads that the measured throughput and
+	 * execution time call for (Little's law), plus the threads needed to drain
+	 * the current backlog within the target. It shrinks gradually once the
+	 * queue wait is well below the target again.
+	 * <p>Default is "false".
+	 * @since 5.3
+	 * @see #setTargetQueueWaitMillis
+	 * @see #setAdaptiveIntervalMillis
+	 */
+	public void setAdaptivePoolSize(boolean adaptivePoolSize) {
+		this.adaptivePoolSize = adaptivePoolSize;
+	}
+
+	/**
+	 * Set the average queue wait that the adaptive pool size mode aims for.
+	 * Default is 100 milliseconds.
+	 * @since 5.3
+	 * @see #setAdaptivePoolSize
+	 */
+	public void setTargetQueueWaitMillis(long targetQueueWaitMillis) {
+		Assert.isTrue(targetQueueWaitMillis > 0, "Target queue wait must be greater than 0");
+		this.targetQueueWaitMillis = targetQueueWaitMillis;
+	}
+
+	/**
+	 * Set the minimum interval between pool size adjustments in the adaptive
+	 * pool size mode. Default is 500 milliseconds.
+	 * @since 5.3
+	 * @see #setAdaptivePoolSize
+	 */
+	public void setAdaptiveIntervalMillis(long adaptiveIntervalMillis) {
+		Assert.isTrue(adaptiveIntervalMillis > 0, "Adaptive interval must be greater than 0");
+		this.adaptiveIntervalMillis = adaptiveIntervalMillis;
+	}
+
 
 	/**
 	 * Note: This method exposes an {@link ExecutorService} to its base class
@@ -231,18 +299,39 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 
 		BlockingQueue<Runnable> queue = createQueue(this.queueCapacity);
 
+		if (this.adaptivePoolSize && this.metrics == null) {
+			this.metrics = new ExecutorMetrics();
+		}
+		ExecutorMetrics metrics = this.metrics;
+		AdaptivePoolSizer poolSizer = null;
+		if (metrics != null) {
+			rejectedExecutionHandler = metrics.instrument(rejectedExecutionHandler);
+			if (this.adaptivePoolSize) {
+				poolSizer = new AdaptivePoolSizer(metrics, this::getCorePoolSize, this.poolSizeMonitor,
+						TimeUnit.MILLISECONDS.toNanos(this.targetQueueWaitMillis),
+						TimeUnit.MILLISECONDS.toNanos(this.adaptiveIntervalMillis));
+			}
+		}
+		AdaptivePoolSizer poolSizerToUse = poolSizer;
+
 		ThreadPoolExecutor executor;
-		if (this.taskDecorator != null) {
+		if (this.taskDecorator != null || metrics != null) {
 			executor = new ThreadPoolExecutor(
 					this.corePoolSize, this.maxPoolSize, this.keepAliveSeconds, TimeUnit.SECONDS,
 					queue, threadFactory, rejectedExecutionHandler) {
 				@Override
 				public void execute(Runnable command) {
-					Runnable decorated = taskDecorator.decorate(command);
-					if (decorated != command) {
+					Runnable decorated = (taskDecorator != null ? taskDecorator.decorate(command) : command);
+					if (metrics != null) {
+						decorated = metrics.instrument(decorated, command);
+					}
+					if (taskDecorator != null && decorated != command) {
 						decoratedTaskMap.put(decorated, command);
 					}
 					super.execute(decorated);
+					if (poolSizerToUse != null) {
+						poolSizerToUse.afterSubmit(this);
+					}
 				}
 			};
 		}
@@ -256,6 +345,9 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 		if (this.allowCoreThreadTimeOut) {
 			executor.allowCoreThreadTimeOut(true);
 		}
+		if (metrics != null) {
+			metrics.setExecutor(executor);
+		}
 
 		this.threadPoolExecutor = executor;
 		return executor;
@@ -313,6 +405,30 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 		return this.threadPoolExecutor.getActiveCount();
 	}
 
+	/**
+	 * Return the number of tasks currently waiting in the queue.
+	 * @since 5.3
+	 * @see java.util.concurrent.ThreadPoolExecutor#getQueue()
+	 */
+	public int getQueueSize() {
+		if (this.threadPoolExecutor == null) {
+			// Not initialized yet: assume no queued tasks.
+			return 0;
+		}
+		return this.threadPoolExecutor.getQueue().size();
+	}
+
+	/**
+	 * Return the execution metrics of this executor, if enabled.
+	 * @return the metrics, or {@code null} if not enabled
+	 * @since 5.3
+	 * @see #setMetricsEnabled
+	 */
+	@Nullable
+	public ExecutorMetrics getMetrics() {
+		return this.metrics;
+	}
+
 
 	@Override
 	public void execute(Runnable task) {
@@ -383,6 +499,10 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 		super.cancelRemainingTask(task);
 		// Cancel associated user-level Future handle as well
 		Object original = this.decoratedTaskMap.get(task);
+		if (original == null) {
+			Runnable submitted = ExecutorMetrics.getOriginalTask(task);
+			original = (submitted != task ? submitted : null);
+		}
 		if (original instanceof Future) {
 			((Future<?>) original).cancel(true);
 		}
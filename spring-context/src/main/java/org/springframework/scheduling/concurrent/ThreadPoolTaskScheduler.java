@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -66,6 +66,9 @@ public class ThreadPoolTaskScheduler extends ExecutorConfigurationSupport
 	@Nullable
 	private volatile ErrorHandler errorHandler;
 
+	@Nullable
+	private ExecutorMetrics metrics;
+
 	@Nullable
 	private ScheduledExecutorService scheduledExecutor;
 
@@ -110,6 +113,18 @@ public class ThreadPoolTaskScheduler extends ExecutorConfigurationSupport
 		this.errorHandler = errorHandler;
 	}
 
+	/**
+	 * Specify whether to record execution metrics: queue wait (from the time a
+	 * task became due until it started), execution time, rejections and queue
+	 * depth, accessible through {@link #getMetrics()}.
+	 * <p>Default is "false". Only applies to the default {@link #createExecutor}.
+	 * @since 5.3
+	 * @see ExecutorMetrics
+	 */
+	public void setMetricsEnabled(boolean metricsEnabled) {
+		this.metrics = (metricsEnabled ? new ExecutorMetrics() : null);
+	}
+
 
 	@Override
 	protected ExecutorService initializeExecutor(
@@ -143,7 +158,23 @@ public class ThreadPoolTaskScheduler extends ExecutorConfigurationSupport
 	protected ScheduledExecutorService createExecutor(
 			int poolSize, ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
 
-		return new ScheduledThreadPoolExecutor(poolSize, threadFactory, rejectedExecutionHandler);
+		ExecutorMetrics metrics = this.metrics;
+		if (metrics == null) {
+			return new ScheduledThreadPoolExecutor(poolSize, threadFactory, rejectedExecutionHandler);
+		}
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+				poolSize, threadFactory, metrics.instrument(rejectedExecutionHandler)) {
+			@Override
+			protected void beforeExecute(Thread thread, Runnable task) {
+				metrics.beforeExecute(task);
+			}
+			@Override
+			protected void afterExecute(Runnable task, @Nullable Throwable ex) {
+				metrics.afterExecute(task, ex);
+			}
+		};
+		metrics.setExecutor(executor);
+		return executor;
 	}
 
 	/**
@@ -209,6 +240,17 @@ public class ThreadPoolTaskScheduler extends ExecutorConfigurationSupport
 		return getScheduledThreadPoolExecutor().getActiveCount();
 	}
 
+	/**
+	 * Return the execution metrics of this scheduler, if enabled.
+	 * @return the metrics, or {@code null} if not enabled
+	 * @since 5.3
+	 * @see #setMetricsEnabled
+	 */
+	@Nullable
+	public ExecutorMetrics getMetrics() {
+		return this.metrics;
+	}
+
 
 	// SchedulingTaskExecutor implementation
 
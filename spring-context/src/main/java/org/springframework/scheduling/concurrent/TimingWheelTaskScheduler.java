@@ -0,0 +1,598 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.Date;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.SchedulingTaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+import org.springframework.scheduling.support.TaskUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * Implementation of Spring's {@link TaskScheduler} interface, backed by a
+ * hierarchical hashed timing wheel instead of the binary heap of a
+ * {@link java.util.concurrent.ScheduledThreadPoolExecutor}: suitable for very
+ * large numbers of scheduled tasks, e.g. per-entity timeouts.
+ *
+ * <p>Scheduling and cancelling a task are constant-time operations which merely
+ * enqueue the task for a single timer thread, without any locking. The timer
+ * thread advances the wheel every {@link #setTickMillis tick}, cascading tasks
+ * from coarser to finer levels as their deadline approaches, and hands all tasks
+ * expiring within a tick over to a pool of {@link #setPoolSize worker threads}.
+ * Execution times are therefore accurate to the tick duration.
+ *
+ * <p>Periodic and {@link Trigger}-based tasks (including
+ * {@link org.springframework.scheduling.support.CronTrigger}) are re-inserted
+ * into the wheel after each execution, without creating a new scheduled future.
+ *
+ * @since 5.3
+ * @see #setTickMillis
+ * @see #setWheelSize
+ * @see #setPoolSize
+ * @see ThreadPoolTaskScheduler
+ */
+@SuppressWarnings("serial")
+public class TimingWheelTaskScheduler extends ExecutorConfigurationSupport
+		implements SchedulingTaskExecutor, TaskScheduler {
+
+	private int poolSize = 1;
+
+	private long tickMillis = 10;
+
+	private int wheelSize = 512;
+
+	@Nullable
+	private volatile ErrorHandler errorHandler;
+
+	@Nullable
+	private ExecutorService workerExecutor;
+
+	@Nullable
+	private Thread timerThread;
+
+	private volatile boolean running;
+
+	private long startNanos;
+
+	private long tickNanos;
+
+	// Wheel state, only accessed by the timer thread
+
+	private int bits;
+
+	private long mask;
+
+	@Nullable
+	private WheelTask[][] buckets;
+
+	private long currentTick;
+
+	private volatile int scheduledTaskCount;
+
+	// Hand-over queues from scheduling threads to the timer thread
+
+	private final Queue<WheelTask> pendingTasks = new ConcurrentLinkedQueue<>();
+
+	private final Queue<WheelTask> cancelledTasks = new ConcurrentLinkedQueue<>();
+
+
+	/**
+	 * Set the number of worker threads executing the expired tasks.
+	 * Default is 1.
+	 */
+	public void setPoolSize(int poolSize) {
+		Assert.isTrue(poolSize > 0, "'poolSize' must be 1 or higher");
+		this.poolSize = poolSize;
+	}
+
+	/**
+	 * Return the number of worker threads executing the expired tasks.
+	 */
+	public int getPoolSize() {
+		return this.poolSize;
+	}
+
+	/**
+	 * Set the duration of a tick in milliseconds, i.e. the accuracy of
+	 * execution times. Default is 10.
+	 */
+	public void setTickMillis(long tickMillis) {
+		Assert.isTrue(tickMillis > 0, "'tickMillis' must be 1 or higher");
+		this.tickMillis = tickMillis;
+	}
+
+	/**
+	 * Set the number of buckets per level of the wheel, as a power of two.
+	 * Default is 512, covering about 5 seconds on the finest level with the
+	 * default tick duration, 43 minutes on the next level, and so on.
+	 */
+	public void setWheelSize(int wheelSize) {
+		Assert.isTrue(wheelSize > 1 && Integer.bitCount(wheelSize) == 1, "'wheelSize' must be a power of two");
+		this.wheelSize = wheelSize;
+	}
+
+	/**
+	 * Set a custom {@link ErrorHandler} strategy.
+	 */
+	public void setErrorHandler(ErrorHandler errorHandler) {
+		this.errorHandler = errorHandler;
+	}
+
+	/**
+	 * Return the number of tasks currently waiting in the wheel, as of the last tick.
+	 */
+	public int getScheduledTaskCount() {
+		return this.scheduledTaskCount;
+	}
+
+
+	@Override
+	protected ExecutorService initializeExecutor(
+			ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+
+		this.bits = Integer.numberOfTrailingZeros(this.wheelSize);
+		this.mask = this.wheelSize - 1;
+		this.buckets = new WheelTask[(63 + this.bits - 1) / this.bits][this.wheelSize];
+		this.currentTick = 0;
+		this.tickNanos = TimeUnit.MILLISECONDS.toNanos(this.tickMillis);
+		this.startNanos = System.nanoTime();
+		this.workerExecutor = new ThreadPoolExecutor(this.poolSize, this.poolSize, 0, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(), threadFactory, rejectedExecutionHandler);
+		this.running = true;
+		this.timerThread = threadFactory.newThread(this::runTimer);
+		this.timerThread.start();
+		return this.workerExecutor;
+	}
+
+	/**
+	 * Stop the timer thread, cancelling all tasks still waiting in the wheel,
+	 * and shut down the worker threads.
+	 */
+	@Override
+	public void shutdown() {
+		this.running = false;
+		Thread timerThread = this.timerThread;
+		if (timerThread != null) {
+			LockSupport.unpark(timerThread);
+			try {
+				timerThread.join(TimeUnit.SECONDS.toMillis(1));
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		super.shutdown();
+	}
+
+	private ExecutorService getWorkerExecutor() {
+		Assert.state(this.workerExecutor != null, "TimingWheelTaskScheduler not initialized");
+		return this.workerExecutor;
+	}
+
+
+	// SchedulingTaskExecutor implementation
+
+	@Override
+	public void execute(Runnable task) {
+		ExecutorService executor = getWorkerExecutor();
+		try {
+			executor.execute(errorHandlingTask(task, false));
+		}
+		catch (RejectedExecutionException ex) {
+			throw new TaskRejectedException("Executor [" + executor + "] did not accept task: " + task, ex);
+		}
+	}
+
+	@Override
+	public void execute(Runnable task, long startTimeout) {
+		execute(task);
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		ExecutorService executor = getWorkerExecutor();
+		try {
+			return executor.submit(errorHandlingTask(task, false));
+		}
+		catch (RejectedExecutionException ex) {
+			throw new TaskRejectedException("Executor [" + executor + "] did not accept task: " + task, ex);
+		}
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		ExecutorService executor = getWorkerExecutor();
+		try {
+			return executor.submit(task);
+		}
+		catch (RejectedExecutionException ex) {
+			throw new TaskRejectedException("Executor [" + executor + "] did not accept task: " + task, ex);
+		}
+	}
+
+
+	// TaskScheduler implementation
+
+	@Override
+	@Nullable
+	public ScheduledFuture<?> schedule(Runnable task, Trigger trigger) {
+		ErrorHandler errorHandler = this.errorHandler;
+		if (errorHandler == null) {
+			errorHandler = TaskUtils.getDefaultErrorHandler(true);
+		}
+		TriggerTask triggerTask = new TriggerTask(TaskUtils.decorateTaskWithErrorHandler(task, errorHandler, true), trigger);
+		if (!triggerTask.scheduleNext()) {
+			return null;
+		}
+		return enqueue(triggerTask, task);
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable task, Date startTime) {
+		return enqueue(new WheelTask(errorHandlingTask(task, false), toNanos(startTime), 0), task);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Date startTime, long period) {
+		Assert.isTrue(period > 0, "'period' must be positive");
+		return enqueue(new WheelTask(errorHandlingTask(task, true), toNanos(startTime),
+				TimeUnit.MILLISECONDS.toNanos(period)), task);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period) {
+		return scheduleAtFixedRate(task, new Date(), period);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Date startTime, long delay) {
+		Assert.isTrue(delay > 0, "'delay' must be positive");
+		return enqueue(new WheelTask(errorHandlingTask(task, true), toNanos(startTime),
+				-TimeUnit.MILLISECONDS.toNanos(delay)), task);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay) {
+		return scheduleWithFixedDelay(task, new Date(), delay);
+	}
+
+
+	private Runnable errorHandlingTask(Runnable task, boolean isRepeatingTask) {
+		return TaskUtils.decorateTaskWithErrorHandler(task, this.errorHandler, isRepeatingTask);
+	}
+
+	private ScheduledFuture<?> enqueue(WheelTask wheelTask, Runnable task) {
+		getWorkerExecutor();
+		if (!this.running) {
+			throw new TaskRejectedException("TimingWheelTaskScheduler has been shut down - did not accept task: " + task);
+		}
+		this.pendingTasks.add(wheelTask);
+		if (!this.running) {
+			// Shut down concurrently: the timer thread may have drained the queue already.
+			this.pendingTasks.remove(wheelTask);
+			wheelTask.cancel(false);
+			throw new TaskRejectedException("TimingWheelTaskScheduler has been shut down - did not accept task: " + task);
+		}
+		return wheelTask;
+	}
+
+	private static long toNanos(Date time) {
+		long delay = TimeUnit.MILLISECONDS.toNanos(time.getTime() - System.currentTimeMillis());
+		// Keep far-future deadlines from overflowing
+		return System.nanoTime() + Math.min(delay, Long.MAX_VALUE >> 2);
+	}
+
+
+	// Timer thread
+
+	private void runTimer() {
+		try {
+			while (this.running) {
+				long nextTickNanos = this.startNanos + (this.currentTick + 1) * this.tickNanos;
+				long remaining = nextTickNanos - System.nanoTime();
+				if (remaining > 0) {
+					LockSupport.parkNanos(this, remaining);
+				}
+				else {
+					advance(this.currentTick + 1);
+				}
+			}
+		}
+		catch (Throwable ex) {
+			logger.error("Timing wheel thread terminated unexpectedly", ex);
+		}
+		finally {
+			cancelAll();
+		}
+	}
+
+	private void advance(long tick) {
+		this.currentTick = tick;
+		WheelTask task;
+		while ((task = this.pendingTasks.poll()) != null) {
+			if (!task.isCancelled()) {
+				insert(task);
+			}
+		}
+		while ((task = this.cancelledTasks.poll()) != null) {
+			if (task.level >= 0) {
+				unlink(task);
+			}
+		}
+		WheelTask[][] buckets = obtainBuckets();
+		// Cascade tasks from coarser levels whose slot comes due, highest level first
+		for (int level = buckets.length - 1; level > 0; level--) {
+			if ((tick & ((1L << (this.bits * level)) - 1)) == 0) {
+				WheelTask cascaded = detach(level, (int) ((tick >>> (this.bits * level)) & this.mask));
+				while (cascaded != null) {
+					WheelTask next = cascaded.next;
+					cascaded.next = null;
+					insert(cascaded);
+					cascaded = next;
+				}
+			}
+		}
+		WheelTask expired = detach(0, (int) (tick & this.mask));
+		while (expired != null) {
+			WheelTask next = expired.next;
+			expired.next = null;
+			dispatch(expired);
+			expired = next;
+		}
+	}
+
+	private void insert(WheelTask task) {
+		long deadlineTick = -Math.floorDiv(this.startNanos - task.deadlineNanos, this.tickNanos);
+		long tick = this.currentTick;
+		if (deadlineTick <= tick) {
+			dispatch(task);
+			return;
+		}
+		int level = (63 - Long.numberOfLeadingZeros(deadlineTick ^ tick)) / this.bits;
+		int slot = (int) ((deadlineTick >>> (this.bits * level)) & this.mask);
+		WheelTask[] levelBuckets = obtainBuckets()[level];
+		WheelTask head = levelBuckets[slot];
+		task.level = level;
+		task.slot = slot;
+		task.prev = null;
+		task.next = head;
+		if (head != null) {
+			head.prev = task;
+		}
+		levelBuckets[slot] = task;
+		this.scheduledTaskCount++;
+	}
+
+	private void unlink(WheelTask task) {
+		if (task.prev != null) {
+			task.prev.next = task.next;
+		}
+		else {
+			obtainBuckets()[task.level][task.slot] = task.next;
+		}
+		if (task.next != null) {
+			task.next.prev = task.prev;
+		}
+		task.prev = null;
+		task.next = null;
+		task.level = -1;
+		this.scheduledTaskCount--;
+	}
+
+	/**
+	 * Remove all tasks from the given bucket, returning them as a singly-linked list.
+	 */
+	@Nullable
+	private WheelTask detach(int level, int slot) {
+		WheelTask[] levelBuckets = obtainBuckets()[level];
+		WheelTask head = levelBuckets[slot];
+		levelBuckets[slot] = null;
+		for (WheelTask task = head; task != null; task = task.next) {
+			task.prev = null;
+			task.level = -1;
+			this.scheduledTaskCount--;
+		}
+		return head;
+	}
+
+	private void dispatch(WheelTask task) {
+		if (task.isCancelled()) {
+			return;
+		}
+		try {
+			getWorkerExecutor().execute(task);
+		}
+		catch (RejectedExecutionException ex) {
+			task.cancel(false);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Worker executor did not accept scheduled task - cancelled", ex);
+			}
+		}
+	}
+
+	private void cancelAll() {
+		WheelTask[][] buckets = this.buckets;
+		if (buckets != null) {
+			for (int level = 0; level < buckets.length; level++) {
+				for (int slot = 0; slot < buckets[level].length; slot++) {
+					WheelTask task = detach(level, slot);
+					while (task != null) {
+						WheelTask next = task.next;
+						task.next = null;
+						task.cancel(false);
+						task = next;
+					}
+				}
+			}
+		}
+		WheelTask task;
+		while ((task = this.pendingTasks.poll()) != null) {
+			task.cancel(false);
+		}
+		this.cancelledTasks.clear();
+		this.scheduledTaskCount = 0;
+	}
+
+	private WheelTask[][] obtainBuckets() {
+		Assert.state(this.buckets != null, "TimingWheelTaskScheduler not initialized");
+		return this.buckets;
+	}
+
+
+	/**
+	 * A task in the wheel: either a one-time task or a periodic task with a
+	 * positive fixed rate or a negative fixed delay, in nanoseconds.
+	 */
+	private class WheelTask extends FutureTask<Object> implements ScheduledFuture<Object> {
+
+		volatile long deadlineNanos;
+
+		private final long periodNanos;
+
+		// Bucket linkage, only accessed by the timer thread
+
+		int level = -1;
+
+		int slot;
+
+		@Nullable
+		WheelTask prev;
+
+		@Nullable
+		WheelTask next;
+
+		WheelTask(Runnable task, long deadlineNanos, long periodNanos) {
+			super(task, null);
+			this.deadlineNanos = deadlineNanos;
+			this.periodNanos = periodNanos;
+		}
+
+		@Override
+		public void run() {
+			if (this.periodNanos == 0) {
+				super.run();
+			}
+			else if (runAndReset()) {
+				this.deadlineNanos = (this.periodNanos > 0 ? this.deadlineNanos + this.periodNanos :
+						System.nanoTime() - this.periodNanos);
+				reschedule();
+			}
+		}
+
+		void reschedule() {
+			if (running) {
+				pendingTasks.add(this);
+				if (running) {
+					return;
+				}
+				pendingTasks.remove(this);
+			}
+			cancel(false);
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled) {
+				cancelledTasks.add(this);
+			}
+			return cancelled;
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			if (this == other) {
+				return 0;
+			}
+			long diff = getDelay(TimeUnit.NANOSECONDS) - other.getDelay(TimeUnit.NANOSECONDS);
+			return (diff == 0 ? 0 : ((diff < 0) ? -1 : 1));
+		}
+	}
+
+
+	/**
+	 * A task rescheduled according to the next execution time suggested by a
+	 * {@link Trigger}, completing once the trigger does not fire anymore.
+	 */
+	private class TriggerTask extends WheelTask {
+
+		private final Trigger trigger;
+
+		private final SimpleTriggerContext triggerContext = new SimpleTriggerContext();
+
+		@Nullable
+		private Date scheduledExecutionTime;
+
+		TriggerTask(Runnable task, Trigger trigger) {
+			super(task, 0, 0);
+			this.trigger = trigger;
+		}
+
+		boolean scheduleNext() {
+			this.scheduledExecutionTime = this.trigger.nextExecutionTime(this.triggerContext);
+			if (this.scheduledExecutionTime == null) {
+				return false;
+			}
+			this.deadlineNanos = toNanos(this.scheduledExecutionTime);
+			return true;
+		}
+
+		@Override
+		public void run() {
+			Date actualExecutionTime = new Date();
+			boolean completed = runAndReset();
+			Date completionTime = new Date();
+			Assert.state(this.scheduledExecutionTime != null, "No scheduled execution");
+			this.triggerContext.update(this.scheduledExecutionTime, actualExecutionTime, completionTime);
+			if (completed) {
+				if (scheduleNext()) {
+					reschedule();
+				}
+				else {
+					set(null);
+				}
+			}
+		}
+	}
+
+}
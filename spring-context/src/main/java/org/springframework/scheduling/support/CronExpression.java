@@ -0,0 +1,406 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Representation of a
+ * <a href="https://www.manpagez.com/man/5/crontab/">crontab expression</a>
+ * that can calculate the next time it matches, based on {@code java.time}.
+ *
+ * <p>The expression is a list of six single space-separated fields: representing
+ * second, minute, hour, day, month, weekday. Month and weekday names can be
+ * given as the first three letters of the English names. The syntax and
+ * semantics are the same as for {@link CronSequenceGenerator}: in particular,
+ * a day needs to match both the day-of-month and the day-of-week field.
+ *
+ * <p>On parsing, each field is compiled into a bit mask, and the day fields into
+ * a table of matching days per month, keyed by the weekday of the first day of
+ * the month. The next match is then found field by field through constant-time
+ * bit lookups, advancing at most once per month for the date part and without
+ * any {@code Calendar} arithmetic. Searches are bounded to 400 years, i.e. a
+ * full Gregorian cycle: an expression which never matches yields no next time.
+ *
+ * <p>Example expressions:
+ * <ul>
+ * <li>"0 0 * * * *" = the top of every hour of every day.</li>
+ * <li>"*&#47;10 * * * * *" = every ten seconds.</li>
+ * <li>"0 0 8-10 * * *" = 8, 9 and 10 o'clock of every day.</li>
+ * <li>"0 0 6,19 * * *" = 6:00 AM and 7:00 PM every day.</li>
+ * <li>"0 0/30 8-10 * * *" = 8:00, 8:30, 9:00, 9:30, 10:00 and 10:30 every day.</li>
+ * <li>"0 0 9-17 * * MON-FRI" = on the hour nine-to-five weekdays</li>
+ * <li>"0 0 0 25 12 ?" = every Christmas Day at midnight</li>
+ * </ul>
+ *
+ * @since 5.3
+ * @see CronTrigger
+ */
+public final class CronExpression {
+
+	private static final int MAX_YEARS = 400;
+
+	private static final int[] MONTH_OFFSETS = {0, 3, 2, 5, 0, 3, 5, 1, 4, 6, 2, 4};
+
+
+	private final String expression;
+
+	private final long seconds;
+
+	private final long minutes;
+
+	private final long hours;
+
+	private final long daysOfMonth;
+
+	private final long months;
+
+	// ISO days of week: bit 1 for Monday up to bit 7 for Sunday
+	private final long daysOfWeek;
+
+	// Matching days of month (bits 1 to 31), indexed by ISO day of week of the first day minus one
+	private final long[] daysByFirstDayOfWeek = new long[7];
+
+
+	private CronExpression(String expression, String[] fields) {
+		this.expression = expression;
+		this.seconds = parseField(fields[0], 0, 60);
+		this.minutes = parseField(fields[1], 0, 60);
+		this.hours = parseField(fields[2], 0, 24);
+		this.daysOfMonth = parseDaysField(fields[3], 32) & ~1L;
+		this.months = parseField(replaceOrdinals(fields[4], "FOO,JAN,FEB,MAR,APR,MAY,JUN,JUL,AUG,SEP,OCT,NOV,DEC"), 1, 13);
+		long cronDaysOfWeek = parseDaysField(replaceOrdinals(fields[5], "SUN,MON,TUE,WED,THU,FRI,SAT"), 8);
+		// Sunday can be represented as 0 or 7 in cron, and is 7 in ISO
+		this.daysOfWeek = (cronDaysOfWeek | ((cronDaysOfWeek & 1L) << 7)) & ~1L;
+		for (int firstDayOfWeek = 1; firstDayOfWeek <= 7; firstDayOfWeek++) {
+			long days = 0;
+			for (int day = 1; day <= 31; day++) {
+				int dayOfWeek = (firstDayOfWeek + day - 2) % 7 + 1;
+				if ((this.daysOfMonth & (1L << day)) != 0 && (this.daysOfWeek & (1L << dayOfWeek)) != 0) {
+					days |= (1L << day);
+				}
+			}
+			this.daysByFirstDayOfWeek[firstDayOfWeek - 1] = days;
+		}
+	}
+
+
+	/**
+	 * Parse the given cron expression.
+	 * @param expression a space-separated list of time fields
+	 * @return the compiled cron expression
+	 * @throws IllegalArgumentException if the expression cannot be parsed
+	 */
+	public static CronExpression parse(String expression) throws IllegalArgumentException {
+		Assert.notNull(expression, "Expression must not be null");
+		String[] fields = StringUtils.tokenizeToStringArray(expression, " ");
+		if (fields.length != 6) {
+			throw new IllegalArgumentException(String.format(
+					"Cron expression must consist of 6 fields (found %d in \"%s\")", fields.length, expression));
+		}
+		try {
+			return new CronExpression(expression, fields);
+		}
+		catch (NumberFormatException ex) {
+			throw new IllegalArgumentException(ex.getMessage() + " in expression \"" + expression + "\"", ex);
+		}
+	}
+
+	/**
+	 * Determine whether the given expression represents a valid cron expression.
+	 * @param expression the expression to evaluate
+	 * @return {@code true} if the given expression is a valid cron expression
+	 */
+	public static boolean isValidExpression(@Nullable String expression) {
+		if (expression == null) {
+			return false;
+		}
+		try {
+			parse(expression);
+			return true;
+		}
+		catch (IllegalArgumentException ex) {
+			return false;
+		}
+	}
+
+
+	/**
+	 * Calculate the next time matching this expression, strictly after the given
+	 * time and with a whole number of seconds, in the time zone of the given time.
+	 * @param from the time to start searching from
+	 * @return the next matching time, or {@code null} if there is none
+	 */
+	@Nullable
+	public ZonedDateTime next(ZonedDateTime from) {
+		LocalDateTime start = from.toLocalDateTime().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+		int maxYear = start.getYear() + MAX_YEARS;
+		while (true) {
+			LocalDateTime next = nextLocal(start, maxYear);
+			if (next == null) {
+				return null;
+			}
+			// Local times in a daylight saving gap get shifted forward
+			ZonedDateTime result = ZonedDateTime.ofLocal(next, from.getZone(), from.getOffset());
+			if (result.isAfter(from)) {
+				return result;
+			}
+			start = next.plusSeconds(1);
+		}
+	}
+
+	/**
+	 * Calculate the given number of next times matching this expression,
+	 * each strictly after the previous one, starting after the given time.
+	 * @param from the time to start searching from
+	 * @param count the maximum number of times to calculate
+	 * @return the next matching times, fewer than requested if there are no more
+	 */
+	public List<ZonedDateTime> next(ZonedDateTime from, int count) {
+		Assert.isTrue(count >= 0, "Count must not be negative");
+		List<ZonedDateTime> result = new ArrayList<>(count);
+		ZonedDateTime next = from;
+		while (result.size() < count && (next = next(next)) != null) {
+			result.add(next);
+		}
+		return result;
+	}
+
+	@Nullable
+	private LocalDateTime nextLocal(LocalDateTime start, int maxYear) {
+		int year = start.getYear();
+		int month = start.getMonthValue();
+		int day = start.getDayOfMonth();
+		int hour = start.getHour();
+		int minute = start.getMinute();
+		int second = start.getSecond();
+
+		while (year <= maxYear) {
+			int nextMonth = nextBit(this.months, month);
+			if (nextMonth < 0) {
+				year++;
+				month = 1;
+				day = 1;
+				hour = minute = second = 0;
+				continue;
+			}
+			if (nextMonth != month) {
+				month = nextMonth;
+				day = 1;
+				hour = minute = second = 0;
+			}
+
+			int length = Month.of(month).length(Year.isLeap(year));
+			long days = this.daysByFirstDayOfWeek[dayOfWeek(year, month, 1) - 1] & ((1L << (length + 1)) - 1);
+			int nextDay = nextBit(days, day);
+			if (nextDay < 0) {
+				month++;
+				if (month > 12) {
+					year++;
+					month = 1;
+				}
+				day = 1;
+				hour = minute = second = 0;
+				continue;
+			}
+			if (nextDay != day) {
+				day = nextDay;
+				hour = minute = second = 0;
+			}
+
+			int nextHour = nextBit(this.hours, hour);
+			if (nextHour < 0) {
+				day++;
+				hour = minute = second = 0;
+				continue;
+			}
+			if (nextHour != hour) {
+				hour = nextHour;
+				minute = second = 0;
+			}
+
+			int nextMinute = nextBit(this.minutes, minute);
+			if (nextMinute < 0) {
+				hour++;
+				minute = second = 0;
+				continue;
+			}
+			if (nextMinute != minute) {
+				minute = nextMinute;
+				second = 0;
+			}
+
+			int nextSecond = nextBit(this.seconds, second);
+			if (nextSecond < 0) {
+				minute++;
+				second = 0;
+				continue;
+			}
+			return LocalDateTime.of(year, month, day, hour, minute, nextSecond);
+		}
+		return null;
+	}
+
+	/**
+	 * Return the lowest set bit in the given mask at or above the given index, or -1 if none.
+	 */
+	private static int nextBit(long mask, int from) {
+		if (from > 63) {
+			return -1;
+		}
+		long bits = mask & (-1L << from);
+		return (bits != 0 ? Long.numberOfTrailingZeros(bits) : -1);
+	}
+
+	/**
+	 * Return the ISO day of week (1 for Monday to 7 for Sunday) of the given date.
+	 */
+	private static int dayOfWeek(int year, int month, int day) {
+		// Sakamoto's method, yielding 0 for Sunday
+		int y = (month < 3 ? year - 1 : year);
+		int sundayBased = Math.floorMod(y + Math.floorDiv(y, 4) - Math.floorDiv(y, 100) + Math.floorDiv(y, 400) +
+				MONTH_OFFSETS[month - 1] + day, 7);
+		return (sundayBased == 0 ? 7 : sundayBased);
+	}
+
+
+	// Parsing logic invoked by the constructor
+
+	/**
+	 * Replace the values in the comma-separated list (case insensitive)
+	 * with their index in the list.
+	 */
+	private static String replaceOrdinals(String value, String commaSeparatedList) {
+		String[] list = StringUtils.commaDelimitedListToStringArray(commaSeparatedList);
+		for (int i = 0; i < list.length; i++) {
+			value = StringUtils.replace(value.toUpperCase(), list[i], Integer.toString(i));
+		}
+		return value;
+	}
+
+	private long parseDaysField(String field, int max) {
+		return parseField(field.contains("?") ? "*" : field, 0, max);
+	}
+
+	private long parseField(String value, int min, int max) {
+		long bits = 0;
+		for (String field : StringUtils.delimitedListToStringArray(value, ",")) {
+			if (!field.contains("/")) {
+				// Not an incrementer so it must be a range (possibly empty)
+				int[] range = parseRange(field, min, max);
+				for (int i = range[0]; i <= range[1]; i++) {
+					bits |= (1L << i);
+				}
+			}
+			else {
+				String[] split = StringUtils.delimitedListToStringArray(field, "/");
+				if (split.length > 2) {
+					throw new IllegalArgumentException("Incrementer has more than two fields: '" +
+							field + "' in expression \"" + this.expression + "\"");
+				}
+				int[] range = parseRange(split[0], min, max);
+				if (!split[0].contains("-")) {
+					range[1] = max - 1;
+				}
+				int delta = Integer.parseInt(split[1]);
+				if (delta <= 0) {
+					throw new IllegalArgumentException("Incrementer delta must be 1 or higher: '" +
+							field + "' in expression \"" + this.expression + "\"");
+				}
+				for (int i = range[0]; i <= range[1]; i += delta) {
+					bits |= (1L << i);
+				}
+			}
+		}
+		return bits;
+	}
+
+	private int[] parseRange(String field, int min, int max) {
+		int[] result = new int[2];
+		if (field.contains("*")) {
+			result[0] = min;
+			result[1] = max - 1;
+			return result;
+		}
+		if (!field.contains("-")) {
+			result[0] = result[1] = Integer.parseInt(field);
+		}
+		else {
+			String[] split = StringUtils.delimitedListToStringArray(field, "-");
+			if (split.length > 2) {
+				throw new IllegalArgumentException("Range has more than two fields: '" +
+						field + "' in expression \"" + this.expression + "\"");
+			}
+			result[0] = Integer.parseInt(split[0]);
+			result[1] = Integer.parseInt(split[1]);
+		}
+		if (result[0] >= max || result[1] >= max) {
+			throw new IllegalArgumentException("Range exceeds maximum (" + max + "): '" +
+					field + "' in expression \"" + this.expression + "\"");
+		}
+		if (result[0] < min || result[1] < min) {
+			throw new IllegalArgumentException("Range less than minimum (" + min + "): '" +
+					field + "' in expression \"" + this.expression + "\"");
+		}
+		if (result[0] > result[1]) {
+			throw new IllegalArgumentException("Invalid inverted range: '" + field +
+					"' in expression \"" + this.expression + "\"");
+		}
+		return result;
+	}
+
+
+	@Override
+	public boolean equals(@Nullable Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof CronExpression)) {
+			return false;
+		}
+		CronExpression otherCron = (CronExpression) other;
+		return (this.months == otherCron.months && this.daysOfMonth == otherCron.daysOfMonth &&
+				this.daysOfWeek == otherCron.daysOfWeek && this.hours == otherCron.hours &&
+				this.minutes == otherCron.minutes && this.seconds == otherCron.seconds);
+	}
+
+	@Override
+	public int hashCode() {
+		return (17 * Long.hashCode(this.months) + 29 * Long.hashCode(this.daysOfMonth) +
+				37 * Long.hashCode(this.daysOfWeek) + 41 * Long.hashCode(this.hours) +
+				53 * Long.hashCode(this.minutes) + 61 * Long.hashCode(this.seconds));
+	}
+
+	/**
+	 * Return the expression string used to create this {@code CronExpression}.
+	 */
+	@Override
+	public String toString() {
+		return this.expression;
+	}
+
+}
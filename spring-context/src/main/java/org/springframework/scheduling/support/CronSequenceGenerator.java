@@ -48,11 +48,16 @@ import org.springframework.util.StringUtils;
  * <li>"0 0 0 25 12 ?" = every Christmas Day at midnight</li>
  * </ul>
  *
+ * <p>Note that {@link CronTrigger} is based on the {@code java.time}-based
+ * {@link CronExpression} as of 5.3, which supports the same syntax and
+ * precompiles the expression for faster evaluation.
+ *
  * @author Dave Syer
  * @author Juergen Hoeller
  * @author Ruslan Sibgatullin
  * @since 3.0
  * @see CronTrigger
+ * @see CronExpression
  */
 public class CronSequenceGenerator {
 
@@ -0,0 +1,403 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.CustomizableThreadCreator;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TaskExecutor} implementation that runs each task on a new virtual
+ * thread if the JVM supports them ({@code Thread.ofVirtual()}, detected
+ * reflectively), and on a bounded pool of platform threads otherwise.
+ * This makes blocking I/O in asynchronous tasks cheap where available,
+ * e.g. for {@code @Async} methods or MVC {@code Callable} processing.
+ *
+ * <p>Supports limiting concurrent tasks through the "concurrencyLimit" bean
+ * property, enforced by a {@link Semaphore} rather than a monitor-based counter.
+ * Submitting threads wait for a permit, up to the given start timeout if any.
+ * By default, the number of concurrent tasks is unlimited.
+ *
+ * <p>{@link #invokeAll} forks a group of tasks and joins them in the calling
+ * thread, cancelling the remaining tasks as soon as one of them fails.
+ *
+ * <p>Any fallback pool gets shut down on {@link #close()}, which is being
+ * called automatically when declared as a bean.
+ *
+ * @since 5.3
+ * @see #setConcurrencyLimit
+ * @see #setFallbackPoolSize
+ * @see SimpleAsyncTaskExecutor
+ * @see org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor#setExecutor
+ * @see org.springframework.web.context.request.async.WebAsyncManager#setTaskExecutor
+ */
+@SuppressWarnings("serial")
+public class VirtualThreadTaskExecutor extends CustomizableThreadCreator
+		implements AsyncListenableTaskExecutor, AutoCloseable {
+
+	/**
+	 * Permit any number of concurrent tasks: that is, don't throttle concurrency.
+	 */
+	public static final int UNBOUNDED_CONCURRENCY = -1;
+
+
+	private boolean virtualThreads = true;
+
+	private int fallbackPoolSize = 256;
+
+	@Nullable
+	private volatile Semaphore concurrencyPermits;
+
+	@Nullable
+	private TaskDecorator taskDecorator;
+
+	@Nullable
+	private transient volatile ThreadFactory virtualThreadFactory;
+
+	@Nullable
+	private transient volatile ThreadPoolExecutor fallbackExecutor;
+
+
+	/**
+	 * Create a new VirtualThreadTaskExecutor with default thread name prefix.
+	 */
+	public VirtualThreadTaskExecutor() {
+		super();
+	}
+
+	/**
+	 * Create a new VirtualThreadTaskExecutor with the given thread name prefix.
+	 * @param threadNamePrefix the prefix to use for the names of newly created threads
+	 */
+	public VirtualThreadTaskExecutor(String threadNamePrefix) {
+		super(threadNamePrefix);
+	}
+
+
+	/**
+	 * Specify whether to use virtual threads when supported by the JVM.
+	 * <p>Default is "true". Switch this to "false" to always use the fallback pool.
+	 */
+	public void setVirtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+
+	/**
+	 * Set the maximum number of platform threads of the fallback pool,
+	 * used when virtual threads are not available.
+	 * <p>Default is 256. Further tasks get queued until a thread becomes available.
+	 */
+	public void setFallbackPoolSize(int fallbackPoolSize) {
+		Assert.isTrue(fallbackPoolSize > 0, "Fallback pool size must be greater than 0");
+		this.fallbackPoolSize = fallbackPoolSize;
+	}
+
+	/**
+	 * Specify a custom {@link TaskDecorator} to be applied to any {@link Runnable}
+	 * about to be executed.
+	 * @see SimpleAsyncTaskExecutor#setTaskDecorator
+	 */
+	public void setTaskDecorator(TaskDecorator taskDecorator) {
+		this.taskDecorator = taskDecorator;
+	}
+
+	/**
+	 * Set the maximum number of tasks allowed to run concurrently.
+	 * -1 indicates no concurrency limit at all.
+	 * <p>This is designed as a config time setting: changing the limit while
+	 * tasks are running leads to inconsistent permit counts.
+	 * @see #UNBOUNDED_CONCURRENCY
+	 */
+	public void setConcurrencyLimit(int concurrencyLimit) {
+		Assert.isTrue(concurrencyLimit == UNBOUNDED_CONCURRENCY || concurrencyLimit > 0,
+				"Concurrency limit must be -1 or greater than 0");
+		this.concurrencyPermits = (concurrencyLimit != UNBOUNDED_CONCURRENCY ? new Semaphore(concurrencyLimit) : null);
+	}
+
+	/**
+	 * Return the number of tasks which may currently be started without waiting,
+	 * or -1 if there is no concurrency limit.
+	 */
+	public int getAvailableConcurrency() {
+		Semaphore permits = this.concurrencyPermits;
+		return (permits != null ? permits.availablePermits() : UNBOUNDED_CONCURRENCY);
+	}
+
+	/**
+	 * Return whether tasks are executed on virtual threads.
+	 */
+	public boolean isUsingVirtualThreads() {
+		return (obtainVirtualThreadFactory() != null);
+	}
+
+
+	/**
+	 * Executes the given task, waiting for a permit if a concurrency limit is set.
+	 */
+	@Override
+	public void execute(Runnable task) {
+		execute(task, TIMEOUT_INDEFINITE);
+	}
+
+	/**
+	 * Executes the given task, waiting at most the given start timeout for a permit
+	 * if a concurrency limit is set. Urgent tasks (with 'immediate' timeout) bypass
+	 * the concurrency limit.
+	 * @throws TaskTimeoutException if no permit became available within the timeout
+	 * @see #TIMEOUT_IMMEDIATE
+	 */
+	@Override
+	public void execute(Runnable task, long startTimeout) {
+		Assert.notNull(task, "Runnable must not be null");
+		Runnable taskToUse = (this.taskDecorator != null ? this.taskDecorator.decorate(task) : task);
+		Semaphore permits = this.concurrencyPermits;
+		if (permits != null && startTimeout > TIMEOUT_IMMEDIATE) {
+			acquire(permits, startTimeout, task);
+			try {
+				doExecute(new PermitReleasingRunnable(taskToUse, permits));
+			}
+			catch (RuntimeException ex) {
+				permits.release();
+				throw ex;
+			}
+		}
+		else {
+			doExecute(taskToUse);
+		}
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		FutureTask<Object> future = new FutureTask<>(task, null);
+		execute(future, TIMEOUT_INDEFINITE);
+		return future;
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		FutureTask<T> future = new FutureTask<>(task);
+		execute(future, TIMEOUT_INDEFINITE);
+		return future;
+	}
+
+	@Override
+	public ListenableFuture<?> submitListenable(Runnable task) {
+		ListenableFutureTask<Object> future = new ListenableFutureTask<>(task, null);
+		execute(future, TIMEOUT_INDEFINITE);
+		return future;
+	}
+
+	@Override
+	public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
+		ListenableFutureTask<T> future = new ListenableFutureTask<>(task);
+		execute(future, TIMEOUT_INDEFINITE);
+		return future;
+	}
+
+	/**
+	 * Execute the given tasks concurrently and wait for all of them to complete.
+	 * <p>If any task fails, or if the calling thread gets interrupted while
+	 * waiting, all tasks which are still running get cancelled and interrupted
+	 * before this method returns: no task outlives the invocation.
+	 * @param tasks the tasks to execute
+	 * @return the results of the tasks, in the order of the given collection
+	 * @throws ExecutionException for the first task which failed
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public <T> List<T> invokeAll(Collection<? extends Callable<T>> tasks)
+			throws ExecutionException, InterruptedException {
+
+		Assert.notNull(tasks, "Tasks must not be null");
+		BlockingQueue<Future<T>> completed = new LinkedBlockingQueue<>();
+		List<Future<T>> futures = new ArrayList<>(tasks.size());
+		boolean done = false;
+		try {
+			for (Callable<T> task : tasks) {
+				FutureTask<T> future = new FutureTask<T>(task) {
+					@Override
+					protected void done() {
+						completed.add(this);
+					}
+				};
+				futures.add(future);
+				execute(future, TIMEOUT_INDEFINITE);
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				// Fails fast on the first failed task, in order of completion
+				completed.take().get();
+			}
+			List<T> results = new ArrayList<>(futures.size());
+			for (Future<T> future : futures) {
+				results.add(future.get());
+			}
+			done = true;
+			return results;
+		}
+		finally {
+			if (!done) {
+				for (Future<T> future : futures) {
+					future.cancel(true);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Shut down the fallback pool, if any, letting queued tasks complete.
+	 */
+	@Override
+	public void close() {
+		ThreadPoolExecutor executor = this.fallbackExecutor;
+		if (executor != null) {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Template method for the actual execution of a task.
+	 * <p>The default implementation starts a new virtual thread if available,
+	 * or hands the task to the fallback pool otherwise.
+	 * @param task the Runnable to execute
+	 */
+	protected void doExecute(Runnable task) {
+		ThreadFactory threadFactory = obtainVirtualThreadFactory();
+		if (threadFactory != null) {
+			threadFactory.newThread(task).start();
+			return;
+		}
+		try {
+			obtainFallbackExecutor().execute(task);
+		}
+		catch (RejectedExecutionException ex) {
+			throw new TaskRejectedException("Executor [" + this + "] did not accept task: " + task, ex);
+		}
+	}
+
+
+	private void acquire(Semaphore permits, long startTimeout, Runnable task) {
+		try {
+			if (startTimeout == TIMEOUT_INDEFINITE) {
+				permits.acquire();
+			}
+			else if (!permits.tryAcquire(startTimeout, TimeUnit.MILLISECONDS)) {
+				throw new TaskTimeoutException("Concurrency limit of executor [" + this +
+						"] did not allow to start task within " + startTimeout + " ms: " + task);
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new TaskRejectedException("Interrupted while waiting to start task: " + task, ex);
+		}
+	}
+
+	@Nullable
+	private ThreadFactory obtainVirtualThreadFactory() {
+		if (!this.virtualThreads) {
+			return null;
+		}
+		ThreadFactory threadFactory = this.virtualThreadFactory;
+		if (threadFactory == null) {
+			threadFactory = createVirtualThreadFactory(getThreadNamePrefix());
+			if (threadFactory == null) {
+				this.virtualThreads = false;
+				return null;
+			}
+			this.virtualThreadFactory = threadFactory;
+		}
+		return threadFactory;
+	}
+
+	private ThreadPoolExecutor obtainFallbackExecutor() {
+		ThreadPoolExecutor executor = this.fallbackExecutor;
+		if (executor == null) {
+			synchronized (this) {
+				executor = this.fallbackExecutor;
+				if (executor == null) {
+					executor = new ThreadPoolExecutor(this.fallbackPoolSize, this.fallbackPoolSize,
+							60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), this::createThread);
+					executor.allowCoreThreadTimeOut(true);
+					this.fallbackExecutor = executor;
+				}
+			}
+		}
+		return executor;
+	}
+
+	/**
+	 * Create a factory for named virtual threads through {@code Thread.ofVirtual()},
+	 * or return {@code null} if virtual threads are not supported on this JVM.
+	 */
+	@Nullable
+	private static ThreadFactory createVirtualThreadFactory(String threadNamePrefix) {
+		try {
+			Method ofVirtual = Thread.class.getMethod("ofVirtual");
+			Object builder = ofVirtual.invoke(null);
+			Class<?> builderType = ofVirtual.getReturnType();
+			builder = builderType.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 1L);
+			return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+		}
+		catch (Throwable ex) {
+			// Not on a JVM with (enabled) virtual threads
+			return null;
+		}
+	}
+
+
+	/**
+	 * Releases the concurrency permit after the target Runnable has finished.
+	 */
+	private static class PermitReleasingRunnable implements Runnable {
+
+		private final Runnable target;
+
+		private final Semaphore permits;
+
+		PermitReleasingRunnable(Runnable target, Semaphore permits) {
+			this.target = target;
+			this.permits = permits;
+		}
+
+		@Override
+		public void run() {
+			try {
+				this.target.run();
+			}
+			finally {
+				this.permits.release();
+			}
+		}
+	}
+
+}
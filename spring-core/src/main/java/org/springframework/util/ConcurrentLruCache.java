@@ -0,0 +1,227 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Simple LRU (Least Recently Used) cache, bounded by a specified cache limit.
+ *
+ * <p>This implementation is backed by a {@code ConcurrentHashMap} for storing
+ * the cached values and a {@code ConcurrentLinkedQueue} for ordering the keys.
+ * Lookups of cached values are lock-free: a hit merely marks the entry as
+ * recently used. Once the size limit is exceeded, eviction sweeps the queue
+ * in insertion order, giving recently used entries a second chance before
+ * removing them; this approximates LRU ordering without any bookkeeping
+ * on the read path. Entries removed explicitly are dropped from the queue
+ * lazily, once they outnumber the size limit.
+ *
+ * <p>Values are computed through the given generator function on a cache miss.
+ * Concurrent misses for the same key may compute the value more than once,
+ * with only the first value getting cached.
+ *
+ * @since 5.3
+ * @param <K> the type of the key used for cache retrieval
+ * @param <V> the type of the cached values
+ * @see #get
+ */
+public class ConcurrentLruCache<K, V> {
+
+	private final int sizeLimit;
+
+	private final Function<K, V> generator;
+
+	private final ConcurrentHashMap<K, Entry<K, V>> cache = new ConcurrentHashMap<>();
+
+	private final Queue<Entry<K, V>> queue = new ConcurrentLinkedQueue<>();
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	/** Number of removed entries still held in the queue. */
+	private final AtomicInteger staleEntries = new AtomicInteger();
+
+
+	/**
+	 * Create a new cache instance with the given limit and generator function.
+	 * @param sizeLimit the maximum number of entries in the cache
+	 * (0 indicates no caching, always generating a new value)
+	 * @param generator a function to generate a new value for a given key
+	 */
+	public ConcurrentLruCache(int sizeLimit, Function<K, V> generator) {
+		Assert.isTrue(sizeLimit >= 0, "Cache size limit must not be negative");
+		Assert.notNull(generator, "Generator function must not be null");
+		this.sizeLimit = sizeLimit;
+		this.generator = generator;
+	}
+
+
+	/**
+	 * Retrieve an entry from the cache, potentially triggering generation
+	 * of the value.
+	 * @param key the key to retrieve the entry for
+	 * @return the cached or newly generated value
+	 */
+	public V get(K key) {
+		if (this.sizeLimit == 0) {
+			return this.generator.apply(key);
+		}
+
+		Entry<K, V> entry = this.cache.get(key);
+		if (entry != null) {
+			entry.markUsed();
+			return entry.value;
+		}
+
+		Entry<K, V> newEntry = new Entry<>(key, this.generator.apply(key));
+		Entry<K, V> existing = this.cache.putIfAbsent(key, newEntry);
+		if (existing != null) {
+			existing.markUsed();
+			return existing.value;
+		}
+		this.queue.add(newEntry);
+		if (this.cache.size() > this.sizeLimit) {
+			evict();
+		}
+		else if (this.staleEntries.get() > this.sizeLimit) {
+			purgeStaleEntries();
+		}
+		return newEntry.value;
+	}
+
+	private void evict() {
+		// Another thread evicting already? It is going to catch up with our entry as well.
+		if (!this.evictionLock.tryLock()) {
+			return;
+		}
+		try {
+			while (this.cache.size() > this.sizeLimit) {
+				Entry<K, V> entry = this.queue.poll();
+				if (entry == null) {
+					break;
+				}
+				if (this.cache.get(entry.key) != entry) {
+					// Stale queue entry for a removed key
+					this.staleEntries.decrementAndGet();
+					continue;
+				}
+				if (entry.used) {
+					entry.used = false;
+					this.queue.add(entry);
+				}
+				else {
+					this.cache.remove(entry.key, entry);
+				}
+			}
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	private void purgeStaleEntries() {
+		if (!this.evictionLock.tryLock()) {
+			return;
+		}
+		try {
+			this.staleEntries.set(0);
+			this.queue.removeIf(entry -> this.cache.get(entry.key) != entry);
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Determine whether the given key is present in this cache.
+	 * @param key the key to check for
+	 * @return {@code true} if the key is present,
+	 * {@code false} if there was no matching key
+	 */
+	public boolean contains(K key) {
+		return this.cache.containsKey(key);
+	}
+
+	/**
+	 * Immediately remove the given key and any associated value.
+	 * @param key the key to evict the entry for
+	 * @return {@code true} if the key was present before,
+	 * {@code false} if there was no matching key
+	 */
+	public boolean remove(K key) {
+		if (this.cache.remove(key) != null) {
+			this.staleEntries.incrementAndGet();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Immediately remove all entries from this cache.
+	 */
+	public void clear() {
+		// Queue first: an entry added concurrently may end up stale in the queue,
+		// but never in the map without a queue entry.
+		this.queue.clear();
+		this.staleEntries.set(0);
+		this.cache.clear();
+	}
+
+	/**
+	 * Return the current size of the cache.
+	 * @see #sizeLimit()
+	 */
+	public int size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * Return the maximum number of entries in the cache
+	 * (0 indicates no caching, always generating a new value).
+	 * @see #size()
+	 */
+	public int sizeLimit() {
+		return this.sizeLimit;
+	}
+
+
+	private static final class Entry<K, V> {
+
+		final K key;
+
+		final V value;
+
+		volatile boolean used;
+
+		Entry(K key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		void markUsed() {
+			// Avoid writing to a shared cache line for hot entries which are marked already
+			if (!this.used) {
+				this.used = true;
+			}
+		}
+	}
+
+}
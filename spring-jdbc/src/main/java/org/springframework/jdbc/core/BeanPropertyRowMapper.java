@@ -59,12 +59,15 @@ import java.util.*;
  * will have been set to the primitive's default value instead of null.
  *
  * <p>Please note that this class is designed to provide convenience rather than high performance.
- * For best performance, consider using a custom {@link RowMapper} implementation.
+ * For best performance, consider using a custom {@link RowMapper} implementation,
+ * or a {@link CompiledRowMapper} which applies the same mapping rules through
+ * a mapping plan derived once per result set shape.
  *
  * @author Thomas Risberg
  * @author Juergen Hoeller
  * @since 2.5
  * @param <T> the result type
+ * @see CompiledRowMapper
  */
 public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 
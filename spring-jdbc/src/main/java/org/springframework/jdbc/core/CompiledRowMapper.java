@@ -0,0 +1,671 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.KotlinDetector;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link RowMapper} implementation that converts a row into a new instance
+ * of the specified mapped target class, following the same column-to-property
+ * matching rules as {@link BeanPropertyRowMapper} but without per-row
+ * reflection overhead.
+ *
+ * <p>On the first row of each result set shape, a mapping plan is derived from
+ * the result set meta-data: every mapped column gets a typed reader (calling
+ * e.g. {@code ResultSet.getLong} or {@code ResultSet.getString} directly) and a
+ * {@link MethodHandle} for the corresponding setter. Subsequent rows are mapped
+ * by running the plan, without {@code BeanWrapper} instances, property lookups
+ * or name matching.
+ *
+ * <p>Classes without a no-arg constructor are instantiated through their data
+ * class constructor, that is, a Kotlin primary constructor or a single
+ * constructor declaring parameters, binding columns to constructor parameters
+ * by name. Remaining columns are bound to setters, as for regular beans.
+ * Constructor parameter names need to be available, e.g. through compiling
+ * with {@code -parameters} or with debug information.
+ *
+ * <p>Values which are not of the target type already are converted through the
+ * configured {@link ConversionService}. {@code null} values for primitive
+ * constructor parameters are turned into the primitive's default value.
+ *
+ * @since 5.3
+ * @param <T> the result type
+ * @see BeanPropertyRowMapper
+ */
+public class CompiledRowMapper<T> implements RowMapper<T> {
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+
+	/** Logger available to subclasses. */
+	protected final Log logger = LogFactory.getLog(getClass());
+
+	/** The class we are mapping to. */
+	private final Class<T> mappedClass;
+
+	/** The data class constructor, or {@code null} for a no-arg constructor. */
+	@Nullable
+	private final Constructor<T> mappedConstructor;
+
+	/** Parameter names of the data class constructor. */
+	private final String[] constructorParameterNames;
+
+	/** Whether to instantiate through {@link BeanUtils}, e.g. for Kotlin default values. */
+	private final boolean instantiateViaBeanUtils;
+
+	/** Map of the fields we provide mapping for. */
+	private final Map<String, PropertyDescriptor> mappedFields = new HashMap<>();
+
+	/** Set of bean properties we provide mapping for. */
+	private final Set<String> mappedProperties = new HashSet<>();
+
+	/** Whether we're strictly validating. */
+	private boolean checkFullyPopulated = false;
+
+	/** Whether we're defaulting primitives when mapping a null value. */
+	private boolean primitivesDefaultedForNullValue = false;
+
+	/** ConversionService for binding JDBC values to bean properties. */
+	@Nullable
+	private ConversionService conversionService = DefaultConversionService.getSharedInstance();
+
+	/** Mapping plans per result set shape, keyed by column names. */
+	private final Map<String, MappingPlan> mappingPlans = new ConcurrentHashMap<>(4);
+
+	/** The plan bound to the most recently mapped result set. */
+	@Nullable
+	private volatile ResultSetBinding currentBinding;
+
+
+	/**
+	 * Create a new {@code CompiledRowMapper}, accepting unpopulated
+	 * properties in the target bean.
+	 * @param mappedClass the class that each row should be mapped to
+	 */
+	public CompiledRowMapper(Class<T> mappedClass) {
+		Assert.notNull(mappedClass, "Mapped class must not be null");
+		this.mappedClass = mappedClass;
+		this.mappedConstructor = determineMappedConstructor(mappedClass);
+
+		if (this.mappedConstructor != null) {
+			String[] paramNames = new DefaultParameterNameDiscoverer().getParameterNames(this.mappedConstructor);
+			if (paramNames == null) {
+				throw new InvalidDataAccessApiUsageException(
+						"Cannot resolve parameter names for constructor " + this.mappedConstructor);
+			}
+			this.constructorParameterNames = paramNames;
+			this.instantiateViaBeanUtils = (KotlinDetector.isKotlinReflectPresent() &&
+					KotlinDetector.isKotlinType(mappedClass));
+		}
+		else {
+			this.constructorParameterNames = new String[0];
+			this.instantiateViaBeanUtils = false;
+		}
+
+		Set<String> constructorParameters = new HashSet<>(Arrays.asList(this.constructorParameterNames));
+		for (String paramName : this.constructorParameterNames) {
+			this.mappedFields.put(lowerCaseName(paramName), null);
+			this.mappedFields.put(underscoreName(paramName), null);
+			this.mappedProperties.add(paramName);
+		}
+		for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(mappedClass)) {
+			if (pd.getWriteMethod() != null && !constructorParameters.contains(pd.getName())) {
+				this.mappedFields.put(lowerCaseName(pd.getName()), pd);
+				this.mappedFields.put(underscoreName(pd.getName()), pd);
+				this.mappedProperties.add(pd.getName());
+			}
+		}
+	}
+
+	/**
+	 * Create a new {@code CompiledRowMapper}.
+	 * @param mappedClass the class that each row should be mapped to
+	 * @param checkFullyPopulated whether we're strictly validating that
+	 * all bean properties have been mapped from corresponding database fields
+	 */
+	public CompiledRowMapper(Class<T> mappedClass, boolean checkFullyPopulated) {
+		this(mappedClass);
+		this.checkFullyPopulated = checkFullyPopulated;
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private static <T> Constructor<T> determineMappedConstructor(Class<T> mappedClass) {
+		Constructor<T> ctor = BeanUtils.findPrimaryConstructor(mappedClass);
+		if (ctor == null) {
+			Constructor<?>[] ctors = mappedClass.getConstructors();
+			if (ctors.length != 1) {
+				ctors = mappedClass.getDeclaredConstructors();
+			}
+			if (ctors.length == 1) {
+				ctor = (Constructor<T>) ctors[0];
+			}
+			else {
+				try {
+					ctor = mappedClass.getDeclaredConstructor();
+				}
+				catch (NoSuchMethodException ex) {
+					throw new InvalidDataAccessApiUsageException("No default or unique data class " +
+							"constructor found for " + mappedClass, ex);
+				}
+			}
+		}
+		return (ctor.getParameterCount() > 0 ? ctor : null);
+	}
+
+
+	/**
+	 * Get the class that we are mapping to.
+	 */
+	public final Class<T> getMappedClass() {
+		return this.mappedClass;
+	}
+
+	/**
+	 * Set whether we're strictly validating that all bean properties have been mapped
+	 * from corresponding database fields.
+	 * <p>Default is {@code false}, accepting unpopulated properties in the target bean.
+	 * Since the validation is part of the mapping plan, it only costs once per
+	 * result set shape.
+	 */
+	public void setCheckFullyPopulated(boolean checkFullyPopulated) {
+		this.checkFullyPopulated = checkFullyPopulated;
+		resetMappingPlans();
+	}
+
+	/**
+	 * Return whether we're strictly validating that all bean properties have been
+	 * mapped from corresponding database fields.
+	 */
+	public boolean isCheckFullyPopulated() {
+		return this.checkFullyPopulated;
+	}
+
+	/**
+	 * Set whether we're defaulting Java primitives in the case of mapping a null value
+	 * from corresponding database fields.
+	 * <p>Default is {@code false}, throwing an exception when nulls are mapped to Java
+	 * primitive properties. Primitive constructor parameters always get defaulted.
+	 */
+	public void setPrimitivesDefaultedForNullValue(boolean primitivesDefaultedForNullValue) {
+		this.primitivesDefaultedForNullValue = primitivesDefaultedForNullValue;
+	}
+
+	/**
+	 * Return whether we're defaulting Java primitives in the case of mapping a null value
+	 * from corresponding database fields.
+	 */
+	public boolean isPrimitivesDefaultedForNullValue() {
+		return this.primitivesDefaultedForNullValue;
+	}
+
+	/**
+	 * Set a {@link ConversionService} for converting JDBC values to property and
+	 * constructor parameter types, or {@code null} for none.
+	 * <p>Default is a {@link DefaultConversionService}.
+	 */
+	public void setConversionService(@Nullable ConversionService conversionService) {
+		this.conversionService = conversionService;
+	}
+
+	/**
+	 * Return a {@link ConversionService} for converting JDBC values to property
+	 * and constructor parameter types, or {@code null} if none.
+	 */
+	@Nullable
+	public ConversionService getConversionService() {
+		return this.conversionService;
+	}
+
+	/**
+	 * Convert a name in camelCase to an underscored name in lower case.
+	 * Any upper case letters are converted to lower case with a preceding underscore.
+	 * @param name the original name
+	 * @return the converted name
+	 * @see BeanPropertyRowMapper#underscoreName
+	 */
+	protected String underscoreName(String name) {
+		if (!StringUtils.hasLength(name)) {
+			return "";
+		}
+
+		StringBuilder result = new StringBuilder();
+		result.append(lowerCaseName(name.substring(0, 1)));
+		for (int i = 1; i < name.length(); i++) {
+			String s = name.substring(i, i + 1);
+			String slc = lowerCaseName(s);
+			if (!s.equals(slc)) {
+				result.append("_").append(slc);
+			}
+			else {
+				result.append(s);
+			}
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Convert the given name to lower case.
+	 * By default, conversions will happen within the US locale.
+	 * @param name the original name
+	 * @return the converted name
+	 */
+	protected String lowerCaseName(String name) {
+		return name.toLowerCase(Locale.US);
+	}
+
+
+	/**
+	 * Map the current row through the mapping plan for the given result set,
+	 * deriving the plan from the result set meta-data on first access.
+	 */
+	@Override
+	public T mapRow(ResultSet rs, int rowNumber) throws SQLException {
+		MappingPlan plan = getMappingPlan(rs);
+
+		T mappedObject;
+		if (this.mappedConstructor != null) {
+			Object[] args = new Object[plan.argumentColumns.length];
+			for (int i = 0; i < args.length; i++) {
+				int index = plan.argumentColumns[i];
+				if (index > 0) {
+					args[i] = convertIfNecessary(
+							plan.argumentReaders[i].read(rs, index), plan.argumentTypes[i], plan.argumentNames[i]);
+				}
+			}
+			mappedObject = instantiate(plan, args);
+		}
+		else {
+			mappedObject = instantiate(plan, null);
+		}
+
+		for (int i = 0; i < plan.propertyColumns.length; i++) {
+			int index = plan.propertyColumns[i];
+			Object value = convertIfNecessary(
+					plan.propertyReaders[i].read(rs, index), plan.propertyTypes[i], plan.propertyNames[i]);
+			if (value == null && plan.propertyTypes[i].isPrimitive()) {
+				if (this.primitivesDefaultedForNullValue) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Skipping null value for row " + rowNumber + " and primitive property '" +
+								plan.propertyNames[i] + "' on object: " + mappedObject);
+					}
+					continue;
+				}
+				throw new TypeMismatchException((Object) null, plan.propertyTypes[i]);
+			}
+			try {
+				plan.setters[i].invokeExact((Object) mappedObject, value);
+			}
+			catch (RuntimeException | Error ex) {
+				throw ex;
+			}
+			catch (Throwable ex) {
+				throw new DataRetrievalFailureException(
+						"Unable to map column " + index + " to property '" + plan.propertyNames[i] + "'", ex);
+			}
+		}
+
+		return mappedObject;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T instantiate(MappingPlan plan, @Nullable Object[] args) {
+		if (this.instantiateViaBeanUtils) {
+			Assert.state(this.mappedConstructor != null && args != null, "No data class constructor");
+			return BeanUtils.instantiateClass(this.mappedConstructor, args);
+		}
+		if (args != null) {
+			for (int i = 0; i < args.length; i++) {
+				if (args[i] == null && plan.argumentTypes[i].isPrimitive()) {
+					args[i] = plan.argumentDefaults[i];
+				}
+			}
+		}
+		try {
+			Object mappedObject = plan.factory.invokeExact(args);
+			return (T) mappedObject;
+		}
+		catch (RuntimeException | Error ex) {
+			throw ex;
+		}
+		catch (Throwable ex) {
+			throw new DataRetrievalFailureException("Failed to instantiate " + this.mappedClass, ex);
+		}
+	}
+
+	@Nullable
+	private Object convertIfNecessary(@Nullable Object value, Class<?> targetType, String name) {
+		if (value == null || ClassUtils.isAssignableValue(targetType, value)) {
+			return value;
+		}
+		ConversionService cs = this.conversionService;
+		if (cs != null && cs.canConvert(value.getClass(), targetType)) {
+			return cs.convert(value, targetType);
+		}
+		throw new TypeMismatchException(value, targetType);
+	}
+
+	private MappingPlan getMappingPlan(ResultSet rs) throws SQLException {
+		ResultSetBinding binding = this.currentBinding;
+		if (binding != null && binding.resultSet.get() == rs) {
+			return binding.plan;
+		}
+
+		ResultSetMetaData rsmd = rs.getMetaData();
+		int columnCount = rsmd.getColumnCount();
+		String[] columns = new String[columnCount];
+		for (int index = 1; index <= columnCount; index++) {
+			columns[index - 1] = JdbcUtils.lookupColumnName(rsmd, index);
+		}
+		MappingPlan plan = this.mappingPlans.computeIfAbsent(
+				StringUtils.arrayToCommaDelimitedString(columns), key -> buildMappingPlan(columns));
+		this.currentBinding = new ResultSetBinding(rs, plan);
+		return plan;
+	}
+
+	private void resetMappingPlans() {
+		this.mappingPlans.clear();
+		this.currentBinding = null;
+	}
+
+	private MappingPlan buildMappingPlan(String[] columns) {
+		Map<String, Integer> argumentColumns = new HashMap<>();
+		List<Integer> propertyColumns = new ArrayList<>();
+		List<PropertyDescriptor> properties = new ArrayList<>();
+		Set<String> populatedProperties = new HashSet<>();
+
+		for (int index = 1; index <= columns.length; index++) {
+			String column = columns[index - 1];
+			String field = lowerCaseName(StringUtils.delete(column, " "));
+			if (!this.mappedFields.containsKey(field)) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("No property found for column '" + column + "' mapped to field '" + field + "'");
+				}
+				continue;
+			}
+			PropertyDescriptor pd = this.mappedFields.get(field);
+			String name = (pd != null ? pd.getName() : findConstructorParameterName(field));
+			if (!populatedProperties.add(name)) {
+				continue;
+			}
+			if (pd != null) {
+				propertyColumns.add(index);
+				properties.add(pd);
+			}
+			else {
+				argumentColumns.put(name, index);
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Mapping column '" + column + "' to " + (pd != null ? "property" : "constructor parameter") +
+						" '" + name + "'");
+			}
+		}
+
+		if (this.checkFullyPopulated && !populatedProperties.equals(this.mappedProperties)) {
+			throw new InvalidDataAccessApiUsageException("Given ResultSet does not contain all fields " +
+					"necessary to populate object of " + this.mappedClass + ": " + this.mappedProperties);
+		}
+		return new MappingPlan(argumentColumns, propertyColumns, properties);
+	}
+
+	private String findConstructorParameterName(String field) {
+		for (String paramName : this.constructorParameterNames) {
+			if (lowerCaseName(paramName).equals(field) || underscoreName(paramName).equals(field)) {
+				return paramName;
+			}
+		}
+		throw new IllegalStateException("No constructor parameter for field '" + field + "'");
+	}
+
+
+	/**
+	 * Static factory method to create a new {@code CompiledRowMapper}.
+	 * @param mappedClass the class that each row should be mapped to
+	 * @see #newInstance(Class, ConversionService)
+	 */
+	public static <T> CompiledRowMapper<T> newInstance(Class<T> mappedClass) {
+		return new CompiledRowMapper<>(mappedClass);
+	}
+
+	/**
+	 * Static factory method to create a new {@code CompiledRowMapper}.
+	 * @param mappedClass the class that each row should be mapped to
+	 * @param conversionService the {@link ConversionService} for converting
+	 * JDBC values to target types, or {@code null} for none
+	 * @see #newInstance(Class)
+	 * @see #setConversionService
+	 */
+	public static <T> CompiledRowMapper<T> newInstance(
+			Class<T> mappedClass, @Nullable ConversionService conversionService) {
+
+		CompiledRowMapper<T> rowMapper = newInstance(mappedClass);
+		rowMapper.setConversionService(conversionService);
+		return rowMapper;
+	}
+
+
+	/**
+	 * Reader for a single column value, preferring a typed {@code ResultSet}
+	 * getter for the target type.
+	 */
+	@FunctionalInterface
+	private interface ColumnReader {
+
+		@Nullable
+		Object read(ResultSet rs, int index) throws SQLException;
+
+		static ColumnReader forType(Class<?> type) {
+			if (String.class == type) {
+				return ResultSet::getString;
+			}
+			else if (long.class == type || Long.class == type) {
+				return (rs, index) -> {
+					long value = rs.getLong(index);
+					return (value == 0 && rs.wasNull() ? null : value);
+				};
+			}
+			else if (int.class == type || Integer.class == type) {
+				return (rs, index) -> {
+					int value = rs.getInt(index);
+					return (value == 0 && rs.wasNull() ? null : value);
+				};
+			}
+			else if (boolean.class == type || Boolean.class == type) {
+				return (rs, index) -> {
+					boolean value = rs.getBoolean(index);
+					return (!value && rs.wasNull() ? null : value);
+				};
+			}
+			else if (double.class == type || Double.class == type) {
+				return (rs, index) -> {
+					double value = rs.getDouble(index);
+					return (value == 0 && rs.wasNull() ? null : value);
+				};
+			}
+			else if (float.class == type || Float.class == type) {
+				return (rs, index) -> {
+					float value = rs.getFloat(index);
+					return (value == 0 && rs.wasNull() ? null : value);
+				};
+			}
+			else if (short.class == type || Short.class == type) {
+				return (rs, index) -> {
+					short value = rs.getShort(index);
+					return (value == 0 && rs.wasNull() ? null : value);
+				};
+			}
+			else if (byte.class == type || Byte.class == type) {
+				return (rs, index) -> {
+					byte value = rs.getByte(index);
+					return (value == 0 && rs.wasNull() ? null : value);
+				};
+			}
+			else if (BigDecimal.class == type) {
+				return ResultSet::getBigDecimal;
+			}
+			return (rs, index) -> JdbcUtils.getResultSetValue(rs, index, type);
+		}
+	}
+
+
+	/**
+	 * Mapping plan for one result set shape: column indexes, typed readers
+	 * and method handles for the constructor arguments and properties.
+	 */
+	private final class MappingPlan {
+
+		/** Factory taking the constructor arguments (or {@code null}) as an array. */
+		final MethodHandle factory;
+
+		final String[] argumentNames;
+
+		final Class<?>[] argumentTypes;
+
+		@Nullable
+		final Object[] argumentDefaults;
+
+		/** Column index per constructor argument, 0 if not mapped. */
+		final int[] argumentColumns;
+
+		final ColumnReader[] argumentReaders;
+
+		final String[] propertyNames;
+
+		final Class<?>[] propertyTypes;
+
+		final int[] propertyColumns;
+
+		final ColumnReader[] propertyReaders;
+
+		final MethodHandle[] setters;
+
+		MappingPlan(Map<String, Integer> argumentColumns, List<Integer> propertyColumns,
+				List<PropertyDescriptor> properties) {
+
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			Constructor<T> ctor = mappedConstructor;
+			try {
+				if (ctor != null) {
+					int count = ctor.getParameterCount();
+					this.argumentNames = constructorParameterNames;
+					this.argumentTypes = ctor.getParameterTypes();
+					this.argumentDefaults = new Object[count];
+					this.argumentColumns = new int[count];
+					this.argumentReaders = new ColumnReader[count];
+					for (int i = 0; i < count; i++) {
+						Integer index = argumentColumns.get(this.argumentNames[i]);
+						this.argumentColumns[i] = (index != null ? index : 0);
+						this.argumentReaders[i] = ColumnReader.forType(this.argumentTypes[i]);
+						if (this.argumentTypes[i].isPrimitive()) {
+							this.argumentDefaults[i] = Array.get(Array.newInstance(this.argumentTypes[i], 1), 0);
+						}
+					}
+					if (instantiateViaBeanUtils) {
+						this.factory = MethodHandles.constant(Object.class, null);
+					}
+					else {
+						ReflectionUtils.makeAccessible(ctor);
+						this.factory = lookup.unreflectConstructor(ctor)
+								.asType(MethodType.genericMethodType(count))
+								.asSpreader(Object[].class, count);
+					}
+				}
+				else {
+					this.argumentNames = new String[0];
+					this.argumentTypes = new Class<?>[0];
+					this.argumentDefaults = null;
+					this.argumentColumns = new int[0];
+					this.argumentReaders = new ColumnReader[0];
+					Constructor<T> defaultCtor = mappedClass.getDeclaredConstructor();
+					ReflectionUtils.makeAccessible(defaultCtor);
+					this.factory = MethodHandles.dropArguments(
+							lookup.unreflectConstructor(defaultCtor).asType(MethodType.methodType(Object.class)),
+							0, Object[].class);
+				}
+
+				int count = properties.size();
+				this.propertyNames = new String[count];
+				this.propertyTypes = new Class<?>[count];
+				this.propertyColumns = new int[count];
+				this.propertyReaders = new ColumnReader[count];
+				this.setters = new MethodHandle[count];
+				for (int i = 0; i < count; i++) {
+					PropertyDescriptor pd = properties.get(i);
+					Method writeMethod = pd.getWriteMethod();
+					Assert.state(writeMethod != null, "No write method");
+					ReflectionUtils.makeAccessible(writeMethod);
+					this.propertyNames[i] = pd.getName();
+					this.propertyTypes[i] = pd.getPropertyType();
+					this.propertyColumns[i] = propertyColumns.get(i);
+					this.propertyReaders[i] = ColumnReader.forType(this.propertyTypes[i]);
+					this.setters[i] = lookup.unreflect(writeMethod).asType(SETTER_TYPE);
+				}
+			}
+			catch (NoSuchMethodException | IllegalAccessException ex) {
+				throw new InvalidDataAccessApiUsageException("Cannot create mapping plan for " + mappedClass, ex);
+			}
+		}
+	}
+
+
+	/**
+	 * Association of a mapping plan with the result set it has last been used for,
+	 * not preventing the result set from being garbage-collected.
+	 */
+	private final class ResultSetBinding {
+
+		final WeakReference<ResultSet> resultSet;
+
+		final MappingPlan plan;
+
+		ResultSetBinding(ResultSet resultSet, MappingPlan plan) {
+			this.resultSet = new WeakReference<>(resultSet);
+			this.plan = plan;
+		}
+	}
+
+}
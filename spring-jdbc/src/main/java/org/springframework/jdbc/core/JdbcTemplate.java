@@ -39,6 +39,10 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.sql.*;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * <b>This is the central class in the JDBC core package.</b>
@@ -101,6 +105,12 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	 */
 	private int fetchSize = -1;
 
+	/**
+	 * If this variable is set to a value other than -1, it will be used for setting the
+	 * fetchSize property on statements used for streamed query processing.
+	 */
+	private int streamingFetchSize = -1;
+
 	/**
 	 * If this variable is set to a non-negative value, it will be used for setting the
 	 * maxRows property on statements used for query processing.
@@ -134,6 +144,12 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	 */
 	private boolean resultsMapCaseInsensitive = false;
 
+	/** If this variable is set to true, updates within a transaction will be deferred and batched. */
+	private boolean writeBehind = false;
+
+	/** The maximum number of deferred updates to collect before executing them as a batch. */
+	private int writeBehindBatchSize = 1000;
+
 
 	/**
 	 * Construct a new JdbcTemplate for bean usage.
@@ -208,6 +224,29 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return this.fetchSize;
 	}
 
+	/**
+	 * Set the fetch size to use for {@code queryForStream} calls, overriding
+	 * the regular {@link #setFetchSize fetch size} for streamed results only.
+	 * This allows for a driver-specific streaming mode without affecting
+	 * regular queries: e.g. {@code Integer.MIN_VALUE} for row-by-row streaming
+	 * on MySQL, or a positive cursor fetch size on PostgreSQL (which also
+	 * requires the query to run within a transaction).
+	 * <p>Default is -1, indicating to use the regular fetch size.
+	 * @since 5.3
+	 * @see #queryForStream(PreparedStatementCreator, PreparedStatementSetter, RowMapper)
+	 */
+	public void setStreamingFetchSize(int streamingFetchSize) {
+		this.streamingFetchSize = streamingFetchSize;
+	}
+
+	/**
+	 * Return the fetch size specified for {@code queryForStream} calls.
+	 * @since 5.3
+	 */
+	public int getStreamingFetchSize() {
+		return this.streamingFetchSize;
+	}
+
 	/**
 	 * Set the maximum number of rows for this JdbcTemplate. This is important for
 	 * processing subsets of large result sets, avoiding to read and hold the entire
@@ -298,6 +337,57 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return this.resultsMapCaseInsensitive;
 	}
 
+	/**
+	 * Set whether updates with SQL and arguments should be deferred while a
+	 * transaction with synchronization is active ("write-behind"). Default is "false".
+	 * <p>If enabled, {@link #update(String, Object...)} and
+	 * {@link #update(String, Object[], int[])} queue their statement in the current
+	 * transaction and return {@link Statement#SUCCESS_NO_INFO}. Consecutive updates
+	 * with identical SQL get executed as one JDBC batch before any other statement
+	 * is executed through this template, once the
+	 * {@linkplain #setWriteBehindBatchSize batch size} is reached, and before commit.
+	 * Pending updates get discarded on rollback. Use {@link #deferUpdate} for
+	 * access to the actual update count.
+	 * <p><b>NOTE:</b> Only statements executed through a JdbcTemplate with
+	 * write-behind enabled flush pending updates for the same DataSource.
+	 * Other data access code within the same transaction, e.g. an ORM or a
+	 * template without write-behind, needs to call {@link #flushPendingUpdates()}
+	 * first in order to see those updates.
+	 * @since 5.3
+	 * @see #deferUpdate
+	 * @see #flushPendingUpdates()
+	 */
+	public void setWriteBehind(boolean writeBehind) {
+		this.writeBehind = writeBehind;
+	}
+
+	/**
+	 * Return whether updates within a transaction are deferred and batched.
+	 * @since 5.3
+	 */
+	public boolean isWriteBehind() {
+		return this.writeBehind;
+	}
+
+	/**
+	 * Set the maximum number of consecutive deferred updates to collect before
+	 * executing them as a JDBC batch. Default is 1000.
+	 * @since 5.3
+	 * @see #setWriteBehind
+	 */
+	public void setWriteBehindBatchSize(int writeBehindBatchSize) {
+		Assert.isTrue(writeBehindBatchSize > 0, "Write-behind batch size must be greater than 0");
+		this.writeBehindBatchSize = writeBehindBatchSize;
+	}
+
+	/**
+	 * Return the maximum number of consecutive deferred updates per JDBC batch.
+	 * @since 5.3
+	 */
+	public int getWriteBehindBatchSize() {
+		return this.writeBehindBatchSize;
+	}
+
 
 	//-------------------------------------------------------------------------
 	// Methods dealing with a plain java.sql.Connection
@@ -307,6 +397,7 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	@Nullable
 	public <T> T execute(ConnectionCallback<T> action) throws DataAccessException {
 		Assert.notNull(action, "Callback object must not be null");
+		flushWriteBehind();
 
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
 		try {
@@ -353,15 +444,36 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	@Override
 	@Nullable
 	public <T> T execute(StatementCallback<T> action) throws DataAccessException {
+		return execute(action, true);
+	}
+
+	/**
+	 * Execute the given JDBC Statement callback, keeping the Statement and
+	 * its Connection open after successful completion if so requested.
+	 * @param action the callback to execute
+	 * @param closeResources whether to release the Statement and Connection
+	 * after successful completion; if {@code false}, the callback needs to return
+	 * a Stream which releases them when getting closed
+	 * @since 5.3
+	 * @see #queryForStream(String, RowMapper)
+	 */
+	@Nullable
+	private <T> T execute(StatementCallback<T> action, boolean closeResources) throws DataAccessException {
 		Assert.notNull(action, "Callback object must not be null");
+		flushWriteBehind();
 
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
 		Statement stmt = null;
+		boolean keepOpen = false;
 		try {
 			stmt = con.createStatement();
 			applyStatementSettings(stmt);
 			T result = action.doInStatement(stmt);
 			handleWarnings(stmt);
+			if (!closeResources) {
+				result = releaseOnClose(result, stmt, con, null);
+				keepOpen = true;
+			}
 			return result;
 		}
 		catch (SQLException ex) {
@@ -375,8 +487,10 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 			throw translateException("StatementCallback", sql, ex);
 		}
 		finally {
-			JdbcUtils.closeStatement(stmt);
-			DataSourceUtils.releaseConnection(con, getDataSource());
+			if (!keepOpen) {
+				JdbcUtils.closeStatement(stmt);
+				DataSourceUtils.releaseConnection(con, getDataSource());
+			}
 		}
 	}
 
@@ -449,6 +563,30 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return result(query(sql, new RowMapperResultSetExtractor<>(rowMapper)));
 	}
 
+	@Override
+	public <T> Stream<T> queryForStream(String sql, RowMapper<T> rowMapper) throws DataAccessException {
+		Assert.notNull(sql, "SQL must not be null");
+		Assert.notNull(rowMapper, "RowMapper must not be null");
+		if (logger.isDebugEnabled()) {
+			logger.debug("Executing SQL query [" + sql + "]");
+		}
+
+		class StreamStatementCallback implements StatementCallback<Stream<T>>, SqlProvider {
+			@Override
+			public Stream<T> doInStatement(Statement stmt) throws SQLException {
+				applyStreamingSettings(stmt);
+				ResultSet rs = stmt.executeQuery(sql);
+				return new ResultSetSpliterator<>(rs, rowMapper).stream().onClose(() -> JdbcUtils.closeResultSet(rs));
+			}
+			@Override
+			public String getSql() {
+				return sql;
+			}
+		}
+
+		return result(execute(new StreamStatementCallback(), false));
+	}
+
 	@Override
 	public Map<String, Object> queryForMap(String sql) throws DataAccessException {
 		return result(queryForObject(sql, getColumnMapRowMapper()));
@@ -589,8 +727,28 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	public <T> T execute(PreparedStatementCreator psc, PreparedStatementCallback<T> action)
 			throws DataAccessException {
 
+		return execute(psc, action, true);
+	}
+
+	/**
+	 * Execute the given JDBC PreparedStatement callback, keeping the
+	 * PreparedStatement and its Connection open after successful completion
+	 * if so requested.
+	 * @param psc a callback that creates a PreparedStatement given a Connection
+	 * @param action the callback to execute
+	 * @param closeResources whether to release the PreparedStatement and Connection
+	 * after successful completion; if {@code false}, the callback needs to return
+	 * a Stream which releases them when getting closed
+	 * @since 5.3
+	 * @see #queryForStream(PreparedStatementCreator, PreparedStatementSetter, RowMapper)
+	 */
+	@Nullable
+	private <T> T execute(PreparedStatementCreator psc, PreparedStatementCallback<T> action, boolean closeResources)
+			throws DataAccessException {
+
 		Assert.notNull(psc, "PreparedStatementCreator must not be null");
 		Assert.notNull(action, "Callback object must not be null");
+		flushWriteBehind();
 		if (logger.isDebugEnabled()) {
 			String sql = getSql(psc);
 			logger.debug("Executing prepared SQL statement" + (sql != null ? " [" + sql + "]" : ""));
@@ -598,11 +756,16 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
 		PreparedStatement ps = null;
+		boolean keepOpen = false;
 		try {
 			ps = psc.createPreparedStatement(con);
 			applyStatementSettings(ps);
 			T result = action.doInPreparedStatement(ps);
 			handleWarnings(ps);
+			if (!closeResources) {
+				result = releaseOnClose(result, ps, con, psc);
+				keepOpen = true;
+			}
 			return result;
 		}
 		catch (SQLException ex) {
@@ -620,11 +783,13 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 			throw translateException("PreparedStatementCallback", sql, ex);
 		}
 		finally {
-			if (psc instanceof ParameterDisposer) {
-				((ParameterDisposer) psc).cleanupParameters();
+			if (!keepOpen) {
+				if (psc instanceof ParameterDisposer) {
+					((ParameterDisposer) psc).cleanupParameters();
+				}
+				JdbcUtils.closeStatement(ps);
+				DataSourceUtils.releaseConnection(con, getDataSource());
 			}
-			JdbcUtils.closeStatement(ps);
-			DataSourceUtils.releaseConnection(con, getDataSource());
 		}
 	}
 
@@ -755,6 +920,62 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return result(query(sql, args, new RowMapperResultSetExtractor<>(rowMapper)));
 	}
 
+	/**
+	 * Query using a prepared statement, allowing for a PreparedStatementCreator
+	 * and a PreparedStatementSetter, mapping each row to a result object via a
+	 * RowMapper and turning it into an iterable and closeable Stream.
+	 * <p>The PreparedStatement and its Connection remain open until the Stream
+	 * gets closed; the rows are fetched lazily while the Stream is consumed.
+	 * @param psc a callback that creates a PreparedStatement given a Connection
+	 * @param pss a callback that knows how to set values on the prepared statement.
+	 * If this is {@code null}, the SQL will be assumed to contain no bind parameters.
+	 * @param rowMapper a callback that will map one object per row
+	 * @return the result Stream, containing mapped objects, needing to be
+	 * closed once fully processed (e.g. through a try-with-resources clause)
+	 * @throws DataAccessException if the query fails
+	 * @since 5.3
+	 * @see #setStreamingFetchSize
+	 */
+	public <T> Stream<T> queryForStream(PreparedStatementCreator psc, @Nullable PreparedStatementSetter pss,
+			RowMapper<T> rowMapper) throws DataAccessException {
+
+		Assert.notNull(rowMapper, "RowMapper must not be null");
+		logger.debug("Executing prepared SQL query as Stream");
+
+		return result(execute(psc, ps -> {
+			if (pss != null) {
+				pss.setValues(ps);
+			}
+			applyStreamingSettings(ps);
+			ResultSet rs = ps.executeQuery();
+			return new ResultSetSpliterator<>(rs, rowMapper).stream().onClose(() -> {
+				JdbcUtils.closeResultSet(rs);
+				if (pss instanceof ParameterDisposer) {
+					((ParameterDisposer) pss).cleanupParameters();
+				}
+			});
+		}, false));
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(PreparedStatementCreator psc, RowMapper<T> rowMapper) throws DataAccessException {
+		return queryForStream(psc, null, rowMapper);
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(String sql, @Nullable PreparedStatementSetter pss, RowMapper<T> rowMapper)
+			throws DataAccessException {
+
+		return queryForStream(new SimplePreparedStatementCreator(sql), pss, rowMapper);
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(String sql, RowMapper<T> rowMapper, @Nullable Object... args)
+			throws DataAccessException {
+
+		return queryForStream(new SimplePreparedStatementCreator(sql), newArgPreparedStatementSetter(args), rowMapper);
+	}
+
 	@Override
 	@Nullable
 	public <T> T queryForObject(String sql, Object[] args, int[] argTypes, RowMapper<T> rowMapper)
@@ -906,14 +1127,68 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 
 	@Override
 	public int update(String sql, Object[] args, int[] argTypes) throws DataAccessException {
+		if (this.writeBehind) {
+			WriteBehindQueue queue = WriteBehindQueue.obtain(obtainDataSource());
+			if (queue != null) {
+				queue.add(this, sql, args.clone(), argTypes.clone(), this.writeBehindBatchSize);
+				return Statement.SUCCESS_NO_INFO;
+			}
+		}
 		return update(sql, newArgTypePreparedStatementSetter(args, argTypes));
 	}
 
 	@Override
 	public int update(String sql, @Nullable Object... args) throws DataAccessException {
+		if (this.writeBehind) {
+			WriteBehindQueue queue = WriteBehindQueue.obtain(obtainDataSource());
+			if (queue != null) {
+				queue.add(this, sql, (args != null ? args.clone() : new Object[0]), null, this.writeBehindBatchSize);
+				return Statement.SUCCESS_NO_INFO;
+			}
+		}
 		return update(sql, newArgPreparedStatementSetter(args));
 	}
 
+	/**
+	 * Issue a single SQL update operation (such as an insert, update or delete
+	 * statement) via a prepared statement, deferring it until the end of the
+	 * current transaction or the next statement if write-behind is enabled.
+	 * <p>The returned supplier gives access to the number of rows affected,
+	 * executing pending updates if necessary. Without write-behind or outside
+	 * of a transaction, the update gets executed immediately.
+	 * @param sql the SQL containing bind parameters
+	 * @param args arguments to bind to the query
+	 * (leaving it to the PreparedStatement to guess the corresponding SQL type);
+	 * may also contain {@link SqlParameterValue} objects which indicate not
+	 * only the argument value but also the SQL type and optionally the scale
+	 * @return the supplier of the number of rows affected, throwing an
+	 * {@link IllegalStateException} if the update has been discarded on rollback
+	 * @throws DataAccessException if there is any problem issuing the update
+	 * @since 5.3
+	 * @see #setWriteBehind
+	 */
+	public IntSupplier deferUpdate(String sql, @Nullable Object... args) throws DataAccessException {
+		if (this.writeBehind) {
+			WriteBehindQueue queue = WriteBehindQueue.obtain(obtainDataSource());
+			if (queue != null) {
+				return queue.add(this, sql, (args != null ? args.clone() : new Object[0]), null, this.writeBehindBatchSize);
+			}
+		}
+		int count = update(sql, newArgPreparedStatementSetter(args));
+		return () -> count;
+	}
+
+	/**
+	 * Execute all updates deferred for this template's DataSource within the
+	 * current transaction, if any.
+	 * @throws DataAccessException if there is any problem executing the batch
+	 * @since 5.3
+	 * @see #setWriteBehind
+	 */
+	public void flushPendingUpdates() throws DataAccessException {
+		WriteBehindQueue.flush(obtainDataSource());
+	}
+
 	@Override
 	public int[] batchUpdate(String sql, final BatchPreparedStatementSetter pss) throws DataAccessException {
 		if (logger.isDebugEnabled()) {
@@ -1066,6 +1341,7 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 
 		Assert.notNull(csc, "CallableStatementCreator must not be null");
 		Assert.notNull(action, "Callback object must not be null");
+		flushWriteBehind();
 		if (logger.isDebugEnabled()) {
 			String sql = getSql(csc);
 			logger.debug("Calling stored procedure" + (sql != null ? " [" + sql  + "]" : ""));
@@ -1337,6 +1613,16 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		}
 	}
 
+	/**
+	 * Execute pending deferred updates before any other statement, if write-behind is enabled.
+	 * @see #setWriteBehind
+	 */
+	private void flushWriteBehind() {
+		if (this.writeBehind) {
+			WriteBehindQueue.flush(obtainDataSource());
+		}
+	}
+
 	/**
 	 * Prepare the given JDBC Statement (or PreparedStatement or CallableStatement),
 	 * applying statement settings such as fetch size, max rows, and query timeout.
@@ -1359,6 +1645,22 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		DataSourceUtils.applyTimeout(stmt, getDataSource(), getQueryTimeout());
 	}
 
+	/**
+	 * Prepare the given JDBC Statement for a {@code queryForStream} call,
+	 * applying the {@linkplain #setStreamingFetchSize streaming fetch size}
+	 * on top of the regular statement settings, if specified.
+	 * @param stmt the JDBC Statement to prepare
+	 * @throws SQLException if thrown by JDBC API
+	 * @since 5.3
+	 * @see #applyStatementSettings
+	 */
+	protected void applyStreamingSettings(Statement stmt) throws SQLException {
+		int streamingFetchSize = getStreamingFetchSize();
+		if (streamingFetchSize != -1) {
+			stmt.setFetchSize(streamingFetchSize);
+		}
+	}
+
 	/**
 	 * Create a new arg-based PreparedStatementSetter using the args passed in.
 	 * <p>By default, we'll create an {@link ArgumentPreparedStatementSetter}.
@@ -1382,6 +1684,25 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return new ArgumentTypePreparedStatementSetter(args, argTypes);
 	}
 
+	/**
+	 * Register the release of the given Statement and Connection with the
+	 * given Stream, to be performed once the caller closes the Stream.
+	 * <p>Releases the Connection handle obtained from the DataSource rather
+	 * than the Statement's Connection, which might be the target Connection
+	 * behind a connection pool's handle.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T releaseOnClose(T result, Statement stmt, Connection con, @Nullable Object psc) {
+		Assert.state(result instanceof Stream, "Callback needs to return a Stream for deferred resource release");
+		return (T) ((Stream<?>) result).onClose(() -> {
+			if (psc instanceof ParameterDisposer) {
+				((ParameterDisposer) psc).cleanupParameters();
+			}
+			JdbcUtils.closeStatement(stmt);
+			DataSourceUtils.releaseConnection(con, getDataSource());
+		});
+	}
+
 	/**
 	 * Throw an SQLWarningException if we're not ignoring warnings,
 	 * otherwise log the warnings at debug level.
@@ -1597,4 +1918,58 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		}
 	}
 
+
+	/**
+	 * Spliterator for queryForStream adaptation of a ResultSet to a Stream,
+	 * advancing the ResultSet by one row per element.
+	 * @since 5.3
+	 */
+	private class ResultSetSpliterator<T> implements Spliterator<T> {
+
+		private final ResultSet rs;
+
+		private final RowMapper<T> rowMapper;
+
+		private int rowNum = 0;
+
+		public ResultSetSpliterator(ResultSet rs, RowMapper<T> rowMapper) {
+			this.rs = rs;
+			this.rowMapper = rowMapper;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			try {
+				if (this.rs.next()) {
+					action.accept(this.rowMapper.mapRow(this.rs, this.rowNum++));
+					return true;
+				}
+				return false;
+			}
+			catch (SQLException ex) {
+				throw translateException("ResultSetSpliterator", null, ex);
+			}
+		}
+
+		@Override
+		@Nullable
+		public Spliterator<T> trySplit() {
+			return null;
+		}
+
+		@Override
+		public long estimateSize() {
+			return Long.MAX_VALUE;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED;
+		}
+
+		public Stream<T> stream() {
+			return StreamSupport.stream(this, false);
+		}
+	}
+
 }
@@ -22,6 +22,8 @@ import org.springframework.core.SpringProperties;
 import org.springframework.jdbc.support.SqlValue;
 import org.springframework.lang.Nullable;
 
+import java.io.InputStream;
+import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.math.BigDecimal;
@@ -285,6 +287,29 @@ public abstract class StatementCreatorUtils {
 		else if (inValue instanceof SqlValue) {
 			((SqlValue) inValue).setValue(ps, paramIndex);
 		}
+		else if (inValue instanceof InputStream) {
+			// Stream the content through the JDBC 4.0 variants without a length parameter.
+			if (sqlType == Types.BLOB) {
+				ps.setBlob(paramIndex, (InputStream) inValue);
+			}
+			else {
+				ps.setBinaryStream(paramIndex, (InputStream) inValue);
+			}
+		}
+		else if (inValue instanceof Reader) {
+			if (sqlType == Types.CLOB) {
+				ps.setClob(paramIndex, (Reader) inValue);
+			}
+			else if (sqlType == Types.NCLOB) {
+				ps.setNClob(paramIndex, (Reader) inValue);
+			}
+			else if (sqlType == Types.NVARCHAR || sqlType == Types.LONGNVARCHAR) {
+				ps.setNCharacterStream(paramIndex, (Reader) inValue);
+			}
+			else {
+				ps.setCharacterStream(paramIndex, (Reader) inValue);
+			}
+		}
 		else if (sqlType == Types.VARCHAR || sqlType == Types.LONGVARCHAR ) {
 			ps.setString(paramIndex, inValue.toString());
 		}
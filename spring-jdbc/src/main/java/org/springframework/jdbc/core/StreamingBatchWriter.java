@@ -0,0 +1,549 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Streaming batch writer for a single insert or update statement, consuming
+ * items from an {@link Iterator}, {@link Stream} or Reactive Streams
+ * {@link Publisher} and sending them to the database in chunks.
+ *
+ * <p>In contrast to {@link JdbcTemplate#batchUpdate(String, java.util.Collection, int,
+ * ParameterizedPreparedStatementSetter)}, the items do not need to be held in
+ * memory up front: only the current chunk is buffered, and a chunk is flushed
+ * once it reaches the configured {@linkplain #setChunkSize row count} or
+ * {@linkplain #setMaxChunkBytes estimated size}. The PreparedStatement is
+ * prepared once and reused for all chunks.
+ *
+ * <p>For databases supporting multi-row {@code INSERT ... VALUES (...), (...)}
+ * statements, the writer can {@linkplain #setRowsPerStatement rewrite} a
+ * single-row insert into a multi-row one, reducing the number of statement
+ * executions per chunk.
+ *
+ * <p>All chunks are written on the same Connection, within the current
+ * transaction if any. Progress is reported per chunk to an optional
+ * {@link ProgressListener}.
+ *
+ * @since 5.3
+ * @param <T> the item type
+ * @see JdbcTemplate#batchUpdate(String, java.util.Collection, int, ParameterizedPreparedStatementSetter)
+ * @see org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate#batchWriter
+ */
+public class StreamingBatchWriter<T> {
+
+	private static final Pattern VALUES_PATTERN =
+			Pattern.compile("^(.*\\bVALUES\\s*)(\\([^()]*\\))\\s*;?\\s*$", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+
+	protected final Log logger = LogFactory.getLog(getClass());
+
+	private final JdbcOperations jdbcOperations;
+
+	private final String sql;
+
+	private final Function<? super T, Object[]> argumentExtractor;
+
+	private int chunkSize = 1000;
+
+	private long maxChunkBytes = -1;
+
+	private int rowsPerStatement = 1;
+
+	@Nullable
+	private ProgressListener progressListener;
+
+
+	/**
+	 * Create a new {@code StreamingBatchWriter}.
+	 * @param jdbcOperations the JdbcOperations to obtain the Connection from
+	 * @param sql the SQL statement to execute for each item, with {@code ?} placeholders
+	 * @param argumentExtractor a function turning each item into the statement's
+	 * arguments, possibly containing {@link SqlParameterValue} objects
+	 */
+	public StreamingBatchWriter(JdbcOperations jdbcOperations, String sql,
+			Function<? super T, Object[]> argumentExtractor) {
+
+		Assert.notNull(jdbcOperations, "JdbcOperations must not be null");
+		Assert.hasText(sql, "SQL must not be empty");
+		Assert.notNull(argumentExtractor, "Argument extractor must not be null");
+		this.jdbcOperations = jdbcOperations;
+		this.sql = sql;
+		this.argumentExtractor = argumentExtractor;
+	}
+
+
+	/**
+	 * Set the maximum number of items per chunk, i.e. per JDBC batch execution.
+	 * <p>Default is 1000.
+	 */
+	public void setChunkSize(int chunkSize) {
+		Assert.isTrue(chunkSize > 0, "Chunk size must be greater than 0");
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Set the maximum estimated size of a chunk in bytes, flushing a chunk
+	 * before it reaches its {@linkplain #setChunkSize row count} if necessary.
+	 * Useful for rows with large text or binary values.
+	 * <p>The estimate counts two bytes per character of character values,
+	 * the length of binary values, and eight bytes for any other value.
+	 * <p>Default is -1, meaning no size limit.
+	 */
+	public void setMaxChunkBytes(long maxChunkBytes) {
+		this.maxChunkBytes = maxChunkBytes;
+	}
+
+	/**
+	 * Set the number of items to combine into a single multi-row
+	 * {@code INSERT ... VALUES (...), (...)} statement.
+	 * <p>Requires the SQL statement to end with a single {@code VALUES} tuple,
+	 * as well as database support for multi-row inserts (e.g. MySQL, PostgreSQL,
+	 * H2, SQL Server up to 1000 rows). Note that update counts are then reported
+	 * per statement rather than per item.
+	 * <p>Default is 1, executing the statement as given.
+	 */
+	public void setRowsPerStatement(int rowsPerStatement) {
+		Assert.isTrue(rowsPerStatement > 0, "Rows per statement must be greater than 0");
+		if (rowsPerStatement > 1 && !VALUES_PATTERN.matcher(this.sql).matches()) {
+			throw new InvalidDataAccessApiUsageException(
+					"Cannot rewrite SQL statement to multi-row insert: " + this.sql);
+		}
+		this.rowsPerStatement = rowsPerStatement;
+	}
+
+	/**
+	 * Set a listener to be notified after each chunk has been written.
+	 */
+	public void setProgressListener(@Nullable ProgressListener progressListener) {
+		this.progressListener = progressListener;
+	}
+
+
+	/**
+	 * Write all items of the given Iterator.
+	 * @param items the items to write
+	 * @return the result of the overall write operation
+	 * @throws DataAccessException if there is any problem executing the batch
+	 */
+	public Result write(Iterator<? extends T> items) throws DataAccessException {
+		Assert.notNull(items, "Items must not be null");
+		if (logger.isDebugEnabled()) {
+			logger.debug("Executing streaming SQL batch update [" + this.sql + "] with a chunk size of " +
+					this.chunkSize + (this.rowsPerStatement > 1 ? " and " + this.rowsPerStatement +
+					" rows per statement" : ""));
+		}
+		Result result = this.jdbcOperations.execute((ConnectionCallback<Result>) con -> doWrite(con, items));
+		Assert.state(result != null, "No result");
+		return result;
+	}
+
+	/**
+	 * Write all items of the given Iterable.
+	 * @param items the items to write
+	 * @return the result of the overall write operation
+	 * @throws DataAccessException if there is any problem executing the batch
+	 */
+	public Result write(Iterable<? extends T> items) throws DataAccessException {
+		return write(items.iterator());
+	}
+
+	/**
+	 * Write all items of the given Stream. The Stream is consumed but not closed.
+	 * @param items the items to write
+	 * @return the result of the overall write operation
+	 * @throws DataAccessException if there is any problem executing the batch
+	 */
+	public Result write(Stream<? extends T> items) throws DataAccessException {
+		return write(items.iterator());
+	}
+
+	/**
+	 * Write all items emitted by the given Publisher, blocking until it completes.
+	 * <p>Items are requested in chunk-sized portions, so the Publisher is never
+	 * more than one chunk ahead of the database.
+	 * @param items the items to write
+	 * @return the result of the overall write operation
+	 * @throws DataAccessException if there is any problem executing the batch
+	 */
+	public Result write(Publisher<? extends T> items) throws DataAccessException {
+		PublisherIterator<T> iterator = new PublisherIterator<>(this.chunkSize);
+		items.subscribe(iterator);
+		try {
+			return write(iterator);
+		}
+		finally {
+			iterator.cancel();
+		}
+	}
+
+
+	private Result doWrite(Connection con, Iterator<? extends T> items) throws SQLException {
+		boolean batchSupported = JdbcUtils.supportsBatchUpdates(con);
+		List<Object[]> chunk = new ArrayList<>(Math.min(this.chunkSize, 1024));
+		PreparedStatement singleRowPs = null;
+		PreparedStatement multiRowPs = null;
+		PreparedStatement remainderPs = null;
+		int remainderRows = 0;
+		long totalRows = 0;
+		long totalUpdateCount = 0;
+		int chunkCount = 0;
+		try {
+			while (items.hasNext()) {
+				long chunkBytes = 0;
+				chunk.clear();
+				while (chunk.size() < this.chunkSize && items.hasNext() &&
+						(this.maxChunkBytes < 0 || chunkBytes < this.maxChunkBytes)) {
+					Object[] args = this.argumentExtractor.apply(items.next());
+					chunk.add(args);
+					if (this.maxChunkBytes >= 0) {
+						chunkBytes += estimateSize(args);
+					}
+				}
+
+				List<int[]> updateCounts = new ArrayList<>(2);
+				int offset = 0;
+				if (this.rowsPerStatement > 1) {
+					int fullStatements = chunk.size() / this.rowsPerStatement;
+					if (fullStatements > 0) {
+						if (multiRowPs == null) {
+							multiRowPs = con.prepareStatement(buildMultiRowSql(this.rowsPerStatement));
+						}
+						updateCounts.add(executeChunk(
+								multiRowPs, chunk, 0, fullStatements, this.rowsPerStatement, batchSupported));
+						offset = fullStatements * this.rowsPerStatement;
+					}
+					int remainder = chunk.size() - offset;
+					if (remainder > 0) {
+						if (remainderPs == null || remainderRows != remainder) {
+							JdbcUtils.closeStatement(remainderPs);
+							remainderPs = con.prepareStatement(buildMultiRowSql(remainder));
+							remainderRows = remainder;
+						}
+						updateCounts.add(executeChunk(remainderPs, chunk, offset, 1, remainder, batchSupported));
+					}
+				}
+				else {
+					if (singleRowPs == null) {
+						singleRowPs = con.prepareStatement(this.sql);
+					}
+					updateCounts.add(executeChunk(singleRowPs, chunk, 0, chunk.size(), 1, batchSupported));
+				}
+
+				int[] chunkUpdateCounts = (updateCounts.size() == 1 ? updateCounts.get(0) : concat(updateCounts));
+				for (int count : chunkUpdateCounts) {
+					if (count > 0) {
+						totalUpdateCount += count;
+					}
+				}
+				chunkCount++;
+				totalRows += chunk.size();
+				if (logger.isTraceEnabled()) {
+					logger.trace("Sent SQL batch update chunk #" + chunkCount + " with " + chunk.size() + " items");
+				}
+				if (this.progressListener != null) {
+					this.progressListener.chunkWritten(chunkCount, chunk.size(), chunkUpdateCounts, totalRows);
+				}
+				for (Object[] args : chunk) {
+					StatementCreatorUtils.cleanupParameters(args);
+				}
+			}
+		}
+		finally {
+			JdbcUtils.closeStatement(singleRowPs);
+			JdbcUtils.closeStatement(multiRowPs);
+			JdbcUtils.closeStatement(remainderPs);
+		}
+		return new Result(totalRows, chunkCount, totalUpdateCount);
+	}
+
+	private int[] executeChunk(PreparedStatement ps, List<Object[]> chunk, int offset, int statementCount,
+			int rowsPerExecution, boolean batchSupported) throws SQLException {
+
+		int[] updateCounts = (batchSupported ? null : new int[statementCount]);
+		for (int i = 0; i < statementCount; i++) {
+			int parameterIndex = 1;
+			for (int row = 0; row < rowsPerExecution; row++) {
+				for (Object arg : chunk.get(offset + i * rowsPerExecution + row)) {
+					setParameterValue(ps, parameterIndex++, arg);
+				}
+			}
+			if (batchSupported) {
+				ps.addBatch();
+			}
+			else {
+				updateCounts[i] = ps.executeUpdate();
+			}
+		}
+		return (batchSupported ? ps.executeBatch() : updateCounts);
+	}
+
+	private void setParameterValue(PreparedStatement ps, int parameterIndex, @Nullable Object arg)
+			throws SQLException {
+
+		if (arg instanceof SqlParameterValue) {
+			SqlParameterValue paramValue = (SqlParameterValue) arg;
+			StatementCreatorUtils.setParameterValue(ps, parameterIndex, paramValue, paramValue.getValue());
+		}
+		else {
+			StatementCreatorUtils.setParameterValue(ps, parameterIndex, SqlTypeValue.TYPE_UNKNOWN, arg);
+		}
+	}
+
+	private String buildMultiRowSql(int rows) {
+		if (rows == 1) {
+			return this.sql;
+		}
+		Matcher matcher = VALUES_PATTERN.matcher(this.sql);
+		Assert.state(matcher.matches(), "No VALUES clause");
+		String tuple = matcher.group(2);
+		StringBuilder sb = new StringBuilder(matcher.group(1));
+		for (int i = 0; i < rows; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(tuple);
+		}
+		return sb.toString();
+	}
+
+	private static long estimateSize(Object[] args) {
+		long size = 0;
+		for (Object arg : args) {
+			Object value = (arg instanceof SqlParameterValue ? ((SqlParameterValue) arg).getValue() : arg);
+			if (value instanceof CharSequence) {
+				size += 2L * ((CharSequence) value).length();
+			}
+			else if (value instanceof byte[]) {
+				size += ((byte[]) value).length;
+			}
+			else {
+				size += 8;
+			}
+		}
+		return size;
+	}
+
+	private static int[] concat(List<int[]> arrays) {
+		int length = 0;
+		for (int[] array : arrays) {
+			length += array.length;
+		}
+		int[] result = new int[length];
+		int pos = 0;
+		for (int[] array : arrays) {
+			System.arraycopy(array, 0, result, pos, array.length);
+			pos += array.length;
+		}
+		return result;
+	}
+
+
+	/**
+	 * Callback interface for progress notifications, invoked after each chunk
+	 * has been sent to the database.
+	 */
+	@FunctionalInterface
+	public interface ProgressListener {
+
+		/**
+		 * Notification that a chunk has been written.
+		 * @param chunkNumber the 1-based number of the chunk
+		 * @param rowCount the number of items in the chunk
+		 * @param updateCounts the update counts reported by the driver for
+		 * the chunk's statement executions (possibly containing
+		 * {@link Statement#SUCCESS_NO_INFO})
+		 * @param totalRowCount the number of items written so far
+		 */
+		void chunkWritten(int chunkNumber, int rowCount, int[] updateCounts, long totalRowCount);
+	}
+
+
+	/**
+	 * Result of a streaming batch write.
+	 */
+	public static final class Result {
+
+		private final long rowCount;
+
+		private final int chunkCount;
+
+		private final long updateCount;
+
+		Result(long rowCount, int chunkCount, long updateCount) {
+			this.rowCount = rowCount;
+			this.chunkCount = chunkCount;
+			this.updateCount = updateCount;
+		}
+
+		/**
+		 * Return the number of items written.
+		 */
+		public long getRowCount() {
+			return this.rowCount;
+		}
+
+		/**
+		 * Return the number of chunks sent to the database.
+		 */
+		public int getChunkCount() {
+			return this.chunkCount;
+		}
+
+		/**
+		 * Return the sum of all known update counts, not including
+		 * executions reported as {@link Statement#SUCCESS_NO_INFO}.
+		 */
+		public long getUpdateCount() {
+			return this.updateCount;
+		}
+
+		@Override
+		public String toString() {
+			return "StreamingBatchWriter.Result [rows=" + this.rowCount + ", chunks=" + this.chunkCount +
+					", updateCount=" + this.updateCount + "]";
+		}
+	}
+
+
+	/**
+	 * Blocking Iterator over the items of a Publisher, requesting
+	 * items in portions of the given size.
+	 */
+	private static class PublisherIterator<T> implements Iterator<T>, Subscriber<T> {
+
+		private static final Object COMPLETE = new Object();
+
+		private final int batchSize;
+
+		private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+
+		@Nullable
+		private volatile Subscription subscription;
+
+		@Nullable
+		private Object next;
+
+		private int consumed;
+
+		public PublisherIterator(int batchSize) {
+			this.batchSize = batchSize;
+		}
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			this.subscription = subscription;
+			subscription.request(this.batchSize);
+		}
+
+		@Override
+		public void onNext(T item) {
+			this.queue.add(item);
+		}
+
+		@Override
+		public void onError(Throwable ex) {
+			this.queue.add(new ErrorSignal(ex));
+		}
+
+		@Override
+		public void onComplete() {
+			this.queue.add(COMPLETE);
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (this.next == null) {
+				try {
+					this.next = this.queue.take();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					cancel();
+					throw new IllegalStateException("Interrupted while waiting for Publisher", ex);
+				}
+			}
+			if (this.next instanceof ErrorSignal) {
+				Throwable ex = ((ErrorSignal) this.next).error;
+				if (ex instanceof RuntimeException) {
+					throw (RuntimeException) ex;
+				}
+				throw new IllegalStateException("Publisher failed", ex);
+			}
+			return (this.next != COMPLETE);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			T item = (T) this.next;
+			this.next = null;
+			if (++this.consumed == this.batchSize) {
+				this.consumed = 0;
+				Subscription subscription = this.subscription;
+				if (subscription != null) {
+					subscription.request(this.batchSize);
+				}
+			}
+			return item;
+		}
+
+		public void cancel() {
+			Subscription subscription = this.subscription;
+			if (subscription != null) {
+				subscription.cancel();
+			}
+		}
+
+		private static final class ErrorSignal {
+
+			final Throwable error;
+
+			ErrorSignal(Throwable error) {
+				this.error = error;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ObjectUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Transaction-scoped queue of deferred updates for a {@link JdbcTemplate} in
+ * {@linkplain JdbcTemplate#setWriteBehind write-behind} mode, bound per
+ * DataSource through the {@link TransactionSynchronizationManager}.
+ *
+ * <p>Consecutive updates with identical SQL and argument types are collected
+ * and executed as one JDBC batch once a different statement gets executed,
+ * the batch size is reached, or the transaction commits, gets flushed or
+ * suspended. Updates with different SQL are never reordered. Pending updates
+ * get discarded on rollback.
+ *
+ * @since 5.3
+ * @see JdbcTemplate#setWriteBehind
+ */
+final class WriteBehindQueue implements TransactionSynchronization {
+
+	private final Object key;
+
+	@Nullable
+	private Run run;
+
+	private boolean flushing;
+
+
+	private WriteBehindQueue(DataSource dataSource) {
+		this.key = new QueueKey(dataSource);
+	}
+
+
+	/**
+	 * Return the write-behind queue for the given DataSource in the current
+	 * transaction, creating and binding it if necessary.
+	 * @return the queue, or {@code null} if there is no transaction to defer updates in
+	 */
+	@Nullable
+	static WriteBehindQueue obtain(DataSource dataSource) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive() ||
+				!TransactionSynchronizationManager.isActualTransactionActive()) {
+			return null;
+		}
+		QueueKey key = new QueueKey(dataSource);
+		WriteBehindQueue queue = (WriteBehindQueue) TransactionSynchronizationManager.getResource(key);
+		if (queue == null) {
+			queue = new WriteBehindQueue(dataSource);
+			TransactionSynchronizationManager.bindResource(queue.key, queue);
+			TransactionSynchronizationManager.registerSynchronization(queue);
+		}
+		return queue;
+	}
+
+	/**
+	 * Flush the write-behind queue for the given DataSource in the current
+	 * transaction, if any.
+	 */
+	static void flush(DataSource dataSource) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			WriteBehindQueue queue = (WriteBehindQueue) TransactionSynchronizationManager.getResource(
+					new QueueKey(dataSource));
+			if (queue != null) {
+				queue.flush();
+			}
+		}
+	}
+
+
+	/**
+	 * Queue the given update, flushing the pending batch first if it is for
+	 * a different statement.
+	 * @return the deferred update count
+	 */
+	IntSupplier add(JdbcTemplate template, String sql, Object[] args, @Nullable int[] argTypes, int batchSize) {
+		Run run = this.run;
+		if (run != null && !run.matches(template, sql, argTypes)) {
+			flush();
+			run = null;
+		}
+		if (run == null) {
+			run = new Run(template, sql, argTypes);
+			this.run = run;
+		}
+		DeferredUpdateCount count = new DeferredUpdateCount(this);
+		run.args.add(args);
+		run.counts.add(count);
+		if (run.args.size() >= batchSize) {
+			flush();
+		}
+		return count;
+	}
+
+	/**
+	 * Execute the pending batch, if any.
+	 */
+	@Override
+	public void flush() {
+		Run run = this.run;
+		if (run == null || this.flushing) {
+			return;
+		}
+		this.run = null;
+		this.flushing = true;
+		try {
+			int[] counts = run.template.batchUpdate(
+					run.sql, run.args, (run.argTypes != null ? run.argTypes : new int[0]));
+			for (int i = 0; i < run.counts.size(); i++) {
+				run.counts.get(i).set(i < counts.length ? counts[i] : 0);
+			}
+		}
+		finally {
+			this.flushing = false;
+			StatementCreatorUtils.cleanupParameters(run.args);
+		}
+	}
+
+	@Override
+	public void suspend() {
+		// Execute on the suspended transaction's Connection, which is still bound
+		flush();
+		TransactionSynchronizationManager.unbindResource(this.key);
+	}
+
+	@Override
+	public void resume() {
+		TransactionSynchronizationManager.bindResource(this.key, this);
+	}
+
+	@Override
+	public void beforeCommit(boolean readOnly) {
+		flush();
+	}
+
+	@Override
+	public void afterCompletion(int status) {
+		Run run = this.run;
+		this.run = null;
+		if (run != null) {
+			StatementCreatorUtils.cleanupParameters(run.args);
+		}
+		TransactionSynchronizationManager.unbindResourceIfPossible(this.key);
+	}
+
+
+	/**
+	 * Consecutive updates with the same SQL, argument types and template.
+	 */
+	private static final class Run {
+
+		final JdbcTemplate template;
+
+		final String sql;
+
+		@Nullable
+		final int[] argTypes;
+
+		final List<Object[]> args = new ArrayList<>();
+
+		final List<DeferredUpdateCount> counts = new ArrayList<>();
+
+		Run(JdbcTemplate template, String sql, @Nullable int[] argTypes) {
+			this.template = template;
+			this.sql = sql;
+			this.argTypes = argTypes;
+		}
+
+		boolean matches(JdbcTemplate template, String sql, @Nullable int[] argTypes) {
+			return (this.template == template && this.sql.equals(sql) && Arrays.equals(this.argTypes, argTypes));
+		}
+	}
+
+
+	/**
+	 * Update count which becomes available once the batch has been executed,
+	 * flushing the queue on access if still pending.
+	 */
+	private static final class DeferredUpdateCount implements IntSupplier {
+
+		private final WriteBehindQueue queue;
+
+		private int count;
+
+		private boolean available;
+
+		DeferredUpdateCount(WriteBehindQueue queue) {
+			this.queue = queue;
+		}
+
+		void set(int count) {
+			this.count = count;
+			this.available = true;
+		}
+
+		@Override
+		public int getAsInt() {
+			if (!this.available) {
+				this.queue.flush();
+				if (!this.available) {
+					throw new IllegalStateException("Deferred update has been discarded on transaction completion");
+				}
+			}
+			return this.count;
+		}
+
+		@Override
+		public String toString() {
+			return (this.available ? Integer.toString(this.count) : "<pending>");
+		}
+	}
+
+
+	/**
+	 * Resource key for the queue of a DataSource.
+	 */
+	private static final class QueueKey {
+
+		private final DataSource dataSource;
+
+		QueueKey(DataSource dataSource) {
+			this.dataSource = dataSource;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			return (this == other || (other instanceof QueueKey && this.dataSource == ((QueueKey) other).dataSource));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.dataSource.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return "WriteBehindQueue for " + ObjectUtils.identityToString(this.dataSource);
+		}
+	}
+
+}
@@ -82,6 +82,9 @@ public class CallMetaDataContext {
 	// Should we bind parameter by name
 	private boolean namedBinding;
 
+	// Should we share the meta-data provider with other contexts for the same call
+	private boolean cacheMetaData = true;
+
 	// The provider of call meta-data
 	@Nullable
 	private CallMetaDataProvider metaDataProvider;
@@ -232,6 +235,24 @@ public class CallMetaDataContext {
 		return this.namedBinding;
 	}
 
+	/**
+	 * Specify whether call meta-data should be cached per DataSource,
+	 * shared with other contexts for the same call.
+	 * @since 5.3
+	 * @see CallMetaDataProviderFactory#clearCache(DataSource)
+	 */
+	public void setCacheMetaData(boolean cacheMetaData) {
+		this.cacheMetaData = cacheMetaData;
+	}
+
+	/**
+	 * Check whether call meta-data should be cached per DataSource.
+	 * @since 5.3
+	 */
+	public boolean isCacheMetaData() {
+		return this.cacheMetaData;
+	}
+
 
 	/**
 	 * Initialize this class with meta-data from the database.
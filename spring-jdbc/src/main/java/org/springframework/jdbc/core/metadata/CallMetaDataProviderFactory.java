@@ -19,17 +19,26 @@ package org.springframework.jdbc.core.metadata;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
 import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 import javax.sql.DataSource;
+import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Factory used to create a {@link CallMetaDataProvider} implementation
  * based on the type of database being used.
  *
+ * <p>As of 5.3, providers are cached per {@code DataSource} and procedure, so
+ * that repeatedly created call operations for the same procedure do not re-read
+ * the database meta-data. Call {@link #clearCache(DataSource)} after schema changes.
+ *
  * @author Thomas Risberg
  * @author Juergen Hoeller
  * @since 2.5
@@ -58,18 +67,79 @@ public final class CallMetaDataProviderFactory {
 
 	private static final Log logger = LogFactory.getLog(CallMetaDataProviderFactory.class);
 
+	/** Cache of initialized providers per DataSource, keyed by procedure and configuration. */
+	private static final Map<DataSource, Map<List<Object>, CallMetaDataProvider>> providerCache =
+			new ConcurrentReferenceHashMap<>(16, ConcurrentReferenceHashMap.ReferenceType.WEAK);
+
 
 	private CallMetaDataProviderFactory() {
 	}
 
 
 	/**
-	 * Create a {@link CallMetaDataProvider} based on the database meta-data.
+	 * Create a {@link CallMetaDataProvider} based on the database meta-data,
+	 * or return a cached provider for the same DataSource, procedure and configuration.
+	 * <p>Providers are not cached for a DataSource that is or wraps an
+	 * {@link AbstractRoutingDataSource}, which may route to different databases,
+	 * or if the given context has meta-data caching
+	 * {@link CallMetaDataContext#setCacheMetaData switched off}.
 	 * @param dataSource the JDBC DataSource to use for retrieving meta-data
 	 * @param context the class that holds configuration and meta-data
 	 * @return instance of the CallMetaDataProvider implementation to be used
 	 */
 	public static CallMetaDataProvider createMetaDataProvider(DataSource dataSource, final CallMetaDataContext context) {
+		if (!context.isCacheMetaData() || isRouting(dataSource)) {
+			return doCreateMetaDataProvider(dataSource, context);
+		}
+		List<Object> cacheKey = Arrays.asList(context.getCatalogName(), context.getSchemaName(),
+				context.getProcedureName(), context.isFunction(), context.isAccessCallParameterMetaData());
+		Map<List<Object>, CallMetaDataProvider> providers =
+				providerCache.computeIfAbsent(dataSource, key -> new ConcurrentHashMap<>(16));
+		CallMetaDataProvider provider = providers.get(cacheKey);
+		if (provider == null) {
+			provider = doCreateMetaDataProvider(dataSource, context);
+			CallMetaDataProvider existing = providers.putIfAbsent(cacheKey, provider);
+			if (existing != null) {
+				provider = existing;
+			}
+		}
+		return provider;
+	}
+
+	/**
+	 * Remove the cached providers for the given DataSource, e.g. after a schema change.
+	 * @param dataSource the DataSource to refresh the call meta-data for
+	 * @since 5.3
+	 */
+	public static void clearCache(DataSource dataSource) {
+		providerCache.remove(dataSource);
+	}
+
+	/**
+	 * Remove all cached providers.
+	 * @since 5.3
+	 */
+	public static void clearCache() {
+		providerCache.clear();
+	}
+
+	/**
+	 * Determine whether the given DataSource is or wraps a routing DataSource,
+	 * treating a DataSource that cannot tell as routing.
+	 */
+	private static boolean isRouting(DataSource dataSource) {
+		if (dataSource instanceof AbstractRoutingDataSource) {
+			return true;
+		}
+		try {
+			return dataSource.isWrapperFor(AbstractRoutingDataSource.class);
+		}
+		catch (SQLException ex) {
+			return true;
+		}
+	}
+
+	private static CallMetaDataProvider doCreateMetaDataProvider(DataSource dataSource, CallMetaDataContext context) {
 		try {
 			return (CallMetaDataProvider) JdbcUtils.extractDatabaseMetaData(dataSource, databaseMetaData -> {
 				String databaseProductName = JdbcUtils.commonDatabaseName(databaseMetaData.getDatabaseProductName());
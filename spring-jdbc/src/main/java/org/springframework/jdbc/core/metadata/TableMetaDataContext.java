@@ -70,6 +70,13 @@ public class TableMetaDataContext {
 	// Are we using generated key columns
 	private boolean generatedKeyColumnsUsed = false;
 
+	// Should we share the meta-data provider with other contexts for the same table
+	private boolean cacheMetaData = true;
+
+	// Lower-case and property names per table column, precomputed for parameter matching
+	@Nullable
+	private String[][] columnLookupNames;
+
 
 	/**
 	 * Set the name of the table for this context.
@@ -145,6 +152,24 @@ public class TableMetaDataContext {
 		return this.overrideIncludeSynonymsDefault;
 	}
 
+	/**
+	 * Specify whether table meta-data should be cached per DataSource,
+	 * shared with other contexts for the same table.
+	 * @since 5.3
+	 * @see TableMetaDataProviderFactory#clearCache(DataSource)
+	 */
+	public void setCacheMetaData(boolean cacheMetaData) {
+		this.cacheMetaData = cacheMetaData;
+	}
+
+	/**
+	 * Check whether table meta-data should be cached per DataSource.
+	 * @since 5.3
+	 */
+	public boolean isCacheMetaData() {
+		return this.cacheMetaData;
+	}
+
 	/**
 	 * Get a List of the table column names.
 	 */
@@ -162,6 +187,31 @@ public class TableMetaDataContext {
 	public void processMetaData(DataSource dataSource, List<String> declaredColumns, String[] generatedKeyNames) {
 		this.metaDataProvider = TableMetaDataProviderFactory.createMetaDataProvider(dataSource, this);
 		this.tableColumns = reconcileColumnsToUse(declaredColumns, generatedKeyNames);
+		this.columnLookupNames = createColumnLookupNames(this.tableColumns);
+	}
+
+	/**
+	 * Precompute the alternative names to match parameters against for each column,
+	 * sparing the name conversions on every execution.
+	 */
+	private static String[][] createColumnLookupNames(List<String> columns) {
+		String[][] lookupNames = new String[columns.size()][];
+		int index = 0;
+		for (String column : columns) {
+			String lowerCaseName = column.toLowerCase();
+			lookupNames[index++] = new String[] {
+					column, lowerCaseName, JdbcUtils.convertUnderscoreNameToPropertyName(column)};
+		}
+		return lookupNames;
+	}
+
+	private String[][] getColumnLookupNames() {
+		String[][] lookupNames = this.columnLookupNames;
+		if (lookupNames == null || lookupNames.length != this.tableColumns.size()) {
+			lookupNames = createColumnLookupNames(this.tableColumns);
+			this.columnLookupNames = lookupNames;
+		}
+		return lookupNames;
 	}
 
 	private TableMetaDataProvider obtainMetaDataProvider() {
@@ -199,34 +249,35 @@ public class TableMetaDataContext {
 	 * @param parameterSource the parameter names and values
 	 */
 	public List<Object> matchInParameterValuesWithInsertColumns(SqlParameterSource parameterSource) {
-		List<Object> values = new ArrayList<>();
+		String[][] lookupNames = getColumnLookupNames();
+		List<Object> values = new ArrayList<>(lookupNames.length);
 		// For parameter source lookups we need to provide case-insensitive lookup support since the
 		// database meta-data is not necessarily providing case-sensitive column names
-		Map<String, String> caseInsensitiveParameterNames =
-				SqlParameterSourceUtils.extractCaseInsensitiveParameterNames(parameterSource);
-		for (String column : this.tableColumns) {
+		Map<String, String> caseInsensitiveParameterNames = null;
+		for (String[] names : lookupNames) {
+			String column = names[0];
+			String lowerCaseName = names[1];
+			String propertyName = names[2];
 			if (parameterSource.hasValue(column)) {
 				values.add(SqlParameterSourceUtils.getTypedValue(parameterSource, column));
 			}
+			else if (parameterSource.hasValue(lowerCaseName)) {
+				values.add(SqlParameterSourceUtils.getTypedValue(parameterSource, lowerCaseName));
+			}
+			else if (parameterSource.hasValue(propertyName)) {
+				values.add(SqlParameterSourceUtils.getTypedValue(parameterSource, propertyName));
+			}
 			else {
-				String lowerCaseName = column.toLowerCase();
-				if (parameterSource.hasValue(lowerCaseName)) {
-					values.add(SqlParameterSourceUtils.getTypedValue(parameterSource, lowerCaseName));
+				if (caseInsensitiveParameterNames == null) {
+					caseInsensitiveParameterNames =
+							SqlParameterSourceUtils.extractCaseInsensitiveParameterNames(parameterSource);
+				}
+				if (caseInsensitiveParameterNames.containsKey(lowerCaseName)) {
+					values.add(SqlParameterSourceUtils.getTypedValue(
+							parameterSource, caseInsensitiveParameterNames.get(lowerCaseName)));
 				}
 				else {
-					String propertyName = JdbcUtils.convertUnderscoreNameToPropertyName(column);
-					if (parameterSource.hasValue(propertyName)) {
-						values.add(SqlParameterSourceUtils.getTypedValue(parameterSource, propertyName));
-					}
-					else {
-						if (caseInsensitiveParameterNames.containsKey(lowerCaseName)) {
-							values.add(SqlParameterSourceUtils.getTypedValue(
-									parameterSource, caseInsensitiveParameterNames.get(lowerCaseName)));
-						}
-						else {
-							values.add(null);
-						}
-					}
+					values.add(null);
 				}
 			}
 		}
@@ -238,11 +289,13 @@ public class TableMetaDataContext {
 	 * @param inParameters the parameter names and values
 	 */
 	public List<Object> matchInParameterValuesWithInsertColumns(Map<String, ?> inParameters) {
-		List<Object> values = new ArrayList<>(inParameters.size());
-		for (String column : this.tableColumns) {
+		String[][] lookupNames = getColumnLookupNames();
+		List<Object> values = new ArrayList<>(lookupNames.length);
+		for (String[] names : lookupNames) {
+			String column = names[0];
 			Object value = inParameters.get(column);
 			if (value == null) {
-				value = inParameters.get(column.toLowerCase());
+				value = inParameters.get(names[1]);
 				if (value == null) {
 					for (Map.Entry<String, ?> entry : inParameters.entrySet()) {
 						if (column.equalsIgnoreCase(entry.getKey())) {
@@ -23,14 +23,21 @@ import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
 
 import javax.sql.DataSource;
+import java.lang.reflect.Method;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.LinkedHashMap;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Template class with a basic set of JDBC operations, allowing the use
@@ -62,17 +69,19 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 	/** The JdbcTemplate we are wrapping. */
 	private final JdbcOperations classicJdbcTemplate;
 
-	private volatile int cacheLimit = DEFAULT_CACHE_LIMIT;
-
 	/** Cache of original SQL String to ParsedSql representation. */
-	@SuppressWarnings("serial")
-	private final Map<String, ParsedSql> parsedSqlCache =
-			new LinkedHashMap<String, ParsedSql>(DEFAULT_CACHE_LIMIT, 0.75f, true) {
-				@Override
-				protected boolean removeEldestEntry(Map.Entry<String, ParsedSql> eldest) {
-					return size() > getCacheLimit();
-				}
-			};
+	private volatile ConcurrentLruCache<String, ParsedSql> parsedSqlCache =
+			new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT, NamedParameterUtils::parseSqlStatement);
+
+	/** Cache of expanded SQL and declared parameters per statement and parameter shape. */
+	private volatile ConcurrentLruCache<StatementShape, PreparedStatementCreatorFactory> statementFactoryCache =
+			new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT, this::createStatementFactory);
+
+	/**
+	 * Whether factories may be shared per parameter shape: {@code false} if a subclass
+	 * overrides {@link #getPreparedStatementCreatorFactory}, which is then called per statement.
+	 */
+	private final boolean statementFactoryCacheable = !isStatementFactoryOverridden();
 
 
 	/**
@@ -119,17 +128,23 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 
 	/**
 	 * Specify the maximum number of entries for this template's SQL cache.
-	 * Default is 256.
+	 * Default is 256. 0 indicates no caching, always parsing each statement.
+	 * <p>The same limit applies to the cache of expanded statements which is
+	 * kept per SQL statement and shape of the given parameters (e.g. the number
+	 * of elements in a collection parameter for an IN clause). That cache is not
+	 * used if a subclass overrides {@link #getPreparedStatementCreatorFactory}.
 	 */
 	public void setCacheLimit(int cacheLimit) {
-		this.cacheLimit = cacheLimit;
+		int sizeLimit = Math.max(cacheLimit, 0);
+		this.parsedSqlCache = new ConcurrentLruCache<>(sizeLimit, NamedParameterUtils::parseSqlStatement);
+		this.statementFactoryCache = new ConcurrentLruCache<>(sizeLimit, this::createStatementFactory);
 	}
 
 	/**
 	 * Return the maximum number of entries for this template's SQL cache.
 	 */
 	public int getCacheLimit() {
-		return this.cacheLimit;
+		return this.parsedSqlCache.sizeLimit();
 	}
 
 
@@ -215,6 +230,20 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 		return query(sql, EmptySqlParameterSource.INSTANCE, rowMapper);
 	}
 
+	@Override
+	public <T> Stream<T> queryForStream(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper)
+			throws DataAccessException {
+
+		return getJdbcOperations().queryForStream(getPreparedStatementCreator(sql, paramSource), rowMapper);
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(String sql, Map<String, ?> paramMap, RowMapper<T> rowMapper)
+			throws DataAccessException {
+
+		return queryForStream(sql, new MapSqlParameterSource(paramMap), rowMapper);
+	}
+
 	@Override
 	@Nullable
 	public <T> T queryForObject(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper)
@@ -365,6 +394,27 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 				});
 	}
 
+	/**
+	 * Create a {@link StreamingBatchWriter} for the given SQL statement with named
+	 * parameters, writing items from an Iterator, Stream or Publisher in chunks.
+	 * <p>The SQL statement is parsed and substituted once for all items, so it
+	 * must not use collection parameters which would expand into a varying
+	 * number of placeholders.
+	 * @param sql the SQL statement to execute for each item
+	 * @param paramSourceFunction a function providing the parameter source for each item
+	 * @return the writer, ready for further configuration
+	 * @since 5.3
+	 * @see StreamingBatchWriter#write(java.util.Iterator)
+	 */
+	public <T> StreamingBatchWriter<T> batchWriter(
+			String sql, Function<? super T, ? extends SqlParameterSource> paramSourceFunction) {
+
+		ParsedSql parsedSql = getParsedSql(sql);
+		String sqlToUse = NamedParameterUtils.substituteNamedParameters(parsedSql, null);
+		return new StreamingBatchWriter<>(getJdbcOperations(), sqlToUse,
+				item -> NamedParameterUtils.buildValueArray(parsedSql, paramSourceFunction.apply(item), null));
+	}
+
 
 	/**
 	 * Build a {@link PreparedStatementCreator} based on the given SQL and named parameters.
@@ -398,9 +448,18 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 			@Nullable Consumer<PreparedStatementCreatorFactory> customizer) {
 
 		ParsedSql parsedSql = getParsedSql(sql);
-		PreparedStatementCreatorFactory pscf = getPreparedStatementCreatorFactory(parsedSql, paramSource);
-		if (customizer != null) {
-			customizer.accept(pscf);
+		PreparedStatementCreatorFactory pscf;
+		if (customizer != null || !this.statementFactoryCacheable) {
+			pscf = getPreparedStatementCreatorFactory(parsedSql, paramSource);
+			if (customizer != null) {
+				customizer.accept(pscf);
+			}
+		}
+		else {
+			// Shared factory for the given parameter shape: not to be customized
+			StatementShape shape = new StatementShape(parsedSql, paramSource);
+			pscf = this.statementFactoryCache.get(shape);
+			shape.release();
 		}
 		Object[] params = NamedParameterUtils.buildValueArray(parsedSql, paramSource, null);
 		return pscf.newPreparedStatementCreator(params);
@@ -413,16 +472,13 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 	 * @return a representation of the parsed SQL statement
 	 */
 	protected ParsedSql getParsedSql(String sql) {
-		if (getCacheLimit() <= 0) {
-			return NamedParameterUtils.parseSqlStatement(sql);
-		}
-		synchronized (this.parsedSqlCache) {
-			return this.parsedSqlCache.computeIfAbsent(sql, NamedParameterUtils::parseSqlStatement);
-		}
+		return this.parsedSqlCache.get(sql);
 	}
 
 	/**
 	 * Build a {@link PreparedStatementCreatorFactory} based on the given SQL and named parameters.
+	 * <p>If not overridden, the resulting factories are shared per SQL statement
+	 * and parameter shape; an overriding implementation is called for every statement.
 	 * @param parsedSql parsed representation of the given SQL statement
 	 * @param paramSource container of arguments to bind
 	 * @return the corresponding {@link PreparedStatementCreatorFactory}
@@ -438,4 +494,118 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 		return new PreparedStatementCreatorFactory(sqlToUse, declaredParameters);
 	}
 
+	private boolean isStatementFactoryOverridden() {
+		Method method = ReflectionUtils.findMethod(getClass(), "getPreparedStatementCreatorFactory",
+				ParsedSql.class, SqlParameterSource.class);
+		return (method != null && method.getDeclaringClass() != NamedParameterJdbcTemplate.class);
+	}
+
+	private PreparedStatementCreatorFactory createStatementFactory(StatementShape shape) {
+		Assert.state(shape.parsedSql != null && shape.paramSource != null, "StatementShape already released");
+		return getPreparedStatementCreatorFactory(shape.parsedSql, shape.paramSource);
+	}
+
+
+	/**
+	 * Cache key for a {@link PreparedStatementCreatorFactory}: the original SQL
+	 * statement plus everything that the expanded SQL and the declared parameters
+	 * are derived from, i.e. the presence, SQL type and type name of each parameter
+	 * as well as the number of elements (and tuple sizes) for collection values.
+	 */
+	private static final class StatementShape {
+
+		private static final int NO_VALUE = -2;
+
+		private static final int SCALAR_VALUE = -1;
+
+		private final String sql;
+
+		private final int[] shape;
+
+		@Nullable
+		private final String[] typeNames;
+
+		private final int hashCode;
+
+		// Only held for generating the factory on a cache miss
+		@Nullable
+		private ParsedSql parsedSql;
+
+		@Nullable
+		private SqlParameterSource paramSource;
+
+		StatementShape(ParsedSql parsedSql, SqlParameterSource paramSource) {
+			List<String> paramNames = parsedSql.getParameterNames();
+			int[] shape = new int[paramNames.size() * 2];
+			int index = 0;
+			String[] typeNames = null;
+			for (int i = 0; i < paramNames.size(); i++) {
+				String paramName = paramNames.get(i);
+				if (index + 2 > shape.length) {
+					shape = Arrays.copyOf(shape, shape.length * 2);
+				}
+				shape[index++] = paramSource.getSqlType(paramName);
+				String typeName = paramSource.getTypeName(paramName);
+				if (typeName != null) {
+					if (typeNames == null) {
+						typeNames = new String[paramNames.size()];
+					}
+					typeNames[i] = typeName;
+				}
+				if (!paramSource.hasValue(paramName)) {
+					shape[index++] = NO_VALUE;
+					continue;
+				}
+				Object value = paramSource.getValue(paramName);
+				if (value instanceof SqlParameterValue) {
+					value = ((SqlParameterValue) value).getValue();
+				}
+				if (!(value instanceof Iterable)) {
+					shape[index++] = SCALAR_VALUE;
+					continue;
+				}
+				int countIndex = index++;
+				int count = 0;
+				for (Iterator<?> it = ((Iterable<?>) value).iterator(); it.hasNext(); count++) {
+					Object entryItem = it.next();
+					if (index == shape.length) {
+						shape = Arrays.copyOf(shape, shape.length * 2);
+					}
+					shape[index++] = (entryItem instanceof Object[] ? ((Object[]) entryItem).length : SCALAR_VALUE);
+				}
+				shape[countIndex] = count;
+			}
+			this.sql = parsedSql.getOriginalSql();
+			this.shape = (index == shape.length ? shape : Arrays.copyOf(shape, index));
+			this.typeNames = typeNames;
+			this.hashCode = this.sql.hashCode() * 31 + Arrays.hashCode(this.shape);
+			this.parsedSql = parsedSql;
+			this.paramSource = paramSource;
+		}
+
+		void release() {
+			this.parsedSql = null;
+			this.paramSource = null;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof StatementShape)) {
+				return false;
+			}
+			StatementShape otherShape = (StatementShape) other;
+			return (this.hashCode == otherShape.hashCode && this.sql.equals(otherShape.sql) &&
+					Arrays.equals(this.shape, otherShape.shape) &&
+					ObjectUtils.nullSafeEquals(this.typeNames, otherShape.typeNames));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
 }
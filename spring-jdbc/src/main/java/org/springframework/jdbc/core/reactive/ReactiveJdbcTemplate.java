@@ -0,0 +1,294 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.reactive;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SingleColumnRowMapper;
+import org.springframework.jdbc.datasource.PoolingDataSourceMXBean;
+import org.springframework.jdbc.support.lob.LobDataBufferUtils;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+import org.springframework.util.StreamUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.sql.DataSource;
+import java.nio.charset.Charset;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Reactive facade for a {@link JdbcTemplate}, running the blocking JDBC calls
+ * on a dedicated {@link Scheduler} instead of the calling thread, e.g. a WebFlux
+ * event loop thread.
+ *
+ * <p>By default, the scheduler is a bounded elastic scheduler with as many
+ * threads as the {@code DataSource} has Connections, as far as known (e.g. for
+ * a {@link org.springframework.jdbc.datasource.PoolingDataSource}), so that
+ * pending calls queue up on the scheduler instead of blocking threads on the
+ * Connection pool.
+ *
+ * <p>{@link #queryForStream} emits the rows of an open {@code ResultSet} with
+ * backpressure, reading rows on demand only and releasing the JDBC resources on
+ * completion, error or cancellation. Consider a
+ * {@link JdbcTemplate#setStreamingFetchSize streaming fetch size} for large results.
+ * Likewise, {@link #queryForBlob} and {@link #queryForClob} emit the content of
+ * a single LOB in chunks, without materializing it in memory.
+ *
+ * <p>Within a reactive transaction managed by a {@link ReactiveJdbcTransactionManager}
+ * for the same {@code DataSource}, all operations run on the thread that the
+ * transaction is pinned to, participating in its JDBC transaction.
+ *
+ * <p><b>NOTE: An instance of this class is thread-safe once configured.</b>
+ *
+ * @since 5.3
+ * @see ReactiveJdbcTransactionManager
+ * @see org.springframework.transaction.reactive.TransactionalOperator
+ */
+public class ReactiveJdbcTemplate implements DisposableBean {
+
+	/** Default number of scheduler threads if the Connection pool size is unknown: 10. */
+	public static final int DEFAULT_THREAD_CAP = 10;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final DataSource dataSource;
+
+	private final Scheduler scheduler;
+
+	private final boolean disposeScheduler;
+
+
+	/**
+	 * Create a new ReactiveJdbcTemplate for the given DataSource,
+	 * with a scheduler sized to the DataSource.
+	 * @param dataSource the JDBC DataSource to access
+	 */
+	public ReactiveJdbcTemplate(DataSource dataSource) {
+		this(new JdbcTemplate(dataSource));
+	}
+
+	/**
+	 * Create a new ReactiveJdbcTemplate for the given JdbcTemplate,
+	 * with a scheduler sized to its DataSource.
+	 * @param jdbcTemplate the JdbcTemplate to delegate to
+	 */
+	public ReactiveJdbcTemplate(JdbcTemplate jdbcTemplate) {
+		Assert.notNull(jdbcTemplate, "JdbcTemplate must not be null");
+		this.jdbcTemplate = jdbcTemplate;
+		this.dataSource = obtainDataSource(jdbcTemplate);
+		this.scheduler = Schedulers.newBoundedElastic(determineThreadCap(this.dataSource),
+				Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "jdbc");
+		this.disposeScheduler = true;
+	}
+
+	/**
+	 * Create a new ReactiveJdbcTemplate for the given JdbcTemplate and scheduler.
+	 * @param jdbcTemplate the JdbcTemplate to delegate to
+	 * @param scheduler the scheduler to run JDBC calls on
+	 * (not disposed by this template)
+	 */
+	public ReactiveJdbcTemplate(JdbcTemplate jdbcTemplate, Scheduler scheduler) {
+		Assert.notNull(jdbcTemplate, "JdbcTemplate must not be null");
+		Assert.notNull(scheduler, "Scheduler must not be null");
+		this.jdbcTemplate = jdbcTemplate;
+		this.dataSource = obtainDataSource(jdbcTemplate);
+		this.scheduler = scheduler;
+		this.disposeScheduler = false;
+	}
+
+	private static DataSource obtainDataSource(JdbcTemplate jdbcTemplate) {
+		DataSource dataSource = jdbcTemplate.getDataSource();
+		Assert.notNull(dataSource, "JdbcTemplate must have a DataSource");
+		return dataSource;
+	}
+
+	/**
+	 * Determine the number of scheduler threads for the given DataSource.
+	 * <p>Uses the maximum pool size of a {@link PoolingDataSourceMXBean},
+	 * falling back to {@link #DEFAULT_THREAD_CAP}.
+	 * @param dataSource the DataSource to determine the thread cap for
+	 */
+	static int determineThreadCap(DataSource dataSource) {
+		try {
+			if (dataSource.isWrapperFor(PoolingDataSourceMXBean.class)) {
+				return dataSource.unwrap(PoolingDataSourceMXBean.class).getMaxPoolSize();
+			}
+		}
+		catch (SQLException ex) {
+			// Fall back to default
+		}
+		return DEFAULT_THREAD_CAP;
+	}
+
+
+	/**
+	 * Return the underlying JdbcTemplate.
+	 */
+	public JdbcTemplate getJdbcTemplate() {
+		return this.jdbcTemplate;
+	}
+
+	/**
+	 * Return the scheduler that JDBC calls run on outside of a transaction.
+	 */
+	public Scheduler getScheduler() {
+		return this.scheduler;
+	}
+
+
+	/**
+	 * Run the given callback against the underlying {@link JdbcOperations}.
+	 * @param action the callback performing blocking JDBC operations
+	 * @return a Mono emitting the result of the callback, or completing
+	 * empty for a {@code null} result
+	 */
+	public <T> Mono<T> execute(Function<JdbcOperations, T> action) {
+		Assert.notNull(action, "Callback object must not be null");
+		return currentScheduler().flatMap(scheduler ->
+				Mono.fromCallable(() -> action.apply(this.jdbcTemplate)).subscribeOn(scheduler));
+	}
+
+	/**
+	 * Query given SQL, emitting each row mapped through the given RowMapper.
+	 * Rows are read from the open {@code ResultSet} as demanded by the subscriber.
+	 * @param sql the SQL query to execute
+	 * @param rowMapper a callback that will map one object per row
+	 * @param args arguments to bind to the query
+	 * @return a Flux of the mapped rows
+	 * @see JdbcOperations#queryForStream(String, RowMapper, Object...)
+	 */
+	public <T> Flux<T> queryForStream(String sql, RowMapper<T> rowMapper, Object... args) {
+		return currentScheduler().flatMapMany(scheduler ->
+				Flux.fromStream(() -> this.jdbcTemplate.queryForStream(sql, rowMapper, args)).subscribeOn(scheduler));
+	}
+
+	/**
+	 * Query given SQL, mapping a single result row to a result object.
+	 * @param sql the SQL query to execute
+	 * @param rowMapper a callback that will map the row
+	 * @param args arguments to bind to the query
+	 * @return a Mono emitting the result object, or completing empty for
+	 * a {@code null} result
+	 * @see JdbcOperations#queryForObject(String, RowMapper, Object...)
+	 */
+	public <T> Mono<T> queryForObject(String sql, RowMapper<T> rowMapper, Object... args) {
+		return execute(jdbcOperations -> jdbcOperations.queryForObject(sql, rowMapper, args));
+	}
+
+	/**
+	 * Query given SQL, mapping a single result row to a single-column result object.
+	 * @param sql the SQL query to execute
+	 * @param requiredType the type that the result object is expected to match
+	 * @param args arguments to bind to the query
+	 * @return a Mono emitting the result object, or completing empty for
+	 * a {@code null} result
+	 * @see JdbcOperations#queryForObject(String, Class, Object...)
+	 */
+	public <T> Mono<T> queryForObject(String sql, Class<T> requiredType, Object... args) {
+		return queryForObject(sql, new SingleColumnRowMapper<>(requiredType), args);
+	}
+
+	/**
+	 * Query given SQL for a single BLOB value, emitting its content in chunks
+	 * as demanded by the subscriber, keeping the {@code ResultSet} open until
+	 * the content has been read or the subscription has been cancelled.
+	 * @param sql the SQL query to execute, selecting a BLOB column
+	 * @param bufferFactory the factory to create data buffers with
+	 * @param args arguments to bind to the query
+	 * @return a Flux of data buffers with the BLOB content, completing empty
+	 * if the query returns no row or a {@code null} value
+	 * @see LobDataBufferUtils#readBlob
+	 */
+	public Flux<DataBuffer> queryForBlob(String sql, DataBufferFactory bufferFactory, Object... args) {
+		return currentScheduler().flatMapMany(scheduler -> Flux.using(
+				() -> this.jdbcTemplate.queryForStream(sql, (rs, rowNum) -> Optional.ofNullable(rs.getBlob(1)), args),
+				rows -> rows.findFirst().flatMap(Function.identity())
+						.map(blob -> LobDataBufferUtils.readBlob(blob, bufferFactory, StreamUtils.BUFFER_SIZE))
+						.orElse(Flux.empty()),
+				Stream::close)
+				.subscribeOn(scheduler));
+	}
+
+	/**
+	 * Query given SQL for a single CLOB value, emitting its content in chunks
+	 * as demanded by the subscriber, keeping the {@code ResultSet} open until
+	 * the content has been read or the subscription has been cancelled.
+	 * @param sql the SQL query to execute, selecting a CLOB column
+	 * @param charset the charset to encode the CLOB content with
+	 * @param bufferFactory the factory to create data buffers with
+	 * @param args arguments to bind to the query
+	 * @return a Flux of data buffers with the encoded CLOB content, completing
+	 * empty if the query returns no row or a {@code null} value
+	 * @see LobDataBufferUtils#readClob
+	 */
+	public Flux<DataBuffer> queryForClob(String sql, Charset charset, DataBufferFactory bufferFactory, Object... args) {
+		return currentScheduler().flatMapMany(scheduler -> Flux.using(
+				() -> this.jdbcTemplate.queryForStream(sql, (rs, rowNum) -> Optional.ofNullable(rs.getClob(1)), args),
+				rows -> rows.findFirst().flatMap(Function.identity())
+						.map(clob -> LobDataBufferUtils.readClob(clob, charset, bufferFactory, StreamUtils.BUFFER_SIZE))
+						.orElse(Flux.empty()),
+				Stream::close)
+				.subscribeOn(scheduler));
+	}
+
+	/**
+	 * Issue a single SQL update operation (such as an insert, update or delete statement).
+	 * @param sql the SQL containing bind parameters
+	 * @param args arguments to bind to the query
+	 * @return a Mono emitting the number of rows affected
+	 * @see JdbcOperations#update(String, Object...)
+	 */
+	public Mono<Integer> update(String sql, Object... args) {
+		return execute(jdbcOperations -> jdbcOperations.update(sql, args));
+	}
+
+
+	/**
+	 * Determine the scheduler to use: the thread of the current reactive
+	 * transaction for this template's DataSource, if any, or the shared scheduler.
+	 */
+	private Mono<Scheduler> currentScheduler() {
+		return TransactionSynchronizationManager.forCurrentTransaction()
+				.map(synchronizationManager -> Optional.ofNullable(synchronizationManager.getResource(this.dataSource)))
+				.onErrorResume(NoTransactionException.class, ex -> Mono.just(Optional.empty()))
+				.map(resource -> resource.filter(TransactionLane.class::isInstance)
+						.map(lane -> ((TransactionLane) lane).getScheduler())
+						.orElse(this.scheduler));
+	}
+
+	/**
+	 * Dispose the scheduler if created by this template.
+	 */
+	@Override
+	public void destroy() {
+		if (this.disposeScheduler) {
+			this.scheduler.dispose();
+		}
+	}
+
+}
@@ -0,0 +1,436 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.reactive;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.NestedTransactionNotSupportedException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import javax.sql.DataSource;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link org.springframework.transaction.ReactiveTransactionManager} bridge to a
+ * {@link DataSourceTransactionManager}, allowing {@link ReactiveJdbcTemplate}
+ * operations to take part in transactions demarcated through
+ * {@link org.springframework.transaction.reactive.TransactionalOperator} or
+ * {@code @Transactional} methods returning reactive types.
+ *
+ * <p>Since a JDBC transaction is bound to a thread, each reactive transaction gets
+ * pinned to a dedicated thread for its entire duration: transaction begin, all
+ * {@code ReactiveJdbcTemplate} operations within the transaction and completion
+ * run on that thread. Such transaction threads are reused across transactions,
+ * keeping up to {@link #setMaxIdleThreads "maxIdleThreads"} threads around.
+ * At most {@link #setMaxThreads "maxThreads"} transactions are active at any
+ * time; further transactions wait for a thread to be released before they begin.
+ *
+ * <p>Supports the propagation behaviors of {@link AbstractReactiveTransactionManager},
+ * including suspension for {@code PROPAGATION_REQUIRES_NEW}, but not nested
+ * transactions. Isolation level, timeout and read-only flag are applied by the
+ * target {@code DataSourceTransactionManager}.
+ *
+ * @since 5.3
+ * @see ReactiveJdbcTemplate
+ * @see DataSourceTransactionManager
+ */
+@SuppressWarnings("serial")
+public class ReactiveJdbcTransactionManager extends AbstractReactiveTransactionManager implements DisposableBean {
+
+	private final DataSourceTransactionManager transactionManager;
+
+	private volatile int maxThreads = -1;
+
+	private int maxIdleThreads = 10;
+
+	private final transient Queue<TransactionLane> idleLanes = new ConcurrentLinkedQueue<>();
+
+	private final transient Queue<LaneRequest> laneRequests = new ConcurrentLinkedQueue<>();
+
+	private final transient AtomicInteger liveLanes = new AtomicInteger();
+
+	private final transient AtomicInteger laneCount = new AtomicInteger();
+
+	private volatile boolean destroyed = false;
+
+
+	/**
+	 * Create a new ReactiveJdbcTransactionManager for the given DataSource.
+	 * @param dataSource the JDBC DataSource to manage transactions for
+	 */
+	public ReactiveJdbcTransactionManager(DataSource dataSource) {
+		this(new DataSourceTransactionManager(dataSource));
+	}
+
+	/**
+	 * Create a new ReactiveJdbcTransactionManager for the given target transaction manager.
+	 * @param transactionManager the DataSourceTransactionManager to delegate to
+	 */
+	public ReactiveJdbcTransactionManager(DataSourceTransactionManager transactionManager) {
+		Assert.notNull(transactionManager, "DataSourceTransactionManager must not be null");
+		this.transactionManager = transactionManager;
+	}
+
+
+	/**
+	 * Return the target DataSourceTransactionManager.
+	 */
+	public DataSourceTransactionManager getTransactionManager() {
+		return this.transactionManager;
+	}
+
+	/**
+	 * Set the maximum number of transaction threads, i.e. of concurrently
+	 * active transactions. Transactions beyond that limit wait for a thread.
+	 * <p>Default is the maximum pool size of a
+	 * {@link org.springframework.jdbc.datasource.PoolingDataSourceMXBean},
+	 * falling back to {@link ReactiveJdbcTemplate#DEFAULT_THREAD_CAP}.
+	 */
+	public void setMaxThreads(int maxThreads) {
+		Assert.isTrue(maxThreads > 0, "Max threads must be greater than 0");
+		this.maxThreads = maxThreads;
+	}
+
+	/**
+	 * Set the maximum number of idle transaction threads to keep for reuse.
+	 * <p>Default is 10. A reasonable value is the size of the connection pool.
+	 */
+	public void setMaxIdleThreads(int maxIdleThreads) {
+		Assert.isTrue(maxIdleThreads >= 0, "Max idle threads must not be negative");
+		this.maxIdleThreads = maxIdleThreads;
+	}
+
+
+	@Override
+	protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+		LaneTransactionObject txObject = new LaneTransactionObject();
+		txObject.lane = (TransactionLane) synchronizationManager.getResource(obtainDataSource());
+		return txObject;
+	}
+
+	@Override
+	protected boolean isExistingTransaction(Object transaction) {
+		return (((LaneTransactionObject) transaction).lane != null);
+	}
+
+	@Override
+	protected Mono<Void> doBegin(TransactionSynchronizationManager synchronizationManager,
+			Object transaction, TransactionDefinition definition) throws TransactionException {
+
+		LaneTransactionObject txObject = (LaneTransactionObject) transaction;
+		if (txObject.lane != null) {
+			// Only PROPAGATION_NESTED begins a transaction while another one is active.
+			return Mono.error(new NestedTransactionNotSupportedException(
+					"ReactiveJdbcTransactionManager does not support nested transactions"));
+		}
+		// Propagation has been handled already: always start a new transaction on the lane.
+		DefaultTransactionDefinition laneDefinition = new DefaultTransactionDefinition(definition);
+		laneDefinition.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+		return obtainLane().flatMap(lane ->
+				Mono.<Void>fromRunnable(() ->
+								lane.setTransactionStatus(this.transactionManager.getTransaction(laneDefinition)))
+						.subscribeOn(lane.getScheduler())
+						.then(Mono.<Void>fromRunnable(() -> {
+							synchronizationManager.bindResource(obtainDataSource(), lane);
+							txObject.lane = lane;
+						}))
+						.onErrorResume(ex -> discardLane(lane).then(Mono.error(ex))));
+	}
+
+	@Override
+	protected Mono<Object> doSuspend(TransactionSynchronizationManager synchronizationManager, Object transaction)
+			throws TransactionException {
+
+		return Mono.fromSupplier(() -> {
+			((LaneTransactionObject) transaction).lane = null;
+			return synchronizationManager.unbindResource(obtainDataSource());
+		});
+	}
+
+	@Override
+	protected Mono<Void> doResume(TransactionSynchronizationManager synchronizationManager,
+			@Nullable Object transaction, Object suspendedResources) throws TransactionException {
+
+		return Mono.fromRunnable(() -> synchronizationManager.bindResource(obtainDataSource(), suspendedResources));
+	}
+
+	@Override
+	protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status) throws TransactionException {
+
+		TransactionLane lane = getLane(status);
+		return Mono.<Void>fromRunnable(() -> this.transactionManager.commit(getTransactionStatus(lane)))
+				.subscribeOn(lane.getScheduler());
+	}
+
+	@Override
+	protected Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status) throws TransactionException {
+
+		TransactionLane lane = getLane(status);
+		return Mono.<Void>fromRunnable(() -> this.transactionManager.rollback(getTransactionStatus(lane)))
+				.subscribeOn(lane.getScheduler());
+	}
+
+	@Override
+	protected Mono<Void> doSetRollbackOnly(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status) throws TransactionException {
+
+		return Mono.fromRunnable(() -> getTransactionStatus(getLane(status)).setRollbackOnly());
+	}
+
+	@Override
+	protected Mono<Void> doCleanupAfterCompletion(TransactionSynchronizationManager synchronizationManager,
+			Object transaction) {
+
+		return Mono.fromRunnable(() -> {
+			LaneTransactionObject txObject = (LaneTransactionObject) transaction;
+			TransactionLane lane = txObject.lane;
+			if (lane != null) {
+				synchronizationManager.unbindResourceIfPossible(obtainDataSource());
+				txObject.lane = null;
+				lane.setTransactionStatus(null);
+				releaseLane(lane);
+			}
+		});
+	}
+
+	/**
+	 * Shut down all idle transaction threads. Threads of transactions still
+	 * active are shut down once their transaction completes.
+	 */
+	@Override
+	public void destroy() {
+		this.destroyed = true;
+		LaneRequest request;
+		while ((request = this.laneRequests.poll()) != null) {
+			request.fail(new CannotCreateTransactionException("ReactiveJdbcTransactionManager has been destroyed"));
+		}
+		disposeIdleLanes();
+	}
+
+
+	private DataSource obtainDataSource() {
+		DataSource dataSource = this.transactionManager.getDataSource();
+		Assert.state(dataSource != null, "No DataSource set");
+		return dataSource;
+	}
+
+	/**
+	 * Obtain an idle or new lane, waiting for a lane to be released if the
+	 * maximum number of lanes is active.
+	 */
+	private Mono<TransactionLane> obtainLane() {
+		return Mono.<TransactionLane>create(sink -> {
+			if (this.destroyed) {
+				sink.error(new CannotCreateTransactionException("ReactiveJdbcTransactionManager has been destroyed"));
+				return;
+			}
+			TransactionLane lane = pollOrCreateLane();
+			if (lane != null) {
+				sink.success(lane);
+				return;
+			}
+			LaneRequest request = new LaneRequest(sink);
+			sink.onCancel(request::cancel);
+			this.laneRequests.add(request);
+			// Recheck: destroyed or a lane released before the request got queued
+			if (this.destroyed) {
+				request.fail(new CannotCreateTransactionException("ReactiveJdbcTransactionManager has been destroyed"));
+			}
+			else {
+				serveLaneRequests();
+			}
+		}).doOnDiscard(TransactionLane.class, this::releaseLane);
+	}
+
+	@Nullable
+	private TransactionLane pollOrCreateLane() {
+		TransactionLane lane = this.idleLanes.poll();
+		if (lane != null || this.destroyed) {
+			return lane;
+		}
+		int cap = this.maxThreads;
+		if (cap < 0) {
+			cap = ReactiveJdbcTemplate.determineThreadCap(obtainDataSource());
+			this.maxThreads = cap;
+		}
+		int live;
+		do {
+			live = this.liveLanes.get();
+			if (live >= cap) {
+				return null;
+			}
+		}
+		while (!this.liveLanes.compareAndSet(live, live + 1));
+		return new TransactionLane("jdbc-tx-" + this.laneCount.incrementAndGet());
+	}
+
+	/**
+	 * Hand idle or new lanes to waiting requests, covering requests queued
+	 * concurrently with a lane being released or disposed.
+	 */
+	private void serveLaneRequests() {
+		while (!this.laneRequests.isEmpty()) {
+			TransactionLane lane = pollOrCreateLane();
+			if (lane == null) {
+				return;
+			}
+			if (!handOver(lane)) {
+				// Only cancelled requests left
+				releaseLane(lane);
+				return;
+			}
+		}
+	}
+
+	private boolean handOver(TransactionLane lane) {
+		LaneRequest request;
+		while ((request = this.laneRequests.poll()) != null) {
+			if (request.complete(lane)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Roll back any JDBC transaction left on the given lane after a failed
+	 * begin, and shut the lane down rather than reusing it.
+	 */
+	private Mono<Void> discardLane(TransactionLane lane) {
+		return Mono.<Void>fromRunnable(() -> {
+			TransactionStatus status = lane.getTransactionStatus();
+			lane.setTransactionStatus(null);
+			if (status != null && !status.isCompleted()) {
+				try {
+					this.transactionManager.rollback(status);
+				}
+				catch (RuntimeException | Error ex) {
+					logger.debug("Could not roll back JDBC transaction on discarded lane", ex);
+				}
+			}
+		}).subscribeOn(lane.getScheduler()).doFinally(signal -> {
+			disposeLane(lane);
+			serveLaneRequests();
+		});
+	}
+
+	private void releaseLane(TransactionLane lane) {
+		if (this.destroyed) {
+			disposeLane(lane);
+			return;
+		}
+		if (handOver(lane)) {
+			return;
+		}
+		if (this.idleLanes.size() < this.maxIdleThreads) {
+			this.idleLanes.add(lane);
+			if (this.destroyed) {
+				// destroy() may have drained the idle lanes before the add
+				disposeIdleLanes();
+				return;
+			}
+		}
+		else {
+			disposeLane(lane);
+		}
+		serveLaneRequests();
+	}
+
+	private void disposeIdleLanes() {
+		TransactionLane lane;
+		while ((lane = this.idleLanes.poll()) != null) {
+			disposeLane(lane);
+		}
+	}
+
+	private void disposeLane(TransactionLane lane) {
+		this.liveLanes.decrementAndGet();
+		lane.dispose();
+	}
+
+	private static TransactionLane getLane(GenericReactiveTransaction status) {
+		TransactionLane lane = ((LaneTransactionObject) status.getTransaction()).lane;
+		Assert.state(lane != null, "No transaction lane bound");
+		return lane;
+	}
+
+	private static TransactionStatus getTransactionStatus(TransactionLane lane) {
+		TransactionStatus status = lane.getTransactionStatus();
+		Assert.state(status != null, "No JDBC transaction active on lane");
+		return status;
+	}
+
+
+	/**
+	 * Pending request for a lane, completed at most once: with a released lane,
+	 * with an error on destruction, or not at all if cancelled meanwhile.
+	 */
+	@SuppressWarnings("serial")
+	private static class LaneRequest extends AtomicBoolean {
+
+		private final MonoSink<TransactionLane> sink;
+
+		LaneRequest(MonoSink<TransactionLane> sink) {
+			this.sink = sink;
+		}
+
+		boolean complete(TransactionLane lane) {
+			if (compareAndSet(false, true)) {
+				this.sink.success(lane);
+				return true;
+			}
+			return false;
+		}
+
+		void fail(Throwable ex) {
+			if (compareAndSet(false, true)) {
+				this.sink.error(ex);
+			}
+		}
+
+		void cancel() {
+			set(true);
+		}
+	}
+
+
+	/**
+	 * Reactive transaction object, holding the lane of the current transaction.
+	 */
+	private static class LaneTransactionObject {
+
+		@Nullable
+		TransactionLane lane;
+	}
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.reactive;
+
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.TransactionStatus;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Single thread which a JDBC transaction is pinned to for its entire duration,
+ * since the underlying {@code DataSourceTransactionManager} binds the transactional
+ * Connection to the current thread. Bound as a resource of the reactive
+ * transaction, keyed by the {@code DataSource}.
+ *
+ * @since 5.3
+ * @see ReactiveJdbcTransactionManager
+ * @see ReactiveJdbcTemplate
+ */
+final class TransactionLane {
+
+	private final ExecutorService executor;
+
+	private final Scheduler scheduler;
+
+	@Nullable
+	private TransactionStatus transactionStatus;
+
+
+	TransactionLane(String threadName) {
+		this.executor = Executors.newSingleThreadExecutor(task -> {
+			Thread thread = new Thread(task, threadName);
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.scheduler = Schedulers.fromExecutorService(this.executor);
+	}
+
+
+	/**
+	 * Return the scheduler for running JDBC calls within this lane's transaction.
+	 */
+	Scheduler getScheduler() {
+		return this.scheduler;
+	}
+
+	void setTransactionStatus(@Nullable TransactionStatus transactionStatus) {
+		this.transactionStatus = transactionStatus;
+	}
+
+	@Nullable
+	TransactionStatus getTransactionStatus() {
+		return this.transactionStatus;
+	}
+
+	void dispose() {
+		this.scheduler.dispose();
+		this.executor.shutdown();
+	}
+
+}
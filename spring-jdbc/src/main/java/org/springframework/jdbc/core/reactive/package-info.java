@@ -0,0 +1,11 @@
+/**
+ * Reactive facade for JdbcTemplate, offloading blocking JDBC calls to a
+ * dedicated scheduler sized to the DataSource, with a bridge between
+ * {@code TransactionalOperator} and {@code DataSourceTransactionManager}.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.jdbc.core.reactive;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
@@ -213,6 +213,17 @@ public abstract class AbstractJdbcCall {
 		this.callMetaDataContext.setAccessCallParameterMetaData(accessCallParameterMetaData);
 	}
 
+	/**
+	 * Specify whether the call meta-data should be cached per DataSource,
+	 * reusing it across call objects for the same procedure or function.
+	 * The default is {@code true}.
+	 * @since 5.3
+	 * @see org.springframework.jdbc.core.metadata.CallMetaDataProviderFactory#clearCache(DataSource)
+	 */
+	public void setCacheMetaData(boolean cacheMetaData) {
+		this.callMetaDataContext.setCacheMetaData(cacheMetaData);
+	}
+
 	/**
 	 * Get the call string that should be used based on parameters and meta-data.
 	 */
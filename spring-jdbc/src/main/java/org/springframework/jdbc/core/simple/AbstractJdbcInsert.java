@@ -206,6 +206,17 @@ public abstract class AbstractJdbcInsert {
 		this.tableMetaDataContext.setOverrideIncludeSynonymsDefault(override);
 	}
 
+	/**
+	 * Specify whether the table meta-data should be cached per DataSource,
+	 * reusing it across insert objects for the same table.
+	 * The default is {@code true}.
+	 * @since 5.3
+	 * @see org.springframework.jdbc.core.metadata.TableMetaDataProviderFactory#clearCache(DataSource)
+	 */
+	public void setCacheMetaData(boolean cacheMetaData) {
+		this.tableMetaDataContext.setCacheMetaData(cacheMetaData);
+	}
+
 	/**
 	 * Get the insert string to be used.
 	 */
@@ -31,7 +31,9 @@ import java.sql.Types;
 /**
  * Object to represent an SQL BLOB/CLOB value parameter. BLOBs can either be an
  * InputStream or a byte array. CLOBs can be in the form of a Reader, InputStream
- * or String. Each CLOB/BLOB value will be stored together with its length.
+ * or String. Each CLOB/BLOB value will be stored together with its length;
+ * streams may also come without a length, to be streamed to the JDBC driver
+ * through the JDBC 4.0 set-stream methods without a length parameter.
  * The type is based on which constructor is used. Objects of this class are
  * immutable except for the LobCreator reference. Use them and discard them.
  *
@@ -120,6 +122,19 @@ public class SqlLobValue implements DisposableSqlTypeValue {
 		this.lobCreator = lobHandler.getLobCreator();
 	}
 
+	/**
+	 * Create a new BLOB/CLOB value with the given stream of unknown length,
+	 * using a DefaultLobHandler.
+	 * <p>The content is streamed to the JDBC driver without a length parameter,
+	 * not requiring it to be known upfront. This requires a JDBC 4.0 driver.
+	 * @param stream the stream containing the LOB value
+	 * @since 5.3
+	 * @see org.springframework.jdbc.support.lob.DefaultLobHandler
+	 */
+	public SqlLobValue(InputStream stream) {
+		this(stream, -1, new DefaultLobHandler());
+	}
+
 	/**
 	 * Create a new BLOB/CLOB value with the given stream,
 	 * using a DefaultLobHandler.
@@ -134,7 +149,7 @@ public class SqlLobValue implements DisposableSqlTypeValue {
 	/**
 	 * Create a new BLOB/CLOB value with the given stream.
 	 * @param stream the stream containing the LOB value
-	 * @param length the length of the LOB value
+	 * @param length the length of the LOB value, or -1 if unknown
 	 * @param lobHandler the LobHandler to be used
 	 */
 	public SqlLobValue(InputStream stream, int length, LobHandler lobHandler) {
@@ -143,6 +158,19 @@ public class SqlLobValue implements DisposableSqlTypeValue {
 		this.lobCreator = lobHandler.getLobCreator();
 	}
 
+	/**
+	 * Create a new CLOB value with the given character stream of unknown length,
+	 * using a DefaultLobHandler.
+	 * <p>The content is streamed to the JDBC driver without a length parameter,
+	 * not requiring it to be known upfront. This requires a JDBC 4.0 driver.
+	 * @param reader the character stream containing the CLOB value
+	 * @since 5.3
+	 * @see org.springframework.jdbc.support.lob.DefaultLobHandler
+	 */
+	public SqlLobValue(Reader reader) {
+		this(reader, -1, new DefaultLobHandler());
+	}
+
 	/**
 	 * Create a new CLOB value with the given character stream,
 	 * using a DefaultLobHandler.
@@ -157,7 +185,7 @@ public class SqlLobValue implements DisposableSqlTypeValue {
 	/**
 	 * Create a new CLOB value with the given character stream.
 	 * @param reader the character stream containing the CLOB value
-	 * @param length the length of the CLOB value
+	 * @param length the length of the CLOB value, or -1 if unknown
 	 * @param lobHandler the LobHandler to be used
 	 */
 	public SqlLobValue(Reader reader, int length, LobHandler lobHandler) {
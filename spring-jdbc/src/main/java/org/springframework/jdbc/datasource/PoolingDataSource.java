@@ -0,0 +1,898 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Simple JDBC connection pool on top of a non-pooling target DataSource such as
+ * {@link SimpleDriverDataSource}, {@link DriverManagerDataSource} or an
+ * {@link org.springframework.jdbc.datasource.embedded.EmbeddedDatabase}.
+ * Intended for embedded databases, tests and small services which would
+ * otherwise run unpooled; consider a full-featured pool for demanding setups.
+ *
+ * <p>Idle Connections are kept in a lock-free bag: a Connection is reserved
+ * through a compare-and-set on its state, with each thread first trying the
+ * Connection it used last. Returned Connections are handed off directly to
+ * threads waiting for a Connection. Statements left open on a Connection
+ * handle get closed when the handle is closed. Connections which have been idle for
+ * longer than the {@link #setValidationInterval validation interval} get
+ * validated before being handed out again.
+ *
+ * <p>A background housekeeping thread retires Connections beyond their
+ * {@link #setMaxLifetime max lifetime} as well as surplus idle Connections,
+ * keeps {@link #setMinIdle min idle} Connections available, and reports
+ * Connections which have been in use for longer than the
+ * {@link #setLeakDetectionThreshold leak detection threshold}.
+ *
+ * <p>Returned Connections are reset to their initial auto-commit, read-only,
+ * isolation level and catalog settings, rolling back any pending transaction.
+ * This DataSource works with {@link DataSourceTransactionManager} and can be
+ * combined with {@link LazyConnectionDataSourceProxy} and
+ * {@link TransactionAwareDataSourceProxy}. Use {@link Connection#unwrap}
+ * to retrieve the native JDBC Connection.
+ *
+ * <p>Pool metrics are exposed through the {@link PoolingDataSourceMXBean}
+ * interface, e.g. for exporting this DataSource via Spring's
+ * {@link org.springframework.jmx.export.MBeanExporter}.
+ *
+ * @since 5.3
+ * @see #setMaxPoolSize
+ * @see #setConnectionTimeout
+ * @see PoolingDataSourceMXBean
+ */
+public class PoolingDataSource extends DelegatingDataSource implements PoolingDataSourceMXBean, DisposableBean {
+
+	/** Default maximum number of Connections in the pool: 10. */
+	public static final int DEFAULT_MAX_POOL_SIZE = 10;
+
+	private static final long HANDOFF_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private static final int STATE_IDLE = 0;
+
+	private static final int STATE_IN_USE = 1;
+
+	private static final int STATE_REMOVED = -1;
+
+	private static final Log logger = LogFactory.getLog(PoolingDataSource.class);
+
+
+	private int maxPoolSize = DEFAULT_MAX_POOL_SIZE;
+
+	private int minIdle = 0;
+
+	private Duration connectionTimeout = Duration.ofSeconds(30);
+
+	private Duration idleTimeout = Duration.ofMinutes(10);
+
+	private Duration maxLifetime = Duration.ofMinutes(30);
+
+	private Duration validationInterval = Duration.ofMillis(500);
+
+	private Duration validationTimeout = Duration.ofSeconds(5);
+
+	@Nullable
+	private String validationQuery;
+
+	private Duration leakDetectionThreshold = Duration.ZERO;
+
+	private Duration housekeepingPeriod = Duration.ofSeconds(30);
+
+	private final CopyOnWriteArrayList<PooledConnection> connections = new CopyOnWriteArrayList<>();
+
+	private final ThreadLocal<WeakReference<PooledConnection>> lastUsedConnection = new ThreadLocal<>();
+
+	private final SynchronousQueue<PooledConnection> handoffQueue = new SynchronousQueue<>(true);
+
+	/** Number of pooled Connections, including the ones currently being created. */
+	private final AtomicInteger totalConnections = new AtomicInteger();
+
+	private final AtomicInteger waitingThreads = new AtomicInteger();
+
+	private final LongAdder borrowedCount = new LongAdder();
+
+	private final LongAdder createdCount = new LongAdder();
+
+	private final LongAdder timeoutCount = new LongAdder();
+
+	private final LongAdder leakCount = new LongAdder();
+
+	private final Object housekeepingMonitor = new Object();
+
+	@Nullable
+	private volatile ScheduledExecutorService housekeepingExecutor;
+
+	private volatile boolean closed;
+
+
+	/**
+	 * Create a new PoolingDataSource.
+	 * @see #setTargetDataSource
+	 */
+	public PoolingDataSource() {
+	}
+
+	/**
+	 * Create a new PoolingDataSource.
+	 * @param targetDataSource the non-pooling DataSource to obtain physical Connections from
+	 */
+	public PoolingDataSource(DataSource targetDataSource) {
+		super(targetDataSource);
+	}
+
+
+	/**
+	 * Set the maximum number of Connections in the pool, active or idle.
+	 * <p>Default is 10.
+	 */
+	public void setMaxPoolSize(int maxPoolSize) {
+		Assert.isTrue(maxPoolSize > 0, "Max pool size must be greater than 0");
+		this.maxPoolSize = maxPoolSize;
+	}
+
+	@Override
+	public int getMaxPoolSize() {
+		return this.maxPoolSize;
+	}
+
+	/**
+	 * Set the minimum number of idle Connections which the housekeeping
+	 * thread tries to keep available in the pool.
+	 * <p>Default is 0, creating Connections on demand only.
+	 */
+	public void setMinIdle(int minIdle) {
+		Assert.isTrue(minIdle >= 0, "Min idle must not be negative");
+		this.minIdle = minIdle;
+	}
+
+	@Override
+	public int getMinIdle() {
+		return this.minIdle;
+	}
+
+	/**
+	 * Set the maximum time to wait for a Connection from the pool before
+	 * throwing a {@link SQLTransientConnectionException}.
+	 * <p>Default is 30 seconds.
+	 */
+	public void setConnectionTimeout(Duration connectionTimeout) {
+		Assert.isTrue(!connectionTimeout.isNegative(), "Connection timeout must not be negative");
+		this.connectionTimeout = connectionTimeout;
+	}
+
+	/**
+	 * Set the time after which idle Connections beyond {@link #setMinIdle min idle}
+	 * get closed by the housekeeping thread.
+	 * <p>Default is 10 minutes. {@link Duration#ZERO} keeps idle Connections.
+	 */
+	public void setIdleTimeout(Duration idleTimeout) {
+		Assert.isTrue(!idleTimeout.isNegative(), "Idle timeout must not be negative");
+		this.idleTimeout = idleTimeout;
+	}
+
+	/**
+	 * Set the maximum lifetime of a Connection, after which it gets closed
+	 * once idle.
+	 * <p>Default is 30 minutes. {@link Duration#ZERO} indicates an infinite lifetime.
+	 */
+	public void setMaxLifetime(Duration maxLifetime) {
+		Assert.isTrue(!maxLifetime.isNegative(), "Max lifetime must not be negative");
+		this.maxLifetime = maxLifetime;
+	}
+
+	/**
+	 * Set the idle time after which a Connection gets validated before being
+	 * handed out again.
+	 * <p>Default is 500 milliseconds. {@link Duration#ZERO} validates Connections
+	 * on every borrow.
+	 * @see #setValidationQuery
+	 */
+	public void setValidationInterval(Duration validationInterval) {
+		Assert.isTrue(!validationInterval.isNegative(), "Validation interval must not be negative");
+		this.validationInterval = validationInterval;
+	}
+
+	/**
+	 * Set the maximum time to wait for the validation of a Connection.
+	 * <p>Default is 5 seconds.
+	 */
+	public void setValidationTimeout(Duration validationTimeout) {
+		Assert.isTrue(validationTimeout.getSeconds() >= 1, "Validation timeout must be at least 1 second");
+		this.validationTimeout = validationTimeout;
+	}
+
+	/**
+	 * Set an SQL query to validate Connections with.
+	 * <p>Default is none, relying on the driver's {@link Connection#isValid} check.
+	 */
+	public void setValidationQuery(@Nullable String validationQuery) {
+		this.validationQuery = validationQuery;
+	}
+
+	/**
+	 * Set the time after which a Connection that has not been returned to the
+	 * pool gets reported as a potential leak, including the stack trace of the
+	 * {@code getConnection} call which obtained it. Checked on each housekeeping run.
+	 * <p>Default is {@link Duration#ZERO}, i.e. no leak detection.
+	 * @see #setHousekeepingPeriod
+	 */
+	public void setLeakDetectionThreshold(Duration leakDetectionThreshold) {
+		Assert.isTrue(!leakDetectionThreshold.isNegative(), "Leak detection threshold must not be negative");
+		this.leakDetectionThreshold = leakDetectionThreshold;
+	}
+
+	/**
+	 * Set the period of the housekeeping thread which retires idle and expired
+	 * Connections, fills the pool up to {@link #setMinIdle min idle} and performs
+	 * leak detection.
+	 * <p>Default is 30 seconds.
+	 */
+	public void setHousekeepingPeriod(Duration housekeepingPeriod) {
+		Assert.isTrue(!housekeepingPeriod.isNegative() && !housekeepingPeriod.isZero(),
+				"Housekeeping period must be positive");
+		this.housekeepingPeriod = housekeepingPeriod;
+	}
+
+
+	@Override
+	public void afterPropertiesSet() {
+		super.afterPropertiesSet();
+		startHousekeeping();
+	}
+
+	/**
+	 * Obtain a Connection from the pool, waiting for up to the configured
+	 * {@link #setConnectionTimeout connection timeout} if none is available.
+	 * <p>The returned Connection handle implements the {@link ConnectionProxy}
+	 * interface; closing it returns the target Connection to the pool.
+	 * @throws SQLTransientConnectionException if no Connection became
+	 * available within the connection timeout
+	 */
+	@Override
+	public Connection getConnection() throws SQLException {
+		if (this.closed) {
+			throw new SQLException("PoolingDataSource has been closed");
+		}
+		if (this.housekeepingExecutor == null) {
+			startHousekeeping();
+		}
+		PooledConnection pooledConnection = borrow();
+		this.borrowedCount.increment();
+		if (!this.leakDetectionThreshold.isZero()) {
+			pooledConnection.borrowTrace = new Throwable("Connection obtained from pool here");
+		}
+		return pooledConnection.createHandle();
+	}
+
+	/**
+	 * Not supported: all Connections in the pool share the target DataSource's credentials.
+	 */
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		throw new SQLFeatureNotSupportedException(
+				"PoolingDataSource does not support custom username and password");
+	}
+
+	/**
+	 * Close all idle Connections and shut down the pool. Active Connections
+	 * get closed once returned.
+	 */
+	@Override
+	public void destroy() {
+		this.closed = true;
+		ScheduledExecutorService executor = this.housekeepingExecutor;
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+		evictIdleConnections();
+	}
+
+
+	private PooledConnection borrow() throws SQLException {
+		long startTime = System.nanoTime();
+		long timeout = this.connectionTimeout.toNanos();
+
+		// Try the Connection last used by the current thread first.
+		WeakReference<PooledConnection> lastUsed = this.lastUsedConnection.get();
+		if (lastUsed != null) {
+			PooledConnection pooledConnection = lastUsed.get();
+			if (pooledConnection != null && pooledConnection.reserve() && isUsable(pooledConnection)) {
+				return pooledConnection;
+			}
+		}
+
+		try {
+			while (true) {
+				for (PooledConnection pooledConnection : this.connections) {
+					if (pooledConnection.reserve() && isUsable(pooledConnection)) {
+						return pooledConnection;
+					}
+				}
+				PooledConnection newConnection = createConnection();
+				if (newConnection != null) {
+					return newConnection;
+				}
+				long remaining = timeout - (System.nanoTime() - startTime);
+				if (remaining <= 0) {
+					break;
+				}
+				// Wait for a Connection to be returned, rescanning the pool in
+				// between in case of a Connection having been removed meanwhile.
+				this.waitingThreads.incrementAndGet();
+				PooledConnection handedOff;
+				try {
+					handedOff = this.handoffQueue.poll(Math.min(remaining, HANDOFF_POLL_NANOS), TimeUnit.NANOSECONDS);
+				}
+				finally {
+					this.waitingThreads.decrementAndGet();
+				}
+				if (handedOff != null && handedOff.reserve() && isUsable(handedOff)) {
+					return handedOff;
+				}
+				if (this.closed) {
+					throw new SQLException("PoolingDataSource has been closed");
+				}
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for a pooled Connection", ex);
+		}
+
+		this.timeoutCount.increment();
+		throw new SQLTransientConnectionException("No pooled Connection available after " +
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms (active: " +
+				getActiveConnections() + ", max pool size: " + this.maxPoolSize + ")");
+	}
+
+	@Nullable
+	private PooledConnection createConnection() throws SQLException {
+		while (true) {
+			int total = this.totalConnections.get();
+			if (total >= this.maxPoolSize) {
+				return null;
+			}
+			if (this.totalConnections.compareAndSet(total, total + 1)) {
+				break;
+			}
+		}
+		try {
+			PooledConnection pooledConnection = new PooledConnection(obtainTargetDataSource().getConnection());
+			this.connections.add(pooledConnection);
+			this.createdCount.increment();
+			return pooledConnection;
+		}
+		catch (Throwable ex) {
+			this.totalConnections.decrementAndGet();
+			throw ex;
+		}
+	}
+
+	private boolean isUsable(PooledConnection pooledConnection) {
+		long now = System.nanoTime();
+		if (isExpired(pooledConnection, now)) {
+			remove(pooledConnection);
+			return false;
+		}
+		if (now - pooledConnection.lastReturned >= this.validationInterval.toNanos() &&
+				!isValid(pooledConnection.connection)) {
+			logger.debug("Removing invalid Connection from pool");
+			remove(pooledConnection);
+			return false;
+		}
+		return true;
+	}
+
+	private boolean isExpired(PooledConnection pooledConnection, long now) {
+		return (this.closed ||
+				(!this.maxLifetime.isZero() && now - pooledConnection.created >= this.maxLifetime.toNanos()));
+	}
+
+	private boolean isValid(Connection con) {
+		try {
+			int timeoutSeconds = (int) this.validationTimeout.getSeconds();
+			if (this.validationQuery == null) {
+				return con.isValid(timeoutSeconds);
+			}
+			try (Statement stmt = con.createStatement()) {
+				stmt.setQueryTimeout(timeoutSeconds);
+				stmt.execute(this.validationQuery);
+				return true;
+			}
+		}
+		catch (Throwable ex) {
+			logger.debug("Validation of pooled Connection failed", ex);
+			return false;
+		}
+	}
+
+	private void release(PooledConnection pooledConnection) {
+		pooledConnection.borrowTrace = null;
+		pooledConnection.leakReported = false;
+		pooledConnection.lastReturned = System.nanoTime();
+		if (isExpired(pooledConnection, pooledConnection.lastReturned) || !pooledConnection.reset()) {
+			remove(pooledConnection);
+			return;
+		}
+		pooledConnection.state.set(STATE_IDLE);
+		this.lastUsedConnection.set(pooledConnection.reference);
+		// Offer once to a waiting thread: if none is polling right now, waiting
+		// threads find the idle Connection when rescanning the pool.
+		if (this.waitingThreads.get() > 0 && pooledConnection.state.get() == STATE_IDLE) {
+			this.handoffQueue.offer(pooledConnection);
+		}
+	}
+
+	private void remove(PooledConnection pooledConnection) {
+		pooledConnection.state.set(STATE_REMOVED);
+		if (this.connections.remove(pooledConnection)) {
+			this.totalConnections.decrementAndGet();
+		}
+		try {
+			pooledConnection.connection.close();
+		}
+		catch (Throwable ex) {
+			logger.debug("Could not close pooled JDBC Connection", ex);
+		}
+	}
+
+
+	private void startHousekeeping() {
+		synchronized (this.housekeepingMonitor) {
+			if (this.housekeepingExecutor == null && !this.closed) {
+				ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(task -> {
+					Thread thread = new Thread(task, "PoolingDataSource-housekeeping");
+					thread.setDaemon(true);
+					return thread;
+				});
+				long period = this.housekeepingPeriod.toMillis();
+				executor.scheduleWithFixedDelay(this::housekeep, 0, period, TimeUnit.MILLISECONDS);
+				this.housekeepingExecutor = executor;
+			}
+		}
+	}
+
+	private void housekeep() {
+		try {
+			long now = System.nanoTime();
+			int surplusIdle = getIdleConnections() - this.minIdle;
+			for (PooledConnection pooledConnection : this.connections) {
+				int state = pooledConnection.state.get();
+				if (state == STATE_IN_USE) {
+					detectLeak(pooledConnection, now);
+				}
+				else if (state == STATE_IDLE) {
+					boolean idleTimedOut = (surplusIdle > 0 && !this.idleTimeout.isZero() &&
+							now - pooledConnection.lastReturned >= this.idleTimeout.toNanos());
+					if ((idleTimedOut || isExpired(pooledConnection, now)) &&
+							pooledConnection.state.compareAndSet(STATE_IDLE, STATE_REMOVED)) {
+						remove(pooledConnection);
+						surplusIdle--;
+					}
+				}
+			}
+			while (!this.closed && getIdleConnections() < this.minIdle) {
+				PooledConnection newConnection = createConnection();
+				if (newConnection == null) {
+					break;
+				}
+				release(newConnection);
+			}
+		}
+		catch (Throwable ex) {
+			logger.debug("Pool housekeeping failed", ex);
+		}
+	}
+
+	private void detectLeak(PooledConnection pooledConnection, long now) {
+		Throwable borrowTrace = pooledConnection.borrowTrace;
+		if (borrowTrace != null && !pooledConnection.leakReported &&
+				now - pooledConnection.lastBorrowed >= this.leakDetectionThreshold.toNanos()) {
+			pooledConnection.leakReported = true;
+			this.leakCount.increment();
+			logger.warn("Potential Connection leak: Connection not returned to pool after " +
+					TimeUnit.NANOSECONDS.toMillis(now - pooledConnection.lastBorrowed) + " ms", borrowTrace);
+		}
+	}
+
+
+	@Override
+	public int getActiveConnections() {
+		return countConnections(STATE_IN_USE);
+	}
+
+	@Override
+	public int getIdleConnections() {
+		return countConnections(STATE_IDLE);
+	}
+
+	private int countConnections(int state) {
+		int count = 0;
+		for (PooledConnection pooledConnection : this.connections) {
+			if (pooledConnection.state.get() == state) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public int getTotalConnections() {
+		return this.connections.size();
+	}
+
+	@Override
+	public int getThreadsAwaitingConnection() {
+		return this.waitingThreads.get();
+	}
+
+	@Override
+	public long getConnectionsBorrowed() {
+		return this.borrowedCount.sum();
+	}
+
+	@Override
+	public long getConnectionsCreated() {
+		return this.createdCount.sum();
+	}
+
+	@Override
+	public long getConnectionTimeouts() {
+		return this.timeoutCount.sum();
+	}
+
+	@Override
+	public long getConnectionLeaks() {
+		return this.leakCount.sum();
+	}
+
+	@Override
+	public void evictIdleConnections() {
+		for (PooledConnection pooledConnection : this.connections) {
+			if (pooledConnection.state.compareAndSet(STATE_IDLE, STATE_REMOVED)) {
+				remove(pooledConnection);
+			}
+		}
+	}
+
+
+	/**
+	 * Pool entry for a physical Connection.
+	 */
+	private class PooledConnection {
+
+		final Connection connection;
+
+		final AtomicInteger state = new AtomicInteger(STATE_IN_USE);
+
+		final WeakReference<PooledConnection> reference = new WeakReference<>(this);
+
+		final long created = System.nanoTime();
+
+		volatile long lastReturned = this.created;
+
+		volatile long lastBorrowed = this.created;
+
+		@Nullable
+		volatile Throwable borrowTrace;
+
+		volatile boolean leakReported;
+
+		// Initial Connection settings to restore on return
+
+		private final boolean defaultAutoCommit;
+
+		private final boolean defaultReadOnly;
+
+		private final int defaultTransactionIsolation;
+
+		@Nullable
+		private final String defaultCatalog;
+
+		// Settings changed through the current Connection handle
+
+		private boolean autoCommit;
+
+		private boolean readOnlyChanged;
+
+		private boolean transactionIsolationChanged;
+
+		private boolean catalogChanged;
+
+		PooledConnection(Connection connection) throws SQLException {
+			this.connection = connection;
+			try {
+				this.defaultAutoCommit = connection.getAutoCommit();
+				this.defaultReadOnly = connection.isReadOnly();
+				this.defaultTransactionIsolation = connection.getTransactionIsolation();
+				this.defaultCatalog = connection.getCatalog();
+			}
+			catch (SQLException | RuntimeException ex) {
+				connection.close();
+				throw ex;
+			}
+			this.autoCommit = this.defaultAutoCommit;
+		}
+
+		boolean reserve() {
+			if (this.state.compareAndSet(STATE_IDLE, STATE_IN_USE)) {
+				this.lastBorrowed = System.nanoTime();
+				return true;
+			}
+			return false;
+		}
+
+		Connection createHandle() {
+			return (Connection) Proxy.newProxyInstance(
+					ConnectionProxy.class.getClassLoader(),
+					new Class<?>[] {ConnectionProxy.class},
+					new PooledConnectionInvocationHandler(this));
+		}
+
+		void settingChanged(String methodName, Object[] args) {
+			switch (methodName) {
+				case "setAutoCommit":
+					this.autoCommit = (Boolean) args[0];
+					break;
+				case "setReadOnly":
+					this.readOnlyChanged = true;
+					break;
+				case "setTransactionIsolation":
+					this.transactionIsolationChanged = true;
+					break;
+				case "setCatalog":
+					this.catalogChanged = true;
+					break;
+			}
+		}
+
+		/**
+		 * Roll back any pending transaction and restore the initial settings.
+		 * @return whether the Connection can be reused
+		 */
+		boolean reset() {
+			try {
+				if (!this.autoCommit) {
+					this.connection.rollback();
+				}
+				if (this.autoCommit != this.defaultAutoCommit) {
+					this.connection.setAutoCommit(this.defaultAutoCommit);
+					this.autoCommit = this.defaultAutoCommit;
+				}
+				if (this.readOnlyChanged) {
+					this.connection.setReadOnly(this.defaultReadOnly);
+					this.readOnlyChanged = false;
+				}
+				if (this.transactionIsolationChanged) {
+					this.connection.setTransactionIsolation(this.defaultTransactionIsolation);
+					this.transactionIsolationChanged = false;
+				}
+				if (this.catalogChanged) {
+					if (this.defaultCatalog != null) {
+						this.connection.setCatalog(this.defaultCatalog);
+					}
+					this.catalogChanged = false;
+				}
+				this.connection.clearWarnings();
+				return true;
+			}
+			catch (Throwable ex) {
+				logger.debug("Could not reset pooled JDBC Connection - removing it from pool", ex);
+				return false;
+			}
+		}
+	}
+
+
+	/**
+	 * Invocation handler for a pooled Connection handle,
+	 * returning the target Connection to the pool on close.
+	 */
+	private class PooledConnectionInvocationHandler implements InvocationHandler {
+
+		private final PooledConnection pooledConnection;
+
+		/** Statements created through this handle and not closed yet. */
+		private final Set<Statement> openStatements = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		private boolean closed = false;
+
+		public PooledConnectionInvocationHandler(PooledConnection pooledConnection) {
+			this.pooledConnection = pooledConnection;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			// Invocation on ConnectionProxy interface coming in...
+
+			switch (method.getName()) {
+				case "equals":
+					// Only considered as equal when proxies are identical.
+					return (proxy == args[0]);
+				case "hashCode":
+					// Use hashCode of Connection proxy.
+					return System.identityHashCode(proxy);
+				case "toString":
+					return "Pooled proxy for target Connection [" + this.pooledConnection.connection + "]";
+				case "unwrap":
+					if (((Class<?>) args[0]).isInstance(proxy)) {
+						return proxy;
+					}
+					break;
+				case "isWrapperFor":
+					if (((Class<?>) args[0]).isInstance(proxy)) {
+						return true;
+					}
+					break;
+				case "isClosed":
+					return this.closed;
+				case "close":
+					// Handle close method: return target Connection to the pool.
+					if (!this.closed) {
+						this.closed = true;
+						closeOpenStatements();
+						release(this.pooledConnection);
+					}
+					return null;
+				case "abort":
+					// Handle abort method: remove target Connection from the pool.
+					if (!this.closed) {
+						this.closed = true;
+						this.openStatements.clear();
+						remove(this.pooledConnection);
+					}
+					return null;
+			}
+
+			if (this.closed) {
+				throw new SQLException("Connection handle already closed");
+			}
+			if (method.getName().equals("getTargetConnection")) {
+				// Handle getTargetConnection method: return underlying Connection.
+				return this.pooledConnection.connection;
+			}
+
+			// Invoke method on target Connection.
+			Object retVal;
+			try {
+				retVal = method.invoke(this.pooledConnection.connection, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+			if (retVal instanceof Statement) {
+				return createStatementHandle((Connection) proxy, (Statement) retVal, method.getReturnType());
+			}
+			this.pooledConnection.settingChanged(method.getName(), args);
+			return retVal;
+		}
+
+		private Statement createStatementHandle(Connection connectionHandle, Statement target, Class<?> type) {
+			this.openStatements.add(target);
+			return (Statement) Proxy.newProxyInstance(
+					ConnectionProxy.class.getClassLoader(),
+					new Class<?>[] {type},
+					new PooledStatementInvocationHandler(connectionHandle, target, this));
+		}
+
+		void statementClosed(Statement target) {
+			this.openStatements.remove(target);
+		}
+
+		/**
+		 * Close the statements left open through this handle, so that no
+		 * Connection gets returned to the pool with open cursors.
+		 */
+		private void closeOpenStatements() {
+			for (Statement stmt : this.openStatements) {
+				try {
+					stmt.close();
+				}
+				catch (Throwable ex) {
+					logger.debug("Could not close JDBC Statement left open on pooled Connection", ex);
+				}
+			}
+			this.openStatements.clear();
+		}
+	}
+
+
+	/**
+	 * Invocation handler for a Statement created through a pooled Connection
+	 * handle, exposing that handle as its Connection and reporting its close.
+	 */
+	private static class PooledStatementInvocationHandler implements InvocationHandler {
+
+		private final Connection connectionHandle;
+
+		private final Statement target;
+
+		private final PooledConnectionInvocationHandler connectionHandler;
+
+		public PooledStatementInvocationHandler(Connection connectionHandle, Statement target,
+				PooledConnectionInvocationHandler connectionHandler) {
+
+			this.connectionHandle = connectionHandle;
+			this.target = target;
+			this.connectionHandler = connectionHandler;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "equals":
+					return (proxy == args[0]);
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "toString":
+					return "Pooled proxy for target Statement [" + this.target + "]";
+				case "getConnection":
+					return this.connectionHandle;
+				case "unwrap":
+					if (((Class<?>) args[0]).isInstance(proxy)) {
+						return proxy;
+					}
+					break;
+				case "isWrapperFor":
+					if (((Class<?>) args[0]).isInstance(proxy)) {
+						return true;
+					}
+					break;
+				case "close":
+					this.connectionHandler.statementClosed(this.target);
+					break;
+			}
+
+			try {
+				return method.invoke(this.target, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource;
+
+/**
+ * JMX management interface for a {@link PoolingDataSource}, exposing the
+ * current state of the pool and cumulative usage statistics.
+ *
+ * <p>Picked up as an MXBean when exporting a {@code PoolingDataSource}
+ * through Spring's {@code MBeanExporter}.
+ *
+ * @since 5.3
+ * @see PoolingDataSource
+ * @see org.springframework.jmx.export.MBeanExporter
+ */
+public interface PoolingDataSourceMXBean {
+
+	/**
+	 * Return the number of Connections currently handed out to callers.
+	 */
+	int getActiveConnections();
+
+	/**
+	 * Return the number of Connections currently idle in the pool.
+	 */
+	int getIdleConnections();
+
+	/**
+	 * Return the total number of Connections in the pool, active or idle.
+	 */
+	int getTotalConnections();
+
+	/**
+	 * Return the number of threads currently waiting for a Connection.
+	 */
+	int getThreadsAwaitingConnection();
+
+	/**
+	 * Return the maximum number of Connections in the pool.
+	 */
+	int getMaxPoolSize();
+
+	/**
+	 * Return the minimum number of idle Connections to keep in the pool.
+	 */
+	int getMinIdle();
+
+	/**
+	 * Return the number of Connections handed out since the pool started.
+	 */
+	long getConnectionsBorrowed();
+
+	/**
+	 * Return the number of physical Connections created since the pool started.
+	 */
+	long getConnectionsCreated();
+
+	/**
+	 * Return the number of Connection requests which timed out.
+	 */
+	long getConnectionTimeouts();
+
+	/**
+	 * Return the number of Connections detected as potentially leaked.
+	 */
+	long getConnectionLeaks();
+
+	/**
+	 * Close all currently idle Connections, e.g. after a database failover.
+	 */
+	void evictIdleConnections();
+
+}
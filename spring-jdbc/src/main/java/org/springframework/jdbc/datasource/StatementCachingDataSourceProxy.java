@@ -0,0 +1,560 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Proxy for a target DataSource, caching JDBC {@link PreparedStatement PreparedStatements}
+ * per Connection. Useful for drivers and connection pools without a statement cache
+ * of their own, avoiding the round trip for re-preparing the same SQL statement
+ * on the same Connection.
+ *
+ * <p>Each target Connection keeps an LRU cache of idle statements, keyed by SQL
+ * statement and the result set type, concurrency and holdability or the generated
+ * keys options that the statement was prepared with. Calling {@code close()} on a
+ * PreparedStatement obtained from a Connection of this proxy clears its parameters
+ * and returns it to the cache instead of closing it; a statement is handed out to
+ * one user at a time. Statement settings such as fetch size, max rows and query
+ * timeout are restored on return; statements with other modified settings are
+ * closed rather than cached.
+ *
+ * <p>Cached statements are kept for as long as the target Connection stays open.
+ * When a Connection handle of this proxy gets closed and the target Connection
+ * reports itself as closed (e.g. a physical Connection or a pooled Connection handle
+ * that got returned to its pool) or gets aborted, the cached statements are closed
+ * and the cache for the target Connection is dropped. A target
+ * Connection remaining open after close, e.g. from a {@link SingleConnectionDataSource}
+ * with "suppressClose" or a transactional Connection, retains its statements for the
+ * next Connection handle obtained for it.
+ *
+ * <p><b>If you configure both a StatementCachingDataSourceProxy and a
+ * TransactionAwareDataSourceProxy, make sure that the latter is the outermost
+ * DataSource.</b> Use {@link Connection#unwrap} to retrieve the native JDBC
+ * Connection and {@link PreparedStatement#unwrap} for the native statement.
+ *
+ * @since 5.3
+ * @see #setStatementCacheSize
+ * @see TransactionAwareDataSourceProxy
+ */
+public class StatementCachingDataSourceProxy extends DelegatingDataSource {
+
+	/** Default maximum number of idle statements cached per Connection: 32. */
+	public static final int DEFAULT_STATEMENT_CACHE_SIZE = 32;
+
+	private static final Log logger = LogFactory.getLog(StatementCachingDataSourceProxy.class);
+
+
+	private int statementCacheSize = DEFAULT_STATEMENT_CACHE_SIZE;
+
+	/** Statement caches per open target Connection, by identity. */
+	private final Map<ConnectionKey, StatementCache> statementCaches = new ConcurrentHashMap<>(16);
+
+
+	/**
+	 * Create a new StatementCachingDataSourceProxy.
+	 * @see #setTargetDataSource
+	 */
+	public StatementCachingDataSourceProxy() {
+	}
+
+	/**
+	 * Create a new StatementCachingDataSourceProxy.
+	 * @param targetDataSource the target DataSource
+	 */
+	public StatementCachingDataSourceProxy(DataSource targetDataSource) {
+		super(targetDataSource);
+	}
+
+
+	/**
+	 * Specify the maximum number of idle statements to cache per Connection.
+	 * <p>Default is 32. 0 indicates no caching, closing every statement right away.
+	 */
+	public void setStatementCacheSize(int statementCacheSize) {
+		Assert.isTrue(statementCacheSize >= 0, "Statement cache size must not be negative");
+		this.statementCacheSize = statementCacheSize;
+	}
+
+	/**
+	 * Return the maximum number of idle statements to cache per Connection.
+	 */
+	public int getStatementCacheSize() {
+		return this.statementCacheSize;
+	}
+
+
+	/**
+	 * Return a statement-caching Connection handle for a target Connection
+	 * from the target DataSource.
+	 * @see #getStatementCachingConnectionProxy(Connection)
+	 */
+	@Override
+	public Connection getConnection() throws SQLException {
+		return getStatementCachingConnectionProxy(obtainTargetDataSource().getConnection());
+	}
+
+	/**
+	 * Return a statement-caching Connection handle for a target Connection
+	 * from the target DataSource.
+	 * @see #getStatementCachingConnectionProxy(Connection)
+	 */
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return getStatementCachingConnectionProxy(obtainTargetDataSource().getConnection(username, password));
+	}
+
+	/**
+	 * Wrap the given Connection with a proxy that delegates every method call to it
+	 * but serves {@code prepareStatement} calls from the target Connection's
+	 * statement cache.
+	 * @param target the original Connection to wrap
+	 * @return the wrapped Connection
+	 */
+	protected Connection getStatementCachingConnectionProxy(Connection target) {
+		StatementCache statementCache = this.statementCaches.computeIfAbsent(
+				new ConnectionKey(target), key -> new StatementCache(this.statementCacheSize));
+		return (Connection) Proxy.newProxyInstance(
+				ConnectionProxy.class.getClassLoader(),
+				new Class<?>[] {ConnectionProxy.class},
+				new StatementCachingInvocationHandler(target, statementCache));
+	}
+
+	private void releaseStatementCache(Connection target, StatementCache statementCache) {
+		boolean closed;
+		try {
+			closed = target.isClosed();
+		}
+		catch (SQLException ex) {
+			closed = true;
+		}
+		if (closed) {
+			removeStatementCache(target, statementCache);
+		}
+	}
+
+	private void removeStatementCache(Connection target, StatementCache statementCache) {
+		this.statementCaches.remove(new ConnectionKey(target), statementCache);
+		statementCache.close();
+	}
+
+	private static void closeStatement(PreparedStatement stmt) {
+		try {
+			stmt.close();
+		}
+		catch (SQLException ex) {
+			logger.trace("Could not close cached JDBC PreparedStatement", ex);
+		}
+		catch (Throwable ex) {
+			// We don't trust the JDBC driver: It might throw RuntimeException or Error.
+			logger.trace("Unexpected exception on closing cached JDBC PreparedStatement", ex);
+		}
+	}
+
+
+	/**
+	 * Invocation handler that serves PreparedStatements from the statement cache
+	 * of the target Connection.
+	 */
+	private class StatementCachingInvocationHandler implements InvocationHandler {
+
+		private final Connection target;
+
+		private final StatementCache statementCache;
+
+		private boolean closed = false;
+
+		public StatementCachingInvocationHandler(Connection target, StatementCache statementCache) {
+			this.target = target;
+			this.statementCache = statementCache;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			// Invocation on ConnectionProxy interface coming in...
+
+			switch (method.getName()) {
+				case "equals":
+					// Only considered as equal when proxies are identical.
+					return (proxy == args[0]);
+				case "hashCode":
+					// Use hashCode of Connection proxy.
+					return System.identityHashCode(proxy);
+				case "toString":
+					return "Statement-caching proxy for target Connection [" + this.target + "]";
+				case "unwrap":
+					if (((Class<?>) args[0]).isInstance(proxy)) {
+						return proxy;
+					}
+					break;
+				case "isWrapperFor":
+					if (((Class<?>) args[0]).isInstance(proxy)) {
+						return true;
+					}
+					break;
+				case "getTargetConnection":
+					// Handle getTargetConnection method: return underlying Connection.
+					return this.target;
+				case "isClosed":
+					return (this.closed || this.target.isClosed());
+				case "close":
+					if (!this.closed) {
+						this.closed = true;
+						try {
+							this.target.close();
+						}
+						finally {
+							releaseStatementCache(this.target, this.statementCache);
+						}
+					}
+					return null;
+				case "abort":
+					if (!this.closed) {
+						this.closed = true;
+						try {
+							method.invoke(this.target, args);
+						}
+						catch (InvocationTargetException ex) {
+							throw ex.getTargetException();
+						}
+						finally {
+							removeStatementCache(this.target, this.statementCache);
+						}
+					}
+					return null;
+				case "prepareStatement":
+					if (this.closed) {
+						throw new SQLException("Connection handle already closed");
+					}
+					if (getStatementCacheSize() > 0) {
+						return prepareStatement((Connection) proxy, method, args);
+					}
+					break;
+			}
+
+			// Invoke method on target Connection.
+			try {
+				return method.invoke(this.target, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+
+		private PreparedStatement prepareStatement(Connection proxy, Method method, Object[] args) throws Throwable {
+			StatementKey key = new StatementKey(args);
+			PreparedStatement stmt = this.statementCache.borrow(key);
+			if (stmt == null) {
+				try {
+					stmt = (PreparedStatement) method.invoke(this.target, args);
+				}
+				catch (InvocationTargetException ex) {
+					throw ex.getTargetException();
+				}
+			}
+			return (PreparedStatement) Proxy.newProxyInstance(
+					ConnectionProxy.class.getClassLoader(),
+					new Class<?>[] {PreparedStatement.class},
+					new CachedStatementInvocationHandler(proxy, stmt, key, this.statementCache));
+		}
+	}
+
+
+	/**
+	 * Invocation handler for a PreparedStatement handed out from a statement cache,
+	 * returning the target statement to the cache on close.
+	 */
+	private static class CachedStatementInvocationHandler implements InvocationHandler {
+
+		private final Connection connection;
+
+		private final PreparedStatement target;
+
+		private final StatementKey key;
+
+		private final StatementCache statementCache;
+
+		@Nullable
+		private Integer originalFetchSize;
+
+		@Nullable
+		private Integer originalMaxRows;
+
+		@Nullable
+		private Integer originalQueryTimeout;
+
+		private boolean reusable = true;
+
+		private boolean batched = false;
+
+		/** ResultSets obtained through this handle, to be closed on release. */
+		private final List<ResultSet> resultSets = new ArrayList<>(1);
+
+		private boolean closed = false;
+
+		public CachedStatementInvocationHandler(Connection connection, PreparedStatement target,
+				StatementKey key, StatementCache statementCache) {
+
+			this.connection = connection;
+			this.target = target;
+			this.key = key;
+			this.statementCache = statementCache;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			// Invocation on PreparedStatement interface coming in...
+
+			switch (method.getName()) {
+				case "equals":
+					return (proxy == args[0]);
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "toString":
+					return "Cached JDBC statement [" + this.target + "]";
+				case "unwrap":
+					if (((Class<?>) args[0]).isInstance(proxy)) {
+						return proxy;
+					}
+					if (((Class<?>) args[0]).isInstance(this.target)) {
+						return this.target;
+					}
+					break;
+				case "isWrapperFor":
+					if (((Class<?>) args[0]).isInstance(proxy) || ((Class<?>) args[0]).isInstance(this.target)) {
+						return true;
+					}
+					break;
+				case "isClosed":
+					return (this.closed || this.target.isClosed());
+				case "close":
+					if (!this.closed) {
+						this.closed = true;
+						release();
+					}
+					return null;
+				case "getConnection":
+					return this.connection;
+			}
+
+			if (this.closed) {
+				throw new SQLException("Statement handle already closed");
+			}
+			switch (method.getName()) {
+				case "setFetchSize":
+					if (this.originalFetchSize == null) {
+						this.originalFetchSize = this.target.getFetchSize();
+					}
+					break;
+				case "setMaxRows":
+					if (this.originalMaxRows == null) {
+						this.originalMaxRows = this.target.getMaxRows();
+					}
+					break;
+				case "setQueryTimeout":
+					if (this.originalQueryTimeout == null) {
+						this.originalQueryTimeout = this.target.getQueryTimeout();
+					}
+					break;
+				case "addBatch":
+					this.batched = true;
+					break;
+				case "setMaxFieldSize":
+				case "setLargeMaxRows":
+				case "setEscapeProcessing":
+				case "setCursorName":
+				case "setFetchDirection":
+				case "setPoolable":
+				case "closeOnCompletion":
+					// Not worth restoring: close the statement on release.
+					this.reusable = false;
+					break;
+			}
+
+			// Invoke method on target PreparedStatement.
+			Object retVal;
+			try {
+				retVal = method.invoke(this.target, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+			if (retVal instanceof ResultSet) {
+				// From executeQuery, getResultSet or getGeneratedKeys
+				this.resultSets.add((ResultSet) retVal);
+			}
+			return retVal;
+		}
+
+		private void release() {
+			if (this.reusable) {
+				try {
+					// A cached statement must not keep a cursor open while idle.
+					ResultSet current = this.target.getResultSet();
+					if (current != null) {
+						current.close();
+					}
+					for (ResultSet rs : this.resultSets) {
+						rs.close();
+					}
+					this.resultSets.clear();
+					this.target.clearParameters();
+					if (this.batched) {
+						// Do not leave a pending batch for the next user.
+						this.target.clearBatch();
+					}
+					this.target.clearWarnings();
+					if (this.originalFetchSize != null) {
+						this.target.setFetchSize(this.originalFetchSize);
+					}
+					if (this.originalMaxRows != null) {
+						this.target.setMaxRows(this.originalMaxRows);
+					}
+					if (this.originalQueryTimeout != null) {
+						this.target.setQueryTimeout(this.originalQueryTimeout);
+					}
+					if (this.statementCache.giveBack(this.key, this.target)) {
+						return;
+					}
+				}
+				catch (SQLException ex) {
+					logger.debug("Could not reset JDBC PreparedStatement for reuse - closing it", ex);
+				}
+			}
+			closeStatement(this.target);
+		}
+	}
+
+
+	/**
+	 * LRU cache of idle statements for a specific target Connection.
+	 */
+	private static class StatementCache {
+
+		private final Map<StatementKey, PreparedStatement> idleStatements;
+
+		private boolean closed = false;
+
+		@SuppressWarnings("serial")
+		public StatementCache(int cacheSize) {
+			this.idleStatements = new LinkedHashMap<StatementKey, PreparedStatement>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<StatementKey, PreparedStatement> eldest) {
+					if (size() > cacheSize) {
+						closeStatement(eldest.getValue());
+						return true;
+					}
+					return false;
+				}
+			};
+		}
+
+		@Nullable
+		public synchronized PreparedStatement borrow(StatementKey key) {
+			return (this.closed ? null : this.idleStatements.remove(key));
+		}
+
+		public synchronized boolean giveBack(StatementKey key, PreparedStatement stmt) {
+			if (this.closed || this.idleStatements.containsKey(key)) {
+				return false;
+			}
+			this.idleStatements.put(key, stmt);
+			return true;
+		}
+
+		public synchronized void close() {
+			this.closed = true;
+			this.idleStatements.values().forEach(StatementCachingDataSourceProxy::closeStatement);
+			this.idleStatements.clear();
+		}
+	}
+
+
+	/**
+	 * Identity-based key for a target Connection, independent of
+	 * any {@code equals} implementation of the JDBC driver.
+	 */
+	private static final class ConnectionKey {
+
+		private final Connection connection;
+
+		ConnectionKey(Connection connection) {
+			this.connection = connection;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			return (this == other || (other instanceof ConnectionKey &&
+					this.connection == ((ConnectionKey) other).connection));
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(this.connection);
+		}
+	}
+
+
+	/**
+	 * Cache key for a statement: the arguments of the {@code prepareStatement} call,
+	 * i.e. the SQL statement plus any result set or generated keys options.
+	 */
+	private static final class StatementKey {
+
+		private final Object[] args;
+
+		private final int hashCode;
+
+		public StatementKey(Object[] args) {
+			this.args = args.clone();
+			this.hashCode = Arrays.deepHashCode(this.args);
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			return (this == other || (other instanceof StatementKey &&
+					Arrays.deepEquals(this.args, ((StatementKey) other).args)));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
+}
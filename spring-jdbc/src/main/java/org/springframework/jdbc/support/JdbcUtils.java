@@ -25,6 +25,8 @@ import org.springframework.util.NumberUtils;
 import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
+import java.io.InputStream;
+import java.io.Reader;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.math.BigDecimal;
@@ -127,6 +129,11 @@ public abstract class JdbcUtils {
 	 * Retrieve a JDBC column value from a ResultSet, using the specified value type.
 	 * <p>Uses the specifically typed ResultSet accessor methods, falling back to
 	 * {@link #getResultSetValue(java.sql.ResultSet, int)} for unknown types.
+	 * <p>An {@link InputStream} or {@link Reader} is obtained from the column's
+	 * {@link Blob} or {@link Clob}, streaming the LOB content without materializing
+	 * it in memory, as far as supported by the JDBC driver. For columns of any
+	 * other type, or if the driver cannot provide the LOB, the stream is obtained
+	 * through {@link ResultSet#getBinaryStream} or {@link ResultSet#getCharacterStream}.
 	 * <p>Note that the returned value may not be assignable to the specified
 	 * required type, in case of an unknown type. Calling code needs to deal
 	 * with this case appropriately, e.g. throwing a corresponding exception.
@@ -193,6 +200,12 @@ public abstract class JdbcUtils {
 		else if (Clob.class == requiredType) {
 			return rs.getClob(index);
 		}
+		else if (InputStream.class == requiredType) {
+			return getBinaryStream(rs, index);
+		}
+		else if (Reader.class == requiredType) {
+			return getCharacterStream(rs, index);
+		}
 		else if (requiredType.isEnum()) {
 			// Enums can either be represented through a String or an enum index value:
 			// leave enum type conversion up to the caller (e.g. a ConversionService)
@@ -249,6 +262,45 @@ public abstract class JdbcUtils {
 		return (rs.wasNull() ? null : value);
 	}
 
+	/**
+	 * Stream a binary column value from the column's {@link Blob} if the column
+	 * is a BLOB, remaining readable for as long as the driver keeps the LOB
+	 * accessible, or from the current row otherwise.
+	 */
+	@Nullable
+	private static InputStream getBinaryStream(ResultSet rs, int index) throws SQLException {
+		if (rs.getMetaData().getColumnType(index) == Types.BLOB) {
+			try {
+				Blob blob = rs.getBlob(index);
+				return (blob != null ? blob.getBinaryStream() : null);
+			}
+			catch (SQLException | RuntimeException ex) {
+				logger.debug("Could not obtain Blob for column " + index + " - falling back to getBinaryStream", ex);
+			}
+		}
+		return rs.getBinaryStream(index);
+	}
+
+	/**
+	 * Stream a character column value from the column's {@link Clob} if the column
+	 * is a CLOB or NCLOB, remaining readable for as long as the driver keeps the LOB
+	 * accessible, or from the current row otherwise.
+	 */
+	@Nullable
+	private static Reader getCharacterStream(ResultSet rs, int index) throws SQLException {
+		int sqlType = rs.getMetaData().getColumnType(index);
+		if (sqlType == Types.CLOB || sqlType == Types.NCLOB) {
+			try {
+				Clob clob = rs.getClob(index);
+				return (clob != null ? clob.getCharacterStream() : null);
+			}
+			catch (SQLException | RuntimeException ex) {
+				logger.debug("Could not obtain Clob for column " + index + " - falling back to getCharacterStream", ex);
+			}
+		}
+		return rs.getCharacterStream(index);
+	}
+
 	/**
 	 * Retrieve a JDBC column value from a ResultSet, using the most appropriate
 	 * value type. The returned value should be a detached value object, not having
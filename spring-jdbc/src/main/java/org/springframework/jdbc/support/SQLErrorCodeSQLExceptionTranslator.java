@@ -20,12 +20,16 @@ import org.springframework.dao.*;
 import org.springframework.jdbc.BadSqlGrammarException;
 import org.springframework.jdbc.InvalidResultSetAccessException;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 import javax.sql.DataSource;
 import java.lang.reflect.Constructor;
 import java.sql.BatchUpdateException;
 import java.sql.SQLException;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Implementation of {@link SQLExceptionTranslator} that analyzes vendor-specific error codes.
@@ -50,6 +54,11 @@ import java.util.Arrays;
  * of the class path (e.g. in the "/WEB-INF/classes" directory), as long as the
  * Spring JDBC package is loaded from the same ClassLoader.
  *
+ * <p>The error codes of a given {@link SQLErrorCodes} instance get compiled into
+ * a hash table from error code to exception factory on first translation, shared
+ * by all translators for the same database. {@code SQLErrorCodes} are therefore
+ * not expected to be modified once in use.
+ *
  * @author Rod Johnson
  * @author Thomas Risberg
  * @author Juergen Hoeller
@@ -64,6 +73,10 @@ public class SQLErrorCodeSQLExceptionTranslator extends AbstractFallbackSQLExcep
 	private static final int MESSAGE_SQL_THROWABLE_CONSTRUCTOR = 4;
 	private static final int MESSAGE_SQL_SQLEX_CONSTRUCTOR = 5;
 
+	/** Compiled lookup tables per SQLErrorCodes instance. */
+	private static final Map<SQLErrorCodes, ErrorCodeTable> errorCodeTableCache =
+			new ConcurrentReferenceHashMap<>(16);
+
 
 	/** Error codes used by this translator. */
 	@Nullable
@@ -205,61 +218,24 @@ public class SQLErrorCodeSQLExceptionTranslator extends AbstractFallbackSQLExcep
 			}
 
 			if (errorCode != null) {
+				ErrorCodeTable errorCodeTable =
+						errorCodeTableCache.computeIfAbsent(this.sqlErrorCodes, ErrorCodeTable::new);
 				// Look for defined custom translations first.
-				CustomSQLErrorCodesTranslation[] customTranslations = this.sqlErrorCodes.getCustomTranslations();
-				if (customTranslations != null) {
-					for (CustomSQLErrorCodesTranslation customTranslation : customTranslations) {
-						if (Arrays.binarySearch(customTranslation.getErrorCodes(), errorCode) >= 0 &&
-								customTranslation.getExceptionClass() != null) {
-							DataAccessException customException = createCustomException(
-									task, sql, sqlEx, customTranslation.getExceptionClass());
-							if (customException != null) {
-								logTranslation(task, sql, sqlEx, true);
-								return customException;
-							}
+				Class<?>[] customExceptionClasses = errorCodeTable.customTranslations.get(errorCode);
+				if (customExceptionClasses != null) {
+					for (Class<?> exceptionClass : customExceptionClasses) {
+						DataAccessException customException = createCustomException(task, sql, sqlEx, exceptionClass);
+						if (customException != null) {
+							logTranslation(task, sql, sqlEx, true);
+							return customException;
 						}
 					}
 				}
 				// Next, look for grouped error codes.
-				if (Arrays.binarySearch(this.sqlErrorCodes.getBadSqlGrammarCodes(), errorCode) >= 0) {
-					logTranslation(task, sql, sqlEx, false);
-					return new BadSqlGrammarException(task, (sql != null ? sql : ""), sqlEx);
-				}
-				else if (Arrays.binarySearch(this.sqlErrorCodes.getInvalidResultSetAccessCodes(), errorCode) >= 0) {
-					logTranslation(task, sql, sqlEx, false);
-					return new InvalidResultSetAccessException(task, (sql != null ? sql : ""), sqlEx);
-				}
-				else if (Arrays.binarySearch(this.sqlErrorCodes.getDuplicateKeyCodes(), errorCode) >= 0) {
+				ExceptionFactory exceptionFactory = errorCodeTable.groupedCodes.get(errorCode);
+				if (exceptionFactory != null) {
 					logTranslation(task, sql, sqlEx, false);
-					return new DuplicateKeyException(buildMessage(task, sql, sqlEx), sqlEx);
-				}
-				else if (Arrays.binarySearch(this.sqlErrorCodes.getDataIntegrityViolationCodes(), errorCode) >= 0) {
-					logTranslation(task, sql, sqlEx, false);
-					return new DataIntegrityViolationException(buildMessage(task, sql, sqlEx), sqlEx);
-				}
-				else if (Arrays.binarySearch(this.sqlErrorCodes.getPermissionDeniedCodes(), errorCode) >= 0) {
-					logTranslation(task, sql, sqlEx, false);
-					return new PermissionDeniedDataAccessException(buildMessage(task, sql, sqlEx), sqlEx);
-				}
-				else if (Arrays.binarySearch(this.sqlErrorCodes.getDataAccessResourceFailureCodes(), errorCode) >= 0) {
-					logTranslation(task, sql, sqlEx, false);
-					return new DataAccessResourceFailureException(buildMessage(task, sql, sqlEx), sqlEx);
-				}
-				else if (Arrays.binarySearch(this.sqlErrorCodes.getTransientDataAccessResourceCodes(), errorCode) >= 0) {
-					logTranslation(task, sql, sqlEx, false);
-					return new TransientDataAccessResourceException(buildMessage(task, sql, sqlEx), sqlEx);
-				}
-				else if (Arrays.binarySearch(this.sqlErrorCodes.getCannotAcquireLockCodes(), errorCode) >= 0) {
-					logTranslation(task, sql, sqlEx, false);
-					return new CannotAcquireLockException(buildMessage(task, sql, sqlEx), sqlEx);
-				}
-				else if (Arrays.binarySearch(this.sqlErrorCodes.getDeadlockLoserCodes(), errorCode) >= 0) {
-					logTranslation(task, sql, sqlEx, false);
-					return new DeadlockLoserDataAccessException(buildMessage(task, sql, sqlEx), sqlEx);
-				}
-				else if (Arrays.binarySearch(this.sqlErrorCodes.getCannotSerializeTransactionCodes(), errorCode) >= 0) {
-					logTranslation(task, sql, sqlEx, false);
-					return new CannotSerializeTransactionException(buildMessage(task, sql, sqlEx), sqlEx);
+					return exceptionFactory.create(this, task, sql, sqlEx);
 				}
 			}
 		}
@@ -397,4 +373,70 @@ public class SQLErrorCodeSQLExceptionTranslator extends AbstractFallbackSQLExcep
 		}
 	}
 
+
+	/**
+	 * Strategy for creating the exception for a group of error codes.
+	 */
+	@FunctionalInterface
+	private interface ExceptionFactory {
+
+		DataAccessException create(SQLErrorCodeSQLExceptionTranslator translator,
+				String task, @Nullable String sql, SQLException sqlEx);
+	}
+
+
+	/**
+	 * Hash-based lookup table for the error codes of a given {@link SQLErrorCodes}
+	 * instance, replacing a binary search per error code group.
+	 */
+	private static final class ErrorCodeTable {
+
+		final Map<String, Class<?>[]> customTranslations = new HashMap<>();
+
+		final Map<String, ExceptionFactory> groupedCodes = new HashMap<>();
+
+		ErrorCodeTable(SQLErrorCodes sec) {
+			CustomSQLErrorCodesTranslation[] translations = sec.getCustomTranslations();
+			if (translations != null) {
+				Map<String, List<Class<?>>> classesByCode = new HashMap<>();
+				for (CustomSQLErrorCodesTranslation translation : translations) {
+					Class<?> exceptionClass = translation.getExceptionClass();
+					if (exceptionClass != null) {
+						for (String code : translation.getErrorCodes()) {
+							classesByCode.computeIfAbsent(code, key -> new ArrayList<>(1)).add(exceptionClass);
+						}
+					}
+				}
+				classesByCode.forEach((code, classes) -> this.customTranslations.put(code, classes.toArray(new Class<?>[0])));
+			}
+			// In order of precedence: the first group defining a code wins.
+			addCodes(sec.getBadSqlGrammarCodes(), (translator, task, sql, ex) ->
+					new BadSqlGrammarException(task, (sql != null ? sql : ""), ex));
+			addCodes(sec.getInvalidResultSetAccessCodes(), (translator, task, sql, ex) ->
+					new InvalidResultSetAccessException(task, (sql != null ? sql : ""), ex));
+			addCodes(sec.getDuplicateKeyCodes(), (translator, task, sql, ex) ->
+					new DuplicateKeyException(translator.buildMessage(task, sql, ex), ex));
+			addCodes(sec.getDataIntegrityViolationCodes(), (translator, task, sql, ex) ->
+					new DataIntegrityViolationException(translator.buildMessage(task, sql, ex), ex));
+			addCodes(sec.getPermissionDeniedCodes(), (translator, task, sql, ex) ->
+					new PermissionDeniedDataAccessException(translator.buildMessage(task, sql, ex), ex));
+			addCodes(sec.getDataAccessResourceFailureCodes(), (translator, task, sql, ex) ->
+					new DataAccessResourceFailureException(translator.buildMessage(task, sql, ex), ex));
+			addCodes(sec.getTransientDataAccessResourceCodes(), (translator, task, sql, ex) ->
+					new TransientDataAccessResourceException(translator.buildMessage(task, sql, ex), ex));
+			addCodes(sec.getCannotAcquireLockCodes(), (translator, task, sql, ex) ->
+					new CannotAcquireLockException(translator.buildMessage(task, sql, ex), ex));
+			addCodes(sec.getDeadlockLoserCodes(), (translator, task, sql, ex) ->
+					new DeadlockLoserDataAccessException(translator.buildMessage(task, sql, ex), ex));
+			addCodes(sec.getCannotSerializeTransactionCodes(), (translator, task, sql, ex) ->
+					new CannotSerializeTransactionException(translator.buildMessage(task, sql, ex), ex));
+		}
+
+		private void addCodes(String[] codes, ExceptionFactory exceptionFactory) {
+			for (String code : codes) {
+				this.groupedCodes.putIfAbsent(code, exceptionFactory);
+			}
+		}
+	}
+
 }
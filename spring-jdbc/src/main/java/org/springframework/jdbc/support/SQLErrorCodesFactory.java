@@ -23,6 +23,7 @@ import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
+import org.springframework.jdbc.datasource.AbstractDriverBasedDataSource;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ConcurrentReferenceHashMap;
@@ -30,8 +31,11 @@ import org.springframework.util.PatternMatchUtils;
 import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
+import java.sql.SQLException;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Factory for creating {@link SQLErrorCodes} based on the
@@ -42,6 +46,12 @@ import java.util.Map;
  * Reads the default file in this package if not overridden by a file in
  * the root of the class path (for example in the "/WEB-INF/classes" directory).
  *
+ * <p>For a {@link DataSource} with a known JDBC URL, e.g. a
+ * {@link AbstractDriverBasedDataSource} or an embedded database, the database
+ * gets identified from the URL, without obtaining a Connection. Other
+ * DataSources can be associated with a database product name upfront through
+ * {@link #registerDatabase}.
+ *
  * @author Thomas Risberg
  * @author Rod Johnson
  * @author Juergen Hoeller
@@ -63,6 +73,26 @@ public class SQLErrorCodesFactory {
 
 	private static final Log logger = LogFactory.getLog(SQLErrorCodesFactory.class);
 
+	/** Database names in the default configuration file per JDBC URL prefix. */
+	private static final Map<String, String> databaseNamesByUrlPrefix = new LinkedHashMap<>();
+
+	static {
+		databaseNamesByUrlPrefix.put("jdbc:db2:", "DB2");
+		databaseNamesByUrlPrefix.put("jdbc:derby:", "Derby");
+		databaseNamesByUrlPrefix.put("jdbc:h2:", "H2");
+		databaseNamesByUrlPrefix.put("jdbc:sap:", "HDB");
+		databaseNamesByUrlPrefix.put("jdbc:hsqldb:", "HSQL");
+		databaseNamesByUrlPrefix.put("jdbc:informix-sqli:", "Informix");
+		databaseNamesByUrlPrefix.put("jdbc:sqlserver:", "MS-SQL");
+		databaseNamesByUrlPrefix.put("jdbc:jtds:sqlserver:", "MS-SQL");
+		databaseNamesByUrlPrefix.put("jdbc:mysql:", "MySQL");
+		databaseNamesByUrlPrefix.put("jdbc:mariadb:", "MySQL");
+		databaseNamesByUrlPrefix.put("jdbc:oracle:", "Oracle");
+		databaseNamesByUrlPrefix.put("jdbc:postgresql:", "PostgreSQL");
+		databaseNamesByUrlPrefix.put("jdbc:sybase:", "Sybase");
+		databaseNamesByUrlPrefix.put("jdbc:jtds:sybase:", "Sybase");
+	}
+
 	/**
 	 * Keep track of a single instance so we can return it to classes that request it.
 	 */
@@ -88,6 +118,12 @@ public class SQLErrorCodesFactory {
 	 */
 	private final Map<DataSource, SQLErrorCodes> dataSourceCache = new ConcurrentReferenceHashMap<>(16);
 
+	/**
+	 * Map to cache the SQLErrorCodes instance per database product name
+	 * matched against the "databaseProductNames" patterns.
+	 */
+	private final Map<String, SQLErrorCodes> productNameCache = new ConcurrentHashMap<>(16);
+
 
 	/**
 	 * Create a new instance of the {@link SQLErrorCodesFactory} class.
@@ -163,10 +199,14 @@ public class SQLErrorCodesFactory {
 		Assert.notNull(databaseName, "Database product name must not be null");
 
 		SQLErrorCodes sec = this.errorCodesMap.get(databaseName);
+		if (sec == null) {
+			sec = this.productNameCache.get(databaseName);
+		}
 		if (sec == null) {
 			for (SQLErrorCodes candidate : this.errorCodesMap.values()) {
 				if (PatternMatchUtils.simpleMatch(candidate.getDatabaseProductNames(), databaseName)) {
 					sec = candidate;
+					this.productNameCache.put(databaseName, sec);
 					break;
 				}
 			}
@@ -208,6 +248,11 @@ public class SQLErrorCodesFactory {
 				// Double-check within full dataSourceCache lock
 				sec = this.dataSourceCache.get(dataSource);
 				if (sec == null) {
+					// Try to identify the database from its JDBC URL, if known.
+					String databaseName = determineDatabaseName(dataSource);
+					if (databaseName != null && this.errorCodesMap.containsKey(databaseName)) {
+						return registerDatabase(dataSource, databaseName);
+					}
 					// We could not find it - got to look it up.
 					try {
 						String name = JdbcUtils.extractDatabaseMetaData(dataSource, "getDatabaseProductName");
@@ -262,6 +307,34 @@ public class SQLErrorCodesFactory {
 		return this.dataSourceCache.remove(dataSource);
 	}
 
+	/**
+	 * Determine the database name for the given {@link DataSource} from
+	 * its JDBC URL, without obtaining a Connection.
+	 * @param dataSource the {@code DataSource} identifying the database
+	 * @return the database name as stated in the default error codes
+	 * definition file, or {@code null} if not determinable
+	 */
+	@Nullable
+	private String determineDatabaseName(DataSource dataSource) {
+		String url = null;
+		try {
+			if (dataSource.isWrapperFor(AbstractDriverBasedDataSource.class)) {
+				url = dataSource.unwrap(AbstractDriverBasedDataSource.class).getUrl();
+			}
+		}
+		catch (SQLException | RuntimeException ex) {
+			// Not unwrappable - fall back to meta-data lookup
+		}
+		if (url != null) {
+			for (Map.Entry<String, String> entry : databaseNamesByUrlPrefix.entrySet()) {
+				if (url.startsWith(entry.getKey())) {
+					return entry.getValue();
+				}
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Build an identification String for the given {@link DataSource},
 	 * primarily for logging purposes.
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.support.lob;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.SQLException;
+
+/**
+ * Utility methods for streaming JDBC {@link Blob} and {@link Clob} content
+ * as a {@link Flux} of {@link DataBuffer DataBuffers}, reading one chunk at a
+ * time as demanded by the subscriber instead of materializing the entire LOB.
+ *
+ * <p>The given LOB needs to remain accessible while the returned {@code Flux}
+ * is being consumed: typically for the duration of the transaction in which
+ * it has been retrieved, or as long as its {@code ResultSet} is open. The LOB
+ * gets {@link Blob#free() freed} once the {@code Flux} terminates or gets
+ * cancelled.
+ *
+ * @since 5.3
+ * @see DataBufferUtils#readInputStream
+ * @see org.springframework.jdbc.core.reactive.ReactiveJdbcTemplate#queryForBlob
+ */
+public abstract class LobDataBufferUtils {
+
+	private static final Log logger = LogFactory.getLog(LobDataBufferUtils.class);
+
+
+	/**
+	 * Read the content of the given {@code Blob} as a stream of data buffers.
+	 * @param blob the Blob to read from
+	 * @param bufferFactory the factory to create data buffers with
+	 * @param bufferSize the maximum size of the data buffers
+	 * @return a Flux of data buffers read from the Blob
+	 */
+	public static Flux<DataBuffer> readBlob(Blob blob, DataBufferFactory bufferFactory, int bufferSize) {
+		Assert.notNull(blob, "Blob must not be null");
+		return DataBufferUtils.readInputStream(blob::getBinaryStream, bufferFactory, bufferSize)
+				.doOnTerminate(() -> free(blob))
+				.doOnCancel(() -> free(blob));
+	}
+
+	/**
+	 * Read the content of the given {@code Clob} as a stream of data buffers,
+	 * encoding the characters with the given charset.
+	 * @param clob the Clob to read from
+	 * @param charset the charset to encode the characters with
+	 * @param bufferFactory the factory to create data buffers with
+	 * @param bufferSize the number of characters to read per data buffer
+	 * @return a Flux of data buffers read from the Clob
+	 */
+	public static Flux<DataBuffer> readClob(
+			Clob clob, Charset charset, DataBufferFactory bufferFactory, int bufferSize) {
+
+		Assert.notNull(clob, "Clob must not be null");
+		Assert.notNull(charset, "Charset must not be null");
+		Assert.notNull(bufferFactory, "DataBufferFactory must not be null");
+		Assert.isTrue(bufferSize > 1, "Buffer size must be greater than 1");
+		return Flux.<DataBuffer, ClobEncoder>generate(
+				() -> new ClobEncoder(clob.getCharacterStream(), charset, bufferSize),
+				(encoder, sink) -> {
+					try {
+						DataBuffer buffer = encoder.read(bufferFactory);
+						if (buffer != null) {
+							sink.next(buffer);
+						}
+						else {
+							sink.complete();
+						}
+					}
+					catch (IOException ex) {
+						sink.error(ex);
+					}
+					return encoder;
+				},
+				ClobEncoder::close)
+				.doOnTerminate(() -> free(clob))
+				.doOnCancel(() -> free(clob));
+	}
+
+	private static void free(Blob blob) {
+		try {
+			blob.free();
+		}
+		catch (SQLException | AbstractMethodError ex) {
+			logger.trace("Could not free JDBC Blob", ex);
+		}
+	}
+
+	private static void free(Clob clob) {
+		try {
+			clob.free();
+		}
+		catch (SQLException | AbstractMethodError ex) {
+			logger.trace("Could not free JDBC Clob", ex);
+		}
+	}
+
+
+	/**
+	 * Reads chunks of characters from a Clob's character stream, never splitting
+	 * a surrogate pair across chunks, and encodes each chunk into a data buffer.
+	 */
+	private static class ClobEncoder {
+
+		private final Reader reader;
+
+		private final Charset charset;
+
+		private final char[] chars;
+
+		private int carry;
+
+		ClobEncoder(Reader reader, Charset charset, int bufferSize) {
+			this.reader = reader;
+			this.charset = charset;
+			this.chars = new char[bufferSize];
+		}
+
+		@Nullable
+		DataBuffer read(DataBufferFactory bufferFactory) throws IOException {
+			int count;
+			while (true) {
+				int read = this.reader.read(this.chars, this.carry, this.chars.length - this.carry);
+				if (read == -1) {
+					if (this.carry == 0) {
+						return null;
+					}
+					count = this.carry;
+					this.carry = 0;
+					break;
+				}
+				count = this.carry + read;
+				this.carry = 0;
+				if (Character.isHighSurrogate(this.chars[count - 1])) {
+					// Keep the high surrogate for the next chunk, together with its low surrogate.
+					count--;
+					this.carry = 1;
+					if (count == 0) {
+						continue;
+					}
+				}
+				break;
+			}
+			DataBuffer buffer = bufferFactory.wrap(this.charset.encode(CharBuffer.wrap(this.chars, 0, count)));
+			if (this.carry == 1) {
+				this.chars[0] = this.chars[count];
+			}
+			return buffer;
+		}
+
+		void close() {
+			try {
+				this.reader.close();
+			}
+			catch (IOException ex) {
+				logger.trace("Could not close Clob character stream", ex);
+			}
+		}
+	}
+
+}
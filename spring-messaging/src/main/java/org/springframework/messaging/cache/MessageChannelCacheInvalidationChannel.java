@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.messaging.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.support.CacheInvalidationChannel;
+import org.springframework.cache.support.CacheInvalidationListener;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.AlternativeJdkIdGenerator;
+import org.springframework.util.Assert;
+import org.springframework.util.IdGenerator;
+
+/**
+ * {@link CacheInvalidationChannel} implementation that sends invalidations as
+ * messages to a {@link MessageChannel} and receives them from a
+ * {@link SubscribableChannel}, typically bridged to a broker shared by all
+ * application instances.
+ *
+ * <p>Each message carries the cache name as its payload, with the key to
+ * invalidate (if any) in the {@link #KEY_HEADER} header. Messages sent by
+ * this channel instance are recognized through the {@link #ORIGIN_HEADER}
+ * header and not dispatched back to its own listeners.
+ *
+ * @since 5.3
+ * @see org.springframework.cache.support.TwoLevelCacheManager#setInvalidationChannel
+ */
+public class MessageChannelCacheInvalidationChannel implements CacheInvalidationChannel, MessageHandler, DisposableBean {
+
+	/** Header holding the key to invalidate; absent if the entire cache has been cleared. */
+	public static final String KEY_HEADER = "cacheInvalidationKey";
+
+	/** Header identifying the channel instance that sent the invalidation. */
+	public static final String ORIGIN_HEADER = "cacheInvalidationOrigin";
+
+	private static final IdGenerator idGenerator = new AlternativeJdkIdGenerator();
+
+
+	private final MessageChannel outputChannel;
+
+	private final SubscribableChannel inputChannel;
+
+	private final String originId = idGenerator.generateId().toString();
+
+	private final List<CacheInvalidationListener> listeners = new CopyOnWriteArrayList<>();
+
+
+	/**
+	 * Create a new MessageChannelCacheInvalidationChannel which sends to and
+	 * receives from the same channel.
+	 * @param channel the channel to use for sending and receiving invalidations
+	 */
+	public MessageChannelCacheInvalidationChannel(SubscribableChannel channel) {
+		this(channel, channel);
+	}
+
+	/**
+	 * Create a new MessageChannelCacheInvalidationChannel.
+	 * @param outputChannel the channel to send invalidations to
+	 * @param inputChannel the channel to receive invalidations from
+	 */
+	public MessageChannelCacheInvalidationChannel(MessageChannel outputChannel, SubscribableChannel inputChannel) {
+		Assert.notNull(outputChannel, "Output channel must not be null");
+		Assert.notNull(inputChannel, "Input channel must not be null");
+		this.outputChannel = outputChannel;
+		this.inputChannel = inputChannel;
+		this.inputChannel.subscribe(this);
+	}
+
+
+	@Override
+	public void publishInvalidation(String cacheName, @Nullable Object key) {
+		MessageBuilder<String> builder = MessageBuilder.withPayload(cacheName)
+				.setHeader(ORIGIN_HEADER, this.originId);
+		if (key != null) {
+			builder.setHeader(KEY_HEADER, key);
+		}
+		this.outputChannel.send(builder.build());
+	}
+
+	@Override
+	public void addListener(CacheInvalidationListener listener) {
+		Assert.notNull(listener, "CacheInvalidationListener must not be null");
+		this.listeners.add(listener);
+	}
+
+	@Override
+	public void handleMessage(Message<?> message) throws MessagingException {
+		if (this.originId.equals(message.getHeaders().get(ORIGIN_HEADER))) {
+			return;
+		}
+		String cacheName = message.getPayload().toString();
+		Object key = message.getHeaders().get(KEY_HEADER);
+		for (CacheInvalidationListener listener : this.listeners) {
+			listener.onInvalidation(cacheName, key);
+		}
+	}
+
+	/**
+	 * Unsubscribe from the input channel.
+	 */
+	@Override
+	public void destroy() {
+		this.inputChannel.unsubscribe(this);
+	}
+
+}
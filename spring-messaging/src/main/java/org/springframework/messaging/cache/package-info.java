@@ -0,0 +1,10 @@
+/**
+ * Messaging-based support for the org.springframework.cache package,
+ * propagating cache invalidations through message channels.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.messaging.cache;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
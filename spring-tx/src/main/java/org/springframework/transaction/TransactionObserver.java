@@ -0,0 +1,94 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction;
+
+/**
+ * Callback interface for observing the lifecycle of the physical transactions
+ * driven by a transaction manager: begin, completion, suspension and resumption.
+ * Participating transactions and savepoints are not reported.
+ *
+ * <p>Callbacks are invoked synchronously on the transaction manager's critical
+ * path and should therefore return quickly and never throw exceptions.
+ * All methods have empty default implementations.
+ *
+ * @since 5.3
+ * @see org.springframework.transaction.support.AbstractPlatformTransactionManager#setTransactionObserver
+ * @see org.springframework.transaction.reactive.AbstractReactiveTransactionManager#setTransactionObserver
+ * @see org.springframework.transaction.support.TransactionMetrics
+ */
+public interface TransactionObserver {
+
+	/**
+	 * Called after a new transaction has been begun.
+	 * @param transaction the new transaction
+	 * @param definition the definition the transaction has been begun for
+	 * @param beginNanos the time spent beginning the transaction, in nanoseconds,
+	 * typically dominated by obtaining a connection from the underlying resource
+	 */
+	default void transactionBegun(TransactionExecution transaction, TransactionDefinition definition,
+			long beginNanos) {
+	}
+
+	/**
+	 * Called after beginning a new transaction failed.
+	 * @param definition the definition the transaction was to be begun for
+	 * @param ex the exception thrown on begin
+	 * @param beginNanos the time spent until the failure, in nanoseconds
+	 */
+	default void transactionBeginFailed(TransactionDefinition definition, Throwable ex, long beginNanos) {
+	}
+
+	/**
+	 * Called after a transaction reported through {@link #transactionBegun}
+	 * has been completed.
+	 * @param transaction the completed transaction
+	 * @param outcome the outcome of the transaction
+	 * @param durationNanos the time since the transaction has been begun,
+	 * in nanoseconds
+	 */
+	default void transactionCompleted(TransactionExecution transaction, Outcome outcome, long durationNanos) {
+	}
+
+	/**
+	 * Called after an active transaction has been suspended.
+	 */
+	default void transactionSuspended() {
+	}
+
+	/**
+	 * Called after a suspended transaction has been resumed.
+	 */
+	default void transactionResumed() {
+	}
+
+
+	/**
+	 * Outcome of a completed transaction.
+	 */
+	enum Outcome {
+
+		/** The transaction has been committed. */
+		COMMITTED,
+
+		/** The transaction has been rolled back. */
+		ROLLED_BACK,
+
+		/** The transaction completed with an error, leaving its outcome unknown. */
+		UNKNOWN
+	}
+
+}
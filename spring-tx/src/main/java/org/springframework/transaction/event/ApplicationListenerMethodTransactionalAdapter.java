@@ -79,6 +79,12 @@ class ApplicationListenerMethodTransactionalAdapter extends ApplicationListenerM
 		}
 	}
 
+	@Override
+	public boolean supportsBatchDelivery() {
+		// Each event needs to be bound to the publisher's transaction phase individually
+		return false;
+	}
+
 	private TransactionSynchronization createTransactionSynchronization(ApplicationEvent event) {
 		return new TransactionSynchronizationEventAdapter(this, event, this.annotation.phase());
 	}
@@ -26,6 +26,7 @@ import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
 import org.springframework.core.KotlinDetector;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.ReactiveAdapter;
 import org.springframework.core.ReactiveAdapterRegistry;
@@ -36,6 +37,7 @@ import org.springframework.transaction.support.CallbackPreferringPlatformTransac
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -153,6 +155,12 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	@Nullable
 	private final ReactiveAdapterRegistry reactiveAdapterRegistry;
 
+	/**
+	 * Whether invocation plans may be cached: {@code false} if a subclass
+	 * overrides one of the resolution hooks, which are then called per invocation.
+	 */
+	private final boolean invocationPlanCacheable;
+
 	@Nullable
 	private String transactionManagerBeanName;
 
@@ -168,9 +176,12 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	private final ConcurrentMap<Object, TransactionManager> transactionManagerCache =
 			new ConcurrentReferenceHashMap<>(4);
 
-	private final ConcurrentMap<Method, ReactiveTransactionSupport> transactionSupportCache =
+	private final ConcurrentMap<Method, TransactionInvocationPlan> invocationPlanCache =
 			new ConcurrentReferenceHashMap<>(1024);
 
+	private final ConcurrentMap<MethodClassKey, TransactionInvocationPlan> qualifiedInvocationPlanCache =
+			new ConcurrentReferenceHashMap<>(64);
+
 
 	protected TransactionAspectSupport() {
 		if (reactiveStreamsPresent) {
@@ -179,6 +190,16 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		else {
 			this.reactiveAdapterRegistry = null;
 		}
+		this.invocationPlanCacheable =
+				!isOverridden("determineTransactionManager", TransactionAttribute.class) &&
+				!isOverridden("getTransactionManager") &&
+				!isOverridden("getTransactionAttributeSource") &&
+				!isOverridden("methodIdentification", Method.class, Class.class);
+	}
+
+	private boolean isOverridden(String methodName, Class<?>... paramTypes) {
+		Method method = ReflectionUtils.findMethod(getClass(), methodName, paramTypes);
+		return (method != null && method.getDeclaringClass() != TransactionAspectSupport.class);
 	}
 
 
@@ -189,6 +210,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	public void setTransactionManagerBeanName(@Nullable String transactionManagerBeanName) {
 		this.transactionManagerBeanName = transactionManagerBeanName;
+		clearInvocationPlanCache();
 	}
 
 	/**
@@ -210,6 +232,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	public void setTransactionManager(@Nullable TransactionManager transactionManager) {
 		this.transactionManager = transactionManager;
+		clearInvocationPlanCache();
 	}
 
 	/**
@@ -238,6 +261,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		NameMatchTransactionAttributeSource tas = new NameMatchTransactionAttributeSource();
 		tas.setProperties(transactionAttributes);
 		this.transactionAttributeSource = tas;
+		clearInvocationPlanCache();
 	}
 
 	/**
@@ -250,6 +274,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	public void setTransactionAttributeSources(TransactionAttributeSource... transactionAttributeSources) {
 		this.transactionAttributeSource = new CompositeTransactionAttributeSource(transactionAttributeSources);
+		clearInvocationPlanCache();
 	}
 
 	/**
@@ -263,6 +288,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	public void setTransactionAttributeSource(@Nullable TransactionAttributeSource transactionAttributeSource) {
 		this.transactionAttributeSource = transactionAttributeSource;
+		clearInvocationPlanCache();
 	}
 
 	/**
@@ -279,6 +305,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	@Override
 	public void setBeanFactory(@Nullable BeanFactory beanFactory) {
 		this.beanFactory = beanFactory;
+		clearInvocationPlanCache();
 	}
 
 	/**
@@ -312,6 +339,12 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 * methods on this class. Able to handle {@link CallbackPreferringPlatformTransactionManager}
 	 * as well as regular {@link PlatformTransactionManager} implementations and
 	 * {@link ReactiveTransactionManager} implementations for reactive return types.
+	 * <p>The transaction attribute, the transaction manager and the joinpoint
+	 * identification are resolved on first invocation of a given method and
+	 * reused for subsequent invocations, until the configuration changes.
+	 * If a subclass overrides {@link #determineTransactionManager},
+	 * {@link #getTransactionAttributeSource()} or {@link #methodIdentification(Method, Class)},
+	 * they are resolved on every invocation instead.
 	 * @param method the Method being invoked
 	 * @param targetClass the target class that we're invoking the method on
 	 * @param invocation the callback to use for proceeding with the target invocation
@@ -322,35 +355,25 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	protected Object invokeWithinTransaction(Method method, @Nullable Class<?> targetClass,
 			final InvocationCallback invocation) throws Throwable {
 
+		TransactionInvocationPlan plan = getInvocationPlan(method, targetClass);
+
 		// If the transaction attribute is null, the method is non-transactional.
-		TransactionAttributeSource tas = getTransactionAttributeSource();
-		final TransactionAttribute txAttr = (tas != null ? tas.getTransactionAttribute(method, targetClass) : null);
-		final TransactionManager tm = determineTransactionManager(txAttr);
+		final TransactionAttribute txAttr = plan.transactionAttribute;
 
-		if (this.reactiveAdapterRegistry != null && tm instanceof ReactiveTransactionManager) {
-			ReactiveTransactionSupport txSupport = this.transactionSupportCache.computeIfAbsent(method, key -> {
-				if (KotlinDetector.isKotlinType(method.getDeclaringClass()) && KotlinDelegate.isSuspend(method)) {
-					throw new TransactionUsageException(
-							"Unsupported annotated transaction on suspending function detected: " + method +
-							". Use TransactionalOperator.transactional extensions instead.");
-				}
-				ReactiveAdapter adapter = this.reactiveAdapterRegistry.getAdapter(method.getReturnType());
-				if (adapter == null) {
-					throw new IllegalStateException("Cannot apply reactive transaction to non-reactive return type: " +
-							method.getReturnType());
-				}
-				return new ReactiveTransactionSupport(adapter);
-			});
-			return txSupport.invokeWithinTransaction(
-					method, targetClass, invocation, txAttr, (ReactiveTransactionManager) tm);
+		if (plan.reactiveTransactionSupport != null) {
+			return plan.reactiveTransactionSupport.invokeWithinTransaction(
+					method, invocation, plan.namedTransactionAttribute,
+					(ReactiveTransactionManager) plan.transactionManager,
+					plan.joinpointIdentification);
 		}
 
-		PlatformTransactionManager ptm = asPlatformTransactionManager(tm);
-		final String joinpointIdentification = methodIdentification(method, targetClass, txAttr);
+		PlatformTransactionManager ptm = asPlatformTransactionManager(plan.transactionManager);
+		final String joinpointIdentification = plan.joinpointIdentification;
 
 		if (txAttr == null || !(ptm instanceof CallbackPreferringPlatformTransactionManager)) {
 			// Standard transaction demarcation with getTransaction and commit/rollback calls.
-			TransactionInfo txInfo = createTransactionIfNecessary(ptm, txAttr, joinpointIdentification);
+			TransactionInfo txInfo = createTransactionIfNecessary(
+					ptm, plan.namedTransactionAttribute, joinpointIdentification);
 
 			Object retVal;
 			try {
@@ -441,16 +464,99 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		}
 	}
 
+	/**
+	 * Return the invocation plan for the given method, building it on first
+	 * invocation: the transaction attribute, the transaction manager and the
+	 * joinpoint identification only get resolved once per method.
+	 * <p>The common case of a method invoked on a single target class is
+	 * served from a cache keyed by the plain {@code Method}, without
+	 * building a {@link MethodClassKey} for every call.
+	 */
+	private TransactionInvocationPlan getInvocationPlan(Method method, @Nullable Class<?> targetClass) {
+		if (!this.invocationPlanCacheable) {
+			return buildInvocationPlan(method, targetClass);
+		}
+		TransactionInvocationPlan plan = this.invocationPlanCache.get(method);
+		if (plan != null && plan.targetClass == targetClass) {
+			return plan;
+		}
+		if (plan == null) {
+			plan = buildInvocationPlan(method, targetClass);
+			TransactionInvocationPlan existing = this.invocationPlanCache.putIfAbsent(method, plan);
+			if (existing == null || existing.targetClass == targetClass) {
+				return (existing != null ? existing : plan);
+			}
+		}
+		// Same method invoked on several target classes: fall back to qualified key.
+		MethodClassKey cacheKey = new MethodClassKey(method, targetClass);
+		plan = this.qualifiedInvocationPlanCache.get(cacheKey);
+		if (plan == null) {
+			plan = buildInvocationPlan(method, targetClass);
+			TransactionInvocationPlan existing = this.qualifiedInvocationPlanCache.putIfAbsent(cacheKey, plan);
+			if (existing != null) {
+				plan = existing;
+			}
+		}
+		return plan;
+	}
+
+	@SuppressWarnings("serial")
+	private TransactionInvocationPlan buildInvocationPlan(Method method, @Nullable Class<?> targetClass) {
+		TransactionAttributeSource tas = getTransactionAttributeSource();
+		TransactionAttribute txAttr = (tas != null ? tas.getTransactionAttribute(method, targetClass) : null);
+		TransactionManager tm = determineTransactionManager(txAttr);
+		String joinpointIdentification = methodIdentification(method, targetClass, txAttr);
+
+		ReactiveTransactionSupport txSupport = null;
+		if (this.reactiveAdapterRegistry != null && tm instanceof ReactiveTransactionManager) {
+			if (KotlinDetector.isKotlinType(method.getDeclaringClass()) && KotlinDelegate.isSuspend(method)) {
+				throw new TransactionUsageException(
+						"Unsupported annotated transaction on suspending function detected: " + method +
+						". Use TransactionalOperator.transactional extensions instead.");
+			}
+			ReactiveAdapter adapter = this.reactiveAdapterRegistry.getAdapter(method.getReturnType());
+			if (adapter == null) {
+				throw new IllegalStateException("Cannot apply reactive transaction to non-reactive return type: " +
+						method.getReturnType());
+			}
+			txSupport = new ReactiveTransactionSupport(adapter);
+		}
+
+		// If no name specified, apply method identification as transaction name.
+		TransactionAttribute namedTxAttr = txAttr;
+		if (txAttr != null && txAttr.getName() == null) {
+			namedTxAttr = new DelegatingTransactionAttribute(txAttr) {
+				@Override
+				public String getName() {
+					return joinpointIdentification;
+				}
+			};
+		}
+
+		return new TransactionInvocationPlan(
+				targetClass, txAttr, namedTxAttr, tm, joinpointIdentification, txSupport);
+	}
+
+	private void clearInvocationPlanCache() {
+		this.invocationPlanCache.clear();
+		this.qualifiedInvocationPlanCache.clear();
+	}
+
 	/**
 	 * Clear the transaction manager cache.
 	 */
 	protected void clearTransactionManagerCache() {
 		this.transactionManagerCache.clear();
 		this.beanFactory = null;
+		clearInvocationPlanCache();
 	}
 
 	/**
 	 * Determine the specific transaction manager to use for the given transaction.
+	 * <p>By default, the result is cached per transactional method and reused
+	 * for subsequent invocations of the same method. If this method is
+	 * overridden, it gets called on every invocation, as the selected
+	 * transaction manager may vary between invocations.
 	 */
 	@Nullable
 	protected TransactionManager determineTransactionManager(@Nullable TransactionAttribute txAttr) {
@@ -766,6 +872,48 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	}
 
 
+	/**
+	 * Precomputed per-method state for {@link #invokeWithinTransaction}: the
+	 * transaction attribute, the resolved transaction manager and the joinpoint
+	 * identification, as well as the reactive support delegate if applicable.
+	 */
+	private static final class TransactionInvocationPlan {
+
+		@Nullable
+		final Class<?> targetClass;
+
+		@Nullable
+		final TransactionAttribute transactionAttribute;
+
+		/**
+		 * The transaction attribute exposing the joinpoint identification as
+		 * transaction name if no name has been specified.
+		 */
+		@Nullable
+		final TransactionAttribute namedTransactionAttribute;
+
+		@Nullable
+		final TransactionManager transactionManager;
+
+		final String joinpointIdentification;
+
+		@Nullable
+		final ReactiveTransactionSupport reactiveTransactionSupport;
+
+		TransactionInvocationPlan(@Nullable Class<?> targetClass, @Nullable TransactionAttribute transactionAttribute,
+				@Nullable TransactionAttribute namedTransactionAttribute, @Nullable TransactionManager transactionManager,
+				String joinpointIdentification, @Nullable ReactiveTransactionSupport reactiveTransactionSupport) {
+
+			this.targetClass = targetClass;
+			this.transactionAttribute = transactionAttribute;
+			this.namedTransactionAttribute = namedTransactionAttribute;
+			this.transactionManager = transactionManager;
+			this.joinpointIdentification = joinpointIdentification;
+			this.reactiveTransactionSupport = reactiveTransactionSupport;
+		}
+	}
+
+
 	/**
 	 * Simple callback interface for proceeding with the target invocation.
 	 * Concrete interceptors/aspects adapt this to their invocation mechanism.
@@ -848,10 +996,8 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 			this.adapter = adapter;
 		}
 
-		public Object invokeWithinTransaction(Method method, @Nullable Class<?> targetClass,
-				InvocationCallback invocation, @Nullable TransactionAttribute txAttr, ReactiveTransactionManager rtm) {
-
-			String joinpointIdentification = methodIdentification(method, targetClass, txAttr);
+		public Object invokeWithinTransaction(Method method, InvocationCallback invocation,
+				@Nullable TransactionAttribute txAttr, ReactiveTransactionManager rtm, String joinpointIdentification) {
 
 			// Optimize for Mono
 			if (Mono.class.isAssignableFrom(method.getReturnType())) {
@@ -879,8 +1025,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 								// target invocation exception
 								return completeTransactionAfterThrowing(it, ex).then(Mono.error(ex));
 							}
-						})).subscriberContext(TransactionContextManager.getOrCreateContext())
-						.subscriberContext(TransactionContextManager.getOrCreateContextHolder());
+						})).subscriberContext(TransactionContextManager.getOrCreateContext());
 			}
 
 			// Any other reactive type, typically a Flux
@@ -909,8 +1054,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 							// target invocation exception
 							return completeTransactionAfterThrowing(it, ex).then(Mono.error(ex));
 						}
-					})).subscriberContext(TransactionContextManager.getOrCreateContext())
-					.subscriberContext(TransactionContextManager.getOrCreateContextHolder()));
+					})).subscriberContext(TransactionContextManager.getOrCreateContext()));
 		}
 
 		@SuppressWarnings("serial")
@@ -73,6 +73,32 @@ public abstract class AbstractReactiveTransactionManager implements ReactiveTran
 
 	protected transient Log logger = LogFactory.getLog(getClass());
 
+	@Nullable
+	private transient TransactionObserver transactionObserver;
+
+
+	/**
+	 * Set an observer to be notified of the begin, completion, suspension
+	 * and resumption of the transactions driven by this transaction manager,
+	 * e.g. a {@link org.springframework.transaction.support.TransactionMetrics}
+	 * instance.
+	 * <p>Default is none. Note that the observer is not serialized
+	 * along with this transaction manager.
+	 * @since 5.3
+	 */
+	public final void setTransactionObserver(@Nullable TransactionObserver transactionObserver) {
+		this.transactionObserver = transactionObserver;
+	}
+
+	/**
+	 * Return the observer of the transactions driven by this transaction manager, if any.
+	 * @since 5.3
+	 */
+	@Nullable
+	public final TransactionObserver getTransactionObserver() {
+		return this.transactionObserver;
+	}
+
 
 	//---------------------------------------------------------------------
 	// Implementation of ReactiveTransactionManager
@@ -120,8 +146,7 @@ public abstract class AbstractReactiveTransactionManager implements ReactiveTran
 					def.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW ||
 					def.getPropagationBehavior() == TransactionDefinition.PROPAGATION_NESTED) {
 
-				return TransactionContextManager.currentContext()
-						.map(TransactionSynchronizationManager::new)
+				return TransactionContextManager.currentSynchronizationManager()
 						.flatMap(nestedSynchronizationManager ->
 								suspend(nestedSynchronizationManager, null)
 								.map(Optional::of)
@@ -134,7 +159,7 @@ public abstract class AbstractReactiveTransactionManager implements ReactiveTran
 								GenericReactiveTransaction status = newReactiveTransaction(
 										nestedSynchronizationManager, def, transaction, true,
 										debugEnabled, suspendedResources.orElse(null));
-								return doBegin(nestedSynchronizationManager, transaction, def)
+								return beginTransaction(nestedSynchronizationManager, status, transaction, def)
 										.doOnSuccess(ignore -> prepareSynchronization(nestedSynchronizationManager, status, def))
 										.thenReturn(status);
 							}).onErrorResume(ErrorPredicates.RUNTIME_OR_ERROR,
@@ -185,7 +210,7 @@ public abstract class AbstractReactiveTransactionManager implements ReactiveTran
 			return suspendedResources.flatMap(suspendedResourcesHolder -> {
 				GenericReactiveTransaction status = newReactiveTransaction(synchronizationManager,
 						definition, transaction, true, debugEnabled, suspendedResourcesHolder);
-				return doBegin(synchronizationManager, transaction, definition).doOnSuccess(ignore ->
+				return beginTransaction(synchronizationManager, status, transaction, definition).doOnSuccess(ignore ->
 						prepareSynchronization(synchronizationManager, status, definition)).thenReturn(status)
 						.onErrorResume(ErrorPredicates.RUNTIME_OR_ERROR, beginEx ->
 								resumeAfterBeginException(synchronizationManager, transaction, suspendedResourcesHolder, beginEx)
@@ -200,7 +225,7 @@ public abstract class AbstractReactiveTransactionManager implements ReactiveTran
 			// Nested transaction through nested begin and commit/rollback calls.
 			GenericReactiveTransaction status = newReactiveTransaction(synchronizationManager,
 					definition, transaction, true, debugEnabled, null);
-			return doBegin(synchronizationManager, transaction, definition).doOnSuccess(ignore ->
+			return beginTransaction(synchronizationManager, status, transaction, definition).doOnSuccess(ignore ->
 					prepareSynchronization(synchronizationManager, status, definition)).thenReturn(status);
 		}
 
@@ -211,6 +236,30 @@ public abstract class AbstractReactiveTransactionManager implements ReactiveTran
 		return Mono.just(prepareReactiveTransaction(synchronizationManager, definition, transaction, false, debugEnabled, null));
 	}
 
+	/**
+	 * Begin the given new transaction through {@code doBegin},
+	 * notifying the transaction observer, if any.
+	 * @see #doBegin
+	 */
+	private Mono<Void> beginTransaction(TransactionSynchronizationManager synchronizationManager,
+			GenericReactiveTransaction status, Object transaction, TransactionDefinition definition) {
+
+		TransactionObserver observer = this.transactionObserver;
+		if (observer == null) {
+			return doBegin(synchronizationManager, transaction, definition);
+		}
+		return Mono.defer(() -> {
+			long startTime = System.nanoTime();
+			return doBegin(synchronizationManager, transaction, definition)
+					.doOnSuccess(ignore -> {
+						long beginTime = System.nanoTime();
+						status.startObservation(beginTime);
+						observer.transactionBegun(status, definition, beginTime - startTime);
+					})
+					.doOnError(ex -> observer.transactionBeginFailed(definition, ex, System.nanoTime() - startTime));
+		});
+	}
+
 	/**
 	 * Create a new ReactiveTransaction for the given arguments,
 	 * also initializing transaction synchronization as appropriate.
@@ -275,7 +324,8 @@ public abstract class AbstractReactiveTransactionManager implements ReactiveTran
 			Mono<List<TransactionSynchronization>> suspendedSynchronizations = doSuspendSynchronization(synchronizationManager);
 			return suspendedSynchronizations.flatMap(synchronizations -> {
 				Mono<Optional<Object>> suspendedResources = (transaction != null ?
-						doSuspend(synchronizationManager, transaction).map(Optional::of).defaultIfEmpty(Optional.empty()) :
+						doSuspend(synchronizationManager, transaction).doOnSuccess(ignore -> observeSuspension())
+								.map(Optional::of).defaultIfEmpty(Optional.empty()) :
 						Mono.just(Optional.empty()));
 				return suspendedResources.map(it -> {
 					String name = synchronizationManager.getCurrentTransactionName();
@@ -296,7 +346,8 @@ public abstract class AbstractReactiveTransactionManager implements ReactiveTran
 		else if (transaction != null) {
 			// Transaction active but no synchronization active.
 			Mono<Optional<Object>> suspendedResources =
-					doSuspend(synchronizationManager, transaction).map(Optional::of).defaultIfEmpty(Optional.empty());
+					doSuspend(synchronizationManager, transaction).doOnSuccess(ignore -> observeSuspension())
+							.map(Optional::of).defaultIfEmpty(Optional.empty());
 			return suspendedResources.map(it -> new SuspendedResourcesHolder(it.orElse(null)));
 		}
 		else {
@@ -325,7 +376,8 @@ public abstract class AbstractReactiveTransactionManager implements ReactiveTran
 		if (resourcesHolder != null) {
 			Object suspendedResources = resourcesHolder.suspendedResources;
 			if (suspendedResources != null) {
-				resume =  doResume(synchronizationManager, transaction, suspendedResources);
+				resume = doResume(synchronizationManager, transaction, suspendedResources)
+						.doOnSuccess(ignore -> observeResumption());
 			}
 			List<TransactionSynchronization> suspendedSynchronizations = resourcesHolder.suspendedSynchronizations;
 			if (suspendedSynchronizations != null) {
@@ -434,7 +486,8 @@ public abstract class AbstractReactiveTransactionManager implements ReactiveTran
 						if (status.isDebug()) {
 							logger.debug("Initiating transaction commit");
 						}
-						return doCommit(synchronizationManager, status);
+						return doCommit(synchronizationManager, status).doOnSuccess(ignore ->
+								observeCompletion(status, TransactionObserver.Outcome.COMMITTED));
 					}
 					return Mono.empty();
 				})).then(Mono.empty().onErrorResume(ex -> {
@@ -443,6 +496,7 @@ public abstract class AbstractReactiveTransactionManager implements ReactiveTran
 					// Eclipse compiler with regard to inferred generics.
 					Mono<Object> result = propagateException;
 					if (ErrorPredicates.UNEXPECTED_ROLLBACK.test(ex)) {
+						observeCompletion(status, TransactionObserver.Outcome.ROLLED_BACK);
 						result = triggerAfterCompletion(synchronizationManager, status, TransactionSynchronization.STATUS_ROLLED_BACK)
 								.then(propagateException);
 					}
@@ -505,7 +559,8 @@ public abstract class AbstractReactiveTransactionManager implements ReactiveTran
 				if (status.isDebug()) {
 					logger.debug("Initiating transaction rollback");
 				}
-				return doRollback(synchronizationManager, status);
+				return doRollback(synchronizationManager, status).doOnSuccess(ignore ->
+						observeCompletion(status, TransactionObserver.Outcome.ROLLED_BACK));
 			}
 			else {
 				Mono<Void> beforeCompletion = Mono.empty();
@@ -545,7 +600,8 @@ public abstract class AbstractReactiveTransactionManager implements ReactiveTran
 				if (status.isDebug()) {
 					logger.debug("Initiating transaction rollback after commit exception", ex);
 				}
-				return doRollback(synchronizationManager, status);
+				return doRollback(synchronizationManager, status).doOnSuccess(ignore ->
+						observeCompletion(status, TransactionObserver.Outcome.ROLLED_BACK));
 			}
 			else if (status.hasTransaction()) {
 				if (status.isDebug()) {
@@ -665,6 +721,42 @@ public abstract class AbstractReactiveTransactionManager implements ReactiveTran
 		return TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, completionStatus);
 	}
 
+	/**
+	 * Notify the transaction observer, if any, of the completion of the given
+	 * transaction. Only the first call for an observed transaction has an effect.
+	 * @param status object representing the transaction
+	 * @param outcome the outcome of the transaction
+	 */
+	private void observeCompletion(GenericReactiveTransaction status, TransactionObserver.Outcome outcome) {
+		TransactionObserver observer = this.transactionObserver;
+		if (observer != null) {
+			long duration = status.endObservation();
+			if (duration >= 0) {
+				observer.transactionCompleted(status, outcome, duration);
+			}
+		}
+	}
+
+	/**
+	 * Notify the transaction observer, if any, of a transaction suspension.
+	 */
+	private void observeSuspension() {
+		TransactionObserver observer = this.transactionObserver;
+		if (observer != null) {
+			observer.transactionSuspended();
+		}
+	}
+
+	/**
+	 * Notify the transaction observer, if any, of a transaction resumption.
+	 */
+	private void observeResumption() {
+		TransactionObserver observer = this.transactionObserver;
+		if (observer != null) {
+			observer.transactionResumed();
+		}
+	}
+
 	/**
 	 * Clean up after completion, clearing synchronization if necessary,
 	 * and invoking doCleanupAfterCompletion.
@@ -676,6 +768,7 @@ public abstract class AbstractReactiveTransactionManager implements ReactiveTran
 			GenericReactiveTransaction status) {
 
 		return Mono.defer(() -> {
+			observeCompletion(status, TransactionObserver.Outcome.UNKNOWN);
 			status.setCompleted();
 			if (status.isNewSynchronization()) {
 				synchronizationManager.clear();
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.reactive;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Compact insertion-ordered {@link java.util.Map} for the resources of a
+ * {@link TransactionContext}, keeping keys and values in a single array
+ * and looking them up linearly.
+ *
+ * <p>A transaction typically binds one or two resources, for which a linear
+ * scan beats hashing and avoids per-entry allocations. No array is allocated
+ * before the first resource gets bound. Does not support {@code null} keys
+ * or values.
+ *
+ * @since 5.3
+ * @see TransactionContext#getResources()
+ */
+final class ResourceMap extends AbstractMap<Object, Object> {
+
+	private static final Object[] EMPTY = new Object[0];
+
+
+	// Alternating keys and values
+	private Object[] table = EMPTY;
+
+	private int size;
+
+	private int modCount;
+
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return (indexOf(key) >= 0);
+	}
+
+	@Override
+	@Nullable
+	public Object get(Object key) {
+		int index = indexOf(key);
+		return (index >= 0 ? this.table[index + 1] : null);
+	}
+
+	@Override
+	@Nullable
+	public Object put(Object key, Object value) {
+		Assert.notNull(key, "Key must not be null");
+		Assert.notNull(value, "Value must not be null");
+		int index = indexOf(key);
+		if (index >= 0) {
+			Object oldValue = this.table[index + 1];
+			this.table[index + 1] = value;
+			return oldValue;
+		}
+		int slot = this.size * 2;
+		if (slot == this.table.length) {
+			this.table = Arrays.copyOf(this.table, Math.max(4, this.table.length * 2));
+		}
+		this.table[slot] = key;
+		this.table[slot + 1] = value;
+		this.size++;
+		this.modCount++;
+		return null;
+	}
+
+	@Override
+	@Nullable
+	public Object remove(Object key) {
+		int index = indexOf(key);
+		if (index < 0) {
+			return null;
+		}
+		Object oldValue = this.table[index + 1];
+		removeAt(index);
+		return oldValue;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(this.table, 0, this.size * 2, null);
+		this.size = 0;
+		this.modCount++;
+	}
+
+	@Override
+	public Set<Entry<Object, Object>> entrySet() {
+		return new EntrySet();
+	}
+
+
+	private int indexOf(@Nullable Object key) {
+		if (key == null) {
+			return -1;
+		}
+		Object[] table = this.table;
+		int end = this.size * 2;
+		for (int i = 0; i < end; i += 2) {
+			Object candidate = table[i];
+			if (candidate == key || candidate.equals(key)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private void removeAt(int index) {
+		int end = this.size * 2;
+		System.arraycopy(this.table, index + 2, this.table, index, end - index - 2);
+		this.table[end - 2] = null;
+		this.table[end - 1] = null;
+		this.size--;
+		this.modCount++;
+	}
+
+
+	/**
+	 * Entry set view, iterating in insertion order.
+	 */
+	private class EntrySet extends AbstractSet<Entry<Object, Object>> {
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public Iterator<Entry<Object, Object>> iterator() {
+			return new EntryIterator();
+		}
+	}
+
+
+	/**
+	 * Iterator over the entries, supporting removal.
+	 */
+	private class EntryIterator implements Iterator<Entry<Object, Object>> {
+
+		private int next = 0;
+
+		private int last = -1;
+
+		private int expectedModCount = modCount;
+
+		@Override
+		public boolean hasNext() {
+			return (this.next < size * 2);
+		}
+
+		@Override
+		public Entry<Object, Object> next() {
+			if (modCount != this.expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			this.last = this.next;
+			this.next += 2;
+			return new SimpleImmutableEntry<>(table[this.last], table[this.last + 1]);
+		}
+
+		@Override
+		public void remove() {
+			Assert.state(this.last >= 0, "No current entry");
+			if (modCount != this.expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			removeAt(this.last);
+			this.next = this.last;
+			this.last = -1;
+			this.expectedModCount = modCount;
+		}
+	}
+
+}
@@ -19,16 +19,17 @@ package org.springframework.transaction.reactive;
 import org.springframework.lang.Nullable;
 import org.springframework.util.StringUtils;
 
-import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
 /**
  * Mutable transaction context that encapsulates transactional synchronizations and
- * resources in the scope of a single transaction. Transaction context is typically
- * held by an outer {@link TransactionContextHolder} or referenced directly within
- * from the subscriber context.
+ * resources in the scope of a single transaction. Transaction context is referenced
+ * directly from the subscriber context, as its only transaction-related entry.
+ *
+ * <p>Resources are kept in a compact array-based map, and the context id only
+ * gets generated when first requested, e.g. for logging.
  *
  * @author Mark Paluch
  * @author Juergen Hoeller
@@ -40,9 +41,13 @@ public class TransactionContext {
 
 	private final @Nullable TransactionContext parent;
 
-	private final UUID contextId = UUID.randomUUID();
+	@Nullable
+	private volatile UUID contextId;
 
-	private final Map<Object, Object> resources = new LinkedHashMap<>();
+	private final Map<Object, Object> resources = new ResourceMap();
+
+	@Nullable
+	private TransactionSynchronizationManager synchronizationManager;
 
 	@Nullable
 	private Set<TransactionSynchronization> synchronizations;
@@ -72,13 +77,23 @@ public class TransactionContext {
 
 	public String getName() {
 		if (StringUtils.hasText(this.currentTransactionName)) {
-			return this.contextId + ": " + this.currentTransactionName;
+			return getContextId() + ": " + this.currentTransactionName;
 		}
-		return this.contextId.toString();
+		return getContextId().toString();
 	}
 
 	public UUID getContextId() {
-		return this.contextId;
+		UUID contextId = this.contextId;
+		if (contextId == null) {
+			synchronized (this) {
+				contextId = this.contextId;
+				if (contextId == null) {
+					contextId = UUID.randomUUID();
+					this.contextId = contextId;
+				}
+			}
+		}
+		return contextId;
 	}
 
 	public Map<Object, Object> getResources() {
@@ -129,6 +144,21 @@ public class TransactionContext {
 	}
 
 
+	/**
+	 * Return the {@link TransactionSynchronizationManager} for this context,
+	 * created once and reused for every subsequent lookup.
+	 */
+	TransactionSynchronizationManager getSynchronizationManager() {
+		TransactionSynchronizationManager synchronizationManager = this.synchronizationManager;
+		if (synchronizationManager == null) {
+			// Stateless view on this context: a racy initialization is harmless.
+			synchronizationManager = new TransactionSynchronizationManager(this);
+			this.synchronizationManager = synchronizationManager;
+		}
+		return synchronizationManager;
+	}
+
+
 	public void clear() {
 		this.synchronizations = null;
 		this.currentTransactionName = null;
@@ -21,7 +21,6 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.context.Context;
 
-import java.util.ArrayDeque;
 import java.util.function.Function;
 
 /**
@@ -30,6 +29,9 @@ import java.util.function.Function;
  * <p>Typically used by components that intercept or orchestrate transactional flows
  * such as AOP interceptors or transactional operators.
  *
+ * <p>The {@link TransactionContext} is the only transaction-related entry in the
+ * subscriber {@link Context}, so obtaining it takes a single context lookup.
+ *
  * @author Mark Paluch
  * @since 5.2
  * @see TransactionSynchronization
@@ -50,18 +52,31 @@ public abstract class TransactionContextManager {
 	 */
 	public static Mono<TransactionContext> currentContext() throws NoTransactionException {
 		return Mono.subscriberContext().handle((ctx, sink) -> {
-			if (ctx.hasKey(TransactionContext.class)) {
-				sink.next(ctx.get(TransactionContext.class));
-				return;
+			TransactionContext context = ctx.getOrDefault(TransactionContext.class, null);
+			if (context != null) {
+				sink.next(context);
+			}
+			else {
+				sink.error(new NoTransactionInContextException());
+			}
+		});
+	}
+
+	/**
+	 * Obtain the {@link TransactionSynchronizationManager} for the current
+	 * {@link TransactionContext}, reusing the manager instance of the context.
+	 * @see #currentContext()
+	 * @see TransactionSynchronizationManager#forCurrentTransaction()
+	 */
+	static Mono<TransactionSynchronizationManager> currentSynchronizationManager() {
+		return Mono.subscriberContext().handle((ctx, sink) -> {
+			TransactionContext context = ctx.getOrDefault(TransactionContext.class, null);
+			if (context != null) {
+				sink.next(context.getSynchronizationManager());
 			}
-			if (ctx.hasKey(TransactionContextHolder.class)) {
-				TransactionContextHolder holder = ctx.get(TransactionContextHolder.class);
-				if (holder.hasContext()) {
-					sink.next(holder.currentContext());
-					return;
-				}
+			else {
+				sink.error(new NoTransactionInContextException());
 			}
-			sink.error(new NoTransactionInContextException());
 		});
 	}
 
@@ -81,33 +96,30 @@ public abstract class TransactionContextManager {
 	 * Interaction with transactional resources through
 	 * {@link TransactionSynchronizationManager} requires a TransactionContext
 	 * to be registered in the subscriber context.
+	 * <p>A context registered further downstream, e.g. by an outer transactional
+	 * operator, is associated as-is; otherwise a new context gets registered.
 	 * @return functional context registration.
 	 */
 	public static Function<Context, Context> getOrCreateContext() {
 		return context -> {
-			TransactionContextHolder holder = context.get(TransactionContextHolder.class);
-			if (holder.hasContext()) {
-				return context.put(TransactionContext.class, holder.currentContext());
+			if (context.getOrDefault(TransactionContext.class, null) != null) {
+				return context;
 			}
-			return context.put(TransactionContext.class, holder.createContext());
+			return context.put(TransactionContext.class, new TransactionContext());
 		};
 	}
 
 	/**
-	 * Return a {@link Function} to create or associate a new
-	 * {@link TransactionContextHolder}. Creation and release of transactions
-	 * within a reactive flow requires a mutable holder that follows a top to
-	 * down execution scheme. Reactor's subscriber context follows a down to top
-	 * approach regarding mutation visibility.
+	 * Return a {@link Function} formerly used to create or associate a mutable
+	 * holder for {@link TransactionContext}s. Since the {@link TransactionContext}
+	 * is now registered directly through {@link #getOrCreateContext()}, this
+	 * function leaves the subscriber context unchanged.
 	 * @return functional context registration.
+	 * @deprecated as of 5.3, in favor of {@link #getOrCreateContext()} alone
 	 */
+	@Deprecated
 	public static Function<Context, Context> getOrCreateContextHolder() {
-		return context -> {
-			if (!context.hasKey(TransactionContextHolder.class)) {
-				return context.put(TransactionContextHolder.class, new TransactionContextHolder(new ArrayDeque<>()));
-			}
-			return context;
-		};
+		return Function.identity();
 	}
 
 
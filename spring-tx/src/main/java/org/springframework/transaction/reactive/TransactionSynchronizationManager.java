@@ -83,7 +83,7 @@ public class TransactionSynchronizationManager {
 	 * for example, because the method was invoked outside a managed transaction
 	 */
 	public static Mono<TransactionSynchronizationManager> forCurrentTransaction() {
-		return TransactionContextManager.currentContext().map(TransactionSynchronizationManager::new);
+		return TransactionContextManager.currentSynchronizationManager();
 	}
 
 	/**
@@ -77,8 +77,7 @@ final class TransactionalOperatorImpl implements TransactionalOperator {
 					this.transactionManager::commit, (res, err) -> Mono.empty(), this.transactionManager::commit)
 					.onErrorResume(ex -> rollbackOnException(it, ex).then(Mono.error(ex))));
 		})
-		.subscriberContext(TransactionContextManager.getOrCreateContext())
-		.subscriberContext(TransactionContextManager.getOrCreateContextHolder());
+		.subscriberContext(TransactionContextManager.getOrCreateContext());
 	}
 
 	@Override
@@ -99,8 +98,7 @@ final class TransactionalOperatorImpl implements TransactionalOperator {
 					.onErrorResume(ex ->
 							rollbackOnException(it, ex).then(Mono.error(ex))));
 		})
-		.subscriberContext(TransactionContextManager.getOrCreateContext())
-		.subscriberContext(TransactionContextManager.getOrCreateContextHolder());
+		.subscriberContext(TransactionContextManager.getOrCreateContext());
 	}
 
 	/**
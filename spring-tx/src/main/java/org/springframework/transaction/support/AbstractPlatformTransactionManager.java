@@ -118,6 +118,9 @@ public abstract class AbstractPlatformTransactionManager implements PlatformTran
 
 	private boolean rollbackOnCommitFailure = false;
 
+	@Nullable
+	private transient TransactionObserver transactionObserver;
+
 
 	/**
 	 * Set the transaction synchronization by the name of the corresponding constant
@@ -315,6 +318,28 @@ public abstract class AbstractPlatformTransactionManager implements PlatformTran
 		return this.rollbackOnCommitFailure;
 	}
 
+	/**
+	 * Set an observer to be notified of the begin, completion, suspension
+	 * and resumption of the transactions driven by this transaction manager,
+	 * e.g. a {@link TransactionMetrics} instance.
+	 * <p>Default is none. Note that the observer is not serialized
+	 * along with this transaction manager.
+	 * @since 5.3
+	 * @see TransactionMetrics
+	 */
+	public final void setTransactionObserver(@Nullable TransactionObserver transactionObserver) {
+		this.transactionObserver = transactionObserver;
+	}
+
+	/**
+	 * Return the observer of the transactions driven by this transaction manager, if any.
+	 * @since 5.3
+	 */
+	@Nullable
+	public final TransactionObserver getTransactionObserver() {
+		return this.transactionObserver;
+	}
+
 
 	//---------------------------------------------------------------------
 	// Implementation of PlatformTransactionManager
@@ -388,7 +413,23 @@ public abstract class AbstractPlatformTransactionManager implements PlatformTran
 		boolean newSynchronization = (getTransactionSynchronization() != SYNCHRONIZATION_NEVER);
 		DefaultTransactionStatus status = newTransactionStatus(
 				definition, transaction, true, newSynchronization, debugEnabled, suspendedResources);
-		doBegin(transaction, definition);
+		TransactionObserver observer = this.transactionObserver;
+		if (observer != null) {
+			long startTime = System.nanoTime();
+			try {
+				doBegin(transaction, definition);
+			}
+			catch (RuntimeException | Error ex) {
+				observer.transactionBeginFailed(definition, ex, System.nanoTime() - startTime);
+				throw ex;
+			}
+			long beginTime = System.nanoTime();
+			status.startObservation(beginTime);
+			observer.transactionBegun(status, definition, beginTime - startTime);
+		}
+		else {
+			doBegin(transaction, definition);
+		}
 		prepareSynchronization(status, definition);
 		return status;
 	}
@@ -563,6 +604,7 @@ public abstract class AbstractPlatformTransactionManager implements PlatformTran
 				Object suspendedResources = null;
 				if (transaction != null) {
 					suspendedResources = doSuspend(transaction);
+					observeSuspension();
 				}
 				String name = TransactionSynchronizationManager.getCurrentTransactionName();
 				TransactionSynchronizationManager.setCurrentTransactionName(null);
@@ -584,6 +626,7 @@ public abstract class AbstractPlatformTransactionManager implements PlatformTran
 		else if (transaction != null) {
 			// Transaction active but no synchronization active.
 			Object suspendedResources = doSuspend(transaction);
+			observeSuspension();
 			return new SuspendedResourcesHolder(suspendedResources);
 		}
 		else {
@@ -609,6 +652,7 @@ public abstract class AbstractPlatformTransactionManager implements PlatformTran
 			Object suspendedResources = resourcesHolder.suspendedResources;
 			if (suspendedResources != null) {
 				doResume(transaction, suspendedResources);
+				observeResumption();
 			}
 			List<TransactionSynchronization> suspendedSynchronizations = resourcesHolder.suspendedSynchronizations;
 			if (suspendedSynchronizations != null) {
@@ -732,6 +776,8 @@ public abstract class AbstractPlatformTransactionManager implements PlatformTran
 					}
 					unexpectedRollback = status.isGlobalRollbackOnly();
 					doCommit(status);
+					observeCompletion(status, unexpectedRollback ?
+							TransactionObserver.Outcome.ROLLED_BACK : TransactionObserver.Outcome.COMMITTED);
 				}
 				else if (isFailEarlyOnGlobalRollbackOnly()) {
 					unexpectedRollback = status.isGlobalRollbackOnly();
@@ -746,6 +792,7 @@ public abstract class AbstractPlatformTransactionManager implements PlatformTran
 			}
 			catch (UnexpectedRollbackException ex) {
 				// can only be caused by doCommit
+				observeCompletion(status, TransactionObserver.Outcome.ROLLED_BACK);
 				triggerAfterCompletion(status, TransactionSynchronization.STATUS_ROLLED_BACK);
 				throw ex;
 			}
@@ -778,6 +825,7 @@ public abstract class AbstractPlatformTransactionManager implements PlatformTran
 
 		}
 		finally {
+			observeCompletion(status, TransactionObserver.Outcome.UNKNOWN);
 			cleanupAfterCompletion(status);
 		}
 	}
@@ -824,6 +872,7 @@ public abstract class AbstractPlatformTransactionManager implements PlatformTran
 						logger.debug("Initiating transaction rollback");
 					}
 					doRollback(status);
+					observeCompletion(status, TransactionObserver.Outcome.ROLLED_BACK);
 				}
 				else {
 					// Participating in larger transaction
@@ -863,6 +912,7 @@ public abstract class AbstractPlatformTransactionManager implements PlatformTran
 			}
 		}
 		finally {
+			observeCompletion(status, TransactionObserver.Outcome.UNKNOWN);
 			cleanupAfterCompletion(status);
 		}
 	}
@@ -881,6 +931,7 @@ public abstract class AbstractPlatformTransactionManager implements PlatformTran
 					logger.debug("Initiating transaction rollback after commit exception", ex);
 				}
 				doRollback(status);
+				observeCompletion(status, TransactionObserver.Outcome.ROLLED_BACK);
 			}
 			else if (status.hasTransaction() && isGlobalRollbackOnParticipationFailure()) {
 				if (status.isDebug()) {
@@ -980,6 +1031,42 @@ public abstract class AbstractPlatformTransactionManager implements PlatformTran
 		TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, completionStatus);
 	}
 
+	/**
+	 * Notify the transaction observer, if any, of the completion of the given
+	 * transaction. Only the first call for an observed transaction has an effect.
+	 * @param status object representing the transaction
+	 * @param outcome the outcome of the transaction
+	 */
+	private void observeCompletion(DefaultTransactionStatus status, TransactionObserver.Outcome outcome) {
+		TransactionObserver observer = this.transactionObserver;
+		if (observer != null) {
+			long duration = status.endObservation();
+			if (duration >= 0) {
+				observer.transactionCompleted(status, outcome, duration);
+			}
+		}
+	}
+
+	/**
+	 * Notify the transaction observer, if any, of a transaction suspension.
+	 */
+	private void observeSuspension() {
+		TransactionObserver observer = this.transactionObserver;
+		if (observer != null) {
+			observer.transactionSuspended();
+		}
+	}
+
+	/**
+	 * Notify the transaction observer, if any, of a transaction resumption.
+	 */
+	private void observeResumption() {
+		TransactionObserver observer = this.transactionObserver;
+		if (observer != null) {
+			observer.transactionResumed();
+		}
+	}
+
 	/**
 	 * Clean up after completion, clearing synchronization if necessary,
 	 * and invoking doCleanupAfterCompletion.
@@ -64,6 +64,10 @@ public class DefaultTransactionStatus extends AbstractTransactionStatus {
 	@Nullable
 	private final Object suspendedResources;
 
+	private boolean observed = false;
+
+	private long observationStartTime;
+
 
 	/**
 	 * Create a new {@code DefaultTransactionStatus} instance.
@@ -147,6 +151,28 @@ public class DefaultTransactionStatus extends AbstractTransactionStatus {
 		return this.suspendedResources;
 	}
 
+	/**
+	 * Mark this transaction as observed, starting at the given time.
+	 * @param startTime the start time as of {@link System#nanoTime()}
+	 */
+	void startObservation(long startTime) {
+		this.observationStartTime = startTime;
+		this.observed = true;
+	}
+
+	/**
+	 * End the observation of this transaction, if any.
+	 * @return the observed duration in nanoseconds, or -1 if this transaction
+	 * has not been observed or its observation has already been ended
+	 */
+	long endObservation() {
+		if (!this.observed) {
+			return -1;
+		}
+		this.observed = false;
+		return System.nanoTime() - this.observationStartTime;
+	}
+
 
 	//---------------------------------------------------------------------
 	// Enable functionality through underlying transaction object
@@ -0,0 +1,370 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.support;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionObserver;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Default {@link TransactionObserver} recording transaction metrics:
+ * begin, commit and rollback counts, the time spent beginning a transaction
+ * (typically waiting for a connection), transaction duration, and
+ * suspension/resumption counts.
+ *
+ * <p>Counters are striped {@link LongAdder} instances, so that recording
+ * does not contend between threads. Begin time and duration are also recorded
+ * in histograms with fixed exponential buckets.
+ *
+ * <p>Active transactions are tracked along with their start time, exposing
+ * the age of the oldest active transaction as well as the transactions
+ * running for longer than the {@link #setLongTransactionThresholdMillis
+ * long transaction threshold}. Long-held transactions are a common cause
+ * of connection pool exhaustion; a warning gets logged on their completion.
+ *
+ * <p>A single instance may be shared between several transaction managers,
+ * and is exportable as a standard MBean through
+ * {@link org.springframework.jmx.export.MBeanExporter}.
+ *
+ * @since 5.3
+ * @see AbstractPlatformTransactionManager#setTransactionObserver
+ * @see org.springframework.transaction.reactive.AbstractReactiveTransactionManager#setTransactionObserver
+ */
+public class TransactionMetrics implements TransactionObserver, TransactionMetricsMBean {
+
+	private static final long[] HISTOGRAM_BOUNDS_MILLIS =
+			{1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000, 60000};
+
+	private static final long[] HISTOGRAM_BOUNDS_NANOS = new long[HISTOGRAM_BOUNDS_MILLIS.length];
+
+	static {
+		for (int i = 0; i < HISTOGRAM_BOUNDS_MILLIS.length; i++) {
+			HISTOGRAM_BOUNDS_NANOS[i] = TimeUnit.MILLISECONDS.toNanos(HISTOGRAM_BOUNDS_MILLIS[i]);
+		}
+	}
+
+
+	private static final Log logger = LogFactory.getLog(TransactionMetrics.class);
+
+	private final LongAdder begunCount = new LongAdder();
+
+	private final LongAdder failedBeginCount = new LongAdder();
+
+	private final LongAdder committedCount = new LongAdder();
+
+	private final LongAdder rolledBackCount = new LongAdder();
+
+	private final LongAdder unknownOutcomeCount = new LongAdder();
+
+	private final LongAdder suspensionCount = new LongAdder();
+
+	private final LongAdder resumptionCount = new LongAdder();
+
+	private final LongAdder longTransactionCount = new LongAdder();
+
+	private final LongAdder beginTimeTotal = new LongAdder();
+
+	private final LongAccumulator beginTimeMax = new LongAccumulator(Math::max, 0);
+
+	private final LongAdder[] beginTimeHistogram = createHistogram();
+
+	private final LongAdder durationTotal = new LongAdder();
+
+	private final LongAccumulator durationMax = new LongAccumulator(Math::max, 0);
+
+	private final LongAdder[] durationHistogram = createHistogram();
+
+	private final Map<TransactionExecution, ActiveTransaction> activeTransactions = new ConcurrentHashMap<>(64);
+
+	private volatile long longTransactionThresholdNanos = TimeUnit.SECONDS.toNanos(10);
+
+
+	/**
+	 * Set the duration above which a transaction is considered long-running,
+	 * in milliseconds. Default is 10 seconds.
+	 * @see #getLongRunningTransactions()
+	 * @see #getLongTransactionCount()
+	 */
+	public void setLongTransactionThresholdMillis(long longTransactionThresholdMillis) {
+		Assert.isTrue(longTransactionThresholdMillis > 0, "Long transaction threshold must be positive");
+		this.longTransactionThresholdNanos = TimeUnit.MILLISECONDS.toNanos(longTransactionThresholdMillis);
+	}
+
+	/**
+	 * Return the duration above which a transaction is considered long-running,
+	 * in milliseconds.
+	 */
+	public long getLongTransactionThresholdMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(this.longTransactionThresholdNanos);
+	}
+
+
+	@Override
+	public void transactionBegun(TransactionExecution transaction, TransactionDefinition definition,
+			long beginNanos) {
+
+		this.begunCount.increment();
+		this.beginTimeTotal.add(beginNanos);
+		this.beginTimeMax.accumulate(beginNanos);
+		this.beginTimeHistogram[bucket(beginNanos)].increment();
+		this.activeTransactions.put(transaction, new ActiveTransaction(definition.getName(), System.nanoTime()));
+	}
+
+	@Override
+	public void transactionBeginFailed(TransactionDefinition definition, Throwable ex, long beginNanos) {
+		this.failedBeginCount.increment();
+		this.beginTimeTotal.add(beginNanos);
+		this.beginTimeMax.accumulate(beginNanos);
+		this.beginTimeHistogram[bucket(beginNanos)].increment();
+	}
+
+	@Override
+	public void transactionCompleted(TransactionExecution transaction, Outcome outcome, long durationNanos) {
+		ActiveTransaction active = this.activeTransactions.remove(transaction);
+		switch (outcome) {
+			case COMMITTED:
+				this.committedCount.increment();
+				break;
+			case ROLLED_BACK:
+				this.rolledBackCount.increment();
+				break;
+			default:
+				this.unknownOutcomeCount.increment();
+		}
+		this.durationTotal.add(durationNanos);
+		this.durationMax.accumulate(durationNanos);
+		this.durationHistogram[bucket(durationNanos)].increment();
+		if (durationNanos > this.longTransactionThresholdNanos) {
+			this.longTransactionCount.increment();
+			if (logger.isWarnEnabled()) {
+				logger.warn("Transaction [" + (active != null ? active.name : transaction) + "] " +
+						outcome.name().toLowerCase().replace('_', ' ') + " after " +
+						TimeUnit.NANOSECONDS.toMillis(durationNanos) + " ms, exceeding the long transaction " +
+						"threshold of " + getLongTransactionThresholdMillis() + " ms");
+			}
+		}
+	}
+
+	@Override
+	public void transactionSuspended() {
+		this.suspensionCount.increment();
+	}
+
+	@Override
+	public void transactionResumed() {
+		this.resumptionCount.increment();
+	}
+
+
+	@Override
+	public long getBegunTransactionCount() {
+		return this.begunCount.sum();
+	}
+
+	@Override
+	public long getFailedBeginCount() {
+		return this.failedBeginCount.sum();
+	}
+
+	@Override
+	public long getCommittedTransactionCount() {
+		return this.committedCount.sum();
+	}
+
+	@Override
+	public long getRolledBackTransactionCount() {
+		return this.rolledBackCount.sum();
+	}
+
+	@Override
+	public long getUnknownOutcomeCount() {
+		return this.unknownOutcomeCount.sum();
+	}
+
+	@Override
+	public long getSuspensionCount() {
+		return this.suspensionCount.sum();
+	}
+
+	@Override
+	public long getResumptionCount() {
+		return this.resumptionCount.sum();
+	}
+
+	@Override
+	public int getActiveTransactionCount() {
+		return this.activeTransactions.size();
+	}
+
+	@Override
+	public double getOldestActiveTransactionAgeMillis() {
+		long now = System.nanoTime();
+		long oldest = 0;
+		for (ActiveTransaction active : this.activeTransactions.values()) {
+			oldest = Math.max(oldest, now - active.startTime);
+		}
+		return toMillis(oldest);
+	}
+
+	@Override
+	public String[] getLongRunningTransactions() {
+		long now = System.nanoTime();
+		long threshold = this.longTransactionThresholdNanos;
+		List<String> result = new ArrayList<>();
+		for (ActiveTransaction active : this.activeTransactions.values()) {
+			long age = now - active.startTime;
+			if (age > threshold) {
+				result.add(active.name + " (" + TimeUnit.NANOSECONDS.toMillis(age) + " ms)");
+			}
+		}
+		return result.toArray(new String[0]);
+	}
+
+	@Override
+	public long getLongTransactionCount() {
+		return this.longTransactionCount.sum();
+	}
+
+	@Override
+	public double getAverageBeginMillis() {
+		return average(this.beginTimeTotal, this.begunCount.sum() + this.failedBeginCount.sum());
+	}
+
+	@Override
+	public double getMaxBeginMillis() {
+		return toMillis(this.beginTimeMax.get());
+	}
+
+	@Override
+	public double getAverageDurationMillis() {
+		return average(this.durationTotal,
+				this.committedCount.sum() + this.rolledBackCount.sum() + this.unknownOutcomeCount.sum());
+	}
+
+	@Override
+	public double getMaxDurationMillis() {
+		return toMillis(this.durationMax.get());
+	}
+
+	@Override
+	public long[] getHistogramBoundsMillis() {
+		return HISTOGRAM_BOUNDS_MILLIS.clone();
+	}
+
+	@Override
+	public long[] getBeginHistogram() {
+		return snapshot(this.beginTimeHistogram);
+	}
+
+	@Override
+	public long[] getDurationHistogram() {
+		return snapshot(this.durationHistogram);
+	}
+
+	@Override
+	public void reset() {
+		this.begunCount.reset();
+		this.failedBeginCount.reset();
+		this.committedCount.reset();
+		this.rolledBackCount.reset();
+		this.unknownOutcomeCount.reset();
+		this.suspensionCount.reset();
+		this.resumptionCount.reset();
+		this.longTransactionCount.reset();
+		this.beginTimeTotal.reset();
+		this.beginTimeMax.reset();
+		this.durationTotal.reset();
+		this.durationMax.reset();
+		for (int i = 0; i < this.beginTimeHistogram.length; i++) {
+			this.beginTimeHistogram[i].reset();
+			this.durationHistogram[i].reset();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "TransactionMetrics: begun=" + getBegunTransactionCount() +
+				", committed=" + getCommittedTransactionCount() +
+				", rolledBack=" + getRolledBackTransactionCount() +
+				", active=" + getActiveTransactionCount() +
+				", averageBeginMillis=" + getAverageBeginMillis() +
+				", averageDurationMillis=" + getAverageDurationMillis();
+	}
+
+
+	private static LongAdder[] createHistogram() {
+		LongAdder[] histogram = new LongAdder[HISTOGRAM_BOUNDS_NANOS.length + 1];
+		for (int i = 0; i < histogram.length; i++) {
+			histogram[i] = new LongAdder();
+		}
+		return histogram;
+	}
+
+	private static int bucket(long nanos) {
+		int i = 0;
+		while (i < HISTOGRAM_BOUNDS_NANOS.length && nanos > HISTOGRAM_BOUNDS_NANOS[i]) {
+			i++;
+		}
+		return i;
+	}
+
+	private static long[] snapshot(LongAdder[] histogram) {
+		long[] counts = new long[histogram.length];
+		for (int i = 0; i < histogram.length; i++) {
+			counts[i] = histogram[i].sum();
+		}
+		return counts;
+	}
+
+	private static double average(LongAdder totalNanos, long count) {
+		return (count > 0 ? toMillis(totalNanos.sum()) / count : 0);
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+
+
+	/**
+	 * Name and start time of an active transaction.
+	 */
+	private static class ActiveTransaction {
+
+		@Nullable
+		final String name;
+
+		final long startTime;
+
+		ActiveTransaction(@Nullable String name, long startTime) {
+			this.name = name;
+			this.startTime = startTime;
+		}
+	}
+
+}
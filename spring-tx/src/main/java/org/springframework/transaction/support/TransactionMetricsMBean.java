@@ -0,0 +1,131 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.support;
+
+/**
+ * Standard MBean interface for {@link TransactionMetrics}, allowing
+ * {@link org.springframework.jmx.export.MBeanExporter} to export
+ * the metrics of a transaction manager as-is.
+ *
+ * @since 5.3
+ * @see TransactionMetrics
+ */
+public interface TransactionMetricsMBean {
+
+	/**
+	 * Return the number of transactions which have been begun.
+	 */
+	long getBegunTransactionCount();
+
+	/**
+	 * Return the number of transactions which failed to begin.
+	 */
+	long getFailedBeginCount();
+
+	/**
+	 * Return the number of transactions which have been committed.
+	 */
+	long getCommittedTransactionCount();
+
+	/**
+	 * Return the number of transactions which have been rolled back.
+	 */
+	long getRolledBackTransactionCount();
+
+	/**
+	 * Return the number of transactions which completed with an unknown outcome.
+	 */
+	long getUnknownOutcomeCount();
+
+	/**
+	 * Return the number of transaction suspensions.
+	 */
+	long getSuspensionCount();
+
+	/**
+	 * Return the number of transaction resumptions.
+	 */
+	long getResumptionCount();
+
+	/**
+	 * Return the number of transactions currently active.
+	 */
+	int getActiveTransactionCount();
+
+	/**
+	 * Return the age of the oldest active transaction, in milliseconds,
+	 * or 0 if no transaction is active.
+	 */
+	double getOldestActiveTransactionAgeMillis();
+
+	/**
+	 * Return the names and ages of the active transactions which have been
+	 * running for longer than the long transaction threshold.
+	 */
+	String[] getLongRunningTransactions();
+
+	/**
+	 * Return the number of completed transactions which have been running
+	 * for longer than the long transaction threshold.
+	 */
+	long getLongTransactionCount();
+
+	/**
+	 * Return the average time spent beginning a transaction, in milliseconds.
+	 */
+	double getAverageBeginMillis();
+
+	/**
+	 * Return the maximum time spent beginning a transaction, in milliseconds.
+	 */
+	double getMaxBeginMillis();
+
+	/**
+	 * Return the average duration of a completed transaction, in milliseconds.
+	 */
+	double getAverageDurationMillis();
+
+	/**
+	 * Return the maximum duration of a completed transaction, in milliseconds.
+	 */
+	double getMaxDurationMillis();
+
+	/**
+	 * Return the upper bounds of the histogram buckets, in milliseconds.
+	 * The last bucket of each histogram is unbounded.
+	 */
+	long[] getHistogramBoundsMillis();
+
+	/**
+	 * Return the number of transactions per begin time bucket.
+	 * @see #getHistogramBoundsMillis()
+	 */
+	long[] getBeginHistogram();
+
+	/**
+	 * Return the number of transactions per duration bucket.
+	 * @see #getHistogramBoundsMillis()
+	 */
+	long[] getDurationHistogram();
+
+	/**
+	 * Reset all counters and histograms.
+	 * Active transactions remain tracked.
+	 */
+	void reset();
+
+}
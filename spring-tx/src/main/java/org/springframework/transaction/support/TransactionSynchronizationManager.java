@@ -19,6 +19,7 @@ package org.springframework.transaction.support;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.core.NamedThreadLocal;
+import org.springframework.core.SpringProperties;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -57,6 +58,12 @@ import java.util.*;
  * within a JTA transaction, e.g. a JDBC Connection or a Hibernate Session for
  * any given DataSource or SessionFactory, respectively.
  *
+ * <p>As of 5.3, all of this state is kept in a single compact context object
+ * per thread, holding up to two resources in inline slots, so that the common
+ * case of a single DataSource does not need any map. The context gets removed
+ * from the thread once empty, unless {@link #RETAIN_CONTEXT_PROPERTY_NAME} is
+ * set, in which case it is reused by subsequent transactions on the same thread.
+ *
  * @author Juergen Hoeller
  * @since 02.06.2003
  * @see #isSynchronizationActive
@@ -69,25 +76,24 @@ import java.util.*;
  */
 public abstract class TransactionSynchronizationManager {
 
-	private static final Log logger = LogFactory.getLog(TransactionSynchronizationManager.class);
-
-	private static final ThreadLocal<Map<Object, Object>> resources =
-			new NamedThreadLocal<>("Transactional resources");
-
-	private static final ThreadLocal<Set<TransactionSynchronization>> synchronizations =
-			new NamedThreadLocal<>("Transaction synchronizations");
-
-	private static final ThreadLocal<String> currentTransactionName =
-			new NamedThreadLocal<>("Current transaction name");
+	/**
+	 * System property that instructs Spring to keep the transaction context
+	 * bound to a thread once it is empty, for reuse by subsequent transactions
+	 * on the same thread: {@code "spring.transaction.context.retain"}.
+	 * <p>This saves an allocation per transaction on pooled threads, but leaves
+	 * an entry in each thread's {@code ThreadLocal} map that references this
+	 * class loader, so it is only recommended for standalone applications
+	 * rather than for redeployable modules in a shared server.
+	 * @since 5.3
+	 */
+	public static final String RETAIN_CONTEXT_PROPERTY_NAME = "spring.transaction.context.retain";
 
-	private static final ThreadLocal<Boolean> currentTransactionReadOnly =
-			new NamedThreadLocal<>("Current transaction read-only status");
+	private static final Log logger = LogFactory.getLog(TransactionSynchronizationManager.class);
 
-	private static final ThreadLocal<Integer> currentTransactionIsolationLevel =
-			new NamedThreadLocal<>("Current transaction isolation level");
+	private static final boolean retainContext = SpringProperties.getFlag(RETAIN_CONTEXT_PROPERTY_NAME);
 
-	private static final ThreadLocal<Boolean> actualTransactionActive =
-			new NamedThreadLocal<>("Actual transaction active");
+	private static final ThreadLocal<TransactionContext> transactionContext =
+			new NamedThreadLocal<>("Transaction context");
 
 
 	//-------------------------------------------------------------------------
@@ -104,8 +110,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #hasResource
 	 */
 	public static Map<Object, Object> getResourceMap() {
-		Map<Object, Object> map = resources.get();
-		return (map != null ? Collections.unmodifiableMap(map) : Collections.emptyMap());
+		TransactionContext context = transactionContext.get();
+		return (context != null ? context.getResourceMap() : Collections.emptyMap());
 	}
 
 	/**
@@ -143,18 +149,16 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	private static Object doGetResource(Object actualKey) {
-		Map<Object, Object> map = resources.get();
-		if (map == null) {
+		TransactionContext context = transactionContext.get();
+		if (context == null) {
 			return null;
 		}
-		Object value = map.get(actualKey);
+		Object value = context.getResource(actualKey);
 		// Transparently remove ResourceHolder that was marked as void...
 		if (value instanceof ResourceHolder && ((ResourceHolder) value).isVoid()) {
-			map.remove(actualKey);
+			context.removeResource(actualKey);
 			// Remove entire ThreadLocal if empty...
-			if (map.isEmpty()) {
-				resources.remove();
-			}
+			releaseContextIfEmpty(context);
 			value = null;
 		}
 		return value;
@@ -170,13 +174,7 @@ public abstract class TransactionSynchronizationManager {
 	public static void bindResource(Object key, Object value) throws IllegalStateException {
 		Object actualKey = TransactionSynchronizationUtils.unwrapResourceIfNecessary(key);
 		Assert.notNull(value, "Value must not be null");
-		Map<Object, Object> map = resources.get();
-		// set ThreadLocal Map if none found
-		if (map == null) {
-			map = new HashMap<>();
-			resources.set(map);
-		}
-		Object oldValue = map.put(actualKey, value);
+		Object oldValue = obtainContext().putResource(actualKey, value);
 		// Transparently suppress a ResourceHolder that was marked as void...
 		if (oldValue instanceof ResourceHolder && ((ResourceHolder) oldValue).isVoid()) {
 			oldValue = null;
@@ -224,15 +222,13 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	private static Object doUnbindResource(Object actualKey) {
-		Map<Object, Object> map = resources.get();
-		if (map == null) {
+		TransactionContext context = transactionContext.get();
+		if (context == null) {
 			return null;
 		}
-		Object value = map.remove(actualKey);
+		Object value = context.removeResource(actualKey);
 		// Remove entire ThreadLocal if empty...
-		if (map.isEmpty()) {
-			resources.remove();
-		}
+		releaseContextIfEmpty(context);
 		// Transparently suppress a ResourceHolder that was marked as void...
 		if (value instanceof ResourceHolder && ((ResourceHolder) value).isVoid()) {
 			value = null;
@@ -255,7 +251,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #registerSynchronization
 	 */
 	public static boolean isSynchronizationActive() {
-		return (synchronizations.get() != null);
+		TransactionContext context = transactionContext.get();
+		return (context != null && context.synchronizationActive);
 	}
 
 	/**
@@ -268,7 +265,7 @@ public abstract class TransactionSynchronizationManager {
 			throw new IllegalStateException("Cannot activate transaction synchronization - already active");
 		}
 		logger.trace("Initializing transaction synchronization");
-		synchronizations.set(new LinkedHashSet<>());
+		obtainContext().synchronizationActive = true;
 	}
 
 	/**
@@ -285,11 +282,14 @@ public abstract class TransactionSynchronizationManager {
 			throws IllegalStateException {
 
 		Assert.notNull(synchronization, "TransactionSynchronization must not be null");
-		Set<TransactionSynchronization> synchs = synchronizations.get();
-		if (synchs == null) {
+		TransactionContext context = transactionContext.get();
+		if (context == null || !context.synchronizationActive) {
 			throw new IllegalStateException("Transaction synchronization is not active");
 		}
-		synchs.add(synchronization);
+		// Same semantics as an insertion-ordered Set, for a usually very short list
+		if (!context.synchronizations.contains(synchronization)) {
+			context.synchronizations.add(synchronization);
+		}
 	}
 
 	/**
@@ -300,16 +300,20 @@ public abstract class TransactionSynchronizationManager {
 	 * @see TransactionSynchronization
 	 */
 	public static List<TransactionSynchronization> getSynchronizations() throws IllegalStateException {
-		Set<TransactionSynchronization> synchs = synchronizations.get();
-		if (synchs == null) {
+		TransactionContext context = transactionContext.get();
+		if (context == null || !context.synchronizationActive) {
 			throw new IllegalStateException("Transaction synchronization is not active");
 		}
+		List<TransactionSynchronization> synchs = context.synchronizations;
 		// Return unmodifiable snapshot, to avoid ConcurrentModificationExceptions
 		// while iterating and invoking synchronization callbacks that in turn
 		// might register further synchronizations.
 		if (synchs.isEmpty()) {
 			return Collections.emptyList();
 		}
+		else if (synchs.size() == 1) {
+			return Collections.singletonList(synchs.get(0));
+		}
 		else {
 			// Sort lazily here, not in registerSynchronization.
 			List<TransactionSynchronization> sortedSynchs = new ArrayList<>(synchs);
@@ -328,7 +332,9 @@ public abstract class TransactionSynchronizationManager {
 			throw new IllegalStateException("Cannot deactivate transaction synchronization - not active");
 		}
 		logger.trace("Clearing transaction synchronization");
-		synchronizations.remove();
+		TransactionContext context = obtainContext();
+		context.clearSynchronization();
+		releaseContextIfEmpty(context);
 	}
 
 
@@ -343,7 +349,11 @@ public abstract class TransactionSynchronizationManager {
 	 * @see org.springframework.transaction.TransactionDefinition#getName()
 	 */
 	public static void setCurrentTransactionName(@Nullable String name) {
-		currentTransactionName.set(name);
+		TransactionContext context = (name != null ? obtainContext() : transactionContext.get());
+		if (context != null) {
+			context.transactionName = name;
+			releaseContextIfEmpty(context);
+		}
 	}
 
 	/**
@@ -354,7 +364,8 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	public static String getCurrentTransactionName() {
-		return currentTransactionName.get();
+		TransactionContext context = transactionContext.get();
+		return (context != null ? context.transactionName : null);
 	}
 
 	/**
@@ -365,7 +376,11 @@ public abstract class TransactionSynchronizationManager {
 	 * @see org.springframework.transaction.TransactionDefinition#isReadOnly()
 	 */
 	public static void setCurrentTransactionReadOnly(boolean readOnly) {
-		currentTransactionReadOnly.set(readOnly ? Boolean.TRUE : null);
+		TransactionContext context = (readOnly ? obtainContext() : transactionContext.get());
+		if (context != null) {
+			context.readOnly = readOnly;
+			releaseContextIfEmpty(context);
+		}
 	}
 
 	/**
@@ -381,7 +396,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see TransactionSynchronization#beforeCommit(boolean)
 	 */
 	public static boolean isCurrentTransactionReadOnly() {
-		return (currentTransactionReadOnly.get() != null);
+		TransactionContext context = transactionContext.get();
+		return (context != null && context.readOnly);
 	}
 
 	/**
@@ -401,7 +417,11 @@ public abstract class TransactionSynchronizationManager {
 	 * @see org.springframework.transaction.TransactionDefinition#getIsolationLevel()
 	 */
 	public static void setCurrentTransactionIsolationLevel(@Nullable Integer isolationLevel) {
-		currentTransactionIsolationLevel.set(isolationLevel);
+		TransactionContext context = (isolationLevel != null ? obtainContext() : transactionContext.get());
+		if (context != null) {
+			context.isolationLevel = isolationLevel;
+			releaseContextIfEmpty(context);
+		}
 	}
 
 	/**
@@ -423,7 +443,8 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	public static Integer getCurrentTransactionIsolationLevel() {
-		return currentTransactionIsolationLevel.get();
+		TransactionContext context = transactionContext.get();
+		return (context != null ? context.isolationLevel : null);
 	}
 
 	/**
@@ -433,7 +454,11 @@ public abstract class TransactionSynchronizationManager {
 	 * with an actual transaction; {@code false} to reset that marker
 	 */
 	public static void setActualTransactionActive(boolean active) {
-		actualTransactionActive.set(active ? Boolean.TRUE : null);
+		TransactionContext context = (active ? obtainContext() : transactionContext.get());
+		if (context != null) {
+			context.actualTransactionActive = active;
+			releaseContextIfEmpty(context);
+		}
 	}
 
 	/**
@@ -448,7 +473,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #isSynchronizationActive()
 	 */
 	public static boolean isActualTransactionActive() {
-		return (actualTransactionActive.get() != null);
+		TransactionContext context = transactionContext.get();
+		return (context != null && context.actualTransactionActive);
 	}
 
 
@@ -462,11 +488,171 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #setActualTransactionActive
 	 */
 	public static void clear() {
-		synchronizations.remove();
-		currentTransactionName.remove();
-		currentTransactionReadOnly.remove();
-		currentTransactionIsolationLevel.remove();
-		actualTransactionActive.remove();
+		TransactionContext context = transactionContext.get();
+		if (context != null) {
+			context.clearSynchronization();
+			context.transactionName = null;
+			context.readOnly = false;
+			context.isolationLevel = null;
+			context.actualTransactionActive = false;
+			releaseContextIfEmpty(context);
+		}
+	}
+
+
+	private static TransactionContext obtainContext() {
+		TransactionContext context = transactionContext.get();
+		if (context == null) {
+			context = new TransactionContext();
+			transactionContext.set(context);
+		}
+		return context;
+	}
+
+	private static void releaseContextIfEmpty(TransactionContext context) {
+		if (!retainContext && context.isEmpty()) {
+			transactionContext.remove();
+		}
+	}
+
+
+	/**
+	 * Transaction state of a thread: bound resources, registered synchronizations
+	 * and the characteristics of the current transaction.
+	 */
+	private static final class TransactionContext {
+
+		// Inline slots for the first two resources, then a map for any further ones
+
+		@Nullable
+		private Object key1;
+
+		@Nullable
+		private Object value1;
+
+		@Nullable
+		private Object key2;
+
+		@Nullable
+		private Object value2;
+
+		@Nullable
+		private Map<Object, Object> moreResources;
+
+		boolean synchronizationActive;
+
+		final List<TransactionSynchronization> synchronizations = new ArrayList<>(4);
+
+		@Nullable
+		String transactionName;
+
+		boolean readOnly;
+
+		@Nullable
+		Integer isolationLevel;
+
+		boolean actualTransactionActive;
+
+		@Nullable
+		Object getResource(Object key) {
+			if (matches(this.key1, key)) {
+				return this.value1;
+			}
+			if (matches(this.key2, key)) {
+				return this.value2;
+			}
+			return (this.moreResources != null ? this.moreResources.get(key) : null);
+		}
+
+		@Nullable
+		Object putResource(Object key, Object value) {
+			Object oldValue;
+			if (matches(this.key1, key)) {
+				oldValue = this.value1;
+				this.value1 = value;
+			}
+			else if (matches(this.key2, key)) {
+				oldValue = this.value2;
+				this.value2 = value;
+			}
+			else if (this.moreResources != null && this.moreResources.containsKey(key)) {
+				oldValue = this.moreResources.put(key, value);
+			}
+			else if (this.key1 == null) {
+				oldValue = null;
+				this.key1 = key;
+				this.value1 = value;
+			}
+			else if (this.key2 == null) {
+				oldValue = null;
+				this.key2 = key;
+				this.value2 = value;
+			}
+			else {
+				if (this.moreResources == null) {
+					this.moreResources = new HashMap<>();
+				}
+				oldValue = this.moreResources.put(key, value);
+			}
+			return oldValue;
+		}
+
+		@Nullable
+		Object removeResource(Object key) {
+			Object value;
+			if (matches(this.key1, key)) {
+				value = this.value1;
+				this.key1 = null;
+				this.value1 = null;
+			}
+			else if (matches(this.key2, key)) {
+				value = this.value2;
+				this.key2 = null;
+				this.value2 = null;
+			}
+			else if (this.moreResources != null) {
+				value = this.moreResources.remove(key);
+				if (this.moreResources.isEmpty()) {
+					this.moreResources = null;
+				}
+			}
+			else {
+				value = null;
+			}
+			return value;
+		}
+
+		Map<Object, Object> getResourceMap() {
+			if (this.key1 == null && this.key2 == null && this.moreResources == null) {
+				return Collections.emptyMap();
+			}
+			Map<Object, Object> map = new LinkedHashMap<>();
+			if (this.key1 != null) {
+				map.put(this.key1, this.value1);
+			}
+			if (this.key2 != null) {
+				map.put(this.key2, this.value2);
+			}
+			if (this.moreResources != null) {
+				map.putAll(this.moreResources);
+			}
+			return Collections.unmodifiableMap(map);
+		}
+
+		void clearSynchronization() {
+			this.synchronizationActive = false;
+			this.synchronizations.clear();
+		}
+
+		boolean isEmpty() {
+			return (this.key1 == null && this.key2 == null && this.moreResources == null &&
+					!this.synchronizationActive && this.transactionName == null && !this.readOnly &&
+					this.isolationLevel == null && !this.actualTransactionActive);
+		}
+
+		private static boolean matches(@Nullable Object slotKey, Object key) {
+			return (slotKey != null && (slotKey == key || slotKey.equals(key)));
+		}
 	}
 
 }